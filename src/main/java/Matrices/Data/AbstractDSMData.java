@@ -3,14 +3,22 @@ package Matrices.Data;
 import Matrices.Data.Entities.DSMConnection;
 import Matrices.Data.Entities.DSMInterfaceType;
 import Matrices.Data.Entities.DSMItem;
+import Matrices.Data.Entities.Grouping;
+import Matrices.Data.Entities.InterfaceTypeRegistry;
 import Matrices.Data.Entities.RenderMode;
+import Matrices.Data.Entities.UidAllocator;
 import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.SimpleBooleanProperty;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.beans.property.StringProperty;
+import javafx.scene.paint.Color;
 import javafx.util.Pair;
 
 import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 
 /**
@@ -25,11 +33,17 @@ public abstract class AbstractDSMData {
         private final Runnable doFunction;
         private final Runnable undoFunction;
         private boolean checkpoint;
+        private final long byteEstimate;  // rough size of the state captured by the functions
 
         public MatrixChange(Runnable doFunction, Runnable undoFunction, boolean checkpoint) {
+            this(doFunction, undoFunction, checkpoint, CHANGE_BYTES);
+        }
+
+        public MatrixChange(Runnable doFunction, Runnable undoFunction, boolean checkpoint, long byteEstimate) {
             this.doFunction = doFunction;
             this.undoFunction = undoFunction;
             this.checkpoint = checkpoint;
+            this.byteEstimate = byteEstimate;
         }
 
         public void runFunction() {
@@ -48,12 +62,29 @@ public abstract class AbstractDSMData {
             return checkpoint;
         }
 
+        public long getByteEstimate() {
+            return byteEstimate;
+        }
+
     }
 
     protected Vector<DSMItem> rows;
     protected Vector<DSMItem> cols;
-    protected Vector<DSMConnection> connections;
+    protected ConnectionStore connections;
     protected HashMap<String, Vector<DSMInterfaceType>> interfaceTypes;
+    protected InterfaceTypeRegistry interfaceRegistry;  // indices for the interface masks of the connections
+
+    // indices of the items in rows and cols. Only modify rows and cols through insertItem, removeItem, or reindexItems
+    private final HashMap<Integer, DSMItem> rowIndex = new HashMap<>();  // uid -> row item
+    private final HashMap<Integer, DSMItem> colIndex = new HashMap<>();  // uid -> column item
+    private final HashMap<Integer, DSMItem> aliasIndex = new HashMap<>();  // alias uid -> item
+    private final UidAllocator uidAllocator = new UidAllocator(this::isUidInUse);
+
+    // rows and cols are kept in the order of getItemOrder as items are added and moved. When the order can no longer
+    // be kept up to date cheaply (ex. items were loaded in bulk) it is marked stale and re-sorted the next time it is needed
+    private static final Comparator<DSMItem> SORT_INDEX_ORDER = Comparator.comparing(DSMItem::getSortIndex);
+    private boolean rowsOrdered = true;
+    private boolean colsOrdered = true;
 
     protected StringProperty title = new SimpleStringProperty("");
     protected StringProperty projectName = new SimpleStringProperty("");
@@ -61,9 +92,24 @@ public abstract class AbstractDSMData {
     protected StringProperty versionNumber = new SimpleStringProperty("");
 
     private final BooleanProperty wasModified = new SimpleBooleanProperty(false);
-    protected Stack<MatrixChange> undoStack;
+    private final UndoHistory undoHistory;
     protected Stack<MatrixChange> redoStack;
-    protected static final int MAX_UNDO_HISTORY = Integer.MAX_VALUE;  // TODO: undo history should be based on checkpoints and not this big
+    private ArrayList<MatrixChange> batch = null;  // changes made by the open batch, null when no batch is open
+    private final ArrayDeque<Integer> batchStarts = new ArrayDeque<>();  // location in the batch of each nested beginBatch
+
+    // changes to the data of the matrix are made while holding the write lock so that other threads can read it
+    // consistently with the read lock. Only the thread that owns the matrix (the javafx thread) makes changes
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile long version = 0;  // incremented every time the data of the matrix changes
+    private volatile MatrixSnapshot snapshot = null;  // cached snapshot of the newest version it was requested at
+    private final CopyOnWriteArrayList<MatrixChangeListener> changeListeners = new CopyOnWriteArrayList<>();  // listeners can remove themselves while being notified
+
+    // undo history limits and the estimates used to measure it
+    public static final int DEFAULT_MAX_UNDO_CHECKPOINTS = 500;
+    public static final long DEFAULT_MAX_UNDO_BYTES = 256L * 1024 * 1024;
+    protected static final long CHANGE_BYTES = 128;  // a change, its two functions, and a few captured values
+    protected static final long CAPTURED_REFERENCE_BYTES = 8;  // a reference to an object that is still in the matrix
+    protected static final long CAPTURED_CONNECTION_BYTES = 96;  // a connection that is only held by the change
 
 
 //region Constructors
@@ -72,13 +118,14 @@ public abstract class AbstractDSMData {
      * There is one grouping, which is the default: "(None)"
      */
     public AbstractDSMData() {
-        undoStack = new Stack<>();
+        undoHistory = new UndoHistory(DEFAULT_MAX_UNDO_CHECKPOINTS, DEFAULT_MAX_UNDO_BYTES);
         redoStack = new Stack<>();
 
         rows = new Vector<>();
         cols = new Vector<>();
-        connections = new Vector<>();
+        connections = new ConnectionStore();
         interfaceTypes = new HashMap<>();
+        interfaceRegistry = new InterfaceTypeRegistry();
 
         setWasModified();
 
@@ -87,22 +134,23 @@ public abstract class AbstractDSMData {
 
 
     /**
-     * Copy constructor for AbstractDSMData class. Performs a deep copy
+     * Copy constructor for AbstractDSMData class. Performs a deep copy of everything except the connections, which
+     * are shared with the original until either matrix changes them
      *
      * @param copy AbstractDSMData object to copy
      */
     public AbstractDSMData(AbstractDSMData copy) {
-        undoStack = new Stack<>();
+        undoHistory = new UndoHistory(DEFAULT_MAX_UNDO_CHECKPOINTS, DEFAULT_MAX_UNDO_BYTES);
         redoStack = new Stack<>();
 
         rows = new Vector<>();
         for(DSMItem row : copy.getRows()) {
-            rows.add(new DSMItem(row));
+            insertItem(new DSMItem(row), true);
         }
 
         cols = new Vector<>();
         for(DSMItem col : copy.getCols()) {
-            cols.add(new DSMItem(col));
+            insertItem(new DSMItem(col), false);
         }
 
         interfaceTypes = new HashMap<>();
@@ -114,10 +162,8 @@ public abstract class AbstractDSMData {
             interfaceTypes.put(interfaces.getKey(), newInterfaceTypes);
         }
 
-        connections = new Vector<>();
-        for(DSMConnection conn : copy.getConnections()) {
-            connections.add(new DSMConnection(conn));
-        }
+        connections = copy.connections.copy();  // connections are never modified in place so they can be shared
+        interfaceRegistry = copy.interfaceRegistry;  // the shared connections are indexed in this registry
 
         title = copy.getTitleProperty();
         projectName = copy.getProjectNameProperty();
@@ -141,19 +187,171 @@ public abstract class AbstractDSMData {
 
 //region Undo Functionality Methods
     /**
-     * Adds a change to the undo stack so that it can be handled
+     * Adds a change to the undo stack so that it can be handled. The oldest checkpoints are dropped when the
+     * history grows past its limits
      *
      * @param change the change object to handle
      */
     protected final void addChangeToStack(MatrixChange change) {
-        change.runFunction();
-        undoStack.push(change);
+        lock.writeLock().lock();
+        try {
+            change.runFunction();
+            version += 1;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if(batch != null) {  // the change is recorded when the batch is committed
+            batch.add(change);
+            return;
+        }
+        undoHistory.push(change);
 
-        if(undoStack.size() > MAX_UNDO_HISTORY) {  // remove bottom item from stack
-            undoStack.remove(0);
+        setWasModified();
+    }
+
+
+    /**
+     * Starts a batch of changes. Changes made while a batch is open are applied immediately but are recorded as a
+     * single change when the batch is committed, so they are undone and redone together and the matrix is only
+     * marked as modified once. Batches can be nested, in which case only the outermost commit records the change
+     */
+    public final void beginBatch() {
+        if(batch == null) {
+            batch = new ArrayList<>();
         }
+        batchStarts.push(batch.size());
+    }
+
+
+    /**
+     * Ends the innermost open batch. If it is the outermost batch, all of its changes are put on the stack as
+     * one change. Does not set a checkpoint
+     */
+    public final void commit() {
+        if(batch == null) {
+            throw new IllegalStateException("there is no open batch to commit");
+        }
+        batchStarts.pop();
+        if(!batchStarts.isEmpty()) {  // nested batch, the outer batch records the changes
+            return;
+        }
+
+        ArrayList<MatrixChange> changes = batch;
+        batch = null;
+        if(changes.isEmpty()) {
+            return;
+        }
+
+        long byteEstimate = 0;
+        for(MatrixChange change : changes) {
+            byteEstimate += change.getByteEstimate();
+        }
+        undoHistory.push(new MatrixChange(
+                () -> {  // do function
+                    for(MatrixChange change : changes) {
+                        change.runFunction();
+                    }
+                },
+                () -> {  // undo function
+                    for(int i = changes.size() - 1; i >= 0; i--) {
+                        changes.get(i).runUndoFunction();
+                    }
+                },
+                false,
+                byteEstimate
+        ));  // the changes have already been applied so the compound change is not run here
 
         setWasModified();
+        fireChange(MatrixChangeListener::batchCommitted);
+    }
+
+
+    /**
+     * Ends the innermost open batch by undoing all the changes made since it was started. Nothing is put on the stack
+     */
+    public final void rollback() {
+        if(batch == null) {
+            throw new IllegalStateException("there is no open batch to roll back");
+        }
+        int start = batchStarts.pop();
+        lock.writeLock().lock();
+        try {
+            for(int i = batch.size() - 1; i >= start; i--) {
+                batch.remove(i).runUndoFunction();
+                version += 1;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if(batchStarts.isEmpty()) {
+            batch = null;
+        }
+    }
+
+
+    /**
+     * Runs a function as one batch of changes. If the function throws, the changes it made are rolled back and the
+     * exception is rethrown so that a failure never leaves the batch open
+     *
+     * @param changes  the function that makes the changes
+     */
+    public final void runBatch(Runnable changes) {
+        beginBatch();
+        try {
+            changes.run();
+        } catch(RuntimeException | Error e) {
+            rollback();
+            throw e;
+        }
+        commit();
+    }
+
+
+    /**
+     * @return  if a batch of changes is currently open
+     */
+    public final boolean isBatchOpen() {
+        return batch != null;
+    }
+
+
+    /**
+     * Estimates the size of a change that captures some items and connections
+     *
+     * @param numReferences   the number of captured references to objects that are still held by the matrix
+     * @param numConnections  the number of captured connections that are no longer held by the matrix
+     * @return                the estimated size of the change in bytes
+     */
+    protected static long estimateChangeBytes(long numReferences, long numConnections) {
+        return CHANGE_BYTES + numReferences * CAPTURED_REFERENCE_BYTES + numConnections * CAPTURED_CONNECTION_BYTES;
+    }
+
+
+    /**
+     * Sets the bounds of the undo history. When the history holds more checkpoints or more estimated bytes than
+     * allowed, the oldest checkpoints are dropped. The most recent checkpoint is always kept
+     *
+     * @param maxCheckpoints  the maximum number of checkpoints that can be undone, must be at least 1
+     * @param maxBytes        the maximum estimated number of bytes held by the undo history, must be positive
+     */
+    public final void setUndoHistoryLimits(int maxCheckpoints, long maxBytes) {
+        undoHistory.setLimits(maxCheckpoints, maxBytes);
+    }
+
+
+    /**
+     * @return  the number of checkpoints that can currently be undone
+     */
+    public final int getUndoHistoryCheckpointCount() {
+        return undoHistory.getCheckpointCount();
+    }
+
+
+    /**
+     * @return  the estimated number of bytes held by the undo history
+     */
+    public final long getUndoHistoryByteEstimate() {
+        return undoHistory.getByteEstimate();
     }
 
 
@@ -162,22 +360,31 @@ public abstract class AbstractDSMData {
      * to the redo stack
      */
     public final void undoToCheckpoint() {
-        int iter = 0;
-        while(true) {  // undo state until the last checkpoint
-            if(undoStack.size() > 0) {  // make sure stack is not empty
-                MatrixChange change = undoStack.peek();
-                if(change.isCheckpoint() && iter > 0) {  // stop before the checkpoint unless it is the first item
-                    break;
-                }
-                undoStack.pop();  // add change to the redo stack
+        if(batch != null) {
+            throw new IllegalStateException("cannot undo while a batch is open");
+        }
+        lock.writeLock().lock();  // readers see the matrix before or after the whole checkpoint is undone
+        try {
+            int iter = 0;
+            while(true) {  // undo state until the last checkpoint
+                if(undoHistory.size() > 0) {  // make sure stack is not empty
+                    MatrixChange change = undoHistory.peek();
+                    if(change.isCheckpoint() && iter > 0) {  // stop before the checkpoint unless it is the first item
+                        break;
+                    }
+                    undoHistory.pop();  // add change to the redo stack
 
-                change.runUndoFunction();
-                redoStack.push(change);
+                    change.runUndoFunction();
+                    version += 1;
+                    redoStack.push(change);
 
-                iter += 1;
-            } else {
-                break;
+                    iter += 1;
+                } else {
+                    break;
+                }
             }
+        } finally {
+            lock.writeLock().unlock();
         }
 
         setWasModified();
@@ -188,20 +395,29 @@ public abstract class AbstractDSMData {
      * Redoes changes that are on the redo stack to the next checkpoint (checkpoint is included).
      */
     public final void redoToCheckpoint() {
-        while(true) {
-            if(redoStack.size() > 0) {  // make sure stack is not empty
-                MatrixChange change = redoStack.peek();
-                redoStack.pop();  // add change to the redo stack
-
-                change.runFunction();
-                undoStack.push(change);
-
-                if(change.isCheckpoint()) {  // stop after the checkpoint
+        if(batch != null) {
+            throw new IllegalStateException("cannot redo while a batch is open");
+        }
+        lock.writeLock().lock();  // readers see the matrix before or after the whole checkpoint is redone
+        try {
+            while(true) {
+                if(redoStack.size() > 0) {  // make sure stack is not empty
+                    MatrixChange change = redoStack.peek();
+                    redoStack.pop();  // add change to the redo stack
+
+                    change.runFunction();
+                    version += 1;
+                    undoHistory.push(change);
+
+                    if(change.isCheckpoint()) {  // stop after the checkpoint
+                        break;
+                    }
+                } else {
                     break;
                 }
-            } else {
-                break;
             }
+        } finally {
+            lock.writeLock().unlock();
         }
 
         setWasModified();
@@ -213,9 +429,7 @@ public abstract class AbstractDSMData {
      * could go horribly wrong
      */
     public final void setCurrentStateAsCheckpoint() {
-        if (!undoStack.isEmpty()) {
-            undoStack.peek().setCheckpoint(true);
-        }
+        undoHistory.markCheckpoint();
         redoStack.clear();
     }
 
@@ -226,7 +440,7 @@ public abstract class AbstractDSMData {
      * @return if changes are on the undo stack
      */
     public final boolean canUndo() {
-        return undoStack.size() > 0;
+        return !undoHistory.isEmpty();
     }
 
 
@@ -244,7 +458,7 @@ public abstract class AbstractDSMData {
      * clears both undo and redo stacks (useful for instantiation of the class)
      */
     public final void clearStacks() {
-        undoStack.clear();
+        undoHistory.clear();
         redoStack.clear();
     }
 
@@ -286,6 +500,28 @@ public abstract class AbstractDSMData {
 
 
 //region Protected Helper functions (makes changes but do not add them to the change stack)
+    /**
+     * Adds an item to the matrix as either a row or a column and adds it to the item indices. This change is not
+     * added to the stack
+     *
+     * @param item   the item to add
+     * @param isRow  if the item should be added as a row or a column
+     */
+    protected final void insertItem(DSMItem item, boolean isRow) {
+        if(isRow && rowsOrdered) {
+            rows.add(findInsertLocation(rows, item), item);
+        } else if(isRow) {
+            rows.add(item);
+        } else if(colsOrdered) {
+            cols.add(findInsertLocation(cols, item), item);
+        } else {
+            cols.add(item);
+        }
+        indexItem(item, isRow);
+        fireChange(l -> l.itemAdded(item, isRow));
+    }
+
+
     /**
      * Removes an item from the matrix and clears its connections. This change is not added to the stack, however the call
      * to clear connections does make a change to the stack
@@ -293,27 +529,66 @@ public abstract class AbstractDSMData {
      * @param item the item to delete
      */
     protected final void removeItem(DSMItem item) {
-        int index = -1;
-        for(int i=0; i<this.rows.size(); i++) {     // check to see if uid is in the rows
-            if(rows.elementAt(i).getUid() == item.getUid()) {
-                index = i;
-                break;
-            }
+        Vector<DSMItem> items = null;
+        if(rowIndex.remove(item.getUid()) != null) {
+            items = rows;
+        } else if(colIndex.remove(item.getUid()) != null) {  // uid was not in a row, must be in a column
+            items = cols;
         }
-        if (index != -1) {
-            rows.remove(index);
-        } else {                                   // uid was not in a row, must be in a column
-            for(int i=0; i<this.cols.size(); i++) {
-                if(cols.elementAt(i).getUid() == item.getUid()) {
-                    index = i;
+        boolean isRow = items == rows;
+
+        if(items != null) {
+            for(int i=0; i<items.size(); i++) {
+                if(items.elementAt(i).getUid() == item.getUid()) {
+                    items.remove(i);
                     break;
                 }
             }
-            if (index != -1) {
-                cols.remove(index);
-            }
         }
+        if(item.getAliasUid() != null && aliasIndex.get(item.getAliasUid()) == item) {
+            aliasIndex.remove(item.getAliasUid());
+        }
+
         clearItemConnections(item.getUid());
+        if(items != null) {
+            fireChange(l -> l.itemRemoved(item, isRow));
+        }
+    }
+
+
+    /**
+     * Rebuilds the item indices from the rows and columns. Must be called after rows or cols are replaced
+     * as a whole (ex. when transposing)
+     */
+    protected final void reindexItems() {
+        invalidateItemOrder();
+        rowIndex.clear();
+        colIndex.clear();
+        aliasIndex.clear();
+        for(DSMItem col : cols) {  // index columns first so that rows take precedence for alias lookups
+            indexItem(col, false);
+        }
+        for(DSMItem row : rows) {
+            indexItem(row, true);
+        }
+    }
+
+
+    /**
+     * Adds an item to the item indices
+     *
+     * @param item   the item to index
+     * @param isRow  if the item is a row or a column
+     */
+    private void indexItem(DSMItem item, boolean isRow) {
+        if(isRow) {
+            rowIndex.put(item.getUid(), item);
+        } else {
+            colIndex.put(item.getUid(), item);
+        }
+        if(item.getAliasUid() != null) {
+            aliasIndex.put(item.getAliasUid(), item);
+        }
     }
 
 
@@ -328,8 +603,27 @@ public abstract class AbstractDSMData {
      */
     protected void createConnection(int rowUid, int colUid, String connectionName, double weight, ArrayList<DSMInterfaceType> interfaces) {
         if(isRow(rowUid) && isCol(colUid)) {
-            DSMConnection connection = new DSMConnection(connectionName, weight, rowUid, colUid, interfaces);
-            connections.add(connection);
+            DSMConnection connection = new DSMConnection(connectionName, weight, rowUid, colUid, interfaces, interfaceRegistry);
+            putConnection(connection);
+        }
+    }
+
+
+    /**
+     * Adds a connection to the matrix, replacing any connection with the same row and column uids, but does not add
+     * the change to the stack. Connections with interfaces indexed in a different registry are copied into the
+     * registry of the matrix first
+     *
+     * @param newConnection  the connection to add
+     */
+    protected final void putConnection(DSMConnection newConnection) {
+        DSMConnection connection = newConnection.getInterfaceRegistry() == interfaceRegistry ? newConnection : new DSMConnection(newConnection, interfaceRegistry);
+        DSMConnection oldConnection = connections.get(connection.getRowUid(), connection.getColUid());
+        connections.add(connection);
+        if(oldConnection == null) {
+            fireChange(l -> l.connectionCreated(connection));
+        } else {
+            fireChange(l -> l.connectionModified(oldConnection, connection));
         }
     }
 
@@ -341,19 +635,316 @@ public abstract class AbstractDSMData {
      * @param colUid        the col item uid
      */
     protected final void removeConnection(int rowUid, int colUid) {
-        for(DSMConnection connection : connections) {     // check to see if uid is in the rows
-            if(connection.getRowUid() == rowUid && connection.getColUid() == colUid) {
-                connections.remove(connection);
-                break;
+        DSMConnection connection = connections.remove(rowUid, colUid);
+        if(connection != null) {
+            fireChange(l -> l.connectionRemoved(connection));
+        }
+    }
+
+
+    /**
+     * Sets the name of an item, but does not add the change to the stack
+     *
+     * @param item  the item to rename
+     * @param name  the new name of the item
+     */
+    protected final void renameItem(DSMItem item, String name) {
+        String oldName = item.getName().getValue();
+        item.setName(name);
+        fireChange(l -> l.itemRenamed(item, oldName));
+    }
+
+
+    /**
+     * Sets the sort index of an item, but does not add the change to the stack
+     *
+     * @param item       the item to move
+     * @param sortIndex  the new sort index of the item
+     */
+    protected final void resortItem(DSMItem item, double sortIndex) {
+        double oldSortIndex = item.getSortIndex();
+        item.setSortIndex(sortIndex);
+        if(rowIndex.get(item.getUid()) == item && rowsOrdered) {
+            moveToOrderedLocation(rows, item);
+        } else if(colIndex.get(item.getUid()) == item && colsOrdered) {
+            moveToOrderedLocation(cols, item);
+        }
+        fireChange(l -> l.itemResorted(item, oldSortIndex));
+    }
+
+
+    /**
+     * Sets the sort indices of many items at once, but does not add the change to the stack. The rows and columns are
+     * sorted once at the end instead of moving each item as it changes
+     *
+     * @param items        the items to move
+     * @param sortIndices  the new sort index of each item
+     */
+    protected final void resortItems(List<DSMItem> items, double[] sortIndices) {
+        for(int i = 0; i < items.size(); i++) {
+            DSMItem item = items.get(i);
+            double oldSortIndex = item.getSortIndex();
+            item.setSortIndex(sortIndices[i]);
+            fireChange(l -> l.itemResorted(item, oldSortIndex));
+        }
+        invalidateItemOrder();
+        ensureItemOrder();
+    }
+
+
+    /**
+     * Returns the order rows and columns are kept in. Subclasses that order items by more than their sort index
+     * override this and call invalidateItemOrder whenever anything other than a sort index that the order depends
+     * on changes
+     *
+     * @return  the comparator that defines the order of the rows and columns
+     */
+    protected Comparator<DSMItem> getItemOrder() {
+        return SORT_INDEX_ORDER;
+    }
+
+
+    /**
+     * Marks the order of the rows and columns as stale so that they are re-sorted the next time the order is needed
+     */
+    protected final void invalidateItemOrder() {
+        rowsOrdered = rows.size() <= 1;  // nothing to sort, so items added later can still be inserted in order
+        colsOrdered = cols.size() <= 1;
+    }
+
+
+    /**
+     * Sorts the rows and columns if their order is stale. Does nothing when the order is already up to date
+     */
+    protected final void ensureItemOrder() {
+        if(rowsOrdered && colsOrdered) {
+            return;
+        }
+        lock.writeLock().lock();  // sorting moves items so it cannot happen while another thread is reading
+        try {
+            if(!rowsOrdered) {
+                rows.sort(getItemOrder());
+                rowsOrdered = true;
+            }
+            if(!colsOrdered) {
+                cols.sort(getItemOrder());
+                colsOrdered = true;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+
+    /**
+     * Finds where an item should be inserted into an ordered list of items. Items that compare equal to the new item
+     * stay in front of it
+     *
+     * @param items  the ordered items
+     * @param item   the item to insert
+     * @return       the location to insert the item at
+     */
+    private int findInsertLocation(Vector<DSMItem> items, DSMItem item) {
+        Comparator<DSMItem> order = getItemOrder();
+        int low = 0;
+        int high = items.size();
+        while(low < high) {
+            int mid = (low + high) >>> 1;
+            if(order.compare(items.get(mid), item) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+
+    /**
+     * Moves an item whose position in the order may have changed to where it belongs in an ordered list of items
+     *
+     * @param items  the ordered items, which are in order except for item
+     * @param item   the item to move
+     */
+    private void moveToOrderedLocation(Vector<DSMItem> items, DSMItem item) {
+        int i = items.indexOf(item);
+        Comparator<DSMItem> order = getItemOrder();
+        boolean afterPrevious = i == 0 || order.compare(items.get(i - 1), item) <= 0;
+        boolean beforeNext = i == items.size() - 1 || order.compare(item, items.get(i + 1)) <= 0;
+        if(afterPrevious && beforeNext) {  // still in order
+            return;
+        }
+        items.remove(i);
+        items.add(findInsertLocation(items, item), item);
+    }
+
+
+    /**
+     * Sets the group of an item, but does not add the change to the stack
+     *
+     * @param item   the item to change the group of
+     * @param group  the new group of the item
+     */
+    protected final void regroupItem(DSMItem item, Grouping group) {
+        Grouping oldGroup = item.getGroup1();
+        item.setGroup1(group);
+        fireChange(l -> l.itemGroupChanged(item, oldGroup));
+    }
+//endregion
+
+
+//region Bulk loading (adds data in one pass without adding anything to the change stack)
+    /**
+     * Adds many items to the matrix at once. Used when building a matrix from a file where the items are already
+     * known to be valid. No changes are added to the stack and the items are not checked for duplicate uids, so
+     * this should only be used on a matrix that has nothing to undo
+     *
+     * @param items  the items to add in order
+     * @param isRow  if the items should be added as rows or columns
+     */
+    public final void loadItems(Collection<DSMItem> items, boolean isRow) {
+        lock.writeLock().lock();
+        try {
+            if(isRow) {
+                rows.ensureCapacity(rows.size() + items.size());
+                rowsOrdered = false;  // sort once when the order is needed instead of on every insert
+            } else {
+                cols.ensureCapacity(cols.size() + items.size());
+                colsOrdered = false;
+            }
+            for(DSMItem item : items) {
+                insertItem(item, isRow);
+            }
+            version += 1;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+
+    /**
+     * Adds many connections to the matrix at once. Used when building a matrix from a file where the connections
+     * are already known to be valid. No changes are added to the stack. Connections whose row or column item is not
+     * in the matrix are skipped and a connection with the same row and column as an existing one replaces it
+     *
+     * @param newConnections  the connections to add
+     * @return                the number of connections that were skipped
+     */
+    public final int loadConnections(Collection<DSMConnection> newConnections) {
+        int skipped = 0;
+        lock.writeLock().lock();
+        try {
+            for(DSMConnection connection : newConnections) {
+                if(isRow(connection.getRowUid()) && isCol(connection.getColUid())) {
+                    putConnection(connection);
+                } else {
+                    skipped += 1;
+                }
             }
+            version += 1;
+        } finally {
+            lock.writeLock().unlock();
         }
+        return skipped;
+    }
+//endregion
+
+
+//region Change events
+    /**
+     * Adds a listener that is notified of every change made to the matrix, including changes made by undo and redo.
+     * Listeners are called on the thread that modifies the matrix
+     *
+     * @param listener  the listener to add
+     */
+    public final void addChangeListener(MatrixChangeListener listener) {
+        changeListeners.add(listener);
+    }
+
+
+    /**
+     * Removes a listener that was added with addChangeListener
+     *
+     * @param listener  the listener to remove
+     */
+    public final void removeChangeListener(MatrixChangeListener listener) {
+        changeListeners.remove(listener);
+    }
+
+
+    /**
+     * Notifies all the change listeners of an event
+     *
+     * @param event  the function to call on each listener
+     */
+    protected final void fireChange(Consumer<MatrixChangeListener> event) {
+        if(changeListeners.isEmpty()) {
+            return;
+        }
+        for(MatrixChangeListener listener : changeListeners) {
+            event.accept(listener);
+        }
+    }
+//endregion
+
+
+//region Background readers
+    /**
+     * Runs a function that reads the matrix while holding its read lock. Changes made by other threads wait until
+     * the function returns, so it sees one consistent version of the matrix, and any number of readers can run at
+     * the same time. This is how threads other than the one that edits the matrix should read it (ex. to make a copy
+     * for an analysis). The function must be short and must not change the matrix or call anything that does,
+     * including getGridModel
+     *
+     * @param reader  the function that reads the matrix
+     * @param <T>     the type of the result
+     * @return        the result of the function
+     */
+    public final <T> T read(Supplier<T> reader) {
+        lock.readLock().lock();
+        try {
+            return reader.get();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+//endregion
+
+
+//region Snapshots
+    /**
+     * Returns the version of the matrix. The version changes every time a change is made, undone, or redone, or data
+     * is bulk loaded, so two calls that return the same version saw the same matrix
+     *
+     * @return  the current version of the matrix
+     */
+    public final long getVersion() {
+        return version;
+    }
+
+
+    /**
+     * Returns an immutable compressed sparse row snapshot of the connections of the matrix. Rows and columns are
+     * indexed in their order at the time the snapshot is built. The snapshot is cached so calling this again before
+     * the matrix changes returns the same object. This method and the snapshot itself can be used from any thread
+     *
+     * @return  the snapshot of the current version of the matrix
+     */
+    public final MatrixSnapshot getSnapshot() {
+        MatrixSnapshot current = snapshot;
+        if(current == null || current.getVersion() != version) {
+            current = read(() -> new MatrixSnapshot(version, rows, cols, connections));
+            snapshot = current;
+        }
+        return current;
     }
 //endregion
 
 
 //region Getters for matrix data (rows, cols, items)
     /**
-     * Returns the rows in a mutable way
+     * Returns the rows in a mutable way. The rows are in display order unless they were just loaded in bulk or
+     * transposed, in which case they are ordered by the next call to getGridModel
      *
      * @return a vector of the items declared as rows
      */
@@ -363,7 +954,8 @@ public abstract class AbstractDSMData {
 
 
     /**
-     * Returns the columns in a mutable way
+     * Returns the columns in a mutable way. The columns are in display order unless they were just loaded in bulk or
+     * transposed, in which case they are ordered by the next call to getGridModel
      *
      * @return a vector of the items declared as columns
      */
@@ -379,17 +971,14 @@ public abstract class AbstractDSMData {
      * @return    DSMItem of the item with uid
      */
     public final DSMItem getItem(int uid) {
-        for(DSMItem row : rows) {
-            if(row.getUid() == uid) {
-                return row;
-            }
+        DSMItem item = rowIndex.get(uid);
+        if(item == null) {
+            item = colIndex.get(uid);
         }
-        for(DSMItem col : cols) {
-            if(col.getUid() == uid) {
-                return col;
-            }
+        if(item == null) {
+            throw new NoSuchElementException();
         }
-        throw new NoSuchElementException();
+        return item;
     }
 
 
@@ -400,12 +989,11 @@ public abstract class AbstractDSMData {
      * @return        the row item
      */
     public final DSMItem getRowItem(int rowUid) {
-        for(DSMItem row : rows) {
-            if(row.getUid() == rowUid) {
-                return row;
-            }
+        DSMItem row = rowIndex.get(rowUid);
+        if(row == null) {
+            throw new NoSuchElementException();
         }
-        throw new NoSuchElementException();
+        return row;
     }
 
 
@@ -416,46 +1004,65 @@ public abstract class AbstractDSMData {
      * @return        the col item
      */
     public final DSMItem getColItem(int colUid) {
-        for(DSMItem col : cols) {
-            if(col.getUid() == colUid) {
-                return col;
-            }
+        DSMItem col = colIndex.get(colUid);
+        if(col == null) {
+            throw new NoSuchElementException();
         }
-        throw new NoSuchElementException();
+        return col;
     }
 
 
     /**
-     * Finds an item by an alias uid and returns it. It can be either a row item or a column item
+     * Finds an item by an alias uid and returns it. It can be either a row item or a column item. Alias uids are
+     * indexed when an item is added, so they must be set before the item is added to the matrix
      *
      * @param uid the alias uid of the item to return
      * @return    DSMItem of the item with uid
      */
     public final DSMItem getItemByAlias(int uid) {
-        for(DSMItem row : rows) {
-            if(row.getAliasUid() == uid) {
-                return row;
-            }
-        }
-        for(DSMItem col : cols) {
-            if(col.getAliasUid() == uid) {
-                return col;
-            }
+        DSMItem item = aliasIndex.get(uid);
+        if(item == null) {
+            throw new NoSuchElementException();
         }
-        throw new NoSuchElementException();
+        return item;
     }
 
 
     /**
-     * Returns connections in a mutable way
+     * Returns connections in a mutable way. Indexed access with get(i) is linear time once the matrix has been copied,
+     * so iterate the store when visiting every connection
      *
-     * @return a vector of the connections in the matrix
+     * @return the store of the connections in the matrix
      */
-    public final Vector<DSMConnection> getConnections() {
+    public final ConnectionStore getConnections() {
         return connections;
     }
 
 
+    /**
+     * Returns the connections where the item with rowUid is the row item. Runs in time proportional to the
+     * number of connections of the row
+     *
+     * @param rowUid  the uid of the row item
+     * @return        a read only view of the connections of the row
+     */
+    public final Collection<DSMConnection> getRowConnections(int rowUid) {
+        return connections.getRowConnections(rowUid);
+    }
+
+
+    /**
+     * Returns the connections where the item with colUid is the column item. Runs in time proportional to the
+     * number of connections into the column
+     *
+     * @param colUid  the uid of the column item
+     * @return        a read only view of the connections into the column
+     */
+    public final Collection<DSMConnection> getColConnections(int colUid) {
+        return connections.getColConnections(colUid);
+    }
+
+
     /**
      * @return  List of all the interface groupings
      */
@@ -472,6 +1079,14 @@ public abstract class AbstractDSMData {
     }
 
 
+    /**
+     * @return  the registry that the interfaces of the connections in the matrix are indexed in
+     */
+    public final InterfaceTypeRegistry getInterfaceRegistry() {
+        return interfaceRegistry;
+    }
+
+
     /**
      * Returns a connection from row item with rowUid to column item with colUid
      *
@@ -480,15 +1095,7 @@ public abstract class AbstractDSMData {
      * @return       DSMConnection object of the connection
      */
     public final DSMConnection getConnection(int rowUid, int colUid) {
-        DSMConnection connection = null;
-        for(DSMConnection conn : connections) {
-            if(conn.getRowUid() == rowUid && conn.getColUid() == colUid) {
-                connection = conn;
-                break;
-            }
-        }
-
-        return connection;
+        return connections.get(rowUid, colUid);
     }
 //endregion
 
@@ -501,13 +1108,7 @@ public abstract class AbstractDSMData {
      * @return    true or false if it is a row or not
      */
     public final boolean isRow(int uid) {
-        for(DSMItem row : rows) {
-            if(row.getUid() == uid) {
-                return true;
-            }
-        }
-
-        return false;
+        return rowIndex.containsKey(uid);
     }
 
 
@@ -518,16 +1119,86 @@ public abstract class AbstractDSMData {
      * @return    true or false if it is a column or not
      */
     public final boolean isCol(int uid) {
-        for(DSMItem col : cols) {
-            if(col.getUid() == uid) {
-                return true;
+        return colIndex.containsKey(uid);
+    }
+
+
+    /**
+     * Checks whether a uid is used by an item, grouping, or interface type of the matrix
+     *
+     * @param uid  the uid to check
+     * @return     true if the uid is in use
+     */
+    private boolean isUidInUse(int uid) {
+        if(rowIndex.containsKey(uid) || colIndex.containsKey(uid) || isGroupingUid(uid)) {
+            return true;
+        }
+        for(Vector<DSMInterfaceType> interfaces : interfaceTypes.values()) {
+            for(DSMInterfaceType interfaceType : interfaces) {
+                if(interfaceType.getUid() == uid) return true;
             }
         }
-
         return false;
     }
 
 
+    /**
+     * Checks whether a uid is used by a grouping of the matrix. Used so that new uids do not collide with groupings
+     *
+     * @param uid  the uid to check
+     * @return     true if a grouping of the matrix has the uid
+     */
+    protected abstract boolean isGroupingUid(int uid);
+
+
+    /**
+     * Returns a new uid for an item, grouping, or interface type. The uid is not used by any item, grouping, or
+     * interface type in the matrix and has not been returned before
+     *
+     * @return  the new uid
+     */
+    public final int allocateUid() {
+        return uidAllocator.allocate();
+    }
+
+
+    /**
+     * Returns a block of new uids for creating many objects at once. None of the uids are used by an item, grouping,
+     * or interface type in the matrix or have been returned before
+     *
+     * @param count  the number of uids needed
+     * @return       the first uid of the block. The uids are first to first + count - 1
+     */
+    public final int allocateUids(int count) {
+        return uidAllocator.allocateRange(count);
+    }
+
+
+    /**
+     * Creates a new grouping with a uid from the allocator of the matrix. The grouping is not added to the matrix
+     *
+     * @param name   the name of the grouping
+     * @param color  the color of the grouping
+     * @return       the new grouping
+     */
+    public final Grouping createGrouping(String name, Color color) {
+        return new Grouping(allocateUid(), Grouping.DEFAULT_PRIORITY, name, color, Grouping.DEFAULT_FONT_COLOR);
+    }
+
+
+    /**
+     * Creates a new interface type with a uid from the allocator of the matrix. The interface type is not added to
+     * the matrix
+     *
+     * @param name          the name of the interface type
+     * @param abbreviation  the abbreviation of the interface type
+     * @return              the new interface type
+     */
+    public final DSMInterfaceType createInterfaceType(String name, String abbreviation) {
+        return new DSMInterfaceType(allocateUid(), name, abbreviation);
+    }
+
+
     /**
      * Finds the maximum sort index of the rows by performing a linear search.
      *
@@ -572,11 +1243,7 @@ public abstract class AbstractDSMData {
     public void addItem(DSMItem item, boolean isRow) {
         addChangeToStack(new MatrixChange(
                 () -> {  // do function
-                    if (isRow) {
-                        this.rows.add(item);
-                    } else {
-                        this.cols.add(item);
-                    }
+                    insertItem(item, isRow);
                 },
                 () -> {  // undo function
                     removeItem(item);
@@ -599,7 +1266,7 @@ public abstract class AbstractDSMData {
         } else {
             index = (int) getColMaxSortIndex() + 1;  // cast to int to remove the decimal place so that the index will be a whole number
         }
-        DSMItem item = new DSMItem(index, name);
+        DSMItem item = new DSMItem(allocateUid(), null, index, name, null, null);
 
         addItem(item, isRow);
     }
@@ -611,18 +1278,14 @@ public abstract class AbstractDSMData {
      * @param item the item to delete
      */
     public void deleteItem(DSMItem item) {
-        boolean isRow = rows.contains(item);  // check if the item was a row in case it needs to be added again
+        boolean isRow = isRow(item.getUid());  // check if the item was a row in case it needs to be added again
 
         addChangeToStack(new MatrixChange(
                 () -> {  // do function
                     removeItem(item);
                 },
                 () -> {  // undo function
-                    if (isRow) {
-                        this.rows.add(item);
-                    } else {
-                        this.cols.add(item);
-                    }
+                    insertItem(item, isRow);
                 },
                 false
         ));
@@ -641,10 +1304,10 @@ public abstract class AbstractDSMData {
 
         addChangeToStack(new MatrixChange(
                 () -> {  // do function
-                    item.setName(newName);
+                    renameItem(item, newName);
                 },
                 () -> {  // undo function
-                    item.setName(oldName);
+                    renameItem(item, oldName);
                 },
                 false
         ));
@@ -663,16 +1326,82 @@ public abstract class AbstractDSMData {
 
         addChangeToStack(new MatrixChange(
                 () -> {  // do function
-                    item.setSortIndex(newIndex);
+                    resortItem(item, newIndex);
                 },
                 () -> {  // undo function
-                    item.setSortIndex(oldIndex);
+                    resortItem(item, oldIndex);
                 },
                 false
         ));
     }
 
 
+    /**
+     * Sets the sort indices of many items as a single change. Faster than setting them one at a time in a batch
+     * because the rows and columns are only re-sorted once. Puts the change on the stack but does not set a checkpoint
+     *
+     * @param items        the items to move
+     * @param sortIndices  the new sort index of each item
+     */
+    public final void setItemSortIndices(List<DSMItem> items, double[] sortIndices) {
+        if(items.size() != sortIndices.length) {
+            throw new IllegalArgumentException("There must be one sort index for each item");
+        }
+        List<DSMItem> movedItems = new ArrayList<>(items);
+        double[] newIndices = sortIndices.clone();
+        double[] oldIndices = new double[movedItems.size()];
+        for(int i = 0; i < movedItems.size(); i++) {
+            oldIndices[i] = movedItems.get(i).getSortIndex();
+        }
+
+        addChangeToStack(new MatrixChange(
+                () -> {  // do function
+                    resortItems(movedItems, newIndices);
+                },
+                () -> {  // undo function
+                    resortItems(movedItems, oldIndices);
+                },
+                false,
+                estimateChangeBytes(movedItems.size(), 0)
+        ));
+    }
+
+
+    /**
+     * Sorts the items of the matrix into the sequence found by a partitioning analysis. Rows get the sort indices
+     * 1 to n in the order of the sequence and columns aliased to a row get the same sort index as the row, so the
+     * matrix becomes block triangular. Items that were removed after the analysis are skipped. The whole sequence is
+     * put on the stack as a single change but no checkpoint is set
+     *
+     * @param partitioning  the result of partitioning the snapshot of this matrix
+     */
+    public final void applyPartitioning(PartitioningAnalysis partitioning) {
+        MatrixSnapshot partitioned = partitioning.getSnapshot();
+        ArrayList<DSMItem> items = new ArrayList<>();
+        double[] sortIndices = new double[partitioned.getNumRows() + partitioned.getNumCols()];
+        read(() -> {
+            for(int p = 0; p < partitioning.getNumItems(); p++) {
+                DSMItem row = rowIndex.get(partitioned.getRowUid(partitioning.getRowAt(p)));
+                if(row != null) {
+                    sortIndices[items.size()] = p + 1;
+                    items.add(row);
+                }
+            }
+            for(int c = 0; c < partitioned.getNumCols(); c++) {
+                int aliasRow = partitioned.getColAliasRow(c);
+                DSMItem col = colIndex.get(partitioned.getColUid(c));
+                if(aliasRow >= 0 && col != null) {
+                    sortIndices[items.size()] = partitioning.getPosition(aliasRow) + 1;
+                    items.add(col);
+                }
+            }
+            return null;
+        });
+
+        setItemSortIndices(items, Arrays.copyOf(sortIndices, items.size()));
+    }
+
+
     /**
      * Adds a new grouping of interface types. Puts the change on the stack but does not set a checkpoint.
      *
@@ -843,42 +1572,23 @@ public abstract class AbstractDSMData {
      * @param interfaces     the interfaces for the connection
      */
     public final void modifyConnection(int rowUid, int colUid, String connectionName, double weight, ArrayList<DSMInterfaceType> interfaces) {
-        DSMConnection connection = null;
-        String oldName = "";
-        double oldWeight = 0.0;
-        ArrayList<DSMInterfaceType> oldInterfaces = new ArrayList<>();
-        for(DSMConnection conn : this.connections) {
-            if(rowUid == conn.getRowUid() && colUid == conn.getColUid()) {
-                connection = conn;
-                oldName = conn.getConnectionName();
-                oldWeight = conn.getWeight();
-                oldInterfaces = conn.getInterfaces();
-
-                break;
-            }
-        }
+        DSMConnection oldConnection = connections.get(rowUid, colUid);
 
-        DSMConnection finalConnection = connection;
-        String finalOldName = oldName;
-        double finalOldWeight = oldWeight;
-        ArrayList<DSMInterfaceType> finalOldInterfaces = oldInterfaces;
+        // existing connections are replaced instead of modified because they may be shared with copies of the matrix
+        DSMConnection newConnection = new DSMConnection(connectionName, weight, rowUid, colUid, interfaces, interfaceRegistry);
         addChangeToStack(new MatrixChange(
                 () -> {  // do function
-                    if (finalConnection == null) {
+                    if (oldConnection == null) {
                         createConnection(rowUid, colUid, connectionName, weight, interfaces);
                     } else {
-                        finalConnection.setConnectionName(connectionName);
-                        finalConnection.setWeight(weight);
-                        finalConnection.setInterfaces(interfaces);
+                        putConnection(newConnection);
                     }
                 },
                 () -> {  // undo function
-                    if (finalConnection == null) {
+                    if (oldConnection == null) {
                         removeConnection(rowUid, colUid);
                     } else {
-                        finalConnection.setConnectionName(finalOldName);
-                        finalConnection.setWeight(finalOldWeight);
-                        finalConnection.setInterfaces(finalOldInterfaces);
+                        putConnection(oldConnection);
                     }
                 },
                 false
@@ -894,20 +1604,22 @@ public abstract class AbstractDSMData {
      */
     public final void clearItemConnections(int uid) {
         Set<DSMConnection> toRemove = new HashSet<>();  // this will not allow duplicates, although there should never be duplicates
-        for(DSMConnection connection : connections) {     // check to see if uid is in the rows
-            if(connection.getRowUid() == uid || connection.getColUid() == uid) {
-                toRemove.add(connection);
-            }
-        }
+        toRemove.addAll(connections.getRowConnections(uid));
+        toRemove.addAll(connections.getColConnections(uid));
 
         addChangeToStack(new MatrixChange(
                 () -> {  // do function
-                    connections.removeAll(toRemove);
+                    for(DSMConnection connection : toRemove) {
+                        removeConnection(connection.getRowUid(), connection.getColUid());
+                    }
                 },
                 () -> {  // undo function
-                    connections.addAll(toRemove);
+                    for(DSMConnection connection : toRemove) {
+                        putConnection(connection);
+                    }
                 },
-                false
+                false,
+                estimateChangeBytes(0, toRemove.size())
         ));
     }
 
@@ -920,31 +1632,49 @@ public abstract class AbstractDSMData {
      * @param colUid the connection column item uid
      */
     public final void deleteConnection(int rowUid, int colUid) {
-        for(DSMConnection connection : connections) {     // check to see if uid is in the rows
-            if(connection.getRowUid() == rowUid && connection.getColUid() == colUid) {
-                addChangeToStack(new MatrixChange(
-                        () -> {  // do function
-                            removeConnection(rowUid, colUid);
-                        },
-                        () -> {  // undo function
-                            createConnection(rowUid, colUid, connection.getConnectionName(), connection.getWeight(), connection.getInterfaces());
-                        },
-                        false
-                ));
-                break;
-            }
+        DSMConnection connection = connections.get(rowUid, colUid);
+        if(connection == null) {
+            return;
         }
+
+        addChangeToStack(new MatrixChange(
+                () -> {  // do function
+                    removeConnection(rowUid, colUid);
+                },
+                () -> {  // undo function
+                    createConnection(rowUid, colUid, connection.getConnectionName(), connection.getWeight(), connection.getInterfaces());
+                },
+                false
+        ));
     }
 
 
     /**
-     * deletes all connections in the matrix. Adds changes to the stack, but does not set a checkpoint
+     * deletes all connections in the matrix. Adds a single change to the stack, but does not set a checkpoint
      */
     public final void deleteAllConnections() {
-        Vector<DSMConnection> connectionsClone = new Vector<>(connections);
-        for(DSMConnection connection : connectionsClone) {     // check to see if uid is in the rows
-            deleteConnection(connection.getRowUid(), connection.getColUid());
+        ArrayList<DSMConnection> oldConnections = new ArrayList<>(connections);
+        if(oldConnections.isEmpty()) {
+            return;
         }
+
+        addChangeToStack(new MatrixChange(
+                () -> {  // do function
+                    connections.clear();
+                    for(DSMConnection connection : oldConnections) {
+                        fireChange(l -> l.connectionRemoved(connection));
+                    }
+                },
+                () -> {  // undo function
+                    connections.clear();
+                    connections.addAll(oldConnections);
+                    for(DSMConnection connection : oldConnections) {
+                        fireChange(l -> l.connectionCreated(connection));
+                    }
+                },
+                false,
+                estimateChangeBytes(0, oldConnections.size())
+        ));
     }
 
 
@@ -955,42 +1685,66 @@ public abstract class AbstractDSMData {
     public void transposeMatrix() {
         Vector<DSMItem> oldRows = new Vector<>(rows);
         Vector<DSMItem> oldCols = new Vector<>(cols);
-        Vector<DSMConnection> oldConnections = new Vector<>(connections);
-
-        for(DSMConnection conn : oldConnections) {  // these function calls already put a change on the stack so they don't need to be wrapped
-            deleteConnection(conn.getRowUid(), conn.getColUid());
-            modifyConnection(conn.getColUid(), conn.getRowUid(), conn.getConnectionName(), conn.getWeight(), conn.getInterfaces());
+        ArrayList<DSMConnection> oldConnections = new ArrayList<>(connections);
+        ArrayList<DSMConnection> newConnections = new ArrayList<>(oldConnections.size());
+        for(DSMConnection conn : oldConnections) {  // all connections move at once so that (a, b) and (b, a) do not overwrite each other
+            newConnections.add(new DSMConnection(conn, conn.getColUid(), conn.getRowUid()));
         }
 
         addChangeToStack(new MatrixChange(
                 () -> {  // do function
                     cols = oldRows;
                     rows = oldCols;
+                    reindexItems();
+                    connections.clear();
+                    connections.addAll(newConnections);
+                    fireChange(MatrixChangeListener::matrixReset);
                 },
                 () -> {  // undo function
                     cols = oldCols;
                     rows = oldRows;
+                    reindexItems();
+                    connections.clear();
+                    connections.addAll(oldConnections);
+                    fireChange(MatrixChangeListener::matrixReset);
                 },
-                false
+                false,
+                estimateChangeBytes(oldRows.size() + oldCols.size(), newConnections.size())
         ));
     }
 
 
     /**
      * Sorts the current matrix rows and columns by sort index and modifies all the sort Indices
-     * such that they are now 1 to n. Used to make the sort Indices "clean" numbers. Puts multiple changes on the
+     * such that they are now 1 to n. Used to make the sort Indices "clean" numbers. Puts the change on the
      * stack but does not set any checkpoint.
      */
     public void reDistributeSortIndices() {
-        // sort row and columns by sortIndex
-        rows.sort(Comparator.comparing(DSMItem::getSortIndex));
-        cols.sort(Comparator.comparing(DSMItem::getSortIndex));
-        for(int i=0; i<rows.size(); i++) {  // reset row sort Indices 1 -> n
-            setItemSortIndex(rows.elementAt(i), i + 1);
+        ensureItemOrder();
+        setSequentialSortIndices(List.of(rows, cols));
+    }
+
+
+    /**
+     * Gives the items of each list the sort indices 1 to n in the order of the list as a single change. The rows and
+     * columns are only re-sorted once instead of once per item. Puts the change on the stack but does not set a
+     * checkpoint
+     *
+     * @param orderedItems  lists of items in their new order, the count starts over at 1 for each list
+     */
+    protected final void setSequentialSortIndices(List<? extends List<DSMItem>> orderedItems) {
+        ArrayList<DSMItem> items = new ArrayList<>();
+        for(List<DSMItem> list : orderedItems) {
+            items.addAll(list);
         }
-        for(int i=0; i<cols.size(); i++) {  // reset col sort Indices 1 -> n
-            setItemSortIndex(cols.elementAt(i), i + 1);
+        double[] sortIndices = new double[items.size()];
+        int index = 0;
+        for(List<DSMItem> list : orderedItems) {
+            for(int i = 0; i < list.size(); i++) {
+                sortIndices[index++] = i + 1;
+            }
         }
+        setItemSortIndices(items, sortIndices);
     }
 //endregion
 
@@ -1138,11 +1892,53 @@ public abstract class AbstractDSMData {
 //endregion
 
 
+//region Grid model
+    /**
+     * Base class for grid models of a matrix. Header rows and columns come first, then one grid row per row item and
+     * one grid column per column item in display order. Reads the rows and columns of the matrix directly, so a
+     * model only stays valid until items are added, removed, or moved
+     */
+    protected abstract class ItemGridModel implements GridModel {
+        private final int numHeaderRows;
+        private final int numHeaderCols;
+
+        /**
+         * @param numHeaderRows  the number of rows before the first row item
+         * @param numHeaderCols  the number of columns before the first column item
+         */
+        protected ItemGridModel(int numHeaderRows, int numHeaderCols) {
+            this.numHeaderRows = numHeaderRows;
+            this.numHeaderCols = numHeaderCols;
+        }
+
+        @Override
+        public int getNumRows() {
+            return numHeaderRows + rows.size();
+        }
+
+        @Override
+        public int getNumCols() {
+            return numHeaderCols + cols.size();
+        }
+
+        @Override
+        public DSMItem getRowItem(int r) {
+            return r < numHeaderRows ? null : rows.get(r - numHeaderRows);
+        }
+
+        @Override
+        public DSMItem getColItem(int c) {
+            return c < numHeaderCols ? null : cols.get(c - numHeaderCols);
+        }
+    }
+
+
     /**
-     * Creates a 2d ArrayList of the matrix so that it can be displayed. Each cell in the grid is made
-     * up of a RenderMode, which is the key, and an Object that is different based on the key.
+     * Returns a grid model describing how the matrix is displayed. Cells are computed on demand so building one only
+     * sorts the items if their order is stale. The model should be used right away and not kept across changes
      *
-     * @return 2d ArrayList of matrix
+     * @return  the grid model of the matrix
      */
-    public abstract ArrayList<ArrayList<Pair<RenderMode, Object>>> getGridArray();
+    public abstract GridModel getGridModel();
+//endregion
 }
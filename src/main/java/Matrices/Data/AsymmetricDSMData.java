@@ -23,6 +23,7 @@ public class AsymmetricDSMData extends AbstractDSMData implements IPropagationAn
 
     private ObservableList<Grouping> rowGroupings;
     private ObservableList<Grouping> colGroupings;
+    private final GroupingIndex groupingIndex;
 
 
 //region Constructors
@@ -33,7 +34,7 @@ public class AsymmetricDSMData extends AbstractDSMData implements IPropagationAn
     public AsymmetricDSMData() {
         super();
 
-        connections = new Vector<>();
+        groupingIndex = new GroupingIndex(this);
         rowGroupings = FXCollections.observableArrayList();
         colGroupings = FXCollections.observableArrayList();
         addGrouping(true, new Grouping(DEFAULT_GROUP_UID, Grouping.DEFAULT_PRIORITY,  "(none)", Color.WHITE, Grouping.DEFAULT_FONT_COLOR));
@@ -55,7 +56,7 @@ public class AsymmetricDSMData extends AbstractDSMData implements IPropagationAn
     public AsymmetricDSMData(Collection<Grouping> rowGroupings, Collection<Grouping> colGroupings) {
         super();
 
-        connections = new Vector<>();
+        groupingIndex = new GroupingIndex(this);
         this.rowGroupings = FXCollections.observableArrayList(rowGroupings);
         this.colGroupings = FXCollections.observableArrayList(colGroupings);
 
@@ -66,7 +67,8 @@ public class AsymmetricDSMData extends AbstractDSMData implements IPropagationAn
 
 
     /**
-     * Copy constructor for AsymmetricDSMData class. Performs a deep copy
+     * Copy constructor for AsymmetricDSMData class. Performs a deep copy of everything except the connections, which
+     * are shared with the original until either matrix changes them
      *
      * @return  the copy of the current Asymmetric DSM
      */
@@ -75,21 +77,20 @@ public class AsymmetricDSMData extends AbstractDSMData implements IPropagationAn
         AsymmetricDSMData copy = new AsymmetricDSMData();
 
         for(DSMItem row : getRows()) {
-            copy.rows.add(new DSMItem(row));
+            copy.insertItem(new DSMItem(row), true);
         }
 
         for(DSMItem col : getCols()) {
-            copy.cols.add(new DSMItem(col));
+            copy.insertItem(new DSMItem(col), false);
         }
 
-        for(DSMConnection conn : getConnections()) {
-            copy.connections.add(new DSMConnection(conn));
-        }
+        copy.connections = connections.copy();  // connections are immutable so they can be shared
+        copy.interfaceRegistry = interfaceRegistry;  // the shared connections are indexed in this registry
 
-        for(Grouping group : getGroupings(true)) {
+        for(Grouping group : rowGroupings) {  // getGroupings sorts the live list, which a read locked copy must not change
             copy.rowGroupings.add(new Grouping(group));
         }
-        for(Grouping group : getGroupings(false)) {
+        for(Grouping group : colGroupings) {
             copy.colGroupings.add(new Grouping(group));
         }
 
@@ -152,15 +153,19 @@ public class AsymmetricDSMData extends AbstractDSMData implements IPropagationAn
                 () -> {  // do function
                     if(isRow) {
                         rowGroupings.add(group);
+                        fireChange(l -> l.groupingChanged(group));
                     } else {
                         colGroupings.add(group);
+                        fireChange(l -> l.groupingChanged(group));
                     }
                 },
                 () -> {  // undo function
                     if(isRow) {
                         rowGroupings.remove(group);
+                        fireChange(l -> l.groupingChanged(group));
                     } {
                         colGroupings.remove(group);
+                        fireChange(l -> l.groupingChanged(group));
                     }
                 },
                 false
@@ -183,6 +188,7 @@ public class AsymmetricDSMData extends AbstractDSMData implements IPropagationAn
                 () -> {  // do function
                     if(isRow) {
                         rowGroupings.remove(group);
+                        fireChange(l -> l.groupingChanged(group));
                         for(DSMItem item : rows) {  // these changes already get put on the stack so no need to add them a second time
                             if(item.getGroup1().equals(group)) {
                                 setItemGroup(item, getDefaultGroup(true));
@@ -190,6 +196,7 @@ public class AsymmetricDSMData extends AbstractDSMData implements IPropagationAn
                         }
                     } else {
                         colGroupings.remove(group);
+                        fireChange(l -> l.groupingChanged(group));
                         for(DSMItem item : cols) {  // these changes already get put on the stack so no need to add them a second time
                             if(item.getGroup1().equals(group)) {
                                 setItemGroup(item, getDefaultGroup(false));
@@ -200,8 +207,10 @@ public class AsymmetricDSMData extends AbstractDSMData implements IPropagationAn
                 () -> {  // undo function
                     if(isRow) {
                         rowGroupings.add(group);
+                        fireChange(l -> l.groupingChanged(group));
                     } else {
                         colGroupings.add(group);
+                        fireChange(l -> l.groupingChanged(group));
                     }
                 },
                 false
@@ -228,12 +237,14 @@ public class AsymmetricDSMData extends AbstractDSMData implements IPropagationAn
                     if(isRow) {
                         rowGroupings.clear();
                         rowGroupings.add(new Grouping(DEFAULT_GROUP_UID, Grouping.DEFAULT_PRIORITY,  "(none)", Color.WHITE, Grouping.DEFAULT_FONT_COLOR));
+                        fireChange(l -> l.groupingChanged(null));
                         for(DSMItem r : rows) {
                             setItemGroup(r, getDefaultGroup(true));
                         }
                     } else {
                         colGroupings.clear();
                         colGroupings.add(new Grouping(DEFAULT_GROUP_UID, Grouping.DEFAULT_PRIORITY,  "(none)", Color.WHITE, Grouping.DEFAULT_FONT_COLOR));
+                        fireChange(l -> l.groupingChanged(null));
                         for(DSMItem c : cols) {
                             setItemGroup(c, getDefaultGroup(false));
                         }
@@ -242,8 +253,10 @@ public class AsymmetricDSMData extends AbstractDSMData implements IPropagationAn
                 () -> {  // undo function
                     if(isRow) {
                         rowGroupings = oldGroupings;
+                        fireChange(l -> l.groupingChanged(null));
                     } else {
                         colGroupings = oldGroupings;
+                        fireChange(l -> l.groupingChanged(null));
                     }
                 },
                 false
@@ -251,6 +264,24 @@ public class AsymmetricDSMData extends AbstractDSMData implements IPropagationAn
     }
 
 
+    /**
+     * Checks whether a uid is used by a row or column grouping of the matrix
+     *
+     * @param uid  the uid to check
+     * @return     true if a grouping has the uid
+     */
+    @Override
+    protected boolean isGroupingUid(int uid) {
+        for(Grouping group : rowGroupings) {
+            if(group.getUid() == uid) return true;
+        }
+        for(Grouping group : colGroupings) {
+            if(group.getUid() == uid) return true;
+        }
+        return false;
+    }
+
+
     /**
      * @return  ObservableList of the matrix groupings. Sorts the groupings by alphabetical order with default at the start
      */
@@ -272,6 +303,31 @@ public class AsymmetricDSMData extends AbstractDSMData implements IPropagationAn
     }
 
 
+    /**
+     * Returns the number of items in a row or column grouping in constant time
+     *
+     * @param group  the grouping to find the size of
+     * @param isRow  if the grouping is a row grouping or a column grouping
+     * @return       the number of items in the grouping
+     */
+    public int getGroupingSize(Grouping group, boolean isRow) {
+        return groupingIndex.getSize(group, isRow);
+    }
+
+
+    /**
+     * Returns the items in a row or column grouping in time proportional to the size of the grouping. The collection
+     * is a read only view of the index, so copy it before changing the matrix while iterating over it
+     *
+     * @param group  the grouping to find the items of
+     * @param isRow  if the grouping is a row grouping or a column grouping
+     * @return       the items in the grouping
+     */
+    public Collection<DSMItem> getGroupingMembers(Grouping group, boolean isRow) {
+        return groupingIndex.getMembers(group, isRow);
+    }
+
+
     /**
      * Renames a grouping. Puts the change on the stack but does not set a checkpoint.
      *
@@ -284,9 +340,11 @@ public class AsymmetricDSMData extends AbstractDSMData implements IPropagationAn
         addChangeToStack(new MatrixChange(
                 () -> {  // do function
                     grouping.setName(newName);
+                    fireChange(l -> l.groupingChanged(grouping));
                 },
                 () -> {  // undo function
                     grouping.setName(oldName);
+                    fireChange(l -> l.groupingChanged(grouping));
                 },
                 false
         ));
@@ -304,9 +362,11 @@ public class AsymmetricDSMData extends AbstractDSMData implements IPropagationAn
         addChangeToStack(new MatrixChange(
                 () -> {  // do function
                     grouping.setColor(newColor);
+                    fireChange(l -> l.groupingChanged(grouping));
                 },
                 () -> {  // undo function
                     grouping.setColor(oldColor);
+                    fireChange(l -> l.groupingChanged(grouping));
                 },
                 false
         ));
@@ -324,9 +384,11 @@ public class AsymmetricDSMData extends AbstractDSMData implements IPropagationAn
         addChangeToStack(new MatrixChange(
                 () -> {  // do function
                     grouping.setFontColor(newColor);
+                    fireChange(l -> l.groupingChanged(grouping));
                 },
                 () -> {  // undo function
                     grouping.setFontColor(oldColor);
+                    fireChange(l -> l.groupingChanged(grouping));
                 },
                 false
         ));
@@ -350,10 +412,10 @@ public class AsymmetricDSMData extends AbstractDSMData implements IPropagationAn
                     if (addNewGroup) {
                         addGrouping(isRow(item.getUid()), newGroup);
                     }
-                    item.setGroup1(newGroup);
+                    regroupItem(item, newGroup);
                 },
                 () -> {  // undo function
-                    item.setGroup1(oldGroup);
+                    regroupItem(item, oldGroup);
                 },
                 false
         ));
@@ -377,7 +439,7 @@ public class AsymmetricDSMData extends AbstractDSMData implements IPropagationAn
         } else {
             index = (int) getColMaxSortIndex() + 1;  // cast to int to remove the decimal place so that the index will be a whole number
         }
-        DSMItem item = new DSMItem(index, name);
+        DSMItem item = new DSMItem(allocateUid(), null, index, name, null, null);
         item.setGroup1(getDefaultGroup(isRow));
         item.setAliasUid(null);
 
@@ -392,9 +454,13 @@ public class AsymmetricDSMData extends AbstractDSMData implements IPropagationAn
     public final void transposeMatrix() {
         Vector<DSMItem> oldRows = new Vector<>(rows);
         Vector<DSMItem> oldCols = new Vector<>(cols);
-        Vector<DSMConnection> oldConnections = new Vector<>(connections);
+        ArrayList<DSMConnection> oldConnections = new ArrayList<>(connections);
         ObservableList<Grouping> oldRowGroupings = FXCollections.observableArrayList(rowGroupings);
         ObservableList<Grouping> oldColGroupings = FXCollections.observableArrayList(colGroupings);
+        ArrayList<DSMConnection> newConnections = new ArrayList<>(oldConnections.size());
+        for(DSMConnection conn : oldConnections) {
+            newConnections.add(new DSMConnection(conn, conn.getColUid(), conn.getRowUid()));
+        }
 
         addChangeToStack(new MatrixChange(
                 () -> {  // do function
@@ -402,168 +468,82 @@ public class AsymmetricDSMData extends AbstractDSMData implements IPropagationAn
                     rows = oldCols;
                     colGroupings = oldRowGroupings;
                     rowGroupings = oldColGroupings;
+                    reindexItems();
 
                     connections.clear();
-                    for(DSMConnection conn : oldConnections) {
-                        createConnection(conn.getColUid(), conn.getRowUid(), conn.getConnectionName(), conn.getWeight(), conn.getInterfaces());
-                    }
+                    connections.addAll(newConnections);
+                    fireChange(MatrixChangeListener::matrixReset);
                 },
                 () -> {  // undo function
                     cols = new Vector<>(oldCols);
                     rows = new Vector<>(oldRows);
+                    reindexItems();
                     colGroupings = FXCollections.observableArrayList(oldColGroupings);
                     rowGroupings = FXCollections.observableArrayList(oldRowGroupings);
-                    connections = new Vector<>(oldConnections);
+                    connections.clear();
+                    connections.addAll(oldConnections);
+                    fireChange(MatrixChangeListener::matrixReset);
                 },
-                false
+                false,
+                estimateChangeBytes(oldRows.size() + oldCols.size() + oldRowGroupings.size() + oldColGroupings.size(), oldConnections.size())
         ));
 
     }
 
 
     /**
-     * Creates a 2d ArrayList of the matrix so that it can be displayed. Each cell in the grid is made
-     * up of a RenderMode, which is the key, and an Object that is different based on the key.
+     * Returns a grid model of the matrix so that it can be displayed. There are three header rows (grouping, name,
+     * and sort index of the column items) and three header columns (grouping, name, and sort index of the row items)
      *
-     * @return 2d ArrayList of matrix
+     * @return  the grid model of the matrix
      */
-    public ArrayList<ArrayList<Pair<RenderMode, Object>>> getGridArray() {
-        ArrayList<ArrayList<Pair<RenderMode, Object>>> grid = new ArrayList<>();
-
-        // sort row and columns by sortIndex
-        rows.sort(Comparator.comparing(DSMItem::getSortIndex));
-        cols.sort(Comparator.comparing(DSMItem::getSortIndex));
-
-        // create header row
-        ArrayList<Pair<RenderMode, Object>> row0 = new ArrayList<>();
-        row0.add(new Pair<>(RenderMode.PLAIN_TEXT_V, ""));
-        row0.add(new Pair<>(RenderMode.PLAIN_TEXT_V, ""));
-        row0.add(new Pair<>(RenderMode.PLAIN_TEXT_V, "Grouping"));
-        for (DSMItem c : cols) {
-            row0.add(new Pair<>(RenderMode.GROUPING_ITEM_V, c));
-        }
-        grid.add(row0);
-
-
-        ArrayList<Pair<RenderMode, Object>> row1 = new ArrayList<>();
-        row1.add(new Pair<>(RenderMode.PLAIN_TEXT_V, ""));
-        row1.add(new Pair<>(RenderMode.PLAIN_TEXT_V, ""));
-        row1.add(new Pair<>(RenderMode.PLAIN_TEXT_V, "Column Items"));
-        for(DSMItem c : cols) {
-            row1.add(new Pair<>(RenderMode.ITEM_NAME_V, c));
-        }
-        grid.add(row1);
-
-        // create third header row
-        ArrayList<Pair<RenderMode, Object>> row2 = new ArrayList<>();
-        row2.add(new Pair<>(RenderMode.PLAIN_TEXT, "Grouping"));
-        row2.add(new Pair<>(RenderMode.PLAIN_TEXT, "Row Items"));
-        row2.add(new Pair<>(RenderMode.PLAIN_TEXT, "Re-Sort Index"));
-        for(DSMItem c : cols) {
-            row2.add(new Pair<>(RenderMode.INDEX_ITEM, c));
-        }
-
-        grid.add(row2);
+    @Override
+    public GridModel getGridModel() {
+        // rows and columns are kept sorted by sort index, so this only sorts if the order is stale
+        ensureItemOrder();
+
+        return new ItemGridModel(3, 3) {
+            private static final String[] COL_HEADERS = {"Grouping", "Column Items"};
+            private static final String[] ROW_HEADERS = {"Grouping", "Row Items", "Re-Sort Index"};
+
+            @Override
+            public RenderMode getRenderMode(int r, int c) {
+                if(r < 2) {
+                    if(c < 3) return RenderMode.PLAIN_TEXT_V;
+                    return r == 0 ? RenderMode.GROUPING_ITEM_V : RenderMode.ITEM_NAME_V;
+                } else if(r == 2) {
+                    return c < 3 ? RenderMode.PLAIN_TEXT : RenderMode.INDEX_ITEM;
+                }
 
-        // create rows
-        for(DSMItem r : rows) {
-            ArrayList<Pair<RenderMode, Object>> row = new ArrayList<>();
-            row.add(new Pair<>(RenderMode.GROUPING_ITEM, r));
-            row.add(new Pair<>(RenderMode.ITEM_NAME, r));
-            row.add(new Pair<>(RenderMode.INDEX_ITEM, r));
-            for(DSMItem c : cols) {  // create connection items for all columns
-                row.add(new Pair<>(RenderMode.EDITABLE_CONNECTION, new Pair<>(r, c)));
+                switch(c) {
+                    case 0: return RenderMode.GROUPING_ITEM;
+                    case 1: return RenderMode.ITEM_NAME;
+                    case 2: return RenderMode.INDEX_ITEM;
+                    default: return RenderMode.EDITABLE_CONNECTION;
+                }
             }
-            grid.add(row);
-        }
 
-        return grid;
+            @Override
+            public Object getValue(int r, int c) {
+                if(r < 2) {
+                    return c < 2 ? "" : (c == 2 ? COL_HEADERS[r] : getColItem(c));
+                } else if(r == 2) {
+                    return c < 3 ? ROW_HEADERS[c] : getColItem(c);
+                }
+                return c < 3 ? getRowItem(r) : null;
+            }
+        };
     }
 
 
     /**
-     * Runs propagation analysis for a matrix. Pick a start item and each level find the connections of the items in the
-     * previous level. Items that are excluded are added to the count, but not propagated through.
+     * Creates an engine that runs propagation analysis over the current state of the matrix. Rows and columns are
+     * different items, so levels alternate between the connections of rows and the connections into columns
      *
-     * @param startItem     the item to start at
-     * @param numLevels     number of levels to run
-     * @param exclusions    array of item uids to be excluded
-     * @param minWeight     minimum weight for item to be included
-     * @param countByWeight count by weight or by occurrence
-     * @return              HashMap(level : Hashmap(uid, occurrences/weights))
+     * @return  the engine
      */
     @Override
-    public HashMap<Integer, HashMap<Integer, Double>> propagationAnalysis(Integer startItem, int numLevels, ArrayList<Integer> exclusions, double minWeight, boolean countByWeight) {
-        int currentLevel = 1;
-        HashMap<Integer, HashMap<Integer, Double>> results = new HashMap<>();
-        ArrayList<Integer> dependentConnections = new ArrayList<>();
-        dependentConnections.add(startItem);
-        exclusions.add(startItem);
-
-        // check if start item is a row or column item
-        boolean startIsRow = rows.contains(getItem(startItem));
-
-        while(currentLevel <= numLevels) {
-            ArrayList<Integer> newDependentConnections = new ArrayList<>();
-            results.put(currentLevel, new HashMap<>());  // add default item
-
-            if((currentLevel % 2 == 1 && startIsRow) || (currentLevel % 2 == 0 && !startIsRow)) {  // currentLevel is odd so choose row
-                for(Integer uid : dependentConnections) {  // find dependent connections of each item from the previous level
-
-                    // find connections with uid as the row item
-                    for(DSMItem col : cols) {  // iterate over column items finding the ones that match the row
-                        DSMConnection conn = getConnection(uid, col.getUid());
-
-                        // define exit conditions
-                        if(conn == null) continue;
-                        if(conn.getWeight() < minWeight) continue;
-
-                        Integer resultEntryUid = col.getUid();
-                        results.get(currentLevel).putIfAbsent(resultEntryUid, 0.0);
-
-                        if(countByWeight) {
-                            results.get(currentLevel).put(resultEntryUid, results.get(currentLevel).get(resultEntryUid) + conn.getWeight());
-                        } else {
-                            results.get(currentLevel).put(resultEntryUid, results.get(currentLevel).get(resultEntryUid) + 1.0);
-                        }
-
-                        if(!exclusions.contains(resultEntryUid) && !newDependentConnections.contains(resultEntryUid)) {  // add to next level if not present and not excluded
-                            newDependentConnections.add(resultEntryUid);  // add the actual item uid
-                        }
-                    }
-                }
-            } else {  // currentLevel is even so choose column
-                for(Integer uid : dependentConnections) {  // find dependent connections of each item from the previous level
-
-                    // find connections with uid as the row item
-                    for(DSMItem row : rows) {  // iterate over row items finding the ones that match the column
-                        DSMConnection conn = getConnection(row.getUid(), uid);
-
-                        // define exit conditions
-                        if(conn == null) continue;
-                        if(conn.getWeight() < minWeight) continue;
-
-                        Integer itemUid = row.getUid();
-                        results.get(currentLevel).putIfAbsent(itemUid, 0.0);
-
-                        if(countByWeight) {
-                            results.get(currentLevel).put(itemUid, results.get(currentLevel).get(itemUid) + conn.getWeight());
-                        } else {
-                            results.get(currentLevel).put(itemUid, results.get(currentLevel).get(itemUid) + 1.0);
-                        }
-
-                        if(!exclusions.contains(itemUid) && !newDependentConnections.contains(itemUid)) {  // add to next level if not present and not excluded
-                            newDependentConnections.add(itemUid);
-                        }
-                    }
-                }
-            }
-
-            dependentConnections.clear();
-            dependentConnections = newDependentConnections;
-            currentLevel += 1;
-        }
-
-        return results;
+    public PropagationEngine createPropagationEngine() {
+        return new PropagationEngine(getSnapshot(), true);
     }
 }
@@ -0,0 +1,39 @@
+package Matrices.Data;
+
+import java.util.List;
+
+
+/**
+ * An algorithm that clusters the items of a symmetric matrix by minimizing its coordination cost. Engines work on a
+ * snapshot of the matrix and return an assignment of items to clusters, so they can run on any thread and several
+ * runs can share one snapshot. Engines hold no state between runs
+ *
+ * @author: Aiden Carney
+ */
+public interface ClusteringEngine {
+    /**
+     * @return  the name of the engine to display to the user
+     */
+    String getName();
+
+
+    /**
+     * Runs the engine once. The same snapshot, parameters, and seed always give the same result unless the run is
+     * cancelled
+     *
+     * @param snapshot    the connections of the matrix to cluster
+     * @param parameters  the parameters of the run
+     * @param randSeed    seed for the random number generator
+     * @param job         the job to report progress to and check for cancelling and pausing, may be null
+     * @return            the best assignment that was found
+     */
+    ClusteringResult cluster(MatrixSnapshot snapshot, ClusteringParameters parameters, long randSeed, ClusteringJob job);
+
+
+    /**
+     * @return  one of each of the available engines
+     */
+    static List<ClusteringEngine> getEngines() {
+        return List.of(new ThebeauEngine(), new SimulatedAnnealingEngine(), new IgtaEngine());
+    }
+}
@@ -0,0 +1,325 @@
+package Matrices.Data;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * Controls and reports on a clustering run that is performed on another thread. The thread running the algorithm
+ * calls shouldContinue before every iteration and iterationCompleted after it, and any other thread can cancel or
+ * pause the run and read its progress. The best cost is sampled into a bounded ring buffer for displaying and each
+ * iteration can optionally be streamed as a csv line to a writer, so nothing the job keeps grows with the length of
+ * the run. A job can be shared by several chains of the same run. Iterations are counted without locking and each
+ * chain buffers its own csv lines, so the job is only locked when the best cost improves, a sample is taken, or a
+ * full csv buffer is written
+ *
+ * @author: Aiden Carney
+ */
+public class ClusteringJob {
+    public static final int DEFAULT_SAMPLE_CAPACITY = 500;
+    public static final String CSV_HEADER = "seed,iteration,elapsed time,coordination score,best score\n";
+    private static final int SAMPLE_CHECK_INTERVAL = 64;  // iterations of a chain between checks if a sample is due
+    private static final int CSV_BUFFER_SIZE = 8192;  // characters a chain buffers before writing them
+
+    private final long totalIterations;
+    private final long sampleInterval;  // iterations between samples when the best cost does not change
+    private final CostSampleBuffer samples;
+    private volatile Writer csvWriter;  // null when iterations are not streamed
+    private IOException csvError;
+    private final ArrayList<StringBuilder> csvBuffers = new ArrayList<>();  // csv lines of each chain not yet written
+    private final ThreadLocal<StringBuilder> csvBuffer = ThreadLocal.withInitial(this::createCsvBuffer);
+
+    private volatile boolean isCancelled = false;
+    private volatile boolean isPaused = false;
+    private final Object pauseLock = new Object();
+
+    private final long startNanos;
+    private long pausedNanos;  // total time spent paused
+    private long pauseStartNanos;
+    private final LongAdder iterationsDone = new LongAdder();
+    private volatile long nextSample;  // number of iterations done at which the next sample is taken
+    private volatile double bestCost = Double.POSITIVE_INFINITY;
+
+
+    /**
+     * Creates a new job
+     *
+     * @param totalIterations  the number of iterations the run will perform if it is not cancelled
+     * @param sampleCapacity   the number of best cost samples to keep
+     * @param csvWriter        where to stream a csv line for each iteration, may be null. Not closed by the job
+     */
+    public ClusteringJob(long totalIterations, int sampleCapacity, Writer csvWriter) {
+        this.totalIterations = Math.max(totalIterations, 1);
+        this.sampleInterval = Math.max(this.totalIterations / sampleCapacity, 1);
+        this.nextSample = this.sampleInterval;
+        this.samples = new CostSampleBuffer(sampleCapacity);
+        this.csvWriter = csvWriter;
+        this.startNanos = System.nanoTime();
+
+        if(csvWriter != null) {
+            writeCsv(CSV_HEADER);
+        }
+    }
+
+
+    /**
+     * Creates a new job that does not stream its iterations
+     *
+     * @param totalIterations  the number of iterations the run will perform if it is not cancelled
+     */
+    public ClusteringJob(long totalIterations) {
+        this(totalIterations, DEFAULT_SAMPLE_CAPACITY, null);
+    }
+
+
+//region Control
+    /**
+     * Stops the run after its current iteration. The run returns the best solution found so far
+     */
+    public void cancel() {
+        isCancelled = true;
+        resume();  // wake up the run so that it can stop
+    }
+
+
+    /**
+     * Pauses the run before its next iteration until it is resumed or cancelled
+     */
+    public void pause() {
+        synchronized(pauseLock) {
+            if(!isPaused && !isCancelled) {
+                isPaused = true;
+                pauseStartNanos = System.nanoTime();
+            }
+        }
+    }
+
+
+    /**
+     * Resumes a paused run
+     */
+    public void resume() {
+        synchronized(pauseLock) {
+            if(isPaused) {
+                isPaused = false;
+                pausedNanos += System.nanoTime() - pauseStartNanos;
+                pauseLock.notifyAll();
+            }
+        }
+    }
+
+
+    /**
+     * @return  if the job was cancelled
+     */
+    public boolean isCancelled() {
+        return isCancelled;
+    }
+
+
+    /**
+     * @return  if the job is paused
+     */
+    public boolean isPaused() {
+        return isPaused;
+    }
+
+
+    /**
+     * Called by the run before each iteration. Blocks while the job is paused
+     *
+     * @return  false if the run should stop because the job was cancelled or the thread was interrupted
+     */
+    public boolean shouldContinue() {
+        if(isPaused) {
+            synchronized(pauseLock) {
+                while(isPaused && !isCancelled) {
+                    try {
+                        pauseLock.wait();
+                    } catch(InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return false;
+                    }
+                }
+            }
+        }
+        return !isCancelled && !Thread.currentThread().isInterrupted();
+    }
+//endregion
+
+
+//region Reporting
+    /**
+     * Called by the run after each iteration. Counts the iteration, records the best cost if the chain improved on it,
+     * samples the best cost when a sample is due, and buffers the iteration as a csv line if there is a csv writer
+     *
+     * @param seed           the seed of the chain that performed the iteration
+     * @param iteration      the iteration of the chain
+     * @param candidateCost  the cost of the change that was evaluated in the iteration
+     * @param chainBestCost  the best cost the chain has found
+     */
+    public void iterationCompleted(long seed, int iteration, double candidateCost, double chainBestCost) {
+        iterationsDone.increment();
+        if(chainBestCost < bestCost) {  // checked before locking because improvements are rare
+            recordImprovement(chainBestCost);
+        } else if(iteration % SAMPLE_CHECK_INTERVAL == SAMPLE_CHECK_INTERVAL - 1 && iterationsDone.sum() >= nextSample) {
+            recordSample();
+        }
+
+        if(csvWriter != null) {
+            long elapsed = (System.nanoTime() - startNanos) / 1_000_000;
+            StringBuilder buffer = csvBuffer.get();
+            synchronized(buffer) {  // only contended when the buffers are flushed at the end of the run
+                buffer.append(seed).append(',').append(iteration).append(',').append(elapsed).append(',')
+                        .append(candidateCost).append(',').append(chainBestCost).append('\n');
+                if(buffer.length() >= CSV_BUFFER_SIZE) {
+                    writeCsv(buffer.toString());
+                    buffer.setLength(0);
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Records a new best cost found by a chain and samples it
+     *
+     * @param chainBestCost  the best cost the chain has found
+     */
+    private synchronized void recordImprovement(double chainBestCost) {
+        if(chainBestCost < bestCost) {  // another chain may have improved on it while waiting for the lock
+            bestCost = chainBestCost;
+            samples.add(iterationsDone.sum(), chainBestCost);
+        }
+    }
+
+
+    /**
+     * Samples the best cost if no other chain took the sample while waiting for the lock
+     */
+    private synchronized void recordSample() {
+        long done = iterationsDone.sum();
+        if(done >= nextSample) {
+            samples.add(done, bestCost);
+            nextSample = done - done % sampleInterval + sampleInterval;
+        }
+    }
+
+
+    /**
+     * Creates the csv buffer of a chain and registers it so that it can be flushed at the end of the run
+     *
+     * @return  the buffer
+     */
+    private synchronized StringBuilder createCsvBuffer() {
+        StringBuilder buffer = new StringBuilder(CSV_BUFFER_SIZE + 128);
+        csvBuffers.add(buffer);
+        return buffer;
+    }
+
+
+    /**
+     * Writes to the csv writer. Stops streaming if the writer fails
+     *
+     * @param text  the text to write
+     */
+    private synchronized void writeCsv(String text) {
+        if(csvWriter == null) {
+            return;
+        }
+        try {
+            csvWriter.write(text);
+        } catch(IOException e) {
+            csvError = e;
+            csvWriter = null;
+        }
+    }
+
+
+    /**
+     * Writes the csv lines buffered by every chain and flushes the csv writer if there is one. Should be called when
+     * the run finishes
+     */
+    public void flushCsv() {
+        ArrayList<StringBuilder> buffers;
+        synchronized(this) {
+            buffers = new ArrayList<>(csvBuffers);
+        }
+        for(StringBuilder buffer : buffers) {
+            synchronized(buffer) {  // a buffer is always locked before the job, the same as when a chain writes it
+                if(buffer.length() > 0) {
+                    writeCsv(buffer.toString());
+                    buffer.setLength(0);
+                }
+            }
+        }
+
+        synchronized(this) {
+            if(csvWriter != null) {
+                try {
+                    csvWriter.flush();
+                } catch(IOException e) {
+                    csvError = e;
+                    csvWriter = null;
+                }
+            }
+        }
+    }
+
+
+    /**
+     * @return  the error that stopped the csv from being streamed or null if there was none
+     */
+    public synchronized IOException getCsvError() {
+        return csvError;
+    }
+
+
+    /**
+     * @return  the fraction of the iterations that have been completed from 0.0 to 1.0
+     */
+    public double getProgress() {
+        return Math.min((double)iterationsDone.sum() / totalIterations, 1.0);
+    }
+
+
+    /**
+     * @return  the number of iterations that have been completed
+     */
+    public long getIterationsDone() {
+        return iterationsDone.sum();
+    }
+
+
+    /**
+     * @return  the number of iterations completed per second, not counting time spent paused
+     */
+    public double getIterationsPerSecond() {
+        long now = System.nanoTime();
+        long paused;
+        synchronized(pauseLock) {
+            paused = pausedNanos + (isPaused ? now - pauseStartNanos : 0);
+        }
+        double seconds = (now - startNanos - paused) / 1e9;
+        return seconds > 0 ? getIterationsDone() / seconds : 0.0;
+    }
+
+
+    /**
+     * @return  the best cost found so far by any chain of the run
+     */
+    public double getBestCost() {
+        return bestCost;
+    }
+
+
+    /**
+     * @return  the samples of the best cost, keyed by the number of iterations completed when they were taken
+     */
+    public CostSampleBuffer getSamples() {
+        return samples;
+    }
+//endregion
+}
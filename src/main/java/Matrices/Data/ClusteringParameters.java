@@ -0,0 +1,200 @@
+package Matrices.Data;
+
+
+/**
+ * The parameters of a clustering run. Every engine uses the cost parameters (optimal cluster size, powcc, and
+ * calculate by weight) and the number of iterations; the other parameters are only read by the engines that need
+ * them. New parameters start with the defaults of Thebeau's paper
+ *
+ * @author: Aiden Carney
+ */
+public class ClusteringParameters {
+    private double optimalSizeCluster = 4.5;
+    private double powcc = 1.0;
+    private double powdep = 4.0;
+    private double powbid = 1.0;
+    private double randBid = 122;
+    private double randAccept = 122;
+    private boolean calculateByWeight = true;
+    private int numIterations = 1000;
+    private double initialTemperature = 0.0;
+
+
+    /**
+     * Creates a new set of parameters with the default values
+     */
+    public ClusteringParameters() {}
+
+
+    /**
+     * Creates a new set of parameters with the values used by Thebeau's algorithm
+     *
+     * @param optimalSizeCluster a constant to penalize clusters not of this size
+     * @param powdep             constant to emphasize interactions
+     * @param powbid             constant to penalize cluster size when bidding
+     * @param powcc              constant to penalize size of cluster in cost calculation
+     * @param randBid            constant to determine how often to perform an action based on the second highest bid
+     * @param randAccept         constant to determine how often to perform a not necessarily optimal action
+     * @param calculateByWeight  calculate scores and bidding by weight or by number of occurrences
+     * @param numIterations      number of iterations
+     */
+    public ClusteringParameters(double optimalSizeCluster, double powdep, double powbid, double powcc, double randBid, double randAccept, boolean calculateByWeight, int numIterations) {
+        this.optimalSizeCluster = optimalSizeCluster;
+        this.powdep = powdep;
+        this.powbid = powbid;
+        this.powcc = powcc;
+        this.randBid = randBid;
+        this.randAccept = randAccept;
+        this.calculateByWeight = calculateByWeight;
+        this.numIterations = numIterations;
+    }
+
+
+//region Getters
+    /**
+     * @return  the cluster size that is not penalized
+     */
+    public double getOptimalSizeCluster() {
+        return optimalSizeCluster;
+    }
+
+
+    /**
+     * @return  the exponent that penalizes the size of clusters in the coordination cost
+     */
+    public double getPowcc() {
+        return powcc;
+    }
+
+
+    /**
+     * @return  the exponent that emphasizes interactions when bidding
+     */
+    public double getPowdep() {
+        return powdep;
+    }
+
+
+    /**
+     * @return  the exponent that penalizes the size of clusters when bidding
+     */
+    public double getPowbid() {
+        return powbid;
+    }
+
+
+    /**
+     * @return  one in how many moves goes to the second highest bidder
+     */
+    public double getRandBid() {
+        return randBid;
+    }
+
+
+    /**
+     * @return  one in how many moves are accepted even if they do not lower the cost
+     */
+    public double getRandAccept() {
+        return randAccept;
+    }
+
+
+    /**
+     * @return  if costs and bids use the weight of connections instead of counting them
+     */
+    public boolean isCalculateByWeight() {
+        return calculateByWeight;
+    }
+
+
+    /**
+     * @return  the number of moves each run evaluates
+     */
+    public int getNumIterations() {
+        return numIterations;
+    }
+
+
+    /**
+     * @return  the starting temperature of simulated annealing, zero or less to choose it from the matrix
+     */
+    public double getInitialTemperature() {
+        return initialTemperature;
+    }
+//endregion
+
+
+//region Setters
+    /**
+     * @param optimalSizeCluster  the cluster size that is not penalized
+     */
+    public void setOptimalSizeCluster(double optimalSizeCluster) {
+        this.optimalSizeCluster = optimalSizeCluster;
+    }
+
+
+    /**
+     * @param powcc  the exponent that penalizes the size of clusters in the coordination cost
+     */
+    public void setPowcc(double powcc) {
+        this.powcc = powcc;
+    }
+
+
+    /**
+     * @param powdep  the exponent that emphasizes interactions when bidding
+     */
+    public void setPowdep(double powdep) {
+        this.powdep = powdep;
+    }
+
+
+    /**
+     * @param powbid  the exponent that penalizes the size of clusters when bidding
+     */
+    public void setPowbid(double powbid) {
+        this.powbid = powbid;
+    }
+
+
+    /**
+     * @param randBid  one in how many moves goes to the second highest bidder
+     */
+    public void setRandBid(double randBid) {
+        this.randBid = randBid;
+    }
+
+
+    /**
+     * @param randAccept  one in how many moves are accepted even if they do not lower the cost
+     */
+    public void setRandAccept(double randAccept) {
+        this.randAccept = randAccept;
+    }
+
+
+    /**
+     * @param calculateByWeight  if costs and bids use the weight of connections instead of counting them
+     */
+    public void setCalculateByWeight(boolean calculateByWeight) {
+        this.calculateByWeight = calculateByWeight;
+    }
+
+
+    /**
+     * @param numIterations  the number of moves each run evaluates
+     */
+    public void setNumIterations(int numIterations) {
+        this.numIterations = numIterations;
+    }
+
+
+    /**
+     * @param initialTemperature  the starting temperature of simulated annealing, zero or less to choose it from the
+     *                            matrix
+     */
+    public void setInitialTemperature(double initialTemperature) {
+        this.initialTemperature = initialTemperature;
+    }
+//endregion
+}
@@ -0,0 +1,52 @@
+package Matrices.Data;
+
+
+/**
+ * The best assignment of items to clusters found by a clustering run. Item i is row i of the snapshot the run was
+ * performed on. Use SymmetricDSMData.applyClusterAssignment to turn it into groupings
+ *
+ * @author: Aiden Carney
+ */
+public final class ClusteringResult {
+    private final int[] assignment;
+    private final int numClusters;
+    private final double cost;
+
+
+    /**
+     * Creates a new result
+     *
+     * @param assignment   the cluster of each item
+     * @param numClusters  the number of clusters, clusters are numbered 0 to numClusters - 1
+     * @param cost         the coordination cost of the assignment
+     */
+    public ClusteringResult(int[] assignment, int numClusters, double cost) {
+        this.assignment = assignment;
+        this.numClusters = numClusters;
+        this.cost = cost;
+    }
+
+
+    /**
+     * @return  the cluster of each item
+     */
+    public int[] getAssignment() {
+        return assignment;
+    }
+
+
+    /**
+     * @return  the number of clusters items could be assigned to, including clusters that ended up empty
+     */
+    public int getNumClusters() {
+        return numClusters;
+    }
+
+
+    /**
+     * @return  the coordination cost of the assignment
+     */
+    public double getCost() {
+        return cost;
+    }
+}
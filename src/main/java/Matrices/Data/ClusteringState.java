@@ -0,0 +1,493 @@
+package Matrices.Data;
+
+import Matrices.Data.Entities.DSMItem;
+import Matrices.Data.Entities.Grouping;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+
+/**
+ * The assignment of the items of a symmetric matrix to clusters along with the terms of its coordination cost
+ * (https://dsmweborg.files.wordpress.com/2019/05/msc_thebeau.pdf p28-29). Items and clusters are given dense indices
+ * and the connections are stored as adjacency arrays so that the cost of moving a single item to another cluster can
+ * be found from only the connections of that item instead of recalculating the cost of the whole matrix.
+ *
+ * The coordination cost is the sum over every connection of w * |optimalSizeCluster - size|^powcc when both of its
+ * items are in the same cluster and w * n^powcc when they are not. Because of this the state only needs the number of
+ * items in each cluster, the total weight of the connections inside each cluster, and the total weight of the
+ * connections between clusters. Columns are identified with the rows they are aliased to, so columns without an
+ * aliased row do not count towards the cost
+ *
+ * @author: Aiden Carney
+ */
+public class ClusteringState {
+    private final MatrixSnapshot snapshot;
+    private final int numItems;
+    private final double optimalSizeCluster;
+    private final double powcc;
+    private final double extraFactor;  // n^powcc, the cost of one unit of weight between clusters
+
+    // adjacency of each item. The connections from item i are outItems[outStart[i]] until outItems[outStart[i + 1]]
+    // and the connections to item i are inItems[inStart[i]] until inItems[inStart[i + 1]]. Connections from an item
+    // to itself are kept separately because they are always inside its cluster
+    private final int[] outStart;
+    private final int[] outItems;
+    private final double[] outWeights;
+    private final int[] inStart;
+    private final int[] inItems;
+    private final double[] inWeights;
+    private final double[] selfWeights;
+
+    private final int[] assignment;  // item -> cluster
+    private final int[] clusterSizes;
+    private final double[] intraWeights;  // cluster -> total weight of the connections inside the cluster
+    private double extraWeight;  // total weight of the connections between clusters
+    private double cost;
+
+    private final double[] inoutScratch;  // cluster -> weight from the item whose bids are being calculated, all zero between calls
+    private final double[] weightsScratch = new double[2];  // weights from the item being moved to its old and new cluster
+    private final double[] bidSizePenalties;  // size -> |optimalSizeCluster - size|^powbid for the last powbid used
+    private double bidSizePenaltiesPowbid = Double.NaN;
+
+
+    /**
+     * Creates a new clustering state from a snapshot of a symmetric matrix. Item i is row i of the snapshot
+     *
+     * @param snapshot            the connections of the matrix
+     * @param assignment          the cluster of each item, clusters are numbered 0 to numClusters - 1. Not copied
+     * @param numClusters         the number of clusters items can be assigned to
+     * @param optimalSizeCluster  the optimal size of a cluster
+     * @param powcc               constant to penalize the size of clusters
+     * @param calculateByWeight   use the weight of each connection or a weight of 1
+     */
+    public ClusteringState(MatrixSnapshot snapshot, int[] assignment, int numClusters, double optimalSizeCluster, double powcc, boolean calculateByWeight) {
+        this.snapshot = snapshot;
+        this.numItems = snapshot.getNumRows();
+        if(assignment.length != numItems) {
+            throw new IllegalArgumentException("Assignment has " + assignment.length + " items but the matrix has " + numItems + " rows");
+        }
+        this.optimalSizeCluster = optimalSizeCluster;
+        this.powcc = powcc;
+        this.extraFactor = Math.pow(numItems, powcc);
+        this.assignment = assignment;
+
+        // count the connections of each item so that the adjacency arrays can be filled in one pass
+        outStart = new int[numItems + 1];
+        inStart = new int[numItems + 1];
+        selfWeights = new double[numItems];
+        for(int r = 0; r < numItems; r++) {
+            for(int e = snapshot.getRowStart(r); e < snapshot.getRowEnd(r); e++) {
+                int c = snapshot.getColAliasRow(snapshot.getEntryCol(e));
+                if(c >= 0 && c != r) {
+                    outStart[r + 1] += 1;
+                    inStart[c + 1] += 1;
+                }
+            }
+        }
+        for(int i = 0; i < numItems; i++) {
+            outStart[i + 1] += outStart[i];
+            inStart[i + 1] += inStart[i];
+        }
+
+        outItems = new int[outStart[numItems]];
+        outWeights = new double[outStart[numItems]];
+        inItems = new int[inStart[numItems]];
+        inWeights = new double[inStart[numItems]];
+        int[] outNext = outStart.clone();
+        int[] inNext = inStart.clone();
+        for(int r = 0; r < numItems; r++) {
+            for(int e = snapshot.getRowStart(r); e < snapshot.getRowEnd(r); e++) {
+                int c = snapshot.getColAliasRow(snapshot.getEntryCol(e));
+                if(c < 0) continue;
+
+                double weight = calculateByWeight ? snapshot.getEntryWeight(e) : 1.0;
+                if(c == r) {
+                    selfWeights[r] += weight;
+                } else {
+                    outItems[outNext[r]] = c;
+                    outWeights[outNext[r]++] = weight;
+                    inItems[inNext[c]] = r;
+                    inWeights[inNext[c]++] = weight;
+                }
+            }
+        }
+
+        clusterSizes = new int[numClusters];
+        intraWeights = new double[numClusters];
+        inoutScratch = new double[numClusters];
+        bidSizePenalties = new double[numItems + 1];
+        calculateCost();
+    }
+
+
+    /**
+     * Calculates the cost terms of the current assignment from scratch
+     */
+    private void calculateCost() {
+        Arrays.fill(clusterSizes, 0);
+        Arrays.fill(intraWeights, 0.0);
+        extraWeight = 0.0;
+        for(int i = 0; i < numItems; i++) {
+            clusterSizes[assignment[i]] += 1;
+            intraWeights[assignment[i]] += selfWeights[i];
+            for(int e = outStart[i]; e < outStart[i + 1]; e++) {
+                if(assignment[outItems[e]] == assignment[i]) {
+                    intraWeights[assignment[i]] += outWeights[e];
+                } else {
+                    extraWeight += outWeights[e];
+                }
+            }
+        }
+        cost = extraWeight * extraFactor;
+        for(int g = 0; g < clusterSizes.length; g++) {
+            cost += intraWeights[g] * sizePenalty(clusterSizes[g]);
+        }
+    }
+
+
+    /**
+     * Replaces the assignment of every item and calculates the cost terms from scratch. Moving items updates the cost
+     * incrementally, so rounding errors build up over many moves. Use this to get the exact cost of an assignment
+     *
+     * @param newAssignment  the cluster of each item, is copied
+     */
+    public void setAssignment(int[] newAssignment) {
+        if(newAssignment.length != numItems) {
+            throw new IllegalArgumentException("Assignment has " + newAssignment.length + " items but the state has " + numItems);
+        }
+        System.arraycopy(newAssignment, 0, assignment, 0, numItems);
+        calculateCost();
+    }
+
+
+    /**
+     * Creates a new clustering state from the current groupings of the rows of a symmetric matrix
+     *
+     * @param matrix              the matrix
+     * @param clusters            the groupings that can be clustered into, every row must be in one of them
+     * @param optimalSizeCluster  the optimal size of a cluster
+     * @param powcc               constant to penalize the size of clusters
+     * @param calculateByWeight   use the weight of each connection or a weight of 1
+     */
+    public ClusteringState(SymmetricDSMData matrix, List<Grouping> clusters, double optimalSizeCluster, double powcc, boolean calculateByWeight) {
+        this(matrix.getSnapshot(), matrix, clusters, optimalSizeCluster, powcc, calculateByWeight);
+    }
+
+
+    /**
+     * Creates a new clustering state from the current groupings of the rows of a snapshot of a symmetric matrix
+     *
+     * @param snapshot            the snapshot of the matrix
+     * @param matrix              the matrix the snapshot was taken of
+     * @param clusters            the groupings that can be clustered into, every row must be in one of them
+     * @param optimalSizeCluster  the optimal size of a cluster
+     * @param powcc               constant to penalize the size of clusters
+     * @param calculateByWeight   use the weight of each connection or a weight of 1
+     */
+    private ClusteringState(MatrixSnapshot snapshot, SymmetricDSMData matrix, List<Grouping> clusters, double optimalSizeCluster, double powcc, boolean calculateByWeight) {
+        this(snapshot, getAssignment(snapshot, matrix, clusters), clusters.size(), optimalSizeCluster, powcc, calculateByWeight);
+    }
+
+
+    /**
+     * Finds the index of the grouping of each row of a snapshot
+     *
+     * @param snapshot  the snapshot of the matrix
+     * @param matrix    the matrix the snapshot was taken of
+     * @param clusters  the groupings that can be clustered into
+     * @return          the cluster of each row in the order of the rows of the snapshot
+     */
+    private static int[] getAssignment(MatrixSnapshot snapshot, SymmetricDSMData matrix, List<Grouping> clusters) {
+        HashMap<Integer, Integer> clusterIndices = new HashMap<>();
+        for(int g = 0; g < clusters.size(); g++) {
+            clusterIndices.put(clusters.get(g).getUid(), g);
+        }
+
+        int[] assignment = new int[snapshot.getNumRows()];
+        for(int i = 0; i < assignment.length; i++) {
+            DSMItem row = matrix.getItem(snapshot.getRowUid(i));
+            Integer cluster = clusterIndices.get(row.getGroup1().getUid());
+            if(cluster == null) {
+                throw new IllegalArgumentException("Row " + row.getName().getValue() + " is not in any of the clusters");
+            }
+            assignment[i] = cluster;
+        }
+        return assignment;
+    }
+
+
+    /**
+     * @param size  the number of items in a cluster
+     * @return      the cost of one unit of weight inside a cluster of that size
+     */
+    private double sizePenalty(int size) {
+        return Math.pow(Math.abs(optimalSizeCluster - size), powcc);
+    }
+
+
+    /**
+     * @param uid  the uid of a row of the matrix
+     * @return     the index of the item for that row or -1 if it is not in the state
+     */
+    public int getItemIndex(int uid) {
+        return snapshot.getRowIndex(uid);
+    }
+
+
+    /**
+     * @return  the number of items
+     */
+    public int getNumItems() {
+        return numItems;
+    }
+
+
+    /**
+     * @return  the number of clusters items can be assigned to
+     */
+    public int getNumClusters() {
+        return clusterSizes.length;
+    }
+
+
+    /**
+     * @param item  the index of an item
+     * @return      the cluster the item is in
+     */
+    public int getCluster(int item) {
+        return assignment[item];
+    }
+
+
+    /**
+     * @param cluster  the index of a cluster
+     * @return         the number of items in the cluster
+     */
+    public int getClusterSize(int cluster) {
+        return clusterSizes[cluster];
+    }
+
+
+    /**
+     * @param cluster  the index of a cluster
+     * @return         the cost of the connections inside the cluster
+     */
+    public double getIntraCost(int cluster) {
+        return intraWeights[cluster] * sizePenalty(clusterSizes[cluster]);
+    }
+
+
+    /**
+     * @return  the cost of the connections between clusters
+     */
+    public double getExtraCost() {
+        return extraWeight * extraFactor;
+    }
+
+
+    /**
+     * @return  the coordination cost of the current assignment
+     */
+    public double getCost() {
+        return cost;
+    }
+
+
+    /**
+     * Calculates the bid of a cluster for an item. The bid is inout^powdep / |optimalSizeCluster - size|^powbid where
+     * inout is the weight of the connections from the item to the other items in the cluster
+     *
+     * @param item     the index of the item
+     * @param cluster  the index of the cluster
+     * @param powdep   constant to emphasize interactions
+     * @param powbid   constant to penalize cluster size
+     * @return         the bid of the cluster
+     */
+    public double getBid(int item, int cluster, double powdep, double powbid) {
+        double inout = 0.0;
+        for(int e = outStart[item]; e < outStart[item + 1]; e++) {
+            if(assignment[outItems[e]] == cluster) {
+                inout += outWeights[e];
+            }
+        }
+        return Math.pow(inout, powdep) / bidSizePenalty(clusterSizes[cluster], powbid);
+    }
+
+
+    /**
+     * Returns |optimalSizeCluster - size|^powbid from a table that is rebuilt when powbid changes, so that bidding does
+     * not need a call to Math.pow for every cluster
+     *
+     * @param size    the number of items in a cluster
+     * @param powbid  constant to penalize cluster size
+     * @return        the size penalty of the bid of a cluster of that size
+     */
+    private double bidSizePenalty(int size, double powbid) {
+        if(Double.compare(powbid, bidSizePenaltiesPowbid) != 0) {
+            for(int s = 0; s < bidSizePenalties.length; s++) {
+                bidSizePenalties[s] = Math.pow(Math.abs(optimalSizeCluster - s), powbid);
+            }
+            bidSizePenaltiesPowbid = powbid;
+        }
+        return bidSizePenalties[size];
+    }
+
+
+    /**
+     * Calculates the bid of every cluster for an item at once. Clusters the item has no connections to all bid
+     * 0^powdep / |optimalSizeCluster - size|^powbid, so only the clusters of the connections of the item need their
+     * inout accumulated. Runs in time proportional to the number of connections of the item plus the number of
+     * clusters. Uses scratch arrays of the state, so bids of the same state cannot be calculated on several threads
+     *
+     * @param item           the index of the item
+     * @param powdep         constant to emphasize interactions
+     * @param powbid         constant to penalize cluster size
+     * @param countIncoming  if the connections to the item count towards inout as well as the connections from it
+     * @param bids           array of at least the number of clusters to store the bid of each cluster in
+     */
+    public void getBids(int item, double powdep, double powbid, boolean countIncoming, double[] bids) {
+        double noConnections = Math.pow(0.0, powdep);
+        for(int g = 0; g < clusterSizes.length; g++) {
+            bids[g] = noConnections / bidSizePenalty(clusterSizes[g], powbid);
+        }
+
+        for(int e = outStart[item]; e < outStart[item + 1]; e++) {
+            inoutScratch[assignment[outItems[e]]] += outWeights[e];
+        }
+        if(countIncoming) {
+            for(int e = inStart[item]; e < inStart[item + 1]; e++) {
+                inoutScratch[assignment[inItems[e]]] += inWeights[e];
+            }
+        }
+
+        // a cluster is updated and cleared the first time it is seen
+        for(int e = outStart[item]; e < outStart[item + 1]; e++) {
+            updateBid(assignment[outItems[e]], powdep, powbid, bids);
+        }
+        if(countIncoming) {
+            for(int e = inStart[item]; e < inStart[item + 1]; e++) {
+                updateBid(assignment[inItems[e]], powdep, powbid, bids);
+            }
+        }
+    }
+
+
+    /**
+     * Sets the bid of a cluster from its accumulated inout and clears the inout
+     *
+     * @param cluster  the index of the cluster
+     * @param powdep   constant to emphasize interactions
+     * @param powbid   constant to penalize cluster size
+     * @param bids     the bid of each cluster
+     */
+    private void updateBid(int cluster, double powdep, double powbid, double[] bids) {
+        if(inoutScratch[cluster] != 0.0) {
+            bids[cluster] = Math.pow(inoutScratch[cluster], powdep) / bidSizePenalty(clusterSizes[cluster], powbid);
+            inoutScratch[cluster] = 0.0;
+        }
+    }
+
+
+    /**
+     * @param item  the index of the item
+     * @return      the number of connections to and from the item, not counting connections to itself
+     */
+    public int getDegree(int item) {
+        return (outStart[item + 1] - outStart[item]) + (inStart[item + 1] - inStart[item]);
+    }
+
+
+    /**
+     * @param item  the index of the item
+     * @param k     which connection of the item, from 0 to getDegree(item) - 1
+     * @return      the index of the item on the other end of the connection
+     */
+    public int getNeighbor(int item, int k) {
+        int numOut = outStart[item + 1] - outStart[item];
+        return (k < numOut) ? outItems[outStart[item] + k] : inItems[inStart[item] + k - numOut];
+    }
+
+
+    /**
+     * Finds the total weight of the connections in both directions between an item and the other items in two clusters
+     *
+     * @param item     the index of the item
+     * @param first    the index of the first cluster
+     * @param second   the index of the second cluster
+     * @param weights  array of length 2 to store the weight to the first and second cluster in
+     */
+    private void getWeightsTo(int item, int first, int second, double[] weights) {
+        weights[0] = 0;
+        weights[1] = 0;
+        for(int e = outStart[item]; e < outStart[item + 1]; e++) {
+            int cluster = assignment[outItems[e]];
+            if(cluster == first) {
+                weights[0] += outWeights[e];
+            } else if(cluster == second) {
+                weights[1] += outWeights[e];
+            }
+        }
+        for(int e = inStart[item]; e < inStart[item + 1]; e++) {
+            int cluster = assignment[inItems[e]];
+            if(cluster == first) {
+                weights[0] += inWeights[e];
+            } else if(cluster == second) {
+                weights[1] += inWeights[e];
+            }
+        }
+    }
+
+
+    /**
+     * Calculates how much the coordination cost would change if an item was moved to a different cluster. Runs in
+     * time proportional to the number of connections of the item. Uses a scratch array of the state, so it cannot be
+     * called on several threads at once
+     *
+     * @param item     the index of the item
+     * @param cluster  the cluster to move the item to
+     * @return         the cost after the move minus the cost before the move
+     */
+    public double getMoveDelta(int item, int cluster) {
+        int from = assignment[item];
+        if(from == cluster) {
+            return 0.0;
+        }
+
+        getWeightsTo(item, from, cluster, weightsScratch);
+        double fromWeight = weightsScratch[0] + selfWeights[item];  // weight that leaves the old cluster
+        double toWeight = weightsScratch[1] + selfWeights[item];  // weight that joins the new cluster
+
+        double delta = (weightsScratch[0] - weightsScratch[1]) * extraFactor;
+        delta += (intraWeights[from] - fromWeight) * sizePenalty(clusterSizes[from] - 1) - intraWeights[from] * sizePenalty(clusterSizes[from]);
+        delta += (intraWeights[cluster] + toWeight) * sizePenalty(clusterSizes[cluster] + 1) - intraWeights[cluster] * sizePenalty(clusterSizes[cluster]);
+        return delta;
+    }
+
+
+    /**
+     * Moves an item to a different cluster and updates the cost terms. Runs in time proportional to the number of
+     * connections of the item
+     *
+     * @param item     the index of the item
+     * @param cluster  the cluster to move the item to
+     */
+    public void moveItem(int item, int cluster) {
+        int from = assignment[item];
+        if(from == cluster) {
+            return;
+        }
+
+        getWeightsTo(item, from, cluster, weightsScratch);
+
+        cost -= getIntraCost(from) + getIntraCost(cluster) + getExtraCost();
+        intraWeights[from] -= weightsScratch[0] + selfWeights[item];
+        intraWeights[cluster] += weightsScratch[1] + selfWeights[item];
+        extraWeight += weightsScratch[0] - weightsScratch[1];
+        clusterSizes[from] -= 1;
+        clusterSizes[cluster] += 1;
+        assignment[item] = cluster;
+        cost += getIntraCost(from) + getIntraCost(cluster) + getExtraCost();
+    }
+}
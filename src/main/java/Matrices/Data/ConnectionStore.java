@@ -0,0 +1,469 @@
+package Matrices.Data;
+
+import Matrices.Data.Entities.DSMConnection;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+
+/**
+ * A collection of the connections of a matrix that is indexed by the (row uid, column uid) pair of each connection.
+ * Lookup, insertion, and deletion of a connection are all constant time. Connections are held in a dense array so
+ * that iteration order is stable and does not depend on hashing. Deleting a connection moves the last connection
+ * into the hole that was left so that no shifting of the array is needed. The store also keeps the adjacency of
+ * each row and column so that the connections of a single item can be found in time proportional to its degree
+ *
+ * Stores can be copied in constant time. A copy freezes the current connections into a read only layer that is
+ * shared by both stores, and each store then only records its own additions and removals on top of it. This relies on
+ * connections being immutable, so a connection is changed by adding its replacement. Copying does not change the
+ * connections that are visible in the store, so a copy can be made while other threads are reading the store
+ *
+ * @author: Aiden Carney
+ */
+public class ConnectionStore extends AbstractCollection<DSMConnection> {
+    private static final int MAX_DEPTH = 8;  // number of shared layers before they are flattened into one
+
+    private final Object freezeLock = new Object();  // held while a copy freezes the top layer
+    private volatile Layer top;  // the layer changes are made in, replaced as a whole when it is frozen
+
+
+    /**
+     * The connections added and removed in a single layer of a store. A layer is only changed while it is the top layer
+     * of a single store. Once it is frozen by a copy it is shared and never changed again
+     */
+    private static final class Layer {
+        private final ArrayList<DSMConnection> connections = new ArrayList<>();  // connections added in this layer
+        private final HashMap<Long, Integer> index = new HashMap<>();  // packed (rowUid, colUid) -> location in the connections array
+        private final HashMap<Integer, LinkedHashMap<Integer, DSMConnection>> rowAdjacency = new HashMap<>();  // rowUid -> (colUid -> connection)
+        private final HashMap<Integer, LinkedHashMap<Integer, DSMConnection>> colAdjacency = new HashMap<>();  // colUid -> (rowUid -> connection)
+        private final HashSet<Long> hidden = new HashSet<>();  // keys of connections in base that were removed or replaced in this layer
+        private final Layer base;  // read only layer under this one, null when nothing is shared
+        private final int depth;  // number of layers under this one
+        private int size;  // number of connections visible through this layer
+
+
+        /**
+         * Creates a new empty layer on top of a frozen layer
+         *
+         * @param base  the frozen layer or null
+         */
+        Layer(Layer base) {
+            this.base = base;
+            this.depth = base == null ? 0 : base.depth + 1;
+            this.size = base == null ? 0 : base.size;
+        }
+
+
+        /**
+         * @return  true if connections were added or removed in this layer
+         */
+        boolean hasChanges() {
+            return !connections.isEmpty() || !hidden.isEmpty();
+        }
+
+
+        /**
+         * Finds the connection with a given key by looking through this layer and the shared layers under it
+         *
+         * @param k  the packed key of the connection
+         * @return   the connection or null if there is no connection
+         */
+        DSMConnection find(long k) {
+            for(Layer layer = this; layer != null; layer = layer.base) {
+                Integer i = layer.index.get(k);
+                if(i != null) {
+                    return layer.connections.get(i);
+                }
+                if(layer.hidden.contains(k)) {
+                    return null;
+                }
+            }
+            return null;
+        }
+
+
+        /**
+         * Returns the connections that are visible through this layer, going from the bottom layer to this one
+         *
+         * @param layerConnections  function that returns the connections of interest that were added in a single layer
+         * @return                  stream of the visible connections in a stable order
+         */
+        Stream<DSMConnection> stream(Function<Layer, Collection<DSMConnection>> layerConnections) {
+            Stream<DSMConnection> local = layerConnections.apply(this).stream();
+            if(base == null) {
+                return local;
+            }
+            Stream<DSMConnection> shared = base.stream(layerConnections).filter(c -> !hidden.contains(key(c.getRowUid(), c.getColUid())));
+            return Stream.concat(shared, local);
+        }
+
+
+        /**
+         * Adds a connection to this layer, replacing the connection with the same key if there is one
+         *
+         * @param connection  the connection to add
+         */
+        void add(DSMConnection connection) {
+            long k = key(connection.getRowUid(), connection.getColUid());
+            Integer i = index.get(k);
+            if(i != null) {
+                connections.set(i, connection);
+            } else {
+                if(base != null && !hidden.contains(k) && base.find(k) != null) {  // replaces a shared connection
+                    hidden.add(k);
+                } else {
+                    size += 1;
+                }
+                index.put(k, connections.size());
+                connections.add(connection);
+            }
+            rowAdjacency.computeIfAbsent(connection.getRowUid(), uid -> new LinkedHashMap<>()).put(connection.getColUid(), connection);
+            colAdjacency.computeIfAbsent(connection.getColUid(), uid -> new LinkedHashMap<>()).put(connection.getRowUid(), connection);
+        }
+
+
+        /**
+         * Removes the connection with a given key from this layer, hiding it if it is in a shared layer
+         *
+         * @param rowUid  the uid of the row item in the connection
+         * @param colUid  the uid of the column item in the connection
+         * @return        the removed connection or null if there was no connection
+         */
+        DSMConnection remove(int rowUid, int colUid) {
+            long k = key(rowUid, colUid);
+            Integer i = index.remove(k);
+            if(i == null) {
+                if(base == null || hidden.contains(k)) {
+                    return null;
+                }
+                DSMConnection shared = base.find(k);
+                if(shared != null) {  // hide the shared connection instead of removing it
+                    hidden.add(k);
+                    size -= 1;
+                }
+                return shared;
+            }
+
+            DSMConnection removed = connections.get(i);
+            int last = connections.size() - 1;
+            if(i != last) {  // move the last connection into the hole so nothing has to shift
+                DSMConnection moved = connections.get(last);
+                connections.set(i, moved);
+                index.put(key(moved.getRowUid(), moved.getColUid()), i);
+            }
+            connections.remove(last);
+            removeAdjacency(rowAdjacency, rowUid, colUid);
+            removeAdjacency(colAdjacency, colUid, rowUid);
+            size -= 1;
+
+            return removed;
+        }
+    }
+
+
+    /**
+     * Creates a new empty connection store
+     */
+    public ConnectionStore() {
+        top = new Layer(null);
+    }
+
+
+    /**
+     * Creates a new store on top of a frozen layer
+     *
+     * @param base  the frozen layer to share
+     */
+    private ConnectionStore(Layer base) {
+        top = new Layer(base);
+    }
+
+
+    /**
+     * Creates a new connection store containing the connections of a collection. Connections are not copied
+     *
+     * @param connections  the connections to add to the store
+     */
+    public ConnectionStore(Collection<DSMConnection> connections) {
+        top = new Layer(null);
+        addAll(connections);
+    }
+
+
+    /**
+     * Packs a row uid and a column uid into a single key. The row uid is the upper 32 bits and the column uid
+     * is the lower 32 bits
+     *
+     * @param rowUid  the uid of the row item
+     * @param colUid  the uid of the column item
+     * @return        the packed key
+     */
+    public static long key(int rowUid, int colUid) {
+        return ((long) rowUid << 32) | (colUid & 0xFFFFFFFFL);
+    }
+
+
+    /**
+     * Creates a copy of this store in constant time. The connections currently in the store are shared between
+     * the two stores and changes made to either store afterwards are not seen by the other. The store is not changed
+     * by copying, so copies can be made while other threads read the store but not while it is being changed
+     *
+     * @return  the copy
+     */
+    public ConnectionStore copy() {
+        synchronized(freezeLock) {
+            Layer live = top;
+            if(!live.hasChanges()) {  // nothing new to freeze so share the layer under this one
+                return new ConnectionStore(live.base);
+            }
+
+            // the live layer is frozen as it is, so readers still holding it see the same connections
+            Layer frozen = live;
+            if(frozen.depth >= MAX_DEPTH) {  // too many layers to look through, so flatten them
+                frozen = new Layer(null);
+                for(Iterator<DSMConnection> it = live.stream(layer -> layer.connections).iterator(); it.hasNext(); ) {
+                    frozen.add(it.next());
+                }
+            }
+            top = new Layer(frozen);
+
+            return new ConnectionStore(frozen);
+        }
+    }
+
+
+    /**
+     * Returns a read only view of the connections that are visible through a layer
+     *
+     * @param layer             the layer to view
+     * @param layerConnections  function that returns the connections of interest that were added in a single layer
+     * @return                  the view
+     */
+    private static Collection<DSMConnection> layeredView(Layer layer, Function<Layer, Collection<DSMConnection>> layerConnections) {
+        return new AbstractCollection<>() {
+            @Override
+            public Iterator<DSMConnection> iterator() {
+                return layer.stream(layerConnections).iterator();
+            }
+
+            @Override
+            public int size() {
+                return (int) layer.stream(layerConnections).count();
+            }
+        };
+    }
+
+
+    /**
+     * Returns the connections added in this layer from an adjacency map
+     *
+     * @param adjacency  the row or column adjacency of this layer
+     * @param uid        the uid of the item
+     * @return           the connections of the item in this layer
+     */
+    private static Collection<DSMConnection> adjacencyOf(HashMap<Integer, LinkedHashMap<Integer, DSMConnection>> adjacency, int uid) {
+        LinkedHashMap<Integer, DSMConnection> itemAdjacency = adjacency.get(uid);
+        if(itemAdjacency == null) {
+            return Collections.emptyList();
+        }
+        return Collections.unmodifiableCollection(itemAdjacency.values());
+    }
+
+
+    /**
+     * Returns the connection from row item with rowUid to column item with colUid
+     *
+     * @param rowUid  the uid of the row item in the connection
+     * @param colUid  the uid of the column item in the connection
+     * @return        the connection or null if there is no connection
+     */
+    public DSMConnection get(int rowUid, int colUid) {
+        return top.find(key(rowUid, colUid));
+    }
+
+
+    /**
+     * Returns the connection at a given position in the iteration order of the store. Constant time unless the store
+     * shares connections with a copy, in which case it is linear in the size of the store because the shared layers
+     * have to be walked to find the position. Iterate the store or use get(rowUid, colUid) instead of calling this in
+     * a loop
+     *
+     * @param i  the position of the connection
+     * @return   the connection at that position
+     */
+    public DSMConnection get(int i) {
+        Layer layer = top;
+        if(layer.base == null) {
+            return layer.connections.get(i);
+        }
+        if(i < 0 || i >= layer.size) {
+            throw new IndexOutOfBoundsException("Index " + i + " out of bounds for length " + layer.size);
+        }
+        return layer.stream(l -> l.connections).skip(i).findFirst().orElseThrow();
+    }
+
+
+    /**
+     * Returns the connections where the item with rowUid is the row item
+     *
+     * @param rowUid  the uid of the row item
+     * @return        a read only view of the connections of the row
+     */
+    public Collection<DSMConnection> getRowConnections(int rowUid) {
+        Layer layer = top;
+        if(layer.base == null) {
+            return adjacencyOf(layer.rowAdjacency, rowUid);
+        }
+        return layeredView(layer, l -> adjacencyOf(l.rowAdjacency, rowUid));
+    }
+
+
+    /**
+     * Returns the connections where the item with colUid is the column item
+     *
+     * @param colUid  the uid of the column item
+     * @return        a read only view of the connections into the column
+     */
+    public Collection<DSMConnection> getColConnections(int colUid) {
+        Layer layer = top;
+        if(layer.base == null) {
+            return adjacencyOf(layer.colAdjacency, colUid);
+        }
+        return layeredView(layer, l -> adjacencyOf(l.colAdjacency, colUid));
+    }
+
+
+    /**
+     * Checks if there is a connection from row item with rowUid to column item with colUid
+     *
+     * @param rowUid  the uid of the row item in the connection
+     * @param colUid  the uid of the column item in the connection
+     * @return        true if the connection exists
+     */
+    public boolean contains(int rowUid, int colUid) {
+        return top.find(key(rowUid, colUid)) != null;
+    }
+
+
+    /**
+     * Adds a connection to the store. If there is already a connection with the same row and column uids
+     * it is replaced in place
+     *
+     * @param connection  the connection to add
+     * @return            true because the store always changes
+     */
+    @Override
+    public boolean add(DSMConnection connection) {
+        top.add(connection);
+        return true;
+    }
+
+
+    /**
+     * Removes the connection from row item with rowUid to column item with colUid if it exists
+     *
+     * @param rowUid  the uid of the row item in the connection
+     * @param colUid  the uid of the column item in the connection
+     * @return        the removed connection or null if there was no connection
+     */
+    public DSMConnection remove(int rowUid, int colUid) {
+        return top.remove(rowUid, colUid);
+    }
+
+
+    /**
+     * Removes a connection from the adjacency of an item. Drops the adjacency of the item if it is now empty
+     *
+     * @param adjacency  the row or column adjacency to remove from
+     * @param uid        the uid of the item whose adjacency the connection is in
+     * @param otherUid   the uid of the other item in the connection
+     */
+    private static void removeAdjacency(HashMap<Integer, LinkedHashMap<Integer, DSMConnection>> adjacency, int uid, int otherUid) {
+        LinkedHashMap<Integer, DSMConnection> itemAdjacency = adjacency.get(uid);
+        if(itemAdjacency != null) {
+            itemAdjacency.remove(otherUid);
+            if(itemAdjacency.isEmpty()) {
+                adjacency.remove(uid);
+            }
+        }
+    }
+
+
+    /**
+     * Removes a connection from the store. Connections are matched by their row and column uids
+     *
+     * @param o  the connection to remove
+     * @return   true if a connection was removed
+     */
+    @Override
+    public boolean remove(Object o) {
+        if(!(o instanceof DSMConnection connection)) {
+            return false;
+        }
+        return remove(connection.getRowUid(), connection.getColUid()) != null;
+    }
+
+
+    /**
+     * Removes all the given connections from the store. Connections are matched by their row and column uids
+     *
+     * @param c  the connections to remove
+     * @return   true if any connection was removed
+     */
+    @Override
+    public boolean removeAll(Collection<?> c) {
+        boolean modified = false;
+        for(Object o : c) {
+            modified |= remove(o);
+        }
+        return modified;
+    }
+
+
+    /**
+     * Checks if the store contains a connection equal to the given one
+     *
+     * @param o  the connection to look for
+     * @return   true if an equal connection is in the store
+     */
+    @Override
+    public boolean contains(Object o) {
+        if(!(o instanceof DSMConnection connection)) {
+            return false;
+        }
+        DSMConnection stored = get(connection.getRowUid(), connection.getColUid());
+        return stored != null && stored.equals(connection);
+    }
+
+
+    /**
+     * Removes all connections from the store. Stops sharing connections with any copies
+     */
+    @Override
+    public void clear() {
+        top = new Layer(null);
+    }
+
+
+    /**
+     * @return  the number of connections in the store
+     */
+    @Override
+    public int size() {
+        return top.size;
+    }
+
+
+    /**
+     * @return  a read only iterator over the connections in a stable order
+     */
+    @Override
+    public Iterator<DSMConnection> iterator() {
+        Layer layer = top;
+        if(layer.base == null) {
+            return Collections.unmodifiableList(layer.connections).iterator();
+        }
+        return layer.stream(l -> l.connections).iterator();
+    }
+}
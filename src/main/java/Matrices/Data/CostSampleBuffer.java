@@ -0,0 +1,81 @@
+package Matrices.Data;
+
+
+/**
+ * A bounded ring buffer of (iteration, cost) samples used to send the progress of a clustering run from the thread
+ * running it to the gui. When the buffer is full the oldest sample is overwritten, so a long run never holds more
+ * than capacity samples. All methods are synchronized so samples can be added and read from different threads
+ *
+ * @author: Aiden Carney
+ */
+public class CostSampleBuffer {
+    private final long[] iterations;
+    private final double[] costs;
+    private int head;  // location of the oldest sample
+    private int size;
+
+
+    /**
+     * Creates a new empty buffer
+     *
+     * @param capacity  the maximum number of samples to keep, must be at least 1
+     */
+    public CostSampleBuffer(int capacity) {
+        if(capacity < 1) {
+            throw new IllegalArgumentException("capacity must be at least 1");
+        }
+        iterations = new long[capacity];
+        costs = new double[capacity];
+    }
+
+
+    /**
+     * @return  the maximum number of samples the buffer keeps
+     */
+    public int getCapacity() {
+        return iterations.length;
+    }
+
+
+    /**
+     * @return  the number of samples in the buffer
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+
+    /**
+     * Adds a sample to the newest end of the buffer, overwriting the oldest sample if the buffer is full
+     *
+     * @param iteration  the iteration the sample was taken at
+     * @param cost       the cost at that iteration
+     */
+    public synchronized void add(long iteration, double cost) {
+        int location = (head + size) % iterations.length;
+        iterations[location] = iteration;
+        costs[location] = cost;
+        if(size == iterations.length) {
+            head = (head + 1) % iterations.length;
+        } else {
+            size += 1;
+        }
+    }
+
+
+    /**
+     * Copies the samples in the buffer from oldest to newest without removing them
+     *
+     * @param iterationsOut  array of at least the capacity to store the iterations in
+     * @param costsOut       array of at least the capacity to store the costs in
+     * @return               the number of samples that were copied
+     */
+    public synchronized int copyTo(long[] iterationsOut, double[] costsOut) {
+        for(int i = 0; i < size; i++) {
+            int location = (head + i) % iterations.length;
+            iterationsOut[i] = iterations[location];
+            costsOut[i] = costs[location];
+        }
+        return size;
+    }
+}
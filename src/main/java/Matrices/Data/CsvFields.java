@@ -0,0 +1,26 @@
+package Matrices.Data;
+
+
+/**
+ * Helpers for writing the results of analyses as csv files
+ *
+ * @author: Aiden Carney
+ */
+final class CsvFields {
+    private CsvFields() {}
+
+
+    /**
+     * Quotes a value for a csv field if it contains a comma, a quote, or a line break. Quotes inside the value are
+     * doubled so the field can be read back unchanged
+     *
+     * @param value  the value of the field
+     * @return       the value as it should be written to the csv
+     */
+    static String quote(String value) {
+        if(value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+}
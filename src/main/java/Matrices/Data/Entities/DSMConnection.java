@@ -3,10 +3,12 @@ package Matrices.Data.Entities;
 import org.jdom2.Element;
 
 import java.util.ArrayList;
-import java.util.Objects;
+import java.util.BitSet;
+import java.util.HashSet;
 
 /**
- * Data class to manage DSM connections
+ * Data class to manage DSM connections. Connections are immutable so that they can be shared between a matrix and its
+ * copies. To change a connection, replace it through the matrix
  *
  * @author: Aiden Carney
  */
@@ -14,43 +16,76 @@ public class DSMConnection {
     private final int colUid;
     private final int rowUid;
 
-    private String connectionName;
-    private double weight;
-    private ArrayList<DSMInterfaceType> interfaces;
+    private final String connectionName;
+    private final double weight;
+
+    // the interfaces are stored as a mask of indices into the registry. The mask is never modified in place so it can
+    // be shared between connections
+    private final InterfaceTypeRegistry interfaceRegistry;
+    private final BitSet interfaces;
 
 
     /**
      * Creates a new connection data object
      *
-     * @param connectionName the name given to the connection
-     * @param weight         the weight given to the connection
-     * @param rowUid         the uid of the row item in the connection
-     * @param colUid         the uid of the column item in the connection
-     * @param interfaces     the interfaces for the connection
-     */
-    public DSMConnection(String connectionName, double weight, int rowUid, int colUid, ArrayList<DSMInterfaceType> interfaces) {
+     * @param connectionName    the name given to the connection
+     * @param weight            the weight given to the connection
+     * @param rowUid            the uid of the row item in the connection
+     * @param colUid            the uid of the column item in the connection
+     * @param interfaces        the interfaces for the connection
+     * @param interfaceRegistry the registry the interfaces are indexed in
+     */
+    public DSMConnection(String connectionName, double weight, int rowUid, int colUid, ArrayList<DSMInterfaceType> interfaces, InterfaceTypeRegistry interfaceRegistry) {
         this.connectionName = connectionName;
         this.weight = weight;
         this.colUid = colUid;
         this.rowUid = rowUid;
-        this.interfaces = Objects.requireNonNullElseGet(interfaces, ArrayList::new);
+        this.interfaceRegistry = interfaceRegistry;
+        this.interfaces = interfaceRegistry.getSharedMask(interfaces);
     }
 
 
     /**
-     * Copy constructor for DSMConnection
+     * Copy constructor for DSMConnection. The copy shares the interface registry and mask of the original
      *
      * @param copy DSMConnection object to copy
      */
     public DSMConnection(DSMConnection copy) {
+        this(copy, copy.getRowUid(), copy.getColUid());
+    }
+
+
+    /**
+     * Creates a connection with the same name, weight, and interfaces as another connection but between different
+     * items (ex. when a matrix is transposed)
+     *
+     * @param copy    the connection to copy
+     * @param rowUid  the uid of the row item in the new connection
+     * @param colUid  the uid of the column item in the new connection
+     */
+    public DSMConnection(DSMConnection copy, int rowUid, int colUid) {
+        connectionName = copy.getConnectionName();
+        weight = copy.getWeight();
+        this.colUid = colUid;
+        this.rowUid = rowUid;
+        interfaceRegistry = copy.interfaceRegistry;
+        interfaces = copy.interfaces;
+    }
+
+
+    /**
+     * Copies a connection so that its interfaces are indexed in a different registry
+     *
+     * @param copy               the connection to copy
+     * @param interfaceRegistry  the registry for the new connection
+     */
+    public DSMConnection(DSMConnection copy, InterfaceTypeRegistry interfaceRegistry) {
         connectionName = copy.getConnectionName();
         weight = copy.getWeight();
         colUid = copy.getColUid();
         rowUid = copy.getRowUid();
-        this.interfaces = new ArrayList<>();
-        for(DSMInterfaceType interfaceType : copy.getInterfaces()) {
-            this.interfaces.add(new DSMInterfaceType(interfaceType));
-        }
+        this.interfaceRegistry = interfaceRegistry;
+        interfaces = interfaceRegistry == copy.interfaceRegistry ? copy.interfaces : interfaceRegistry.getSharedMask(copy.getInterfaces());
     }
 
 
@@ -95,68 +130,50 @@ public class DSMConnection {
 
 
     /**
-     * @return  the list of interface types for the connection
+     * @return  a new list of the interface types for the connection
      */
     public ArrayList<DSMInterfaceType> getInterfaces() {
-        return interfaces;
-    }
-
-
-    /**
-     * Sets the current connection name to a new name
-     *
-     * @param connectionName the new name to be associated with the connection
-     */
-    public void setConnectionName(String connectionName) {
-        this.connectionName = connectionName;
-    }
-
-
-    /**
-     * Sets the current weight to a new weight
-     *
-     * @param weight the new weight to be associated with the connection
-     */
-    public void setWeight(double weight) {
-        this.weight = weight;
+        return interfaceRegistry.getInterfaces(interfaces);
     }
 
 
     /**
-     * Adds a new interface type to the connection if it is not already present
+     * Returns the interface types of the connection that are also in a mask from the same registry
      *
-     * @param interfaceType  the new interface type
+     * @param mask  the mask of interface types to keep
+     * @return      a new list of the interface types in both the connection and the mask
      */
-    public void addInterface(DSMInterfaceType interfaceType) {
-        if(!interfaces.contains(interfaceType)) {
-            interfaces.add(interfaceType);
-        }
+    public ArrayList<DSMInterfaceType> getInterfaces(BitSet mask) {
+        BitSet matching = (BitSet) interfaces.clone();
+        matching.and(mask);
+        return interfaceRegistry.getInterfaces(matching);
     }
 
 
     /**
-     * Removes an interface type from the connection if it is present
-     *
-     * @param interfaceType  the new interface type
+     * @return  the registry the interfaces of the connection are indexed in
      */
-    public void removeInterface(DSMInterfaceType interfaceType) {
-        interfaces.remove(interfaceType);
+    public InterfaceTypeRegistry getInterfaceRegistry() {
+        return interfaceRegistry;
     }
 
 
     /**
-     * Removes all interfaces from the connection
+     * @param interfaceType  the interface type to check for
+     * @return               true if the connection has the interface type
      */
-    public void clearInterfaces() {
-        interfaces.clear();
+    public boolean hasInterface(DSMInterfaceType interfaceType) {
+        int index = interfaceRegistry.getIndex(interfaceType);
+        return index >= 0 && interfaces.get(index);
     }
 
 
     /**
-     * Sets the interfaces for the connection
+     * @param mask  a mask of interface types from the same registry
+     * @return      true if the connection has any of the interface types in the mask
      */
-    public void setInterfaces(ArrayList<DSMInterfaceType> interfaces) {
-        this.interfaces = interfaces;
+    public boolean hasAnyInterface(BitSet mask) {
+        return interfaces.intersects(mask);
     }
 
 
@@ -173,7 +190,7 @@ public class DSMConnection {
         connElement.addContent(new Element("weight").setText(Double.valueOf(getWeight()).toString()));
 
         Element interfacesXML = new Element("interfaces");
-        for(DSMInterfaceType interfaceType : interfaces) {
+        for(DSMInterfaceType interfaceType : getInterfaces()) {
             Element interfaceElement = new Element("interface");
             interfaceElement.setAttribute("uid", interfaceType.getUid().toString());
             interfacesXML.addContent(interfaceElement);
@@ -216,15 +233,19 @@ public class DSMConnection {
     public boolean isSameConnectionType(DSMConnection c) {
         boolean namesEqual = c.getConnectionName().equals(this.getConnectionName());
         boolean weightsEqual = c.getWeight() == this.getWeight();
-        boolean interfacesEqual = false;
-        if(c.getInterfaces().size() == interfaces.size()) {
-            interfacesEqual = true;
-            for (DSMInterfaceType interfaceType : interfaces) {
-                if (!c.getInterfaces().stream().map(DSMInterfaceType::getUid).toList().contains(interfaceType.getUid())) {
-                    interfacesEqual = false;
-                    break;
-                }
+        boolean interfacesEqual;
+        if(c.interfaceRegistry == interfaceRegistry) {  // same indices so the masks can be compared directly
+            interfacesEqual = c.interfaces.equals(interfaces);
+        } else {
+            HashSet<Integer> uids = new HashSet<>();
+            for(DSMInterfaceType interfaceType : getInterfaces()) {
+                uids.add(interfaceType.getUid());
+            }
+            HashSet<Integer> otherUids = new HashSet<>();
+            for(DSMInterfaceType interfaceType : c.getInterfaces()) {
+                otherUids.add(interfaceType.getUid());
             }
+            interfacesEqual = uids.equals(otherUids);
         }
 
         return namesEqual && weightsEqual && interfacesEqual;  // compare based on name and weight
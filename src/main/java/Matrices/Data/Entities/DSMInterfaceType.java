@@ -15,12 +15,13 @@ public class DSMInterfaceType {
     private String abbreviation;
 
     /**
-     * Creates a new DSMInterfaceType with a given name
+     * Creates a new DSMInterfaceType with a given name. The uid is random and not checked against any matrix, so
+     * use AbstractDSMData.createInterfaceType for interface types that will be added to a matrix
      *
      * @param name  the starting name of the interface type
      */
     public DSMInterfaceType(String name, String abbreviation) {
-        this.uid = java.util.UUID.randomUUID().hashCode();
+        this.uid = UidAllocator.randomUid();
         this.name = name;
         this.abbreviation = abbreviation;
     }
@@ -24,7 +24,7 @@ public class DSMItem {
      * creates a new DSMItem with default values for its properties. Sets a uid
      */
     public DSMItem() {
-        this.uid = java.util.UUID.randomUUID().hashCode();
+        this.uid = UidAllocator.randomUid();
 
         this.name = new SimpleStringProperty("");
         this.sortIndex = 0.0;
@@ -40,7 +40,7 @@ public class DSMItem {
      * @param name  the starting name of the item
      */
     public DSMItem(double index, String name) {
-        this.uid = java.util.UUID.randomUUID().hashCode();
+        this.uid = UidAllocator.randomUid();
 
         this.name = new SimpleStringProperty(name);
         this.sortIndex = index;
@@ -165,7 +165,8 @@ public class DSMItem {
 
 
     /**
-     * Setter function for the alias uid of the item
+     * Setter function for the alias uid of the item. Must be called before the item is added to a matrix because
+     * matrices index their items by alias uid when they are added
      *
      * @param aliasUid the new alias uid of the item
      */
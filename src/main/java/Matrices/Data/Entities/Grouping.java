@@ -22,13 +22,14 @@ public class Grouping {
 
 
     /**
-     * Creates a new Grouping with a given name and color
+     * Creates a new Grouping with a given name and color. The uid is random and not checked against any matrix, so
+     * use AbstractDSMData.createGrouping for groupings that will be added to a matrix
      *
      * @param name  the starting name of the grouping
      * @param color the starting index of the grouping
      */
     public Grouping(String name, Color color) {
-        this.uid = java.util.UUID.randomUUID().hashCode();
+        this.uid = UidAllocator.randomUid();
         this.priority = DEFAULT_PRIORITY;
         this.name = name;
         this.color = color;
@@ -37,13 +38,13 @@ public class Grouping {
 
 
     /**
-     * Creates a new Grouping with given colors and name
+     * Creates a new Grouping with given colors and name. The uid is random and not checked against any matrix
      *
      * @param name  the starting name of the grouping
      * @param color the starting index of the grouping
      */
     public Grouping(String name, Color color, Color fontColor) {
-        this.uid = java.util.UUID.randomUUID().hashCode();
+        this.uid = UidAllocator.randomUid();
         this.priority = DEFAULT_PRIORITY;
         this.name = name;
         this.color = color;
@@ -0,0 +1,113 @@
+package Matrices.Data.Entities;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+
+
+/**
+ * Gives each interface type used by a matrix a dense index so that the interfaces of a connection can be stored as
+ * a bitmask instead of a list. Indices are handed out the first time an interface type is seen and are never reused,
+ * so a mask stays valid for as long as the registry exists. Masks given to connections are never modified after they
+ * are created, which lets connections share them
+ *
+ * @author: Aiden Carney
+ */
+public class InterfaceTypeRegistry {
+    private final ArrayList<DSMInterfaceType> interfaceTypes = new ArrayList<>();  // index -> interface type
+    private final HashMap<Integer, Integer> indices = new HashMap<>();  // interface type uid -> index
+
+    private static final BitSet EMPTY_MASK = new BitSet();  // shared by every connection without interfaces, never modified
+
+
+    /**
+     * Returns the index of an interface type, registering it if it has not been seen before
+     *
+     * @param interfaceType  the interface type
+     * @return               the index of the interface type
+     */
+    public synchronized int register(DSMInterfaceType interfaceType) {
+        Integer index = indices.get(interfaceType.getUid());
+        if(index == null) {
+            index = interfaceTypes.size();
+            interfaceTypes.add(interfaceType);
+            indices.put(interfaceType.getUid(), index);
+        }
+        return index;
+    }
+
+
+    /**
+     * @param interfaceType  the interface type
+     * @return               the index of the interface type or -1 if it has not been registered
+     */
+    public synchronized int getIndex(DSMInterfaceType interfaceType) {
+        return indices.getOrDefault(interfaceType.getUid(), -1);
+    }
+
+
+    /**
+     * @param index  the index of an interface type
+     * @return       the interface type registered with that index
+     */
+    public synchronized DSMInterfaceType get(int index) {
+        return interfaceTypes.get(index);
+    }
+
+
+    /**
+     * @return  the number of interface types that have been registered
+     */
+    public synchronized int size() {
+        return interfaceTypes.size();
+    }
+
+
+    /**
+     * Creates the mask for a set of interface types, registering any that have not been seen before
+     *
+     * @param interfaces  the interface types to include in the mask, may be null
+     * @return            a new mask with the bit of each interface type set that the caller may modify
+     */
+    public synchronized BitSet getMask(Collection<DSMInterfaceType> interfaces) {
+        if(interfaces == null || interfaces.isEmpty()) {
+            return new BitSet();
+        }
+        return getSharedMask(interfaces);
+    }
+
+
+    /**
+     * Creates the mask for a set of interface types for a connection to store. Connections without interfaces all
+     * share the same empty mask, so the returned mask must never be modified
+     *
+     * @param interfaces  the interface types to include in the mask, may be null
+     * @return            the mask with the bit of each interface type set
+     */
+    synchronized BitSet getSharedMask(Collection<DSMInterfaceType> interfaces) {
+        if(interfaces == null || interfaces.isEmpty()) {
+            return EMPTY_MASK;
+        }
+        BitSet mask = new BitSet(interfaceTypes.size() + interfaces.size());
+        for(DSMInterfaceType interfaceType : interfaces) {
+            mask.set(register(interfaceType));
+        }
+        return mask;
+    }
+
+
+    /**
+     * Returns the interface types in a mask in order of their indices
+     *
+     * @param mask  the mask
+     * @return      a new list of the interface types whose bits are set
+     */
+    public synchronized ArrayList<DSMInterfaceType> getInterfaces(BitSet mask) {
+        ArrayList<DSMInterfaceType> interfaces = new ArrayList<>(mask.cardinality());
+        for(int i = mask.nextSetBit(0); i >= 0; i = mask.nextSetBit(i + 1)) {
+            interfaces.add(interfaceTypes.get(i));
+        }
+        return interfaces;
+    }
+}
@@ -0,0 +1,90 @@
+package Matrices.Data.Entities;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.IntPredicate;
+
+
+/**
+ * Hands out uids for items, groupings, and interface types. Uids are given out sequentially from a random starting
+ * point, so allocating one is a counter increment instead of generating a UUID, and different allocators are very
+ * unlikely to overlap. Every uid is checked against a predicate for the uids that are already in use (ex. the items
+ * of a matrix) so an allocator never returns a uid that collides with one it knows about or one it gave out before
+ *
+ * @author: Aiden Carney
+ */
+public class UidAllocator {
+    private static final int RESERVED_UID = Integer.MAX_VALUE;  // used by the gui to mean "all items"
+
+    private final IntPredicate isInUse;
+    private int next;
+
+
+    /**
+     * Creates a new allocator
+     *
+     * @param isInUse  returns true for uids that are already in use and cannot be given out
+     */
+    public UidAllocator(IntPredicate isInUse) {
+        this.isInUse = isInUse;
+        this.next = randomUid();
+    }
+
+
+    /**
+     * Returns a random uid from a fast non-cryptographic generator. Used for objects that are created without an
+     * allocator, so the uid is not checked for collisions
+     *
+     * @return  a random uid
+     */
+    public static int randomUid() {
+        int uid;
+        do {
+            uid = ThreadLocalRandom.current().nextInt();
+        } while(uid == RESERVED_UID);
+        return uid;
+    }
+
+
+    /**
+     * @param uid  the uid to check
+     * @return     true if the uid cannot be given out
+     */
+    private boolean isTaken(int uid) {
+        return uid == RESERVED_UID || isInUse.test(uid);
+    }
+
+
+    /**
+     * @return  a uid that is not in use and has not been given out by this allocator before
+     */
+    public synchronized int allocate() {
+        while(isTaken(next)) {
+            next += 1;
+        }
+        return next++;
+    }
+
+
+    /**
+     * Allocates a block of consecutive uids for creating many objects at once. None of the uids in the block are in
+     * use or have been given out by this allocator before
+     *
+     * @param count  the number of uids to allocate
+     * @return       the first uid of the block. The block is first to first + count - 1
+     */
+    public synchronized int allocateRange(int count) {
+        int start = next;
+        int found = 0;
+        while(found < count) {
+            int uid = start + found;
+            if(isTaken(uid)) {  // restart the block after the uid that is taken
+                start = uid + 1;
+                found = 0;
+            } else {
+                found += 1;
+            }
+        }
+        next = start + count;
+        return start;
+    }
+}
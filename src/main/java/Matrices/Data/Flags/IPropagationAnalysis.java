@@ -1,7 +1,12 @@
 package Matrices.Data.Flags;
 
+import Matrices.Data.PropagationEngine;
+import Matrices.Data.PropagationImpactAnalysis;
+
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.concurrent.ForkJoinPool;
 
 
 /**
@@ -9,16 +14,42 @@ import java.util.HashMap;
  * interface
  */
 public interface IPropagationAnalysis {
+    /**
+     * Creates an engine that runs propagation analysis over the current state of the matrix. The engine works on a
+     * snapshot, so it does not see changes made to the matrix after it is created
+     *
+     * @return  the engine
+     */
+    PropagationEngine createPropagationEngine();
+
+
     /**
      * Runs propagation analysis for a matrix. Pick a start item and each level find the connections of the items in the
      * previous level. Items that are excluded are added to the count, but not propagated through.
      *
      * @param startItem     the item to start at
      * @param numLevels     number of levels to run
-     * @param exclusions    array of item uids to be excluded
+     * @param exclusions    array of item uids to be excluded, is not modified
      * @param minWeight     minimum weight for item to be included
      * @param countByWeight count by weight or by occurrence
      * @return              HashMap(level : Hashmap(uid, occurrences/weights))
      */
-    HashMap<Integer, HashMap<Integer, Double>> propagationAnalysis(Integer startItem, int numLevels, ArrayList<Integer> exclusions, double minWeight, boolean countByWeight);
+    default HashMap<Integer, HashMap<Integer, Double>> propagationAnalysis(Integer startItem, int numLevels, ArrayList<Integer> exclusions, double minWeight, boolean countByWeight) {
+        return createPropagationEngine().run(startItem, numLevels, exclusions, minWeight, countByWeight).toMap();
+    }
+
+
+    /**
+     * Runs propagation analysis from every item of the matrix in batch on the common ForkJoinPool. The result is an
+     * item by item impact matrix and the totals of each item
+     *
+     * @param numLevels     number of levels to run from each item
+     * @param exclusions    array of item uids to be excluded, is not modified
+     * @param minWeight     minimum weight for item to be included
+     * @param countByWeight count by weight or by occurrence
+     * @return              the impact of every item on every other item
+     */
+    default PropagationImpactAnalysis propagationImpactAnalysis(int numLevels, Collection<Integer> exclusions, double minWeight, boolean countByWeight) {
+        return PropagationImpactAnalysis.compute(createPropagationEngine(), numLevels, exclusions, minWeight, countByWeight, ForkJoinPool.commonPool());
+    }
 }
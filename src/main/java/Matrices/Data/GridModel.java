@@ -0,0 +1,61 @@
+package Matrices.Data;
+
+import Matrices.Data.Entities.DSMItem;
+import Matrices.Data.Entities.RenderMode;
+
+
+/**
+ * A read only description of how a matrix is laid out as a grid for displaying and exporting. Cells are computed
+ * when they are asked for instead of being stored, so a grid model only holds a reference to its matrix. The grid
+ * is made up of header rows and columns followed by one row per row item and one column per column item
+ *
+ * @author: Aiden Carney
+ */
+public interface GridModel {
+    /**
+     * @return  the number of rows in the grid, including the header rows
+     */
+    int getNumRows();
+
+
+    /**
+     * @return  the number of columns in the grid, including the header columns
+     */
+    int getNumCols();
+
+
+    /**
+     * Returns how a cell should be displayed
+     *
+     * @param r  the row of the cell in the grid
+     * @param c  the column of the cell in the grid
+     * @return   the render mode of the cell
+     */
+    RenderMode getRenderMode(int r, int c);
+
+
+    /**
+     * Returns the data held by a cell. The type depends on the render mode: a String for the plain text modes, the
+     * DSMItem for the item name, grouping, and index modes, a Triplet of (domain, row span, column span) for
+     * MULTI_SPAN_DOMAIN_TEXT, and null for connection cells (use getRowItem and getColItem) and MULTI_SPAN_NULL
+     *
+     * @param r  the row of the cell in the grid
+     * @param c  the column of the cell in the grid
+     * @return   the data of the cell
+     */
+    Object getValue(int r, int c);
+
+
+    /**
+     * @param r  a row in the grid
+     * @return   the row item displayed in that row of the grid or null if it is a header row
+     */
+    DSMItem getRowItem(int r);
+
+
+    /**
+     * @param c  a column in the grid
+     * @return   the column item displayed in that column of the grid or null if it is a header column
+     */
+    DSMItem getColItem(int c);
+}
@@ -0,0 +1,144 @@
+package Matrices.Data;
+
+import Matrices.Data.Entities.DSMItem;
+import Matrices.Data.Entities.Grouping;
+
+import java.util.*;
+
+
+/**
+ * Index of the items in each grouping of a matrix. Rows and columns are indexed separately because row and column
+ * groupings can share uids (ex. the default grouping of an asymmetric matrix). The index listens to the changes of its
+ * matrix, so it stays up to date through every edit, undo, and redo without being rebuilt. The size of a grouping
+ * is found in constant time and its members in time proportional to its size
+ *
+ * @author: Aiden Carney
+ */
+public class GroupingIndex implements MatrixChangeListener {
+    private final AbstractDSMData matrix;
+    private final HashMap<Integer, LinkedHashMap<Integer, DSMItem>> rowMembers = new HashMap<>();  // grouping uid -> (item uid -> item)
+    private final HashMap<Integer, LinkedHashMap<Integer, DSMItem>> colMembers = new HashMap<>();
+
+
+    /**
+     * Creates a new index of the groupings of a matrix and registers it as a listener of the matrix
+     *
+     * @param matrix  the matrix to index
+     */
+    public GroupingIndex(AbstractDSMData matrix) {
+        this.matrix = matrix;
+        rebuild();
+        matrix.addChangeListener(this);
+    }
+
+
+    /**
+     * Rebuilds the index from the rows and columns of the matrix
+     */
+    public void rebuild() {
+        rowMembers.clear();
+        colMembers.clear();
+        for(DSMItem row : matrix.getRows()) {
+            add(row, true);
+        }
+        for(DSMItem col : matrix.getCols()) {
+            add(col, false);
+        }
+    }
+
+
+    /**
+     * Returns the number of items in a grouping
+     *
+     * @param group  the grouping to find the size of
+     * @param isRow  if the row or column items of the grouping should be counted
+     * @return       the number of items in the grouping
+     */
+    public int getSize(Grouping group, boolean isRow) {
+        LinkedHashMap<Integer, DSMItem> members = getMap(isRow).get(group.getUid());
+        return members == null ? 0 : members.size();
+    }
+
+
+    /**
+     * Returns the items in a grouping in the order they were added to it. The collection is a read only view, so
+     * it must not be iterated over while the matrix is changing
+     *
+     * @param group  the grouping to find the items of
+     * @param isRow  if the row or column items of the grouping should be returned
+     * @return       the items in the grouping
+     */
+    public Collection<DSMItem> getMembers(Grouping group, boolean isRow) {
+        LinkedHashMap<Integer, DSMItem> members = getMap(isRow).get(group.getUid());
+        return members == null ? Collections.emptyList() : Collections.unmodifiableCollection(members.values());
+    }
+
+
+//region Change events
+    @Override
+    public void itemAdded(DSMItem item, boolean isRow) {
+        add(item, isRow);
+    }
+
+
+    @Override
+    public void itemRemoved(DSMItem item, boolean isRow) {
+        remove(item, item.getGroup1(), isRow);
+    }
+
+
+    @Override
+    public void itemGroupChanged(DSMItem item, Grouping oldGroup) {
+        boolean isRow = matrix.isRow(item.getUid());
+        remove(item, oldGroup, isRow);
+        add(item, isRow);
+    }
+
+
+    @Override
+    public void matrixReset() {
+        rebuild();
+    }
+//endregion
+
+
+    /**
+     * @param isRow  if the row or column index is wanted
+     * @return       the index of the rows or columns
+     */
+    private HashMap<Integer, LinkedHashMap<Integer, DSMItem>> getMap(boolean isRow) {
+        return isRow ? rowMembers : colMembers;
+    }
+
+
+    /**
+     * Adds an item to the members of its grouping
+     *
+     * @param item   the item to add
+     * @param isRow  if the item is a row or a column
+     */
+    private void add(DSMItem item, boolean isRow) {
+        if(item.getGroup1() == null) return;
+        getMap(isRow).computeIfAbsent(item.getGroup1().getUid(), k -> new LinkedHashMap<>()).put(item.getUid(), item);
+    }
+
+
+    /**
+     * Removes an item from the members of a grouping. Groupings that become empty are removed from the index
+     *
+     * @param item   the item to remove
+     * @param group  the grouping the item was in
+     * @param isRow  if the item is a row or a column
+     */
+    private void remove(DSMItem item, Grouping group, boolean isRow) {
+        if(group == null) return;
+        HashMap<Integer, LinkedHashMap<Integer, DSMItem>> map = getMap(isRow);
+        LinkedHashMap<Integer, DSMItem> members = map.get(group.getUid());
+        if(members != null) {
+            members.remove(item.getUid());
+            if(members.isEmpty()) {
+                map.remove(group.getUid());
+            }
+        }
+    }
+}
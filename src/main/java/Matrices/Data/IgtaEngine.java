@@ -0,0 +1,121 @@
+package Matrices.Data;
+
+import java.util.Random;
+
+
+/**
+ * Clusters a symmetric matrix with an improved version of Thebeau's bidding algorithm in the style of IGTA
+ * (Borjesson and Holtta-Otto, 2014). It differs from Thebeau's algorithm in three ways:
+ * 1. Bids count the connections in both directions between an item and a cluster instead of only the item's row
+ * 2. Items are visited in passes over a random permutation so every item is considered once per pass
+ * 3. Both the highest and second highest bidders are evaluated with their exact change in cost and the better one is
+ *    chosen, instead of randomly picking the second highest bidder once every rand_bid moves
+ * A move is kept if it lowers the cost or, like Thebeau's algorithm, once every rand_accept moves regardless
+ *
+ * @author: Aiden Carney
+ */
+public class IgtaEngine implements ClusteringEngine {
+
+    /**
+     * @return  the name of the engine to display to the user
+     */
+    @Override
+    public String getName() {
+        return "IGTA";
+    }
+
+
+    /**
+     * Runs the algorithm. The same snapshot, parameters, and seed always give the same result unless the run is
+     * cancelled
+     *
+     * @param snapshot    the connections of the matrix to cluster
+     * @param parameters  the parameters of the run
+     * @param randSeed    seed for random number generator
+     * @param job         the job to report progress to and check for cancelling and pausing, may be null
+     * @return            the best assignment that was found
+     */
+    @Override
+    public ClusteringResult cluster(MatrixSnapshot snapshot, ClusteringParameters parameters, long randSeed, ClusteringJob job) {
+        Random generator = new Random(randSeed);
+        int numItems = snapshot.getNumRows();
+        double randAccept = parameters.getRandAccept();
+
+        // place each element in its own cluster
+        int[] assignment = new int[numItems];
+        int[] order = new int[numItems];  // order to visit the items in during a pass
+        for(int i = 0; i < numItems; i++) {
+            assignment[i] = i;
+            order[i] = i;
+        }
+        ClusteringState state = new ClusteringState(snapshot, assignment, numItems, parameters.getOptimalSizeCluster(), parameters.getPowcc(), parameters.isCalculateByWeight());
+        int[] bestAssignment = assignment.clone();
+        double bestCost = state.getCost();
+        if(numItems == 0) {
+            return new ClusteringResult(bestAssignment, numItems, bestCost);
+        }
+
+        double[] bids = new double[numItems];
+        for(int i = 0; i < parameters.getNumIterations(); i++) {
+            if(job != null && !job.shouldContinue()) {  // stop early with the best solution so far
+                break;
+            }
+
+            int position = i % numItems;
+            if(position == 0) {  // start a new pass in a new random order
+                for(int k = numItems - 1; k > 0; k--) {
+                    int j = generator.nextInt(k + 1);
+                    int temp = order[k];
+                    order[k] = order[j];
+                    order[j] = temp;
+                }
+            }
+            int item = order[position];
+
+            // find the two highest bidders other than the cluster the item is already in
+            state.getBids(item, parameters.getPowdep(), parameters.getPowbid(), true, bids);
+            int current = state.getCluster(item);
+            int highestBidder = -1;
+            int secondHighestBidder = -1;
+            for(int g = 0; g < numItems; g++) {
+                if(g == current) continue;
+                if(highestBidder < 0 || Double.compare(bids[g], bids[highestBidder]) > 0) {
+                    secondHighestBidder = highestBidder;
+                    highestBidder = g;
+                } else if(secondHighestBidder < 0 || Double.compare(bids[g], bids[secondHighestBidder]) > 0) {
+                    secondHighestBidder = g;
+                }
+            }
+
+            double newCoordinationScore = state.getCost();
+            if(highestBidder >= 0) {
+                int newCluster = highestBidder;
+                double delta = state.getMoveDelta(item, highestBidder);
+                if(secondHighestBidder >= 0) {
+                    double secondDelta = state.getMoveDelta(item, secondHighestBidder);
+                    if(secondDelta < delta) {
+                        newCluster = secondHighestBidder;
+                        delta = secondDelta;
+                    }
+                }
+                newCoordinationScore += delta;
+
+                int nAccept = (int) (generator.nextDouble() * (randAccept + 1));  // add one to randAccept because with truncation nAccept will never be equal to randAccept
+                if(delta < 0 || nAccept == randAccept) {  // make the change permanent
+                    state.moveItem(item, newCluster);
+                    if(state.getCost() < bestCost) {  // save the new solution as the best one
+                        bestCost = state.getCost();
+                        System.arraycopy(assignment, 0, bestAssignment, 0, numItems);
+                    }
+                }
+            }
+
+            if(job != null) {
+                job.iterationCompleted(randSeed, i, newCoordinationScore, bestCost);
+            }
+        }
+
+        state.setAssignment(bestAssignment);  // the incremental cost drifts over many moves so report the exact cost
+        return new ClusteringResult(bestAssignment, numItems, state.getCost());
+    }
+}
@@ -0,0 +1,107 @@
+package Matrices.Data;
+
+import Matrices.Data.Entities.DSMConnection;
+import Matrices.Data.Entities.DSMItem;
+import Matrices.Data.Entities.Grouping;
+
+
+/**
+ * Listener for the changes made to a matrix. Every method is called after the change has been applied. Undoing and
+ * redoing a change calls the methods for the inverse change (ex. undoing a connection being created calls
+ * connectionRemoved), so anything kept up to date with these events stays in sync with the matrix. All methods do
+ * nothing by default so listeners only need to override the events they care about
+ *
+ * @author: Aiden Carney
+ */
+public interface MatrixChangeListener {
+    /**
+     * Called when an item is added to the matrix
+     *
+     * @param item   the item that was added
+     * @param isRow  if the item was added as a row or a column
+     */
+    default void itemAdded(DSMItem item, boolean isRow) {}
+
+
+    /**
+     * Called when an item is removed from the matrix. Its connections have already been removed
+     *
+     * @param item   the item that was removed
+     * @param isRow  if the item was a row or a column
+     */
+    default void itemRemoved(DSMItem item, boolean isRow) {}
+
+
+    /**
+     * Called when the name of an item changes
+     *
+     * @param item     the item that was renamed
+     * @param oldName  the name before the change
+     */
+    default void itemRenamed(DSMItem item, String oldName) {}
+
+
+    /**
+     * Called when the sort index of an item changes
+     *
+     * @param item          the item that was moved
+     * @param oldSortIndex  the sort index before the change
+     */
+    default void itemResorted(DSMItem item, double oldSortIndex) {}
+
+
+    /**
+     * Called when the grouping an item belongs to changes
+     *
+     * @param item      the item that changed groups
+     * @param oldGroup  the group the item was in before the change
+     */
+    default void itemGroupChanged(DSMItem item, Grouping oldGroup) {}
+
+
+    /**
+     * Called when a grouping is added, removed, or has its properties (name, colors, priority) changed
+     *
+     * @param grouping  the grouping that changed or null if many groupings changed at once
+     */
+    default void groupingChanged(Grouping grouping) {}
+
+
+    /**
+     * Called when a connection is created where there was none before
+     *
+     * @param connection  the new connection
+     */
+    default void connectionCreated(DSMConnection connection) {}
+
+
+    /**
+     * Called when an existing connection is replaced by a new one for the same row and column
+     *
+     * @param oldConnection  the connection before the change
+     * @param newConnection  the connection after the change
+     */
+    default void connectionModified(DSMConnection oldConnection, DSMConnection newConnection) {}
+
+
+    /**
+     * Called when a connection is removed
+     *
+     * @param connection  the connection that was removed
+     */
+    default void connectionRemoved(DSMConnection connection) {}
+
+
+    /**
+     * Called when the outermost batch of changes is committed. The changes in the batch have already been reported
+     * one by one as they were made
+     */
+    default void batchCommitted() {}
+
+
+    /**
+     * Called when the matrix changed in a way that is not described by the other events (ex. it was transposed or
+     * loaded in bulk). Anything derived from the matrix should be rebuilt
+     */
+    default void matrixReset() {}
+}
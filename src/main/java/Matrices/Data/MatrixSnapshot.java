@@ -0,0 +1,315 @@
+package Matrices.Data;
+
+import Matrices.Data.Entities.DSMConnection;
+import Matrices.Data.Entities.DSMItem;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+
+/**
+ * An immutable compressed sparse row (CSR) snapshot of the connections of a matrix. Rows and columns are given dense
+ * indices in the order they were in when the snapshot was taken. The connections of row r are the entries
+ * getRowStart(r) until getRowEnd(r), sorted by column index. Everything is stored in primitive arrays so analyses
+ * can run over a snapshot without allocating and it can be read from any thread. The names of the items are captured
+ * with the snapshot so results can be labelled after the items are renamed or deleted
+ *
+ * @author: Aiden Carney
+ */
+public final class MatrixSnapshot {
+    private final long version;
+
+    private final int[] rowUids;  // row index -> uid
+    private final int[] colUids;  // column index -> uid
+    private final String[] rowNames;  // row index -> name when the snapshot was taken
+    private final String[] colNames;  // column index -> name when the snapshot was taken
+    private final HashMap<Integer, Integer> rowIndices;  // uid -> row index
+    private final HashMap<Integer, Integer> colIndices;  // uid -> column index
+    private final int[] colAliasRows;  // column index -> row index of the item aliased to the column, or -1
+
+    private final int[] rowStarts;  // row index -> location of its first entry, with one extra element for the end
+    private final int[] entryCols;  // entry -> column index
+    private final double[] entryWeights;  // entry -> weight
+
+    private MatrixSnapshot transpose = null;  // built the first time it is needed
+
+
+    /**
+     * Creates a snapshot of a set of rows, columns, and connections
+     *
+     * @param version      the version of the matrix the snapshot was taken at
+     * @param rows         the row items in the order they will be indexed
+     * @param cols         the column items in the order they will be indexed
+     * @param connections  the connections of the matrix
+     */
+    MatrixSnapshot(long version, List<DSMItem> rows, List<DSMItem> cols, ConnectionStore connections) {
+        this.version = version;
+
+        rowUids = new int[rows.size()];
+        rowNames = new String[rows.size()];
+        rowIndices = new HashMap<>();
+        for(int r = 0; r < rows.size(); r++) {
+            rowUids[r] = rows.get(r).getUid();
+            rowNames[r] = rows.get(r).getName().getValue();
+            rowIndices.put(rowUids[r], r);
+        }
+
+        colUids = new int[cols.size()];
+        colNames = new String[cols.size()];
+        colIndices = new HashMap<>();
+        colAliasRows = new int[cols.size()];
+        for(int c = 0; c < cols.size(); c++) {
+            colUids[c] = cols.get(c).getUid();
+            colNames[c] = cols.get(c).getName().getValue();
+            colIndices.put(colUids[c], c);
+            Integer alias = cols.get(c).getAliasUid();
+            colAliasRows[c] = alias == null ? -1 : rowIndices.getOrDefault(alias, -1);
+        }
+
+        rowStarts = new int[rowUids.length + 1];
+        entryCols = new int[connections.size()];
+        entryWeights = new double[connections.size()];
+        int entry = 0;
+        for(int r = 0; r < rowUids.length; r++) {
+            rowStarts[r] = entry;
+            for(DSMConnection conn : connections.getRowConnections(rowUids[r])) {
+                Integer c = colIndices.get(conn.getColUid());
+                if(c == null) continue;  // only connections between the rows and columns are kept
+                entryCols[entry] = c;
+                entryWeights[entry] = conn.getWeight();
+                entry += 1;
+            }
+            sortRow(rowStarts[r], entry);
+        }
+        rowStarts[rowUids.length] = entry;
+    }
+
+
+    /**
+     * Creates the transpose of a snapshot
+     *
+     * @param snapshot  the snapshot to transpose
+     */
+    private MatrixSnapshot(MatrixSnapshot snapshot) {
+        version = snapshot.version;
+        rowUids = snapshot.colUids;
+        colUids = snapshot.rowUids;
+        rowNames = snapshot.colNames;
+        colNames = snapshot.rowNames;
+        rowIndices = snapshot.colIndices;
+        colIndices = snapshot.rowIndices;
+        colAliasRows = new int[colUids.length];
+        Arrays.fill(colAliasRows, -1);
+        for(int c = 0; c < snapshot.colAliasRows.length; c++) {  // the alias relation goes both ways
+            if(snapshot.colAliasRows[c] >= 0) {
+                colAliasRows[snapshot.colAliasRows[c]] = c;
+            }
+        }
+
+        int numEntries = snapshot.getNumConnections();
+        rowStarts = new int[rowUids.length + 1];
+        entryCols = new int[numEntries];
+        entryWeights = new double[numEntries];
+
+        // counting sort by column, walking the rows in order keeps each new row sorted
+        for(int k = 0; k < numEntries; k++) {
+            rowStarts[snapshot.entryCols[k] + 1] += 1;
+        }
+        for(int r = 0; r < rowUids.length; r++) {
+            rowStarts[r + 1] += rowStarts[r];
+        }
+        int[] next = Arrays.copyOf(rowStarts, rowUids.length);
+        for(int r = 0; r < snapshot.rowUids.length; r++) {
+            for(int k = snapshot.rowStarts[r]; k < snapshot.rowStarts[r + 1]; k++) {
+                int dest = next[snapshot.entryCols[k]]++;
+                entryCols[dest] = r;
+                entryWeights[dest] = snapshot.entryWeights[k];
+            }
+        }
+        transpose = snapshot;
+    }
+
+
+    /**
+     * Sorts the entries of a row by column index. Rows are short so insertion sort is used
+     *
+     * @param start  the first entry of the row
+     * @param end    one past the last entry of the row
+     */
+    private void sortRow(int start, int end) {
+        for(int i = start + 1; i < end; i++) {
+            int col = entryCols[i];
+            double weight = entryWeights[i];
+            int j = i - 1;
+            while(j >= start && entryCols[j] > col) {
+                entryCols[j + 1] = entryCols[j];
+                entryWeights[j + 1] = entryWeights[j];
+                j -= 1;
+            }
+            entryCols[j + 1] = col;
+            entryWeights[j + 1] = weight;
+        }
+    }
+
+
+    /**
+     * @return  the version of the matrix the snapshot was taken at
+     */
+    public long getVersion() {
+        return version;
+    }
+
+
+    /**
+     * @return  the number of rows in the snapshot
+     */
+    public int getNumRows() {
+        return rowUids.length;
+    }
+
+
+    /**
+     * @return  the number of columns in the snapshot
+     */
+    public int getNumCols() {
+        return colUids.length;
+    }
+
+
+    /**
+     * @return  the number of connections in the snapshot
+     */
+    public int getNumConnections() {
+        return rowStarts[rowUids.length];
+    }
+
+
+    /**
+     * @param row  the row index
+     * @return     the uid of the row item
+     */
+    public int getRowUid(int row) {
+        return rowUids[row];
+    }
+
+
+    /**
+     * @param col  the column index
+     * @return     the uid of the column item
+     */
+    public int getColUid(int col) {
+        return colUids[col];
+    }
+
+
+    /**
+     * @param row  the row index
+     * @return     the name of the row item when the snapshot was taken
+     */
+    public String getRowName(int row) {
+        return rowNames[row];
+    }
+
+
+    /**
+     * @param col  the column index
+     * @return     the name of the column item when the snapshot was taken
+     */
+    public String getColName(int col) {
+        return colNames[col];
+    }
+
+
+    /**
+     * @param uid  the uid of a row item
+     * @return     the index of the row or -1 if it is not a row
+     */
+    public int getRowIndex(int uid) {
+        return rowIndices.getOrDefault(uid, -1);
+    }
+
+
+    /**
+     * @param uid  the uid of a column item
+     * @return     the index of the column or -1 if it is not a column
+     */
+    public int getColIndex(int uid) {
+        return colIndices.getOrDefault(uid, -1);
+    }
+
+
+    /**
+     * Returns the row that is aliased to a column. In symmetric matrices this is the row for the same item as the
+     * column
+     *
+     * @param col  the column index
+     * @return     the row index of the aliased item or -1 if the column has no aliased row
+     */
+    public int getColAliasRow(int col) {
+        return colAliasRows[col];
+    }
+
+
+    /**
+     * @param row  the row index
+     * @return     the location of the first entry of the row
+     */
+    public int getRowStart(int row) {
+        return rowStarts[row];
+    }
+
+
+    /**
+     * @param row  the row index
+     * @return     one past the location of the last entry of the row
+     */
+    public int getRowEnd(int row) {
+        return rowStarts[row + 1];
+    }
+
+
+    /**
+     * @param entry  the location of an entry
+     * @return       the column index of the entry
+     */
+    public int getEntryCol(int entry) {
+        return entryCols[entry];
+    }
+
+
+    /**
+     * @param entry  the location of an entry
+     * @return       the weight of the entry
+     */
+    public double getEntryWeight(int entry) {
+        return entryWeights[entry];
+    }
+
+
+    /**
+     * Finds the entry for a cell with a binary search of the row
+     *
+     * @param row  the row index
+     * @param col  the column index
+     * @return     the location of the entry or -1 if there is no connection
+     */
+    public int findEntry(int row, int col) {
+        int i = Arrays.binarySearch(entryCols, rowStarts[row], rowStarts[row + 1], col);
+        return i >= 0 ? i : -1;
+    }
+
+
+    /**
+     * Returns the snapshot with rows and columns swapped, so that the entries of a row of the transpose are the
+     * connections into a column of this snapshot. Built once and then cached
+     *
+     * @return  the transposed snapshot
+     */
+    public synchronized MatrixSnapshot getTranspose() {
+        if(transpose == null) {
+            transpose = new MatrixSnapshot(this);
+        }
+        return transpose;
+    }
+}
@@ -29,6 +29,9 @@ public class MultiDomainDSMData extends AbstractDSMData implements IZoomable, IP
     private final ObservableList<Grouping> sortedDomains;
 
     public static final Integer DEFAULT_GROUP_UID = Integer.MAX_VALUE;
+    private static final Comparator<DSMItem> DOMAIN_ORDER = Comparator.comparing(  // items that are not in a domain yet go first
+            DSMItem::getGroup2, Comparator.nullsFirst(Comparator.comparing(Grouping::getPriority).thenComparing(Grouping::getName))
+    ).thenComparing(DSMItem::getSortIndex);
 
     /**
      * Creates a default domain-grouping and adds it to the hashmap
@@ -64,7 +67,6 @@ public class MultiDomainDSMData extends AbstractDSMData implements IZoomable, IP
     public MultiDomainDSMData() {
         super();
 
-        connections = new Vector<>();
         domains = FXCollections.observableHashMap();
         domains.put(defaultDomain, FXCollections.observableArrayList());  // add the default
         createNewDefaultDomainGroup(defaultDomain);
@@ -87,7 +89,6 @@ public class MultiDomainDSMData extends AbstractDSMData implements IZoomable, IP
     public MultiDomainDSMData(HashMap<Grouping, Collection<Grouping>> domains) {
         super();
 
-        connections = new Vector<>();
 
         this.domains = FXCollections.observableHashMap();
         this.sortedDomains = FXCollections.observableArrayList();
@@ -109,7 +110,8 @@ public class MultiDomainDSMData extends AbstractDSMData implements IZoomable, IP
 
 
     /**
-     * Copy constructor for SymmetricDSMData class. Performs a deep copy
+     * Copy constructor for SymmetricDSMData class. Performs a deep copy of everything except the connections, which
+     * are shared with the original until either matrix changes them
      *
      * @return  the copy of the current symmetric DSM
      */
@@ -118,21 +120,20 @@ public class MultiDomainDSMData extends AbstractDSMData implements IZoomable, IP
         MultiDomainDSMData copy = new MultiDomainDSMData();
 
         for(DSMItem row : getRows()) {
-            copy.rows.add(new DSMItem(row));
+            copy.insertItem(new DSMItem(row), true);
         }
 
         for(DSMItem col : getCols()) {
-            copy.cols.add(new DSMItem(col));
+            copy.insertItem(new DSMItem(col), false);
         }
 
-        for(DSMConnection conn : getConnections()) {
-            copy.connections.add(new DSMConnection(conn));
-        }
+        copy.connections = connections.copy();  // connections are immutable so they can be shared
+        copy.interfaceRegistry = interfaceRegistry;  // the shared connections are indexed in this registry
 
         copy.domains = FXCollections.observableHashMap();
         for(ObservableMap.Entry<Grouping, ObservableList<Grouping>> entry : domains.entrySet()) {
             ObservableList<Grouping> domainGroupings = FXCollections.observableArrayList();
-            for(Grouping domainGrouping : getDomainGroupings(entry.getKey())) {
+            for(Grouping domainGrouping : entry.getValue()) {  // getDomainGroupings sorts the live list, which a read locked copy must not change
                 domainGroupings.add(new Grouping(domainGrouping));
             }
             Grouping newDomain = new Grouping(entry.getKey());
@@ -195,6 +196,18 @@ public class MultiDomainDSMData extends AbstractDSMData implements IZoomable, IP
         sortedDomains.addAll(domains.keySet());
 
         FXCollections.sort(sortedDomains, groupingComparator);
+        invalidateItemOrder();  // items are ordered by domain first
+    }
+
+
+    /**
+     * Items are ordered by the priority of their domain, then the name of their domain, then their sort index
+     *
+     * @return  the comparator that defines the order of the rows and columns
+     */
+    @Override
+    protected Comparator<DSMItem> getItemOrder() {
+        return DOMAIN_ORDER;
     }
 
 
@@ -228,11 +241,14 @@ public class MultiDomainDSMData extends AbstractDSMData implements IZoomable, IP
         addChangeToStack(new MatrixChange(
                 () -> {  // do function
                     domains.put(domain, FXCollections.observableArrayList());
+                    fireChange(l -> l.groupingChanged(domain));
                     domains.get(domain).add(group);
+                    fireChange(l -> l.groupingChanged(group));
                     sortDomains();
                 },
                 () -> {  // undo function
                     domains.remove(domain);
+                    fireChange(l -> l.groupingChanged(domain));
                     sortDomains();
                 },
                 false
@@ -253,9 +269,11 @@ public class MultiDomainDSMData extends AbstractDSMData implements IZoomable, IP
         addChangeToStack(new MatrixChange(
                 () -> {  // do function
                     domains.get(domain).add(group);
+                    fireChange(l -> l.groupingChanged(group));
                 },
                 () -> {  // undo function
                     domains.get(domain).remove(group);
+                    fireChange(l -> l.groupingChanged(group));
                 },
                 false
         ));
@@ -333,10 +351,12 @@ public class MultiDomainDSMData extends AbstractDSMData implements IZoomable, IP
                     }
 
                     domains.remove(domain);
+                    fireChange(l -> l.groupingChanged(domain));
                     sortDomains();
                 },
                 () -> {  // undo function
                     domains.put(domain, domainGroupings);
+                    fireChange(l -> l.groupingChanged(domain));
                     sortDomains();
                 },
                 false
@@ -369,9 +389,11 @@ public class MultiDomainDSMData extends AbstractDSMData implements IZoomable, IP
         addChangeToStack(new MatrixChange(
                 () -> {  // do function
                     domains.get(domain).remove(group);
+                    fireChange(l -> l.groupingChanged(group));
                 },
                 () -> {  // undo function
                     domains.get(domain).add(group);
+                    fireChange(l -> l.groupingChanged(group));
                 },
                 false
         ));
@@ -396,15 +418,35 @@ public class MultiDomainDSMData extends AbstractDSMData implements IZoomable, IP
                 () -> {  // do function
                     domains.get(domain).clear();
                     createNewDefaultDomainGroup(domain);  // add the default back
+                    fireChange(l -> l.groupingChanged(null));
                 },
                 () -> {  // undo function
                     domains.put(domain, oldGroupings);
+                    fireChange(l -> l.groupingChanged(null));
                 },
                 false
         ));
     }
 
 
+    /**
+     * Checks whether a uid is used by a domain or a grouping of a domain of the matrix
+     *
+     * @param uid  the uid to check
+     * @return     true if a domain or grouping has the uid
+     */
+    @Override
+    protected boolean isGroupingUid(int uid) {
+        for(Map.Entry<Grouping, ObservableList<Grouping>> entry : domains.entrySet()) {
+            if(entry.getKey().getUid() == uid) return true;
+            for(Grouping group : entry.getValue()) {
+                if(group.getUid() == uid) return true;
+            }
+        }
+        return false;
+    }
+
+
     /**
      * @return  ObservableList of the matrix domains in sorted order
      */
@@ -463,10 +505,12 @@ public class MultiDomainDSMData extends AbstractDSMData implements IZoomable, IP
         addChangeToStack(new MatrixChange(
                 () -> {  // do function
                     grouping.setPriority(newPriority);
+                    fireChange(l -> l.groupingChanged(grouping));
                     sortDomains();
                 },
                 () -> {  // undo function
                     grouping.setPriority(oldPriority);
+                    fireChange(l -> l.groupingChanged(grouping));
                     sortDomains();
                 },
                 false
@@ -487,9 +531,13 @@ public class MultiDomainDSMData extends AbstractDSMData implements IZoomable, IP
         addChangeToStack(new MatrixChange(
                 () -> {  // do function
                     grouping.setName(newName);
+                    invalidateItemOrder();  // the grouping may be a domain, which items are ordered by
+                    fireChange(l -> l.groupingChanged(grouping));
                 },
                 () -> {  // undo function
                     grouping.setName(oldName);
+                    invalidateItemOrder();
+                    fireChange(l -> l.groupingChanged(grouping));
                 },
                 false
         ));
@@ -509,12 +557,14 @@ public class MultiDomainDSMData extends AbstractDSMData implements IZoomable, IP
         addChangeToStack(new MatrixChange(
                 () -> {  // do function
                     grouping.setColor(newColor);
+                    fireChange(l -> l.groupingChanged(grouping));
                     if(domains.keySet().contains(grouping)) {
                         sortDomains();
                     }
                 },
                 () -> {  // undo function
                     grouping.setColor(oldColor);
+                    fireChange(l -> l.groupingChanged(grouping));
                     if(domains.keySet().contains(grouping)) {
                         sortDomains();
                     }
@@ -536,9 +586,11 @@ public class MultiDomainDSMData extends AbstractDSMData implements IZoomable, IP
         addChangeToStack(new MatrixChange(
                 () -> {  // do function
                     grouping.setFontColor(newColor);
+                    fireChange(l -> l.groupingChanged(grouping));
                 },
                 () -> {  // undo function
                     grouping.setFontColor(oldColor);
+                    fireChange(l -> l.groupingChanged(grouping));
                 },
                 false
         ));
@@ -568,16 +620,18 @@ public class MultiDomainDSMData extends AbstractDSMData implements IZoomable, IP
                 () -> {  // do function
                     if (addedNewGroup) {
                         domains.get(domain).add(newGroup);
+                        fireChange(l -> l.groupingChanged(newGroup));
                     }
-                    item.setGroup1(newGroup);
-                    aliasedItem.setGroup1(newGroup);
+                    regroupItem(item, newGroup);
+                    regroupItem(aliasedItem, newGroup);
                 },
                 () -> {  // undo function
                     if (addedNewGroup) {
                         domains.get(domain).remove(newGroup);
+                        fireChange(l -> l.groupingChanged(newGroup));
                     }
-                    item.setGroup1(oldGroup);
-                    aliasedItem.setGroup1(oldGroup);
+                    regroupItem(item, oldGroup);
+                    regroupItem(aliasedItem, oldGroup);
                 },
                 false
         ));
@@ -613,8 +667,9 @@ public class MultiDomainDSMData extends AbstractDSMData implements IZoomable, IP
     public void createItem(String name, Grouping domain) {
         double index = (int)getMaxSortIndex(domain) + 1;  // cast to int to remove the decimal place so that the index will be a whole number
 
-        DSMItem rowItem = new DSMItem(index, name);
-        DSMItem colItem = new DSMItem(index, name);
+        int uid = allocateUids(2);
+        DSMItem rowItem = new DSMItem(uid, null, index, name, null, null);
+        DSMItem colItem = new DSMItem(uid + 1, null, index, name, null, null);
 
         // configure domain and group
         if(!domains.containsKey(domain)) {  // add the domain if it does not exist already
@@ -653,7 +708,7 @@ public class MultiDomainDSMData extends AbstractDSMData implements IZoomable, IP
      */
     @Override
     public void deleteItem(DSMItem item) {
-        boolean isRow = rows.contains(item);  // check if the item was a row in case it needs to be added again
+        boolean isRow = isRow(item.getUid());  // check if the item was a row in case it needs to be added again
         DSMItem aliasedItem = getItemByAlias(item.getUid());
 
         addChangeToStack(new MatrixChange(
@@ -662,13 +717,8 @@ public class MultiDomainDSMData extends AbstractDSMData implements IZoomable, IP
                     removeItem(aliasedItem);
                 },
                 () -> {  // undo function
-                    if (isRow) {
-                        this.rows.add(item);
-                        this.cols.add(aliasedItem);
-                    } else {
-                        this.rows.add(aliasedItem);
-                        this.cols.add(item);
-                    }
+                    insertItem(item, isRow);
+                    insertItem(aliasedItem, !isRow);
                 },
                 false
         ));
@@ -693,12 +743,12 @@ public class MultiDomainDSMData extends AbstractDSMData implements IZoomable, IP
 
         addChangeToStack(new MatrixChange(
                 () -> {  // do function
-                    item.setName(newName);
-                    aliasedItem.setName(newName);
+                    renameItem(item, newName);
+                    renameItem(aliasedItem, newName);
                 },
                 () -> {  // undo function
-                    item.setName(oldName);
-                    aliasedItem.setName(oldName);
+                    renameItem(item, oldName);
+                    renameItem(aliasedItem, oldName);
                 },
                 false
         ));
@@ -721,12 +771,12 @@ public class MultiDomainDSMData extends AbstractDSMData implements IZoomable, IP
 
         addChangeToStack(new MatrixChange(
                 () -> {  // do function
-                    item.setSortIndex(newIndex);
-                    aliasedItem.setSortIndex(newIndex);
+                    resortItem(item, newIndex);
+                    resortItem(aliasedItem, newIndex);
                 },
                 () -> {  // undo function
-                    item.setSortIndex(oldIndex);
-                    aliasedItem.setSortIndex(oldIndex);
+                    resortItem(item, oldIndex);
+                    resortItem(aliasedItem, oldIndex);
                 },
                 false
         ));
@@ -749,8 +799,8 @@ public class MultiDomainDSMData extends AbstractDSMData implements IZoomable, IP
         // add assertion in this override
         assert getItem(rowUid).getUid() != getItem(colUid).getAliasUid();  // corresponds to where row and column are same and thus connection cannot be made
 
-        DSMConnection connection = new DSMConnection(connectionName, weight, rowUid, colUid, interfaces);
-        connections.add(connection);
+        DSMConnection connection = new DSMConnection(connectionName, weight, rowUid, colUid, interfaces, interfaceRegistry);
+        putConnection(connection);
     }
 
 
@@ -772,24 +822,37 @@ public class MultiDomainDSMData extends AbstractDSMData implements IZoomable, IP
 
     /**
      * Sorts the current matrix rows and columns by sort index and modifies all the sort Indices
-     * such that they are now 1 to n. Used to make the sort Indices "clean" numbers. Puts multiple changes on the
+     * such that they are now 1 to n. Used to make the sort Indices "clean" numbers. Puts the change on the
      * stack but does not set any checkpoint. Re-distributes by domain so count resets once the domain changes
      */
     @Override
     public void reDistributeSortIndices() {
-        // go domain by domain sorting the rows
+        // split the rows and columns by domain, keeping the order of the sort indices within each domain
+        HashMap<Integer, ArrayList<DSMItem>> domainRows = new HashMap<>();  // domain uid -> rows in the domain
+        HashMap<Integer, ArrayList<DSMItem>> domainCols = new HashMap<>();
         for(Grouping domain : domains.keySet()) {
-            ArrayList<DSMItem> domainRows = new ArrayList<>(rows.stream().filter(r -> r.getGroup2().equals(domain)).toList());
-            ArrayList<DSMItem> domainCols = new ArrayList<>(cols.stream().filter(c -> c.getGroup2().equals(domain)).toList());
-            domainRows.sort(Comparator.comparing(DSMItem::getSortIndex));
-            domainCols.sort(Comparator.comparing(DSMItem::getSortIndex));
-            for(int i=0; i<domainRows.size(); i++) {  // reset row sort Indices 1 -> n
-                setItemSortIndex(domainRows.get(i), i + 1);
-            }
-            for(int i=0; i<domainCols.size(); i++) {  // reset col sort Indices 1 -> n
-                setItemSortIndex(domainCols.get(i), i + 1);
-            }
+            domainRows.put(domain.getUid(), new ArrayList<>());
+            domainCols.put(domain.getUid(), new ArrayList<>());
         }
+        for(DSMItem row : rows) {
+            ArrayList<DSMItem> items = domainRows.get(row.getGroup2().getUid());
+            if(items != null) items.add(row);
+        }
+        for(DSMItem col : cols) {
+            ArrayList<DSMItem> items = domainCols.get(col.getGroup2().getUid());
+            if(items != null) items.add(col);
+        }
+
+        ArrayList<ArrayList<DSMItem>> orderedItems = new ArrayList<>();
+        for(Grouping domain : domains.keySet()) {
+            ArrayList<DSMItem> rowItems = domainRows.get(domain.getUid());
+            ArrayList<DSMItem> colItems = domainCols.get(domain.getUid());
+            rowItems.sort(Comparator.comparing(DSMItem::getSortIndex));
+            colItems.sort(Comparator.comparing(DSMItem::getSortIndex));
+            orderedItems.add(rowItems);
+            orderedItems.add(colItems);
+        }
+        setSequentialSortIndices(orderedItems);
     }
 
 
@@ -804,11 +867,13 @@ public class MultiDomainDSMData extends AbstractDSMData implements IZoomable, IP
     public Pair<Integer, Integer> getSymmetricConnectionUids(int rowUid, int colUid) {
         Integer newRowUid = getItem(colUid).getAliasUid();
         Integer newColUid = null;
-        for(DSMItem item : getCols()) {
-            if(item.getAliasUid() != null && item.getAliasUid() == rowUid) {
+        try {
+            DSMItem item = getItemByAlias(rowUid);
+            if(isCol(item.getUid())) {
                 newColUid = item.getUid();
-                break;
             }
+        } catch(NoSuchElementException e) {
+            // there is no column aliased to the row so there is no symmetric connection
         }
 
         if(newColUid != null && newRowUid != null) {
@@ -832,69 +897,72 @@ public class MultiDomainDSMData extends AbstractDSMData implements IZoomable, IP
 
 
     /**
-     * Creates a 2d ArrayList of the matrix so that it can be displayed. Each cell in the grid is made
-     * up of a RenderMode, which is the key, and an Object that is different based on the key.
+     * Returns a grid model of the matrix so that it can be displayed. There are two header rows and four header
+     * columns (domain, grouping, name, and sort index of the row items). The domain of a row is shown once in a cell
+     * spanning all of the rows in that domain. Connections from an item to itself cannot be edited
      *
-     * @return 2d ArrayList of matrix
+     * @return  the grid model of the matrix
      */
-    public ArrayList<ArrayList<Pair<RenderMode, Object>>> getGridArray() {
-        ArrayList<ArrayList<Pair<RenderMode, Object>>> grid = new ArrayList<>();
-
-        // sort row and columns by domain and then by sort index
-        rows.sort(Comparator.comparing((DSMItem item) -> item.getGroup2().getPriority()).thenComparing((DSMItem item) -> item.getGroup2().getName()).thenComparing(DSMItem::getSortIndex));
-        cols.sort(Comparator.comparing((DSMItem item) -> item.getGroup2().getPriority()).thenComparing((DSMItem item) -> item.getGroup2().getName()).thenComparing(DSMItem::getSortIndex));
-
-        // create header row
-        ArrayList<Pair<RenderMode, Object>> row0 = new ArrayList<>();
-        row0.add(new Pair<>(RenderMode.PLAIN_TEXT_V, ""));
-        row0.add(new Pair<>(RenderMode.PLAIN_TEXT_V, ""));
-        row0.add(new Pair<>(RenderMode.PLAIN_TEXT_V, ""));
-        row0.add(new Pair<>(RenderMode.PLAIN_TEXT_V, "Column Items"));
-        for(DSMItem c : cols) {
-            row0.add(new Pair<>(RenderMode.ITEM_NAME_V, c));
-        }
-        grid.add(row0);
-
-        // create third header row
-        ArrayList<Pair<RenderMode, Object>> row1 = new ArrayList<>();
-        row1.add(new Pair<>(RenderMode.PLAIN_TEXT, "Domain"));
-        row1.add(new Pair<>(RenderMode.PLAIN_TEXT, "Grouping"));
-        row1.add(new Pair<>(RenderMode.PLAIN_TEXT, "Row Items"));
-        row1.add(new Pair<>(RenderMode.PLAIN_TEXT, "Re-Sort Index"));
-        for(DSMItem c : cols) {
-            row1.add(new Pair<>(RenderMode.PLAIN_TEXT, ""));
-        }
-        grid.add(row1);
+    @Override
+    public GridModel getGridModel() {
+        // rows and columns are kept sorted by domain and then by sort index, so this only sorts if the order is stale
+        ensureItemOrder();
 
-        // create rows
-        boolean firstItemInDomain;
-        Grouping previousItemDomain = null;
+        // the row span of each domain cell, or 0 if the row is not the first item in its domain
+        int[] domainSpans = new int[rows.size()];
+        HashMap<Grouping, Integer> numItemsInDomain = new HashMap<>();
         for(DSMItem r : rows) {
-            ArrayList<Pair<RenderMode, Object>> row = new ArrayList<>();
-            // if domain switched then this is the first item in the domain
-            firstItemInDomain = !r.getGroup2().equals(previousItemDomain);
-
-            if(firstItemInDomain) {
-                int numItemsInDomain = (int) rows.stream().filter(item -> item.getGroup2().equals(r.getGroup2())).count();
-                row.add(new Pair<>(RenderMode.MULTI_SPAN_DOMAIN_TEXT, new Triplet<>(r.getGroup2(), numItemsInDomain, 1)));  // text, row span, col span
-            } else {
-                row.add(new Pair<>(RenderMode.MULTI_SPAN_NULL, null));
+            numItemsInDomain.merge(r.getGroup2(), 1, Integer::sum);
+        }
+        Grouping previousItemDomain = null;
+        for(int i = 0; i < rows.size(); i++) {
+            Grouping domain = rows.get(i).getGroup2();
+            if(i == 0 || !Objects.equals(domain, previousItemDomain)) {  // if domain switched then this is the first item in the domain
+                domainSpans[i] = numItemsInDomain.get(domain);
             }
-            row.add(new Pair<>(RenderMode.GROUPING_ITEM, r));
-            row.add(new Pair<>(RenderMode.ITEM_NAME, r));
-            row.add(new Pair<>(RenderMode.INDEX_ITEM, r));
-            for(DSMItem c : cols) {  // create connection items for all columns
-                if(c.getAliasUid() == r.getUid()) {  // can't have connection to itself in a symmetrical matrix
-                    row.add(new Pair<>(RenderMode.UNEDITABLE_CONNECTION, null));
-                } else {
-                    row.add(new Pair<>(RenderMode.EDITABLE_CONNECTION, new Pair<>(r, c)));
+            previousItemDomain = domain;
+        }
+
+        return new ItemGridModel(2, 4) {
+            private static final String[] ROW_HEADERS = {"Domain", "Grouping", "Row Items", "Re-Sort Index"};
+
+            @Override
+            public RenderMode getRenderMode(int r, int c) {
+                if(r == 0) {
+                    return c < 4 ? RenderMode.PLAIN_TEXT_V : RenderMode.ITEM_NAME_V;
+                } else if(r == 1) {
+                    return RenderMode.PLAIN_TEXT;
+                }
+
+                switch(c) {
+                    case 0: return domainSpans[r - 2] > 0 ? RenderMode.MULTI_SPAN_DOMAIN_TEXT : RenderMode.MULTI_SPAN_NULL;
+                    case 1: return RenderMode.GROUPING_ITEM;
+                    case 2: return RenderMode.ITEM_NAME;
+                    case 3: return RenderMode.INDEX_ITEM;
                 }
+                // can't have connection to itself in a symmetrical matrix
+                Integer alias = getColItem(c).getAliasUid();
+                if(alias != null && alias == getRowItem(r).getUid()) {
+                    return RenderMode.UNEDITABLE_CONNECTION;
+                }
+                return RenderMode.EDITABLE_CONNECTION;
             }
-            grid.add(row);
-            previousItemDomain = r.getGroup2();
-        }
 
-        return grid;
+            @Override
+            public Object getValue(int r, int c) {
+                if(r == 0) {
+                    return c < 3 ? "" : (c == 3 ? "Column Items" : getColItem(c));
+                } else if(r == 1) {
+                    return c < 4 ? ROW_HEADERS[c] : "";
+                }
+
+                if(c == 0) {
+                    int span = domainSpans[r - 2];
+                    return span > 0 ? new Triplet<>(getRowItem(r).getGroup2(), span, 1) : null;  // text, row span, col span
+                }
+                return c < 4 ? getRowItem(r) : null;
+            }
+        };
     }
 
 
@@ -926,9 +994,11 @@ public class MultiDomainDSMData extends AbstractDSMData implements IZoomable, IP
             addChangeToStack(new MatrixChange(
                     () -> {  // do function
                         domains.put(fromGroup, symmetricMatrix.getGroupings());
+                        fireChange(l -> l.groupingChanged(null));
                     },
                     () -> {  // undo function
                         domains.put(fromGroup, currentDomainGroupings);
+                        fireChange(l -> l.groupingChanged(null));
                     },
                     false
             ));
@@ -936,7 +1006,7 @@ public class MultiDomainDSMData extends AbstractDSMData implements IZoomable, IP
             // merge in the dsm items
             Vector<DSMItem> rowsToDelete = new Vector<>(rows.stream().filter(o -> o.getGroup2().equals(fromGroup)).toList());
             for(DSMItem importedRow : importMatrix.getRows()) {
-                if(rows.stream().anyMatch(r -> r.getUid() == importedRow.getUid())) {  // item is already contained so modify it and its connections by doing a copy replace
+                if(isRow(importedRow.getUid())) {  // item is already contained so modify it and its connections by doing a copy replace
                     DSMItem rowItem = getItem(importedRow.getUid());
                     DSMItem colItem = getItemByAlias(importedRow.getUid());
 
@@ -979,7 +1049,7 @@ public class MultiDomainDSMData extends AbstractDSMData implements IZoomable, IP
 
                     rowsToDelete.remove(rowItem);
                 } else {  // item is not contained so add it
-                    DSMItem col = new DSMItem();
+                    DSMItem col = new DSMItem(allocateUid(), null, 0.0, "", null, null);
                     col.copyProperties(importedRow);
                     col.setAliasUid(importedRow.getUid());
                     importedRow.setAliasUid(col.getUid());
@@ -1011,11 +1081,15 @@ public class MultiDomainDSMData extends AbstractDSMData implements IZoomable, IP
             addChangeToStack(new MatrixChange(
                     () -> {  // do function
                         domains.put(fromGroup, fromDomainGroupings);
+                        fireChange(l -> l.groupingChanged(null));
                         domains.put(toGroup, toDomainGroupings);
+                        fireChange(l -> l.groupingChanged(null));
                     },
                     () -> {  // undo function
                         domains.put(fromGroup, currentFromDomainGroupings);
+                        fireChange(l -> l.groupingChanged(null));
                         domains.put(toGroup, currentToDomainGroupings);
+                        fireChange(l -> l.groupingChanged(null));
                     },
                     false
             ));
@@ -1024,7 +1098,7 @@ public class MultiDomainDSMData extends AbstractDSMData implements IZoomable, IP
             // merge in the row items
             Vector<DSMItem> rowsToDelete = new Vector<>(rows.stream().filter(o -> o.getGroup2().equals(fromGroup)).toList());
             for(DSMItem importedRow : importMatrix.getRows()) {
-                if(rows.stream().anyMatch(r -> r.getUid() == importedRow.getUid())) {  // item is already contained so modify it and its connections by doing a copy replace
+                if(isRow(importedRow.getUid())) {  // item is already contained so modify it and its connections by doing a copy replace
                     DSMItem rowItem = getItem(importedRow.getUid());
                     DSMItem colItem = getItemByAlias(importedRow.getUid());
 
@@ -1067,7 +1141,7 @@ public class MultiDomainDSMData extends AbstractDSMData implements IZoomable, IP
                     rowsToDelete.remove(rowItem);
 
                 } else {  // item is not contained so add it
-                    DSMItem col = new DSMItem();  // add a new column item because mdm is symmetric
+                    DSMItem col = new DSMItem(allocateUid(), null, 0.0, "", null, null);  // add a new column item because mdm is symmetric
                     col.copyProperties(importedRow);
                     col.setAliasUid(importedRow.getUid());
                     importedRow.setAliasUid(col.getUid());
@@ -1084,7 +1158,7 @@ public class MultiDomainDSMData extends AbstractDSMData implements IZoomable, IP
             // merge in the column items
             Vector<DSMItem> colsToDelete = new Vector<>(cols.stream().filter(o -> o.getGroup2().equals(toGroup)).toList());
             for(DSMItem importedCol : importMatrix.getCols()) {
-                if(cols.stream().anyMatch(c -> c.getUid() == importedCol.getUid())) {  // item is already contained so modify it and its connections by doing a copy replace
+                if(isCol(importedCol.getUid())) {  // item is already contained so modify it and its connections by doing a copy replace
                     DSMItem rowItem = getItemByAlias(importedCol.getUid());
                     DSMItem colItem = getItem(importedCol.getUid());
 
@@ -1127,7 +1201,7 @@ public class MultiDomainDSMData extends AbstractDSMData implements IZoomable, IP
                     colsToDelete.remove(colItem);
 
                 } else {  // item is not contained so add it
-                    DSMItem row = new DSMItem();  // add a new row item because mdm is symmetric
+                    DSMItem row = new DSMItem(allocateUid(), null, 0.0, "", null, null);  // add a new row item because mdm is symmetric
                     row.copyProperties(importedCol);
                     row.setAliasUid(importedCol.getUid());
                     importedCol.setAliasUid(row.getUid());
@@ -1185,7 +1259,7 @@ public class MultiDomainDSMData extends AbstractDSMData implements IZoomable, IP
 
             // find the connections
             for(DSMConnection conn : connections) {
-                if(exportMatrix.getRows().stream().anyMatch(r -> r.getUid() == conn.getRowUid()) && exportMatrix.getCols().stream().anyMatch(c -> c.getUid() == conn.getColUid())) {
+                if(exportMatrix.isRow(conn.getRowUid()) && exportMatrix.isCol(conn.getColUid())) {
                     exportMatrix.modifyConnection(conn.getRowUid(), conn.getColUid(), conn.getConnectionName(), conn.getWeight(), conn.getInterfaces());
                 }
             }
@@ -1221,7 +1295,7 @@ public class MultiDomainDSMData extends AbstractDSMData implements IZoomable, IP
 
             // find the connections
             for(DSMConnection conn : connections) {
-                if(exportMatrix.getRows().stream().anyMatch(r -> r.getUid() == conn.getRowUid()) && exportMatrix.getCols().stream().anyMatch(c -> c.getUid() == conn.getColUid())) {
+                if(exportMatrix.isRow(conn.getRowUid()) && exportMatrix.isCol(conn.getColUid())) {
                     exportMatrix.modifyConnection(conn.getRowUid(), conn.getColUid(), conn.getConnectionName(), conn.getWeight(), conn.getInterfaces());
                 }
             }
@@ -1234,61 +1308,14 @@ public class MultiDomainDSMData extends AbstractDSMData implements IZoomable, IP
 
 
     /**
-     * Runs propagation analysis for a matrix. Pick a start item and each level find the connections of the items in the
-     * previous level. Items that are excluded are added to the count, but not propagated through.
+     * Creates an engine that runs propagation analysis over the current state of the matrix. Each level goes from
+     * the rows to the rows aliased to the columns they connect to
      *
-     * @param startItem     the item to start at
-     * @param numLevels     number of levels to run
-     * @param exclusions    array of item uids to be excluded
-     * @param minWeight     minimum weight for item to be included
-     * @param countByWeight count by weight or by occurrence
-     * @return              HashMap(level : Hashmap(uid, occurrences/weights))
+     * @return  the engine
      */
     @Override
-    public HashMap<Integer, HashMap<Integer, Double>> propagationAnalysis(Integer startItem, int numLevels, ArrayList<Integer> exclusions, double minWeight, boolean countByWeight) {
-        int currentLevel = 1;
-        HashMap<Integer, HashMap<Integer, Double>> results = new HashMap<>();
-        ArrayList<Integer> dependentConnections = new ArrayList<>();
-        dependentConnections.add(startItem);
-        exclusions.add(startItem);
-
-        while(currentLevel <= numLevels) {
-            ArrayList<Integer> newDependentConnections = new ArrayList<>();
-            results.put(currentLevel, new HashMap<>());  // add default item
-
-            for(Integer uid : dependentConnections) {  // find dependent connections of each item from the previous level
-
-                // find connections with uid as the row item
-                for(DSMItem col : cols) {  // iterate over column items finding the ones that match the row
-                    DSMConnection conn = getConnection(uid, col.getUid());
-
-                    // define exit conditions
-                    if(conn == null) continue;
-                    if(conn.getWeight() < minWeight) continue;
-
-                    Integer resultEntryUid = col.getAliasUid();
-
-                    results.get(currentLevel).putIfAbsent(resultEntryUid, 0.0);
-
-                    if(countByWeight) {
-                        results.get(currentLevel).put(resultEntryUid, results.get(currentLevel).get(resultEntryUid) + conn.getWeight());
-                    } else {
-                        results.get(currentLevel).put(resultEntryUid, results.get(currentLevel).get(resultEntryUid) + 1.0);
-                    }
-
-                    if(!exclusions.contains(resultEntryUid) && !newDependentConnections.contains(resultEntryUid)) {  // add to next level if not present and not excluded
-                        newDependentConnections.add(resultEntryUid);  // add the actual item uid
-                    }
-                }
-            }
-
-
-            dependentConnections.clear();
-            dependentConnections = newDependentConnections;
-            currentLevel += 1;
-        }
-
-        return results;
+    public PropagationEngine createPropagationEngine() {
+        return new PropagationEngine(getSnapshot(), false);
     }
 
 }
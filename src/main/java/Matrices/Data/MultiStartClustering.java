@@ -0,0 +1,167 @@
+package Matrices.Data;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.*;
+
+
+/**
+ * Runs several independent chains of a clustering engine with different seeds on a thread pool and keeps the best
+ * result. Clustering engines are stochastic, so more chains explore more solutions. Each chain only reads the
+ * snapshot, so they all share it. The seed of each chain only depends on the base seed, and ties between chains go to
+ * the chain that was started first, so the result does not depend on the number of threads
+ *
+ * @author: Aiden Carney
+ */
+public class MultiStartClustering {
+
+    /**
+     * The results of running several independent chains of an engine
+     */
+    public static final class Result {
+        private final ClusteringResult best;
+        private final int bestStart;
+        private final long[] seeds;
+        private final double[] costs;
+        private final long wallTimeMillis;
+
+        /**
+         * @param best            the best result of all the chains
+         * @param bestStart       the index of the chain that found the best result
+         * @param seeds           the seed of each chain
+         * @param costs           the cost of the best result of each chain
+         * @param wallTimeMillis  how long it took to run all the chains
+         */
+        private Result(ClusteringResult best, int bestStart, long[] seeds, double[] costs, long wallTimeMillis) {
+            this.best = best;
+            this.bestStart = bestStart;
+            this.seeds = seeds;
+            this.costs = costs;
+            this.wallTimeMillis = wallTimeMillis;
+        }
+
+        /**
+         * @return  the best result of all the chains. Ties go to the chain that was started first
+         */
+        public ClusteringResult getBest() {
+            return best;
+        }
+
+        /**
+         * @return  the index of the chain that found the best result
+         */
+        public int getBestStart() {
+            return bestStart;
+        }
+
+        /**
+         * @return  the seed of each chain
+         */
+        public long[] getSeeds() {
+            return seeds;
+        }
+
+        /**
+         * @return  the cost of the best result of each chain
+         */
+        public double[] getCosts() {
+            return costs;
+        }
+
+        /**
+         * @return  how long it took to run all the chains in milliseconds
+         */
+        public long getWallTimeMillis() {
+            return wallTimeMillis;
+        }
+    }
+
+
+    /**
+     * Generates the seeds for a multi start run. The first seed is the base seed so that a single start gives the
+     * same result as running the engine once, the others come from a generator seeded with the base seed
+     *
+     * @param baseSeed   the seed the run was started with
+     * @param numStarts  the number of chains
+     * @return           the seed of each chain
+     */
+    public static long[] getStartSeeds(long baseSeed, int numStarts) {
+        long[] seeds = new long[numStarts];
+        Random seedGenerator = new Random(baseSeed);
+        for(int k = 0; k < numStarts; k++) {
+            seeds[k] = (k == 0) ? baseSeed : seedGenerator.nextLong();
+        }
+        return seeds;
+    }
+
+
+    /**
+     * Runs several independent chains of an engine on a pool of threads and keeps the best result
+     *
+     * @param engine      the engine to run
+     * @param snapshot    the connections of the matrix to cluster
+     * @param parameters  the parameters of every chain
+     * @param baseSeed    seed used to generate the seed of each chain
+     * @param numStarts   the number of chains to run
+     * @param numThreads  the number of threads to run chains on
+     * @param job         the job to report the progress of all chains to, may be null. Cancelling it stops every chain
+     * @return            the best result and the cost of each chain
+     * @throws InterruptedException  if the thread was interrupted while waiting for the chains
+     */
+    public static Result run(ClusteringEngine engine, MatrixSnapshot snapshot, ClusteringParameters parameters, long baseSeed, int numStarts, int numThreads, ClusteringJob job) throws InterruptedException {
+        if(numStarts < 1 || numThreads < 1) {
+            throw new IllegalArgumentException("Number of starts and threads must be at least 1");
+        }
+        long[] seeds = getStartSeeds(baseSeed, numStarts);
+
+        ArrayList<Callable<ClusteringResult>> chains = new ArrayList<>();
+        for(int k = 0; k < numStarts; k++) {
+            int start = k;
+            chains.add(() -> engine.cluster(snapshot, parameters, seeds[start], job));
+        }
+
+        Instant startTime = Instant.now();
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(numThreads, numStarts), r -> {
+            Thread t = new Thread(r);
+            t.setDaemon(true);
+            return t;
+        });
+        List<Future<ClusteringResult>> futures;
+        try {
+            futures = pool.invokeAll(chains);
+        } catch(InterruptedException e) {
+            if(job != null) {
+                job.cancel();  // chains that already started stop at their next iteration
+            }
+            throw e;
+        } finally {
+            pool.shutdownNow();
+            if(job != null) {
+                job.flushCsv();
+            }
+        }
+
+        ClusteringResult best = null;
+        int bestStart = -1;
+        double[] costs = new double[numStarts];
+        for(int k = 0; k < numStarts; k++) {
+            ClusteringResult result;
+            try {
+                result = futures.get(k).get();
+            } catch(ExecutionException e) {
+                throw new RuntimeException("Clustering chain with seed " + seeds[k] + " failed", e.getCause());
+            }
+            costs[k] = result.getCost();
+            if(best == null || result.getCost() < best.getCost()) {
+                best = result;
+                bestStart = k;
+            }
+        }
+        long wallTime = Duration.between(startTime, Instant.now()).toMillis();
+
+        return new Result(best, bestStart, seeds, costs, wallTime);
+    }
+}
@@ -0,0 +1,214 @@
+package Matrices.Data;
+
+import java.util.Arrays;
+
+
+/**
+ * Partitions and sequences the items of a matrix into blocks of coupled items. Item i is row i of a snapshot and
+ * there is a dependency from item i to item j when row i has a connection in the column aliased to row j. The blocks
+ * are the strongly connected components of the dependencies, found with Tarjan's algorithm, and they are sequenced in
+ * topological order so that items come after everything they depend on. When the matrix is sorted in that order every
+ * connection between blocks is below the diagonal, so the only connections above the diagonal are inside a block
+ *
+ * Tarjan's algorithm gives the components in reverse topological order of the dependency graph, which is the order
+ * the blocks are sequenced in, so no separate topological sort is needed. The search uses explicit stacks instead of
+ * recursion so long chains of dependencies cannot overflow the call stack. Everything runs in O(n + C) time where C
+ * is the number of connections. Columns that are not aliased to a row (ex. in an asymmetric matrix) add no
+ * dependencies
+ *
+ * @author: Aiden Carney
+ */
+public final class PartitioningAnalysis {
+    private final MatrixSnapshot snapshot;
+    private final int[] order;  // position in the sequence -> row index
+    private final int[] positions;  // row index -> position in the sequence
+    private final int[] blocks;  // row index -> block
+    private final int[] blockStarts;  // block -> position of its first item, with one extra element for the end
+
+
+    /**
+     * Creates a new result from the block of each row
+     *
+     * @param snapshot   the snapshot that was partitioned
+     * @param blocks     the block of each row, numbered in the order the blocks are sequenced
+     * @param numBlocks  the number of blocks
+     */
+    private PartitioningAnalysis(MatrixSnapshot snapshot, int[] blocks, int numBlocks) {
+        this.snapshot = snapshot;
+        this.blocks = blocks;
+        int numItems = blocks.length;
+
+        // counting sort by block keeps the items of a block in the order they were in
+        blockStarts = new int[numBlocks + 1];
+        for(int block : blocks) {
+            blockStarts[block + 1] += 1;
+        }
+        for(int b = 0; b < numBlocks; b++) {
+            blockStarts[b + 1] += blockStarts[b];
+        }
+        int[] next = new int[numBlocks];
+        System.arraycopy(blockStarts, 0, next, 0, numBlocks);
+        order = new int[numItems];
+        positions = new int[numItems];
+        for(int r = 0; r < numItems; r++) {
+            int position = next[blocks[r]]++;
+            order[position] = r;
+            positions[r] = position;
+        }
+    }
+
+
+    /**
+     * Partitions the items of a snapshot into blocks of coupled items and sequences the blocks
+     *
+     * @param snapshot  the connections of the matrix to partition
+     * @return          the blocks and the sequence of the items
+     */
+    public static PartitioningAnalysis partition(MatrixSnapshot snapshot) {
+        int n = snapshot.getNumRows();
+        int[] index = new int[n];  // order each item was discovered in, -1 when not yet discovered
+        int[] low = new int[n];  // lowest discovery index reachable from the item through the search tree
+        boolean[] onStack = new boolean[n];
+        int[] stack = new int[n];  // items whose component has not been found yet
+        int stackSize = 0;
+        int[] callStack = new int[n];  // items being searched, replaces recursion
+        int[] nextEntry = new int[n];  // next connection of each item to follow
+        int[] blocks = new int[n];
+        Arrays.fill(index, -1);
+
+        int counter = 0;
+        int numBlocks = 0;
+        for(int root = 0; root < n; root++) {
+            if(index[root] >= 0) continue;
+
+            int depth = 0;
+            callStack[depth] = root;
+            index[root] = low[root] = counter++;
+            nextEntry[root] = snapshot.getRowStart(root);
+            stack[stackSize++] = root;
+            onStack[root] = true;
+
+            while(depth >= 0) {
+                int v = callStack[depth];
+                int end = snapshot.getRowEnd(v);
+                boolean descended = false;
+                while(nextEntry[v] < end) {
+                    int w = snapshot.getColAliasRow(snapshot.getEntryCol(nextEntry[v]));
+                    nextEntry[v] += 1;
+                    if(w < 0 || w == v) continue;  // no dependency or a dependency on itself
+
+                    if(index[w] < 0) {  // descend into w
+                        index[w] = low[w] = counter++;
+                        nextEntry[w] = snapshot.getRowStart(w);
+                        stack[stackSize++] = w;
+                        onStack[w] = true;
+                        callStack[++depth] = w;
+                        descended = true;
+                        break;
+                    } else if(onStack[w]) {
+                        low[v] = Math.min(low[v], index[w]);
+                    }
+                }
+                if(descended) continue;
+
+                // all dependencies of v have been searched
+                if(low[v] == index[v]) {  // v is the root of a component so pop it off the stack
+                    int w;
+                    do {
+                        w = stack[--stackSize];
+                        onStack[w] = false;
+                        blocks[w] = numBlocks;
+                    } while(w != v);
+                    numBlocks += 1;
+                }
+                depth -= 1;
+                if(depth >= 0) {
+                    int parent = callStack[depth];
+                    low[parent] = Math.min(low[parent], low[v]);
+                }
+            }
+        }
+
+        return new PartitioningAnalysis(snapshot, blocks, numBlocks);
+    }
+
+
+//region Getters
+    /**
+     * @return  the snapshot that was partitioned
+     */
+    public MatrixSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+
+    /**
+     * @return  the number of items that were partitioned
+     */
+    public int getNumItems() {
+        return order.length;
+    }
+
+
+    /**
+     * @return  the number of blocks, items that are not coupled to any other item are a block of their own
+     */
+    public int getNumBlocks() {
+        return blockStarts.length - 1;
+    }
+
+
+    /**
+     * @param position  the position in the sequence
+     * @return          the row index of the item at the position
+     */
+    public int getRowAt(int position) {
+        return order[position];
+    }
+
+
+    /**
+     * @param row  the row index of an item
+     * @return     the position of the item in the sequence
+     */
+    public int getPosition(int row) {
+        return positions[row];
+    }
+
+
+    /**
+     * @param row  the row index of an item
+     * @return     the block the item is in. Blocks are numbered in the order they are sequenced
+     */
+    public int getBlock(int row) {
+        return blocks[row];
+    }
+
+
+    /**
+     * @param block  the block number
+     * @return       the position of the first item of the block
+     */
+    public int getBlockStart(int block) {
+        return blockStarts[block];
+    }
+
+
+    /**
+     * @param block  the block number
+     * @return       one past the position of the last item of the block
+     */
+    public int getBlockEnd(int block) {
+        return blockStarts[block + 1];
+    }
+
+
+    /**
+     * @param block  the block number
+     * @return       the number of items in the block
+     */
+    public int getBlockSize(int block) {
+        return blockStarts[block + 1] - blockStarts[block];
+    }
+//endregion
+}
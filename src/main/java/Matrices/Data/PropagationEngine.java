@@ -0,0 +1,202 @@
+package Matrices.Data;
+
+import java.util.BitSet;
+import java.util.Collection;
+
+
+/**
+ * Runs propagation analysis over a snapshot of a matrix. Starting from one item, each level follows the connections
+ * of the items reached on the previous level and counts how many times (or with how much weight) each item is
+ * reached. Items that are excluded, and the start item, are counted but not propagated through. An item is only
+ * propagated through once per level, but it can be reached again on later levels.
+ *
+ * Only the connections of the items on the frontier are visited, using the adjacency of the snapshot. Exclusions are
+ * kept in bitsets, and the items reached on a level and their values are kept in primitive arrays that are reused
+ * between levels and runs, so a run only allocates the arrays of its result. The next frontier is the items
+ * reached on a level that are not excluded. An engine is not thread safe, so use one engine for each thread. Several
+ * engines can share a snapshot
+ *
+ * @author: Aiden Carney
+ */
+public class PropagationEngine {
+    private final MatrixSnapshot snapshot;
+    private final MatrixSnapshot transpose;  // column adjacency, null when the engine does not alternate
+    private final boolean alternating;
+
+    private final double[] rowValues;  // row index -> value on the current level, all zero between levels
+    private final double[] colValues;
+    private final boolean[] rowsReached;  // items with a value on the current level
+    private final boolean[] colsReached;
+    private final int[] reached;  // items with a value on the current level in the order they were reached
+    private final BitSet excludedRows = new BitSet();
+    private final BitSet excludedCols = new BitSet();
+    private int[] frontier;
+    private int[] nextFrontier;
+
+
+    /**
+     * Creates a new engine for a snapshot
+     *
+     * @param snapshot     the connections of the matrix
+     * @param alternating  false if columns are aliased to rows so that every level goes from rows to the rows aliased
+     *                     to their columns (symmetric and multi-domain matrices). True if rows and columns are different
+     *                     items so that levels alternate between following the connections of rows and the connections
+     *                     into columns (asymmetric matrices)
+     */
+    public PropagationEngine(MatrixSnapshot snapshot, boolean alternating) {
+        this.snapshot = snapshot;
+        this.alternating = alternating;
+        transpose = alternating ? snapshot.getTranspose() : null;
+
+        int numRows = snapshot.getNumRows();
+        int numCols = snapshot.getNumCols();
+        rowValues = new double[numRows];
+        rowsReached = new boolean[numRows];
+        colsReached = new boolean[numCols];
+        colValues = new double[numCols];
+        reached = new int[Math.max(numRows, numCols)];
+        frontier = new int[Math.max(numRows, numCols)];
+        nextFrontier = new int[Math.max(numRows, numCols)];
+    }
+
+
+    /**
+     * @return  the snapshot the engine runs over
+     */
+    public MatrixSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+
+    /**
+     * @return  if levels alternate between rows and columns
+     */
+    public boolean isAlternating() {
+        return alternating;
+    }
+
+
+    /**
+     * Receives the items reached on each level of a run. The arrays belong to the engine and are only valid during the
+     * call
+     */
+    interface LevelVisitor {
+        /**
+         * @param level           the level, starting at 1
+         * @param targetsAreRows  if the items are row indices of the snapshot or column indices
+         * @param reached         the indices of the items reached on the level in the order they were reached
+         * @param numReached      the number of items in reached
+         * @param values          index -> the value of the item on the level
+         */
+        void visit(int level, boolean targetsAreRows, int[] reached, int numReached, double[] values);
+    }
+
+
+    /**
+     * Runs propagation analysis from a start item. None of the parameters are modified
+     *
+     * @param startItem      the uid of the item to start at
+     * @param numLevels      number of levels to run
+     * @param exclusions     uids of the items that are counted but not propagated through
+     * @param minWeight      minimum weight of a connection for it to be followed
+     * @param countByWeight  count by weight or by occurrence
+     * @return               the items reached on each level
+     */
+    public PropagationResult run(int startItem, int numLevels, Collection<Integer> exclusions, double minWeight, boolean countByWeight) {
+        int[][] levelUids = new int[Math.max(numLevels, 0)][];
+        double[][] levelValues = new double[Math.max(numLevels, 0)][];
+        run(startItem, numLevels, exclusions, minWeight, countByWeight, (level, targetsAreRows, reached, numReached, values) -> {
+            int[] uids = new int[numReached];
+            double[] levelValue = new double[numReached];
+            for(int i = 0; i < numReached; i++) {
+                uids[i] = targetsAreRows ? snapshot.getRowUid(reached[i]) : snapshot.getColUid(reached[i]);
+                levelValue[i] = values[reached[i]];
+            }
+            levelUids[level - 1] = uids;
+            levelValues[level - 1] = levelValue;
+        });
+
+        return new PropagationResult(startItem, levelUids, levelValues);
+    }
+
+
+    /**
+     * Runs propagation analysis from a start item and passes each level to a visitor instead of building a result
+     *
+     * @param startItem      the uid of the item to start at
+     * @param numLevels      number of levels to run
+     * @param exclusions     uids of the items that are counted but not propagated through
+     * @param minWeight      minimum weight of a connection for it to be followed
+     * @param countByWeight  count by weight or by occurrence
+     * @param visitor        called once for each level in order
+     */
+    void run(int startItem, int numLevels, Collection<Integer> exclusions, double minWeight, boolean countByWeight, LevelVisitor visitor) {
+        excludedRows.clear();
+        excludedCols.clear();
+        for(int uid : exclusions) {
+            int row = snapshot.getRowIndex(uid);
+            if(row >= 0) excludedRows.set(row);
+            int col = snapshot.getColIndex(uid);
+            if(col >= 0) excludedCols.set(col);
+        }
+
+        // the frontier starts as the start item, which is never propagated through again
+        boolean frontierIsRows = true;
+        int frontierSize = 0;
+        int startRow = snapshot.getRowIndex(startItem);
+        if(startRow >= 0) {
+            frontier[frontierSize++] = startRow;
+            excludedRows.set(startRow);
+        } else if(alternating && snapshot.getColIndex(startItem) >= 0) {
+            frontierIsRows = false;
+            frontier[frontierSize++] = snapshot.getColIndex(startItem);
+            excludedCols.set(frontier[0]);
+        }
+
+        for(int level = 1; level <= numLevels; level++) {
+            MatrixSnapshot adjacency = frontierIsRows ? snapshot : transpose;
+            boolean targetsAreRows = !alternating || !frontierIsRows;
+            double[] values = targetsAreRows ? rowValues : colValues;
+            boolean[] targetsReached = targetsAreRows ? rowsReached : colsReached;
+            BitSet excluded = targetsAreRows ? excludedRows : excludedCols;
+
+            int numReached = 0;
+            int nextSize = 0;
+            for(int f = 0; f < frontierSize; f++) {
+                int item = frontier[f];
+                for(int k = adjacency.getRowStart(item); k < adjacency.getRowEnd(item); k++) {
+                    double weight = adjacency.getEntryWeight(k);
+                    if(weight < minWeight) continue;
+
+                    int target = adjacency.getEntryCol(k);
+                    if(!alternating) {
+                        target = snapshot.getColAliasRow(target);
+                        if(target < 0) continue;
+                    }
+
+                    if(!targetsReached[target]) {
+                        targetsReached[target] = true;
+                        reached[numReached++] = target;
+                        if(!excluded.get(target)) {  // add to next level the first time it is reached if not excluded
+                            nextFrontier[nextSize++] = target;
+                        }
+                    }
+                    values[target] += countByWeight ? weight : 1.0;
+                }
+            }
+
+            // hand the level out and reset the accumulators for the next level
+            visitor.visit(level, targetsAreRows, reached, numReached, values);
+            for(int i = 0; i < numReached; i++) {
+                values[reached[i]] = 0.0;
+                targetsReached[reached[i]] = false;
+            }
+
+            int[] temp = frontier;
+            frontier = nextFrontier;
+            nextFrontier = temp;
+            frontierSize = nextSize;
+            frontierIsRows = targetsAreRows;
+        }
+    }
+}
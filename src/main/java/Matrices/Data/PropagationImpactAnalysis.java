@@ -0,0 +1,299 @@
+package Matrices.Data;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+
+/**
+ * Propagation analysis run from every item of a matrix. The value of source s and target t is the value t reached
+ * over all the levels of a propagation analysis started at s, so the results form an item by item impact matrix. The
+ * items are the rows of the snapshot followed, for matrices where rows and columns are different items, by the columns
+ * of the snapshot.
+ *
+ * The sources are split into ranges that are run as tasks of a ForkJoinPool. Each task uses its own PropagationEngine
+ * and all the engines share one snapshot. Only the targets a source reaches are stored, so memory grows with the
+ * number of items each item reaches rather than with the square of the size of the matrix
+ *
+ * @author: Aiden Carney
+ */
+public final class PropagationImpactAnalysis {
+    private static final int SOURCES_PER_TASK = 16;
+
+    private final MatrixSnapshot snapshot;
+    private final boolean alternating;
+    private final int numItems;
+    private final int[][] targets;  // source item -> item indices reached, sorted
+    private final double[][] values;  // source item -> value of each target
+    private final double[] impacts;  // source item -> sum of the values of its targets
+    private final double[] impactedBy;  // target item -> sum of the values it was reached with from every source
+
+
+    /**
+     * Creates an empty analysis. Use compute to create an instance
+     *
+     * @param snapshot     the connections of the matrix
+     * @param alternating  if rows and columns are different items
+     */
+    private PropagationImpactAnalysis(MatrixSnapshot snapshot, boolean alternating) {
+        this.snapshot = snapshot;
+        this.alternating = alternating;
+        numItems = snapshot.getNumRows() + (alternating ? snapshot.getNumCols() : 0);
+        targets = new int[numItems][];
+        values = new double[numItems][];
+        impacts = new double[numItems];
+        impactedBy = new double[numItems];
+    }
+
+
+    /**
+     * Runs propagation analysis from every item of the matrix an engine was created for
+     *
+     * @param engine         an engine for the matrix, used for its snapshot and how it propagates. It is not run so it
+     *                       can be in use by another thread
+     * @param numLevels      number of levels to run from each item
+     * @param exclusions     uids of the items that are counted but not propagated through, is not modified
+     * @param minWeight      minimum weight of a connection for it to be followed
+     * @param countByWeight  count by weight or by occurrence
+     * @param pool           the pool to run the sources on
+     * @return               the impact of every item on every other item
+     */
+    public static PropagationImpactAnalysis compute(PropagationEngine engine, int numLevels, Collection<Integer> exclusions, double minWeight, boolean countByWeight, ForkJoinPool pool) {
+        PropagationImpactAnalysis analysis = new PropagationImpactAnalysis(engine.getSnapshot(), engine.isAlternating());
+        ArrayList<Integer> excluded = new ArrayList<>(exclusions);  // tasks only read the copy
+
+        pool.invoke(analysis.new SourceTask(0, analysis.numItems, numLevels, excluded, minWeight, countByWeight));
+
+        for(int s = 0; s < analysis.numItems; s++) {  // summed after the tasks finish so no target is shared
+            for(int i = 0; i < analysis.targets[s].length; i++) {
+                analysis.impactedBy[analysis.targets[s][i]] += analysis.values[s][i];
+            }
+        }
+
+        return analysis;
+    }
+
+
+    /**
+     * Task that runs propagation analysis from a range of sources and splits the range while it is large
+     */
+    private class SourceTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int start;
+        private final int end;
+        private final int numLevels;
+        private final Collection<Integer> exclusions;
+        private final double minWeight;
+        private final boolean countByWeight;
+
+        private double[] sums;  // target item -> value from the current source, all zero between sources
+        private boolean[] touched;  // target item -> if it was reached from the current source
+        private int numReached;  // number of items reached from the current source
+
+
+        /**
+         * Creates a new task for the sources start (inclusive) to end (exclusive)
+         */
+        SourceTask(int start, int end, int numLevels, Collection<Integer> exclusions, double minWeight, boolean countByWeight) {
+            this.start = start;
+            this.end = end;
+            this.numLevels = numLevels;
+            this.exclusions = exclusions;
+            this.minWeight = minWeight;
+            this.countByWeight = countByWeight;
+        }
+
+
+        /**
+         * Runs the sources of the task or splits it in half
+         */
+        @Override
+        protected void compute() {
+            if(end - start > SOURCES_PER_TASK) {
+                int mid = (start + end) >>> 1;
+                invokeAll(
+                        new SourceTask(start, mid, numLevels, exclusions, minWeight, countByWeight),
+                        new SourceTask(mid, end, numLevels, exclusions, minWeight, countByWeight)
+                );
+                return;
+            }
+
+            PropagationEngine engine = new PropagationEngine(snapshot, alternating);
+            sums = new double[numItems];
+            touched = new boolean[numItems];
+            for(int s = start; s < end; s++) {
+                numReached = 0;
+                engine.run(getUid(s), numLevels, exclusions, minWeight, countByWeight, (level, targetsAreRows, levelReached, numLevelReached, levelValues) -> {
+                    int offset = targetsAreRows ? 0 : snapshot.getNumRows();
+                    for(int i = 0; i < numLevelReached; i++) {
+                        int target = offset + levelReached[i];
+                        if(!touched[target]) {
+                            touched[target] = true;
+                            numReached++;
+                        }
+                        sums[target] += levelValues[levelReached[i]];
+                    }
+                });
+
+                // scanning for the touched items is cheaper than sorting them when most items are reached
+                int[] sourceTargets = new int[numReached];
+                double[] sourceValues = new double[numReached];
+                double impact = 0.0;
+                for(int target = 0, i = 0; i < numReached; target++) {
+                    if(!touched[target]) continue;
+                    sourceTargets[i] = target;
+                    sourceValues[i++] = sums[target];
+                    impact += sums[target];
+                    sums[target] = 0.0;
+                    touched[target] = false;
+                }
+                targets[s] = sourceTargets;
+                values[s] = sourceValues;
+                impacts[s] = impact;
+            }
+        }
+    }
+
+
+//region Getters
+    /**
+     * @return  the snapshot the analysis was run on
+     */
+    public MatrixSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+
+    /**
+     * @return  the number of items, which is the size of each side of the impact matrix
+     */
+    public int getNumItems() {
+        return numItems;
+    }
+
+
+    /**
+     * @param item  the index of the item
+     * @return      the uid of the item
+     */
+    public int getUid(int item) {
+        if(item < snapshot.getNumRows()) {
+            return snapshot.getRowUid(item);
+        }
+        return snapshot.getColUid(item - snapshot.getNumRows());
+    }
+
+
+    /**
+     * @param uid  the uid of an item
+     * @return     the index of the item or -1 if it is not an item of the analysis
+     */
+    public int getItem(int uid) {
+        int row = snapshot.getRowIndex(uid);
+        if(row >= 0) return row;
+        if(!alternating) return -1;
+
+        int col = snapshot.getColIndex(uid);
+        return col >= 0 ? snapshot.getNumRows() + col : -1;
+    }
+
+
+    /**
+     * @param source  the index of the item propagation was started at
+     * @param target  the index of the item that was reached
+     * @return        the value the target was reached with, summed over all levels, or 0 if it was not reached
+     */
+    public double getImpact(int source, int target) {
+        int i = Arrays.binarySearch(targets[source], target);
+        return i >= 0 ? values[source][i] : 0.0;
+    }
+
+
+    /**
+     * @param source  the index of the item propagation was started at
+     * @return        the sum of the impact of the item on every item
+     */
+    public double getTotalImpact(int source) {
+        return impacts[source];
+    }
+
+
+    /**
+     * @param target  the index of an item
+     * @return        the sum of the impact of every item on the item
+     */
+    public double getTotalImpactedBy(int target) {
+        return impactedBy[target];
+    }
+
+
+    /**
+     * @param source  the index of the item propagation was started at
+     * @return        the number of items that are reached from the item
+     */
+    public int getNumReached(int source) {
+        return targets[source].length;
+    }
+
+
+    /**
+     * @param item  the index of the item
+     * @return      the name of the item when the snapshot was taken
+     */
+    public String getName(int item) {
+        if(item < snapshot.getNumRows()) {
+            return snapshot.getRowName(item);
+        }
+        return snapshot.getColName(item - snapshot.getNumRows());
+    }
+//endregion
+
+
+    /**
+     * Writes the impact matrix as a csv with the item names from the snapshot as the headers. Rows are sources and
+     * columns are targets
+     *
+     * @param out  where to write the csv, is not closed
+     * @throws IOException  if the writer fails
+     */
+    public void writeCsv(Writer out) throws IOException {
+        StringBuilder line = new StringBuilder();
+        for(int t = 0; t < numItems; t++) {
+            line.append(",").append(CsvFields.quote(getName(t)));
+        }
+        out.write(line.append("\n").toString());
+
+        for(int s = 0; s < numItems; s++) {
+            line.setLength(0);
+            line.append(CsvFields.quote(getName(s)));
+            int i = 0;
+            for(int t = 0; t < numItems; t++) {  // targets are sorted so they can be merged in
+                if(i < targets[s].length && targets[s][i] == t) {
+                    line.append(",").append(values[s][i++]);
+                } else {
+                    line.append(",0");
+                }
+            }
+            out.write(line.append("\n").toString());
+        }
+    }
+
+
+    /**
+     * Writes the totals of each item as a csv with a header row
+     *
+     * @param out  where to write the csv, is not closed
+     * @throws IOException  if the writer fails
+     */
+    public void writeTotalsCsv(Writer out) throws IOException {
+        out.write("Item,Impact,Impacted By,Items Reached\n");
+        for(int s = 0; s < numItems; s++) {
+            out.write(CsvFields.quote(getName(s)) + "," + impacts[s] + "," + impactedBy[s] + "," + targets[s].length + "\n");
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package Matrices.Data;
+
+import java.util.HashMap;
+
+
+/**
+ * The result of a propagation analysis. For each level it holds the uids of the items that were reached on that level
+ * and the number of times or the total weight they were reached with, stored in parallel primitive arrays. Levels
+ * are numbered 1 to getNumLevels() and a level where nothing was reached is empty
+ *
+ * @author: Aiden Carney
+ */
+public final class PropagationResult {
+    private final int startItem;
+    private final int[][] levelUids;  // level - 1 -> uids of the items reached on the level
+    private final double[][] levelValues;  // level - 1 -> value of each item reached on the level
+
+
+    /**
+     * Creates a new result
+     *
+     * @param startItem    the uid of the item the analysis started at
+     * @param levelUids    the uids of the items reached on each level
+     * @param levelValues  the value of each item reached on each level
+     */
+    PropagationResult(int startItem, int[][] levelUids, double[][] levelValues) {
+        this.startItem = startItem;
+        this.levelUids = levelUids;
+        this.levelValues = levelValues;
+    }
+
+
+    /**
+     * @return  the uid of the item the analysis started at
+     */
+    public int getStartItem() {
+        return startItem;
+    }
+
+
+    /**
+     * @return  the number of levels that were run
+     */
+    public int getNumLevels() {
+        return levelUids.length;
+    }
+
+
+    /**
+     * @param level  the level, starting at 1
+     * @return       the number of items reached on the level
+     */
+    public int getLevelSize(int level) {
+        return levelUids[level - 1].length;
+    }
+
+
+    /**
+     * @param level  the level, starting at 1
+     * @param i      the index of the item in the level
+     * @return       the uid of the item
+     */
+    public int getUid(int level, int i) {
+        return levelUids[level - 1][i];
+    }
+
+
+    /**
+     * @param level  the level, starting at 1
+     * @param i      the index of the item in the level
+     * @return       the number of times the item was reached on the level or the total weight it was reached with
+     */
+    public double getValue(int level, int i) {
+        return levelValues[level - 1][i];
+    }
+
+
+    /**
+     * @return  the value of every item reached on any level summed over the levels
+     */
+    public HashMap<Integer, Double> getTotals() {
+        HashMap<Integer, Double> totals = new HashMap<>();
+        for(int l = 0; l < levelUids.length; l++) {
+            for(int i = 0; i < levelUids[l].length; i++) {
+                totals.merge(levelUids[l][i], levelValues[l][i], Double::sum);
+            }
+        }
+        return totals;
+    }
+
+
+    /**
+     * @return  the result in the format of IPropagationAnalysis.propagationAnalysis: level -> (uid -> value)
+     */
+    public HashMap<Integer, HashMap<Integer, Double>> toMap() {
+        HashMap<Integer, HashMap<Integer, Double>> results = new HashMap<>();
+        for(int l = 0; l < levelUids.length; l++) {
+            HashMap<Integer, Double> level = new HashMap<>();
+            for(int i = 0; i < levelUids[l].length; i++) {
+                level.put(levelUids[l][i], levelValues[l][i]);
+            }
+            results.put(l + 1, level);
+        }
+        return results;
+    }
+}
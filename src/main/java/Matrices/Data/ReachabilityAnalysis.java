@@ -0,0 +1,211 @@
+package Matrices.Data;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+
+/**
+ * The transitive closure of the connections of a matrix. Row r reaches column c when there is a path from r to c where
+ * every step is a connection and the path continues from a column through the row aliased to it. In a matrix without
+ * aliases (ex. an asymmetric matrix) the closure is the same as the connections.
+ *
+ * The closure is found on the condensation of the matrix from a PartitioningAnalysis. Items in the same block reach
+ * the same columns, so one row of bits is kept for each block. Blocks are sequenced after every block they depend on,
+ * so each block only needs the union of the rows of the blocks it connects to, which is computed 64 columns at a time
+ * with a bitwise or. Blocks that do not depend on each other can optionally be computed in parallel. The closure uses
+ * one bit for each column of each block, so memory grows with the square of the size of the matrix
+ *
+ * @author: Aiden Carney
+ */
+public final class ReachabilityAnalysis {
+    private final MatrixSnapshot snapshot;
+    private final PartitioningAnalysis partitioning;
+    private final int words;  // number of longs in the row of a block
+    private final long[] closure;  // block b reaches column c when bit c of the row at b * words is set
+    private final int[] reachCounts;  // block -> number of columns it reaches
+
+
+    /**
+     * Creates the closure of a snapshot. Use compute to create an instance
+     *
+     * @param snapshot      the snapshot to find the closure of
+     * @param partitioning  the blocks of the snapshot
+     */
+    private ReachabilityAnalysis(MatrixSnapshot snapshot, PartitioningAnalysis partitioning) {
+        this.snapshot = snapshot;
+        this.partitioning = partitioning;
+        words = (snapshot.getNumCols() + 63) >>> 6;
+        closure = new long[partitioning.getNumBlocks() * words];
+        reachCounts = new int[partitioning.getNumBlocks()];
+    }
+
+
+    /**
+     * Computes the transitive closure of a snapshot
+     *
+     * @param snapshot  the connections of the matrix
+     * @param parallel  if blocks that do not depend on each other should be computed on several threads
+     * @return          the closure
+     */
+    public static ReachabilityAnalysis compute(MatrixSnapshot snapshot, boolean parallel) {
+        PartitioningAnalysis partitioning = PartitioningAnalysis.partition(snapshot);
+        ReachabilityAnalysis analysis = new ReachabilityAnalysis(snapshot, partitioning);
+        int numBlocks = partitioning.getNumBlocks();
+
+        // the level of a block is the length of the longest chain of blocks it depends on. Blocks on the same level do
+        // not depend on each other
+        int[] levels = new int[numBlocks];
+        int numLevels = 0;
+        for(int b = 0; b < numBlocks; b++) {
+            for(int p = partitioning.getBlockStart(b); p < partitioning.getBlockEnd(b); p++) {
+                int r = partitioning.getRowAt(p);
+                for(int k = snapshot.getRowStart(r); k < snapshot.getRowEnd(r); k++) {
+                    int w = snapshot.getColAliasRow(snapshot.getEntryCol(k));
+                    if(w >= 0 && partitioning.getBlock(w) != b) {
+                        levels[b] = Math.max(levels[b], levels[partitioning.getBlock(w)] + 1);
+                    }
+                }
+            }
+            numLevels = Math.max(numLevels, levels[b] + 1);
+        }
+
+        // counting sort of the blocks by level
+        int[] levelStarts = new int[numLevels + 1];
+        for(int level : levels) {
+            levelStarts[level + 1] += 1;
+        }
+        for(int l = 0; l < numLevels; l++) {
+            levelStarts[l + 1] += levelStarts[l];
+        }
+        int[] next = Arrays.copyOf(levelStarts, numLevels);
+        int[] blocksByLevel = new int[numBlocks];
+        for(int b = 0; b < numBlocks; b++) {
+            blocksByLevel[next[levels[b]]++] = b;
+        }
+
+        // blocks already or'ed into the block being computed, one array for each thread
+        ThreadLocal<int[]> merged = ThreadLocal.withInitial(() -> {
+            int[] lastMergedInto = new int[numBlocks];
+            Arrays.fill(lastMergedInto, -1);
+            return lastMergedInto;
+        });
+        for(int l = 0; l < numLevels; l++) {
+            IntStream blocks = IntStream.range(levelStarts[l], levelStarts[l + 1]).map(i -> blocksByLevel[i]);
+            if(parallel) {
+                blocks = blocks.parallel();
+            }
+            blocks.forEach(b -> analysis.computeBlock(b, merged.get()));
+        }
+
+        return analysis;
+    }
+
+
+    /**
+     * Computes the row of a block from its connections and the rows of the blocks it depends on
+     *
+     * @param b               the block to compute
+     * @param lastMergedInto  the last block each block was or'ed into, used to only merge each block once
+     */
+    private void computeBlock(int b, int[] lastMergedInto) {
+        int offset = b * words;
+        for(int p = partitioning.getBlockStart(b); p < partitioning.getBlockEnd(b); p++) {
+            int r = partitioning.getRowAt(p);
+            for(int k = snapshot.getRowStart(r); k < snapshot.getRowEnd(r); k++) {
+                int c = snapshot.getEntryCol(k);
+                closure[offset + (c >>> 6)] |= 1L << c;
+
+                int w = snapshot.getColAliasRow(c);
+                if(w < 0) continue;
+                int successor = partitioning.getBlock(w);
+                if(successor == b || lastMergedInto[successor] == b) continue;
+                lastMergedInto[successor] = b;
+                int successorOffset = successor * words;
+                for(int i = 0; i < words; i++) {
+                    closure[offset + i] |= closure[successorOffset + i];
+                }
+            }
+        }
+
+        int count = 0;
+        for(int i = 0; i < words; i++) {
+            count += Long.bitCount(closure[offset + i]);
+        }
+        reachCounts[b] = count;
+    }
+
+
+//region Getters
+    /**
+     * @return  the snapshot the closure was computed from
+     */
+    public MatrixSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+
+    /**
+     * @param row  the index of a row in the snapshot
+     * @param col  the index of a column in the snapshot
+     * @return     if there is a path of connections from the row to the column
+     */
+    public boolean canReach(int row, int col) {
+        int offset = partitioning.getBlock(row) * words;
+        return (closure[offset + (col >>> 6)] & (1L << col)) != 0;
+    }
+
+
+    /**
+     * @param row  the index of a row in the snapshot
+     * @return     the number of columns the row reaches
+     */
+    public int getReachCount(int row) {
+        return reachCounts[partitioning.getBlock(row)];
+    }
+
+
+    /**
+     * @param row  the index of a row in the snapshot
+     * @return     the indices of the columns the row reaches in increasing order
+     */
+    public int[] getReachableCols(int row) {
+        int offset = partitioning.getBlock(row) * words;
+        int[] cols = new int[getReachCount(row)];
+        int n = 0;
+        for(int i = 0; i < words; i++) {
+            long bits = closure[offset + i];
+            while(bits != 0) {
+                cols[n++] = (i << 6) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+            }
+        }
+        return cols;
+    }
+//endregion
+
+
+    /**
+     * Writes the closure as a csv matrix of ones and zeros with the item names from the snapshot as the headers
+     *
+     * @param out  where to write the csv, is not closed
+     * @throws IOException  if the writer fails
+     */
+    public void writeCsv(Writer out) throws IOException {
+        StringBuilder line = new StringBuilder();
+        for(int c = 0; c < snapshot.getNumCols(); c++) {
+            line.append(",").append(CsvFields.quote(snapshot.getColName(c)));
+        }
+        out.write(line.append("\n").toString());
+
+        for(int r = 0; r < snapshot.getNumRows(); r++) {
+            line.setLength(0);
+            line.append(CsvFields.quote(snapshot.getRowName(r)));
+            for(int c = 0; c < snapshot.getNumCols(); c++) {
+                line.append(canReach(r, c) ? ",1" : ",0");
+            }
+            out.write(line.append("\n").toString());
+        }
+    }
+}
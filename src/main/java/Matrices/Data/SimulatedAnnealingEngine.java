@@ -0,0 +1,115 @@
+package Matrices.Data;
+
+import java.util.Random;
+
+
+/**
+ * Clusters a symmetric matrix with simulated annealing over the coordination cost. Each iteration proposes moving a
+ * random item into the cluster of one of its neighbors (or, less often, into a random cluster, which is usually
+ * empty and splits the item off). Moves that lower the cost are always accepted and moves that raise it are accepted
+ * with probability exp(-delta / temperature), where the temperature cools geometrically over the run. A proposal is
+ * evaluated in time proportional to the number of connections of the item, so no bids are calculated, which makes
+ * this the fastest engine for large matrices
+ *
+ * @author: Aiden Carney
+ */
+public class SimulatedAnnealingEngine implements ClusteringEngine {
+    private static final double FINAL_TEMPERATURE_RATIO = 1e-3;  // temperature at the end of a run relative to the start
+    private static final double NEIGHBOR_MOVE_PROBABILITY = 0.9;  // how often a move goes to the cluster of a neighbor
+    private static final int TEMPERATURE_SAMPLES = 100;  // moves sampled to choose the starting temperature
+
+
+    /**
+     * @return  the name of the engine to display to the user
+     */
+    @Override
+    public String getName() {
+        return "Simulated Annealing";
+    }
+
+
+    /**
+     * Chooses a random cluster to move an item to
+     *
+     * @param state      the clustering state
+     * @param item       the index of the item
+     * @param generator  the random number generator of the run
+     * @return           the cluster to move the item to
+     */
+    private static int proposeCluster(ClusteringState state, int item, Random generator) {
+        int degree = state.getDegree(item);
+        if(degree > 0 && generator.nextDouble() < NEIGHBOR_MOVE_PROBABILITY) {
+            return state.getCluster(state.getNeighbor(item, generator.nextInt(degree)));
+        }
+        return generator.nextInt(state.getNumClusters());
+    }
+
+
+    /**
+     * Runs the algorithm. The same snapshot, parameters, and seed always give the same result unless the run is
+     * cancelled
+     *
+     * @param snapshot    the connections of the matrix to cluster
+     * @param parameters  the parameters of the run
+     * @param randSeed    seed for random number generator
+     * @param job         the job to report progress to and check for cancelling and pausing, may be null
+     * @return            the best assignment that was found
+     */
+    @Override
+    public ClusteringResult cluster(MatrixSnapshot snapshot, ClusteringParameters parameters, long randSeed, ClusteringJob job) {
+        Random generator = new Random(randSeed);
+        int numItems = snapshot.getNumRows();
+        int numIterations = parameters.getNumIterations();
+
+        // place each element in its own cluster
+        int[] assignment = new int[numItems];
+        for(int i = 0; i < numItems; i++) {
+            assignment[i] = i;
+        }
+        ClusteringState state = new ClusteringState(snapshot, assignment, numItems, parameters.getOptimalSizeCluster(), parameters.getPowcc(), parameters.isCalculateByWeight());
+        int[] bestAssignment = assignment.clone();
+        double bestCost = state.getCost();
+        if(numItems < 2) {
+            return new ClusteringResult(bestAssignment, numItems, bestCost);
+        }
+
+        // start at the average size of a move from the initial clusters if no temperature was given
+        double temperature = parameters.getInitialTemperature();
+        if(temperature <= 0) {
+            double totalDelta = 0.0;
+            for(int k = 0; k < TEMPERATURE_SAMPLES; k++) {
+                int item = generator.nextInt(numItems);
+                totalDelta += Math.abs(state.getMoveDelta(item, proposeCluster(state, item, generator)));
+            }
+            temperature = Math.max(totalDelta / TEMPERATURE_SAMPLES, Double.MIN_NORMAL);
+        }
+        double cooling = Math.pow(FINAL_TEMPERATURE_RATIO, 1.0 / Math.max(numIterations, 1));
+
+        for(int i = 0; i < numIterations; i++) {
+            if(job != null && !job.shouldContinue()) {  // stop early with the best solution so far
+                break;
+            }
+
+            int item = generator.nextInt(numItems);
+            int cluster = proposeCluster(state, item, generator);
+            double delta = state.getMoveDelta(item, cluster);
+            double newCoordinationScore = state.getCost() + delta;
+
+            if(delta <= 0 || generator.nextDouble() < Math.exp(-delta / temperature)) {
+                state.moveItem(item, cluster);
+                if(state.getCost() < bestCost) {  // save the new solution as the best one
+                    bestCost = state.getCost();
+                    System.arraycopy(assignment, 0, bestAssignment, 0, numItems);
+                }
+            }
+            temperature *= cooling;
+
+            if(job != null) {
+                job.iterationCompleted(randSeed, i, newCoordinationScore, bestCost);
+            }
+        }
+
+        state.setAssignment(bestAssignment);  // the incremental cost drifts over many moves so report the exact cost
+        return new ClusteringResult(bestAssignment, numItems, state.getCost());
+    }
+}
@@ -7,8 +7,7 @@ import javafx.collections.ObservableList;
 import javafx.scene.paint.Color;
 import javafx.util.Pair;
 
-import java.time.Duration;
-import java.time.Instant;
+import java.io.PrintWriter;
 import java.util.*;
 
 
@@ -22,6 +21,7 @@ import java.util.*;
 public class SymmetricDSMData extends AbstractDSMData implements IPropagationAnalysis {
 
     private ObservableList<Grouping> groupings;
+    private final GroupingIndex groupingIndex;
 
     public static final Integer DEFAULT_GROUP_UID = Integer.MAX_VALUE;
 
@@ -34,7 +34,7 @@ public class SymmetricDSMData extends AbstractDSMData implements IPropagationAna
     public SymmetricDSMData() {
         super();
 
-        connections = new Vector<>();
+        groupingIndex = new GroupingIndex(this);
         groupings = FXCollections.observableArrayList();
         addGrouping(new Grouping(DEFAULT_GROUP_UID, Grouping.DEFAULT_PRIORITY, "(none)", Color.WHITE, Grouping.DEFAULT_FONT_COLOR));
 
@@ -53,7 +53,7 @@ public class SymmetricDSMData extends AbstractDSMData implements IPropagationAna
     public SymmetricDSMData(Collection<Grouping> groupings) {
         super();
 
-        connections = new Vector<>();
+        groupingIndex = new GroupingIndex(this);
         this.groupings = FXCollections.observableArrayList(groupings);
 
         setWasModified();
@@ -64,7 +64,8 @@ public class SymmetricDSMData extends AbstractDSMData implements IPropagationAna
 
 
     /**
-     * Copy constructor for SymmetricDSMData class. Performs a deep copy
+     * Copy constructor for SymmetricDSMData class. Performs a deep copy of everything except the connections, which
+     * are shared with the original until either matrix changes them
      *
      * @return  the copy of the current symmetric DSM
      */
@@ -73,18 +74,17 @@ public class SymmetricDSMData extends AbstractDSMData implements IPropagationAna
         SymmetricDSMData copy = new SymmetricDSMData();
 
         for(DSMItem row : getRows()) {
-            copy.rows.add(new DSMItem(row));
+            copy.insertItem(new DSMItem(row), true);
         }
 
         for(DSMItem col : getCols()) {
-            copy.cols.add(new DSMItem(col));
+            copy.insertItem(new DSMItem(col), false);
         }
 
-        for(DSMConnection conn : getConnections()) {
-            copy.connections.add(new DSMConnection(conn));
-        }
+        copy.connections = connections.copy();  // connections are immutable so they can be shared
+        copy.interfaceRegistry = interfaceRegistry;  // the shared connections are indexed in this registry
 
-        for(Grouping group : getGroupings()) {
+        for(Grouping group : groupings) {  // getGroupings sorts the live list, which a read locked copy must not change
             copy.groupings.add(new Grouping(group));
         }
 
@@ -135,9 +135,11 @@ public class SymmetricDSMData extends AbstractDSMData implements IPropagationAna
         addChangeToStack(new MatrixChange(
                 () -> {  // do function
                     groupings.add(group);
+                    fireChange(l -> l.groupingChanged(group));
                 },
                 () -> {  // undo function
                     groupings.remove(group);
+                    fireChange(l -> l.groupingChanged(group));
                 },
                 false
         ));
@@ -157,6 +159,7 @@ public class SymmetricDSMData extends AbstractDSMData implements IPropagationAna
         addChangeToStack(new MatrixChange(
                 () -> {  // do function
                     groupings.remove(group);
+                    fireChange(l -> l.groupingChanged(group));
                     for(DSMItem item : rows) {  // these changes already get put on the stack so no need to add them a second time
                         if(item.getGroup1().equals(group)) {
                             setItemGroup(item, getDefaultGroup());
@@ -165,6 +168,7 @@ public class SymmetricDSMData extends AbstractDSMData implements IPropagationAna
                 },
                 () -> {  // undo function
                     groupings.add(group);
+                    fireChange(l -> l.groupingChanged(group));
                 },
                 false
         ));
@@ -184,18 +188,35 @@ public class SymmetricDSMData extends AbstractDSMData implements IPropagationAna
                 () -> {  // do function
                     groupings.clear();
                     groupings.add(new Grouping(DEFAULT_GROUP_UID, Grouping.DEFAULT_PRIORITY,  "(none)", Color.WHITE, Grouping.DEFAULT_FONT_COLOR));
+                    fireChange(l -> l.groupingChanged(null));
                     for(DSMItem r : rows) {
                         setItemGroup(r, getDefaultGroup());  // only need to set the rows because the operation is symmetric
                     }
                 },
                 () -> {  // undo function
                     groupings = oldGroupings;
+                    fireChange(l -> l.groupingChanged(null));
                 },
                 false
         ));
     }
 
 
+    /**
+     * Checks whether a uid is used by a grouping of the matrix
+     *
+     * @param uid  the uid to check
+     * @return     true if a grouping has the uid
+     */
+    @Override
+    protected boolean isGroupingUid(int uid) {
+        for(Grouping group : groupings) {
+            if(group.getUid() == uid) return true;
+        }
+        return false;
+    }
+
+
     /**
      * @return  ObservableList of the matrix groupings. Sorts the groupings by alphabetical order with default at the start
      */
@@ -212,6 +233,29 @@ public class SymmetricDSMData extends AbstractDSMData implements IPropagationAna
     }
 
 
+    /**
+     * Returns the number of items in a grouping in constant time
+     *
+     * @param group  the grouping to find the size of
+     * @return       the number of row items in the grouping
+     */
+    public int getGroupingSize(Grouping group) {
+        return groupingIndex.getSize(group, true);
+    }
+
+
+    /**
+     * Returns the row items in a grouping in time proportional to the size of the grouping. The collection is a read
+     * only view of the index, so copy it before changing the matrix while iterating over it
+     *
+     * @param group  the grouping to find the items of
+     * @return       the row items in the grouping
+     */
+    public Collection<DSMItem> getGroupingMembers(Grouping group) {
+        return groupingIndex.getMembers(group, true);
+    }
+
+
     /**
      * Renames a grouping. Puts the change on the stack but does not set a checkpoint.
      *
@@ -224,9 +268,11 @@ public class SymmetricDSMData extends AbstractDSMData implements IPropagationAna
         addChangeToStack(new MatrixChange(
                 () -> {  // do function
                     grouping.setName(newName);
+                    fireChange(l -> l.groupingChanged(grouping));
                 },
                 () -> {  // undo function
                     grouping.setName(oldName);
+                    fireChange(l -> l.groupingChanged(grouping));
                 },
                 false
         ));
@@ -244,9 +290,11 @@ public class SymmetricDSMData extends AbstractDSMData implements IPropagationAna
         addChangeToStack(new MatrixChange(
                 () -> {  // do function
                     grouping.setColor(newColor);
+                    fireChange(l -> l.groupingChanged(grouping));
                 },
                 () -> {  // undo function
                     grouping.setColor(oldColor);
+                    fireChange(l -> l.groupingChanged(grouping));
                 },
                 false
         ));
@@ -264,9 +312,11 @@ public class SymmetricDSMData extends AbstractDSMData implements IPropagationAna
         addChangeToStack(new MatrixChange(
                 () -> {  // do function
                     grouping.setFontColor(newColor);
+                    fireChange(l -> l.groupingChanged(grouping));
                 },
                 () -> {  // undo function
                     grouping.setFontColor(oldColor);
+                    fireChange(l -> l.groupingChanged(grouping));
                 },
                 false
         ));
@@ -289,16 +339,15 @@ public class SymmetricDSMData extends AbstractDSMData implements IPropagationAna
 
         addChangeToStack(new MatrixChange(
                 () -> {  // do function
-                    item.setGroup1(newGroup);
                     if (addNewGroup) {  // no need to undo because this puts another change on the stack
                         addGrouping(newGroup);
                     }
-                    item.setGroup1(newGroup);
-                    aliasedItem.setGroup1(newGroup);
+                    regroupItem(item, newGroup);
+                    regroupItem(aliasedItem, newGroup);
                 },
                 () -> {  // undo function
-                    item.setGroup1(oldGroup);
-                    aliasedItem.setGroup1(oldGroup);
+                    regroupItem(item, oldGroup);
+                    regroupItem(aliasedItem, oldGroup);
                 },
                 false
         ));
@@ -320,8 +369,9 @@ public class SymmetricDSMData extends AbstractDSMData implements IPropagationAna
     public void createItem(String name, boolean isRow) {
         double index = (int)getRowMaxSortIndex() + 1;  // cast to int to remove the decimal place so that the index will be a whole number
 
-        DSMItem rowItem = new DSMItem(index, name);
-        DSMItem colItem = new DSMItem(index, name);
+        int uid = allocateUids(2);
+        DSMItem rowItem = new DSMItem(uid, null, index, name, null, null);
+        DSMItem colItem = new DSMItem(uid + 1, null, index, name, null, null);
         rowItem.setGroup1(getDefaultGroup());
         colItem.setGroup1(getDefaultGroup());
         colItem.setAliasUid(rowItem.getUid());
@@ -339,7 +389,7 @@ public class SymmetricDSMData extends AbstractDSMData implements IPropagationAna
      */
     @Override
     public void deleteItem(DSMItem item) {
-        boolean isRow = rows.contains(item);  // check if the item was a row in case it needs to be added again
+        boolean isRow = isRow(item.getUid());  // check if the item was a row in case it needs to be added again
         DSMItem aliasedItem = getItemByAlias(item.getUid());
 
         addChangeToStack(new MatrixChange(
@@ -348,13 +398,8 @@ public class SymmetricDSMData extends AbstractDSMData implements IPropagationAna
                     removeItem(aliasedItem);
                 },
                 () -> {  // undo function
-                    if (isRow) {
-                        this.rows.add(item);
-                        this.cols.add(aliasedItem);
-                    } else {
-                        this.rows.add(aliasedItem);
-                        this.cols.add(item);
-                    }
+                    insertItem(item, isRow);
+                    insertItem(aliasedItem, !isRow);
                 },
                 false
         ));
@@ -379,12 +424,12 @@ public class SymmetricDSMData extends AbstractDSMData implements IPropagationAna
 
         addChangeToStack(new MatrixChange(
                 () -> {  // do function
-                    item.setName(newName);
-                    aliasedItem.setName(newName);
+                    renameItem(item, newName);
+                    renameItem(aliasedItem, newName);
                 },
                 () -> {  // undo function
-                    item.setName(oldName);
-                    aliasedItem.setName(oldName);
+                    renameItem(item, oldName);
+                    renameItem(aliasedItem, oldName);
                 },
                 false
         ));
@@ -407,12 +452,12 @@ public class SymmetricDSMData extends AbstractDSMData implements IPropagationAna
 
         addChangeToStack(new MatrixChange(
                 () -> {  // do function
-                    item.setSortIndex(newIndex);
-                    aliasedItem.setSortIndex(newIndex);
+                    resortItem(item, newIndex);
+                    resortItem(aliasedItem, newIndex);
                 },
                 () -> {  // undo function
-                    item.setSortIndex(oldIndex);
-                    aliasedItem.setSortIndex(oldIndex);
+                    resortItem(item, oldIndex);
+                    resortItem(aliasedItem, oldIndex);
                 },
                 false
         ));
@@ -435,8 +480,8 @@ public class SymmetricDSMData extends AbstractDSMData implements IPropagationAna
         // add assertion in this override
         assert getItem(rowUid).getUid() != getItem(colUid).getAliasUid();  // corresponds to where row and column are same and thus connection cannot be made
 
-        DSMConnection connection = new DSMConnection(connectionName, weight, rowUid, colUid, interfaces);
-        connections.add(connection);
+        DSMConnection connection = new DSMConnection(connectionName, weight, rowUid, colUid, interfaces, interfaceRegistry);
+        putConnection(connection);
     }
 
 
@@ -459,32 +504,22 @@ public class SymmetricDSMData extends AbstractDSMData implements IPropagationAna
 
     /**
      * Sorts the matrix rows and columns by their group and then their current sort index, then distributes new sort
-     * Indices 1 to n. Used to make the sort Indices "clean" numbers and make the groups line up. Puts multiple changes on the
+     * Indices 1 to n. Used to make the sort Indices "clean" numbers and make the groups line up. Puts the change on the
      * stack but does not set any checkpoint.
      */
     public void reDistributeSortIndicesByGroup() {
-        rows.sort(Comparator.comparing((DSMItem item) -> item.getGroup1().getName()).thenComparing((DSMItem item) -> item.getName().getValue()));
-        Vector<DSMItem> newCols = new Vector<>();
+        ArrayList<DSMItem> newRows = new ArrayList<>(rows);
+        newRows.sort(Comparator.comparing((DSMItem item) -> item.getGroup1().getName()).thenComparing((DSMItem item) -> item.getName().getValue()));
+        ArrayList<DSMItem> newCols = new ArrayList<>();
 
-        for(DSMItem row : rows) {  // sort the new columns according to the rows (this does not need to be on the change stack because
-                                   // only the index numbers are what matters to the change stack
-            for(DSMItem col : cols) {
-                if(col.getAliasUid() == row.getUid()) {
-                    assert col.getGroup1().getUid().equals(row.getGroup1().getUid()) : "Groups were not the same when redistributing sort indices";
+        for(DSMItem row : newRows) {  // sort the new columns according to the rows
+            DSMItem col = getItemByAlias(row.getUid());
+            assert col.getGroup1().getUid().equals(row.getGroup1().getUid()) : "Groups were not the same when redistributing sort indices";
 
-                    newCols.add(col);
-                    break;
-                }
-            }
+            newCols.add(col);
         }
-        cols = newCols;
 
-        for(int i=0; i<rows.size(); i++) {  // reset row sort Indices 1 -> n
-            setItemSortIndex(rows.elementAt(i), i + 1);
-        }
-        for(int i=0; i<cols.size(); i++) {  // reset col sort Indices 1 -> n
-            setItemSortIndex(cols.elementAt(i), i + 1);
-        }
+        setSequentialSortIndices(List.of(newRows, newCols));
     }
 
 
@@ -499,11 +534,13 @@ public class SymmetricDSMData extends AbstractDSMData implements IPropagationAna
     public Pair<Integer, Integer> getSymmetricConnectionUids(int rowUid, int colUid) {
         Integer newRowUid = getItem(colUid).getAliasUid();
         Integer newColUid = null;
-        for(DSMItem item : getCols()) {
-            if(item.getAliasUid() != null && item.getAliasUid() == rowUid) {
+        try {
+            DSMItem item = getItemByAlias(rowUid);
+            if(isCol(item.getUid())) {
                 newColUid = item.getUid();
-                break;
             }
+        } catch(NoSuchElementException e) {
+            // there is no column aliased to the row so there is no symmetric connection
         }
 
         if(newColUid != null && newRowUid != null) {
@@ -527,115 +564,63 @@ public class SymmetricDSMData extends AbstractDSMData implements IPropagationAna
 
 
     /**
-     * Creates a 2d ArrayList of the matrix so that it can be displayed. Each cell in the grid is made
-     * up of a RenderMode, which is the key, and an Object that is different based on the key.
+     * Returns a grid model of the matrix so that it can be displayed. There are two header rows and three header
+     * columns (grouping, name, and sort index of the row items). Connections from an item to itself cannot be edited
      *
-     * @return 2d ArrayList of matrix
+     * @return  the grid model of the matrix
      */
-    public ArrayList<ArrayList<Pair<RenderMode, Object>>> getGridArray() {
-        ArrayList<ArrayList<Pair<RenderMode, Object>>> grid = new ArrayList<>();
-
-        // sort row and columns by sortIndex
-        rows.sort(Comparator.comparing(DSMItem::getSortIndex));
-        cols.sort(Comparator.comparing(DSMItem::getSortIndex));
-
-        // create header row
-        ArrayList<Pair<RenderMode, Object>> row0 = new ArrayList<>();
-        row0.add(new Pair<>(RenderMode.PLAIN_TEXT_V, ""));
-        row0.add(new Pair<>(RenderMode.PLAIN_TEXT_V, ""));
-        row0.add(new Pair<>(RenderMode.PLAIN_TEXT_V, "Column Items"));
-        for(DSMItem c : cols) {
-            row0.add(new Pair<>(RenderMode.ITEM_NAME_V, c));
-        }
-        grid.add(row0);
-
-        // create third header row
-        ArrayList<Pair<RenderMode, Object>> row1 = new ArrayList<>();
-        row1.add(new Pair<>(RenderMode.PLAIN_TEXT, "Grouping"));
-        row1.add(new Pair<>(RenderMode.PLAIN_TEXT, "Row Items"));
-        row1.add(new Pair<>(RenderMode.PLAIN_TEXT, "Re-Sort Index"));
-        for(DSMItem c : cols) {
-            row1.add(new Pair<>(RenderMode.PLAIN_TEXT, ""));
-        }
-        grid.add(row1);
-
-        // create rows
-        for(DSMItem r : rows) {
-            ArrayList<Pair<RenderMode, Object>> row = new ArrayList<>();
-            row.add(new Pair<>(RenderMode.GROUPING_ITEM, r));
-            row.add(new Pair<>(RenderMode.ITEM_NAME, r));
-            row.add(new Pair<>(RenderMode.INDEX_ITEM, r));
-            for(DSMItem c : cols) {  // create connection items for all columns
-                if(c.getAliasUid() == r.getUid()) {  // can't have connection to itself in a symmetrical matrix
-                    row.add(new Pair<>(RenderMode.UNEDITABLE_CONNECTION, null));
-                } else {
-                    row.add(new Pair<>(RenderMode.EDITABLE_CONNECTION, new Pair<>(r, c)));
+    @Override
+    public GridModel getGridModel() {
+        // rows and columns are kept sorted by sort index, so this only sorts if the order is stale
+        ensureItemOrder();
+
+        return new ItemGridModel(2, 3) {
+            private static final String[] ROW_HEADERS = {"Grouping", "Row Items", "Re-Sort Index"};
+
+            @Override
+            public RenderMode getRenderMode(int r, int c) {
+                if(r == 0) {
+                    return c < 3 ? RenderMode.PLAIN_TEXT_V : RenderMode.ITEM_NAME_V;
+                } else if(r == 1) {
+                    return RenderMode.PLAIN_TEXT;
+                }
+
+                switch(c) {
+                    case 0: return RenderMode.GROUPING_ITEM;
+                    case 1: return RenderMode.ITEM_NAME;
+                    case 2: return RenderMode.INDEX_ITEM;
                 }
+                // can't have connection to itself in a symmetrical matrix
+                Integer alias = getColItem(c).getAliasUid();
+                if(alias != null && alias == getRowItem(r).getUid()) {
+                    return RenderMode.UNEDITABLE_CONNECTION;
+                }
+                return RenderMode.EDITABLE_CONNECTION;
             }
-            grid.add(row);
-        }
 
-        return grid;
+            @Override
+            public Object getValue(int r, int c) {
+                if(r == 0) {
+                    return c < 2 ? "" : (c == 2 ? "Column Items" : getColItem(c));
+                } else if(r == 1) {
+                    return c < 3 ? ROW_HEADERS[c] : "";
+                }
+                return c < 3 ? getRowItem(r) : null;
+            }
+        };
     }
 
 
 //region Analysis Functions
     /**
-     * Runs propagation analysis for a matrix. Pick a start item and each level find the connections of the items in the
-     * previous level. Items that are excluded are added to the count, but not propagated through.
+     * Creates an engine that runs propagation analysis over the current state of the matrix. Each level goes from
+     * the rows to the rows aliased to the columns they connect to
      *
-     * @param startItem     the item to start at
-     * @param numLevels     number of levels to run
-     * @param exclusions    array of item uids to be excluded
-     * @param minWeight     minimum weight for item to be included
-     * @param countByWeight count by weight or by occurrence
-     * @return              HashMap(level : Hashmap(uid, occurrences/weights))
+     * @return  the engine
      */
     @Override
-    public HashMap<Integer, HashMap<Integer, Double>> propagationAnalysis(Integer startItem, int numLevels, ArrayList<Integer> exclusions, double minWeight, boolean countByWeight) {
-        int currentLevel = 1;
-        HashMap<Integer, HashMap<Integer, Double>> results = new HashMap<>();
-        ArrayList<Integer> dependentConnections = new ArrayList<>();
-        dependentConnections.add(startItem);
-        exclusions.add(startItem);
-
-        while(currentLevel <= numLevels) {
-            ArrayList<Integer> newDependentConnections = new ArrayList<>();
-            results.put(currentLevel, new HashMap<>());  // add default item
-
-            for(Integer uid : dependentConnections) {  // find dependent connections of each item from the previous level
-
-                // find connections with uid as the row item
-                for(DSMItem col : cols) {  // iterate over column items finding the ones that match the row
-                    DSMConnection conn = getConnection(uid, col.getUid());
-
-                    // define exit conditions
-                    if(conn == null) continue;
-                    if(conn.getWeight() < minWeight) continue;
-
-                    Integer resultEntryUid = col.getAliasUid();
-
-                    results.get(currentLevel).putIfAbsent(resultEntryUid, 0.0);
-
-                    if(countByWeight) {
-                        results.get(currentLevel).put(resultEntryUid, results.get(currentLevel).get(resultEntryUid) + conn.getWeight());
-                    } else {
-                        results.get(currentLevel).put(resultEntryUid, results.get(currentLevel).get(resultEntryUid) + 1.0);
-                    }
-
-                    if(!exclusions.contains(resultEntryUid) && !newDependentConnections.contains(resultEntryUid)) {  // add to next level if not present and not excluded
-                        newDependentConnections.add(resultEntryUid);  // add the actual item uid
-                    }
-                }
-            }
-
-
-            dependentConnections.clear();
-            dependentConnections = newDependentConnections;
-            currentLevel += 1;
-        }
-
-        return results;
+    public PropagationEngine createPropagationEngine() {
+        return new PropagationEngine(getSnapshot(), false);
     }
 
 
@@ -656,37 +641,20 @@ public class SymmetricDSMData extends AbstractDSMData implements IPropagationAna
     static public HashMap<String, Object> getCoordinationScore(SymmetricDSMData matrix, Double optimalSizeCluster, Double powcc, Boolean calculateByWeight) {
         HashMap<String, Object> results = new HashMap<>();
 
+        double extraFactor = Math.pow(matrix.getRows().size(), powcc);
+
         HashMap<Grouping, Double> intraCostBreakdown = new HashMap<>();
         double totalIntraCost = 0.0;
         double totalExtraCost = 0.0;
         for(DSMConnection conn : matrix.getConnections()) {
-            if(matrix.getItem(conn.getRowUid()).getGroup1().equals(matrix.getItem(conn.getColUid()).getGroup1())) {  // row and col groups are the same so add to intra cluster
-                Integer clusterSize = 0;  // calculate cluster size
-                for(DSMItem row : matrix.getRows()) {
-                    if(row.getGroup1().equals(matrix.getItem(conn.getRowUid()).getGroup1())) {
-                        clusterSize += 1;
-                    }
-                }
-
-                Double intraCost = Math.pow(Math.abs(optimalSizeCluster - clusterSize), powcc);
-                if(calculateByWeight) {
-                    intraCost = conn.getWeight() * intraCost;
-                }
-
-                if(intraCostBreakdown.get(matrix.getItem(conn.getRowUid()).getGroup1()) != null) {
-                    intraCostBreakdown.put(matrix.getItem(conn.getRowUid()).getGroup1(), intraCostBreakdown.get(matrix.getItem(conn.getRowUid()).getGroup1()) + intraCost);
-                } else {
-                    intraCostBreakdown.put(matrix.getItem(conn.getRowUid()).getGroup1(), intraCost);
-                }
-
+            Grouping rowGroup = matrix.getItem(conn.getRowUid()).getGroup1();
+            double weight = calculateByWeight ? conn.getWeight() : 1.0;
+            if(rowGroup.equals(matrix.getItem(conn.getColUid()).getGroup1())) {  // row and col groups are the same so add to intra cluster
+                double intraCost = weight * Math.pow(Math.abs(optimalSizeCluster - matrix.getGroupingSize(rowGroup)), powcc);
+                intraCostBreakdown.merge(rowGroup, intraCost, Double::sum);
                 totalIntraCost += intraCost;
             } else {
-                int dsmSize = matrix.getRows().size();
-                if(calculateByWeight) {
-                    totalExtraCost += conn.getWeight() * Math.pow(dsmSize, powcc);
-                } else {
-                    totalExtraCost += Math.pow(dsmSize, powcc);
-                }
+                totalExtraCost += weight * extraFactor;
             }
         }
 
@@ -710,33 +678,21 @@ public class SymmetricDSMData extends AbstractDSMData implements IPropagationAna
      * @param calculateByWeight  calculate bid by weight or occurrence
      *
      * @return HashMap of rowUid and bid for the given group
+     * @deprecated builds a new ClusteringState on every call, so a bid pass over every group rebuilds the state once
+     *             per group. Build one ClusteringState for the pass and use ClusteringState.getBids instead
      */
+    @Deprecated
     static public HashMap<Integer, Double> calculateClusterBids(SymmetricDSMData matrix, Grouping group, Double optimalSizeCluster, Double powdep, Double powbid, Boolean calculateByWeight) {
-        HashMap<Integer, Double> bids = new HashMap<>();
-
-        Integer clusterSize = 0;
-        for(DSMItem row : matrix.getRows()) {
-            if(row.getGroup1().equals(group)) {
-                clusterSize += 1;
-            }
+        ArrayList<Grouping> clusters = new ArrayList<>(matrix.getGroupings());
+        if(!clusters.contains(group)) {  // a group with no items can still bid
+            clusters.add(group);
         }
+        int cluster = clusters.indexOf(group);
+        ClusteringState state = new ClusteringState(matrix, clusters, optimalSizeCluster, 1.0, calculateByWeight);  // powcc does not affect bids
 
+        HashMap<Integer, Double> bids = new HashMap<>();
         for(DSMItem row : matrix.getRows()) {  // calculate bid of each item in the matrix for the given cluster
-            double inout = 0.0;  // sum of DSM interactions of the item with each of the items in the cluster
-
-            for(DSMItem col : matrix.getCols()) {
-                if(col.getGroup1().equals(group) && col.getAliasUid() != row.getUid()) {  // make connection a part of inout score
-                    DSMConnection conn = matrix.getConnection(row.getUid(), col.getUid());
-                    if(calculateByWeight && conn != null) {
-                        inout += conn.getWeight();
-                    } else if(conn != null) {
-                        inout += 1;
-                    }
-                }
-            }
-
-            Double clusterBid = Math.pow(inout, powdep) / Math.pow(Math.abs(optimalSizeCluster - clusterSize), powbid);
-            bids.put(row.getUid(), clusterBid);
+            bids.put(row.getUid(), state.getBid(state.getItemIndex(row.getUid()), cluster, powdep, powbid));
         }
 
         return bids;
@@ -767,107 +723,63 @@ public class SymmetricDSMData extends AbstractDSMData implements IPropagationAna
      * @param calculateByWeight  calculate scores and bidding by weight or by number of occurrences
      * @param numLevels          number of iterations
      * @param randSeed           seed for random number generator
-     * @param debug              debug to stdout
+     * @param debug              stream the csv of each iteration to stdout
      * @return                   SymmetricDSMData object of the new clustered matrix
      */
     static public SymmetricDSMData thebeauAlgorithm(SymmetricDSMData inputMatrix, Double optimalSizeCluster, Double powdep, Double powbid, Double powcc, Double randBid, Double randAccept, Boolean calculateByWeight, int numLevels, long randSeed, boolean debug) {
-        Random generator = new Random(randSeed);
-
-        // place each element in the matrix in its own cluster
-        SymmetricDSMData matrix = inputMatrix.createCopy();
+        SymmetricDSMData matrix = inputMatrix.read(inputMatrix::createCopy);  // usually run on a background thread
         assert !matrix.equals(inputMatrix): "matrices are equal and they should not be";
-        matrix.groupings.clear();  // groups will be re-distributed so remove the default as well
+
+        ClusteringParameters parameters = new ClusteringParameters(optimalSizeCluster, powdep, powbid, powcc, randBid, randAccept, calculateByWeight, numLevels);
+        ClusteringJob job = debug ? new ClusteringJob(numLevels, ClusteringJob.DEFAULT_SAMPLE_CAPACITY, new PrintWriter(System.out)) : null;
+        ClusteringResult solution = new ThebeauEngine().cluster(matrix.getSnapshot(), parameters, randSeed, job);
+        if(job != null) {
+            job.flushCsv();
+        }
+
+        matrix.applyClusterAssignment(solution.getAssignment(), solution.getNumClusters());
+        return matrix;
+    }
+
+
+    /**
+     * Replaces the groupings of the matrix with one grouping for each cluster that has items in it and places each
+     * row in the grouping of its cluster. Groupings are named G0, G1, ... after their cluster and given distinct
+     * colors. Clears the undo and redo stacks because the matrix is expected to be a new copy
+     *
+     * @param assignment   the cluster of each row in the order of the rows
+     * @param numClusters  the number of clusters, clusters are numbered 0 to numClusters - 1
+     */
+    public void applyClusterAssignment(int[] assignment, int numClusters) {
+        boolean[] isUsed = new boolean[numClusters];
+        for(int cluster : assignment) {
+            isUsed[cluster] = true;
+        }
+
+        groupings.clear();  // groups will be re-distributed so remove the default as well
 
         // this method for generating random colors is from stack overflow, it generates colors based on a start value
         // and the golden ratio conjugate (golden ratio method)
         double h = 0.2423353;  // use random start value for color generation
-        for(int i = 0; i < matrix.getRows().size(); i++) {
-            Grouping group = new Grouping("G" + i, null);
-            matrix.setItemGroup(matrix.getRows().elementAt(i), group);
+        int firstGroupUid = allocateUids(numClusters);  // one grouping per cluster
+        Grouping[] groups = new Grouping[numClusters];
+        for(int i = 0; i < numClusters; i++) {
             h += 0.618033988749895;  // golden_ratio_conjugate, this is a part of the golden ratio method for generating unique colors
             h %= 1;
-            java.awt.Color hsvColor = java.awt.Color.getHSBColor((float)h, (float)0.5, (float)0.95);
+            if(!isUsed[i]) continue;  // still advance the colors so each cluster keeps the same color
 
+            java.awt.Color hsvColor = java.awt.Color.getHSBColor((float)h, (float)0.5, (float)0.95);
             double r = hsvColor.getRed() / 255.0;
             double g = hsvColor.getGreen() / 255.0;
             double b = hsvColor.getBlue() / 255.0;
-            matrix.updateGroupingColor(group, Color.color(r, g, b));
-        }
-
-        // save the best solution
-        SymmetricDSMData bestSolution = matrix.createCopy();
-
-        // calculate initial coordination cost
-        double coordinationCost = (Double)getCoordinationScore(matrix, optimalSizeCluster, powcc, calculateByWeight).get("TotalCost");
-
-        StringBuilder debugString = new StringBuilder("iteration,start time, elapsed time,coordination score\n");
-        Instant absStart = Instant.now();
-
-        for(int i=0; i < numLevels; i++) {  // iterate numLevels times
-            Instant start = Instant.now();
-
-            // choose an element from the matrix
-            int n = (int)(generator.nextDouble() * (matrix.getRows().size() - 1));  // double from 0 to 1.0 multiplied by max index cast to integer
-            DSMItem item = matrix.getRows().elementAt(n);
-            // calculate bids
-            HashMap<Grouping, Double> bids = new HashMap<>();
-            for (Grouping group : matrix.getGroupings()) {
-                double bid = matrix.calculateClusterBids(matrix, group, optimalSizeCluster, powdep, powbid, calculateByWeight).get(item.getUid());
-                bids.put(group, bid);
-            }
-
-            // choose a number between 0 and randBid to determine if it should make a suboptimal change
-            SymmetricDSMData tempMatrix = matrix.createCopy();
-            item = tempMatrix.getRows().elementAt(n);  // update item to the item from the new matrix so that it is not modifying a copy
-            int nBid = (int) (generator.nextDouble() * (randBid + 1));  // add one to randBid because with truncation nBid will never be equal to randBid
-
-            // find if the change is optimal
-            Grouping highestBidder = bids.entrySet().iterator().next().getKey();  // start with a default value so comparison doesn't throw NullPointerException
-            if (nBid == randBid) {  // assign item group to second highest bidder
-                Grouping secondHighestBidder = new Grouping("", null);
-                for (Map.Entry<Grouping, Double> entry : bids.entrySet()) {
-                    if (Double.compare(entry.getValue(), bids.get(highestBidder)) >= 0) {
-                        highestBidder = entry.getKey();
-                        secondHighestBidder = highestBidder;
-                    } else if (Double.compare(entry.getValue(), bids.get(secondHighestBidder)) >= 0) {
-                        secondHighestBidder = entry.getKey();
-                    }
-                }
-                tempMatrix.setItemGroup(item, secondHighestBidder);
-
-            } else {  // assign to highest bidder
-                for (Map.Entry<Grouping, Double> entry : bids.entrySet()) {
-                    if (Double.compare(entry.getValue(), bids.get(highestBidder)) >= 0) {
-                        highestBidder = entry.getKey();
-                    }
-                }
-                tempMatrix.setItemGroup(item, highestBidder);
-            }
-
-            // choose a number between 0 and randAccept to determine if change is permanent regardless of it being optimal
-            int nAccept = (int) (generator.nextDouble() * (randAccept + 1));  // add one to randAccept because with truncation nAccept will never be equal to randAccept
-            Double newCoordinationScore = (Double) getCoordinationScore(tempMatrix, optimalSizeCluster, powcc, calculateByWeight).get("TotalCost");
-
-            if (nAccept == randAccept || newCoordinationScore < coordinationCost) {  // make the change permanent
-                coordinationCost = newCoordinationScore;
-                matrix = tempMatrix.createCopy();
-
-                if (coordinationCost < (Double) getCoordinationScore(bestSolution, optimalSizeCluster, powcc, calculateByWeight).get("TotalCost")) {  // save the new solution as the best one
-                    bestSolution = matrix.createCopy();
-                }
-            }
-
-
-            String startTime = String.valueOf(Duration.between(absStart, start).toMillis());
-            String elapsedTime = String.valueOf(Duration.between(start, Instant.now()).toMillis());
-            debugString.append(i).append(",").append(startTime).append(",").append(elapsedTime).append(",").append(newCoordinationScore).append("\n");
+            groups[i] = new Grouping(firstGroupUid + i, Grouping.DEFAULT_PRIORITY, "G" + i, Color.color(r, g, b), Grouping.DEFAULT_FONT_COLOR);
+            addGrouping(groups[i]);
         }
 
-        if(debug) {
-            System.out.println(debugString);
+        for(int i = 0; i < assignment.length; i++) {
+            setItemGroup(getRows().get(i), groups[assignment[i]]);
         }
-
-        return bestSolution;
+        clearStacks();
     }
 //endregion
 }
@@ -0,0 +1,112 @@
+package Matrices.Data;
+
+import java.util.Random;
+
+
+/**
+ * Runs Thebeau's matrix clustering algorithm (https://dsmweborg.files.wordpress.com/2019/05/msc_thebeau.pdf) on a
+ * snapshot of a symmetric matrix. The clusters are kept in a ClusteringState so each iteration only evaluates the
+ * connections of the item being moved and changes the assignment in place. No matrices are created while the
+ * algorithm runs, the best assignment is copied into a single array whenever it improves, so memory use does not
+ * depend on the number of iterations. Item i is row i of the snapshot and cluster i starts out containing only item i
+ *
+ * Original Algorithm Steps (Directly from the paper):
+ * 1. Each element is initially placed in its own cluster
+ * 2. Calculate the Coordination Cost of the Cluster Matrix
+ * 3. Randomly choose an element
+ * 4. Calculate bid from all clusters for the selected element
+ * 5. Randomly choose a number between 1 and rand_bid (algorithm parameter)
+ * 6. Calculate the total Coordination Cost if the selected element becomes a member of the cluster with highest bid (use second highest bid if step 5 is equal to rand_bid)
+ * 7. Randomly choose a number between I and rand_accept (algorithm parameter)
+ * 8. If new Coordination Cost is lower than the old coordination cost or the number chosen in step 7 is equal to rand_accept, make the change permanent otherwise make no changes
+ * 9. Go back to Step 3 until repeated a set number of times
+ *
+ * @author: Aiden Carney
+ */
+public class ThebeauEngine implements ClusteringEngine {
+
+    /**
+     * @return  the name of the engine to display to the user
+     */
+    @Override
+    public String getName() {
+        return "Thebeau";
+    }
+
+
+    /**
+     * Runs the algorithm. The same snapshot, parameters, and seed always give the same result unless the run is
+     * cancelled
+     *
+     * @param snapshot    the connections of the matrix to cluster
+     * @param parameters  the parameters of the run
+     * @param randSeed    seed for random number generator
+     * @param job         the job to report progress to and check for cancelling and pausing, may be null
+     * @return            the best assignment that was found
+     */
+    @Override
+    public ClusteringResult cluster(MatrixSnapshot snapshot, ClusteringParameters parameters, long randSeed, ClusteringJob job) {
+        Random generator = new Random(randSeed);
+        int numItems = snapshot.getNumRows();
+        double randBid = parameters.getRandBid();
+        double randAccept = parameters.getRandAccept();
+
+        // place each element in its own cluster
+        int[] assignment = new int[numItems];
+        for(int i = 0; i < numItems; i++) {
+            assignment[i] = i;
+        }
+        ClusteringState state = new ClusteringState(snapshot, assignment, numItems, parameters.getOptimalSizeCluster(), parameters.getPowcc(), parameters.isCalculateByWeight());
+        int[] bestAssignment = assignment.clone();
+        double bestCost = state.getCost();
+        if(numItems == 0) {
+            return new ClusteringResult(bestAssignment, numItems, bestCost);
+        }
+
+        double[] bids = new double[numItems];
+        for(int i = 0; i < parameters.getNumIterations(); i++) {
+            if(job != null && !job.shouldContinue()) {  // stop early with the best solution so far
+                break;
+            }
+
+            // choose an element from the matrix
+            int n = (int)(generator.nextDouble() * (numItems - 1));  // double from 0 to 1.0 multiplied by max index cast to integer
+
+            // calculate bids and find the highest and second highest bidders. Ties go to the later cluster
+            state.getBids(n, parameters.getPowdep(), parameters.getPowbid(), false, bids);
+            int highestBidder = -1;
+            int secondHighestBidder = -1;
+            for(int g = 0; g < numItems; g++) {
+                if(highestBidder < 0 || Double.compare(bids[g], bids[highestBidder]) >= 0) {
+                    secondHighestBidder = highestBidder;
+                    highestBidder = g;
+                } else if(secondHighestBidder < 0 || Double.compare(bids[g], bids[secondHighestBidder]) >= 0) {
+                    secondHighestBidder = g;
+                }
+            }
+
+            // choose a number between 0 and randBid to determine if it should make a suboptimal change
+            int nBid = (int) (generator.nextDouble() * (randBid + 1));  // add one to randBid because with truncation nBid will never be equal to randBid
+            int newCluster = (nBid == randBid && secondHighestBidder >= 0) ? secondHighestBidder : highestBidder;
+
+            // choose a number between 0 and randAccept to determine if change is permanent regardless of it being optimal
+            int nAccept = (int) (generator.nextDouble() * (randAccept + 1));  // add one to randAccept because with truncation nAccept will never be equal to randAccept
+            double newCoordinationScore = state.getCost() + state.getMoveDelta(n, newCluster);
+
+            if(nAccept == randAccept || newCoordinationScore < state.getCost()) {  // make the change permanent
+                state.moveItem(n, newCluster);
+                if(state.getCost() < bestCost) {  // save the new solution as the best one
+                    bestCost = state.getCost();
+                    System.arraycopy(assignment, 0, bestAssignment, 0, numItems);
+                }
+            }
+
+            if(job != null) {
+                job.iterationCompleted(randSeed, i, newCoordinationScore, bestCost);
+            }
+        }
+
+        state.setAssignment(bestAssignment);  // the incremental cost drifts over many moves so report the exact cost
+        return new ClusteringResult(bestAssignment, numItems, state.getCost());
+    }
+}
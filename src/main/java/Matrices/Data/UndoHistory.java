@@ -0,0 +1,222 @@
+package Matrices.Data;
+
+import java.util.ArrayDeque;
+import java.util.NoSuchElementException;
+
+
+/**
+ * The undo side of the undo/redo journal of a matrix. Changes are kept in a ring buffer and grouped by checkpoint:
+ * a group is every change up to and including a change that is marked as a checkpoint. The history is bounded by a
+ * number of checkpoint groups and by an estimate of the bytes held by the changes. When either bound is exceeded
+ * whole groups are evicted from the oldest end by advancing the head of the ring, so undoing never stops part way
+ * through a group. The open group (changes made since the last checkpoint) is never evicted
+ *
+ * @author: Aiden Carney
+ */
+class UndoHistory {
+    private static final int INITIAL_CAPACITY = 64;
+
+    private AbstractDSMData.MatrixChange[] buffer;
+    private int head;  // location of the oldest change
+    private int size;
+
+    private final ArrayDeque<long[]> groups;  // {number of changes, estimated bytes} of each closed group, oldest first
+    private int openCount;  // changes after the newest checkpoint
+    private long openBytes;
+    private long totalBytes;
+
+    private int maxCheckpoints;
+    private long maxBytes;
+
+
+    /**
+     * Creates a new empty undo history
+     *
+     * @param maxCheckpoints  the maximum number of checkpoint groups to keep
+     * @param maxBytes        the maximum estimated number of bytes to keep
+     */
+    UndoHistory(int maxCheckpoints, long maxBytes) {
+        buffer = new AbstractDSMData.MatrixChange[INITIAL_CAPACITY];
+        groups = new ArrayDeque<>();
+        setLimits(maxCheckpoints, maxBytes);
+    }
+
+
+    /**
+     * Sets the bounds of the history and evicts groups until the history is within them
+     *
+     * @param maxCheckpoints  the maximum number of checkpoint groups to keep, must be at least 1
+     * @param maxBytes        the maximum estimated number of bytes to keep, must be positive
+     */
+    void setLimits(int maxCheckpoints, long maxBytes) {
+        if(maxCheckpoints < 1 || maxBytes < 1) {
+            throw new IllegalArgumentException("undo history limits must be positive");
+        }
+        this.maxCheckpoints = maxCheckpoints;
+        this.maxBytes = maxBytes;
+        trim();
+    }
+
+
+    /**
+     * Adds a change to the newest end of the history. If the change is a checkpoint it closes the open group
+     *
+     * @param change  the change to add
+     */
+    void push(AbstractDSMData.MatrixChange change) {
+        if(size == buffer.length) {
+            grow();
+        }
+        buffer[(head + size) % buffer.length] = change;
+        size += 1;
+
+        openCount += 1;
+        openBytes += change.getByteEstimate();
+        totalBytes += change.getByteEstimate();
+
+        if(change.isCheckpoint()) {
+            closeOpenGroup();
+        }
+        trim();
+    }
+
+
+    /**
+     * Removes the newest change from the history
+     *
+     * @return  the removed change
+     */
+    AbstractDSMData.MatrixChange pop() {
+        if(size == 0) {
+            throw new NoSuchElementException("undo history is empty");
+        }
+        if(openCount == 0) {  // the newest change ends a closed group, so that group becomes the open group again
+            long[] group = groups.removeLast();
+            openCount = (int) group[0];
+            openBytes = group[1];
+        }
+
+        int last = (head + size - 1) % buffer.length;
+        AbstractDSMData.MatrixChange change = buffer[last];
+        buffer[last] = null;
+        size -= 1;
+
+        openCount -= 1;
+        openBytes -= change.getByteEstimate();
+        totalBytes -= change.getByteEstimate();
+
+        return change;
+    }
+
+
+    /**
+     * @return  the newest change in the history or null if it is empty
+     */
+    AbstractDSMData.MatrixChange peek() {
+        if(size == 0) {
+            return null;
+        }
+        return buffer[(head + size - 1) % buffer.length];
+    }
+
+
+    /**
+     * Marks the newest change in the history as a checkpoint, closing the open group
+     */
+    void markCheckpoint() {
+        AbstractDSMData.MatrixChange change = peek();
+        if(change == null || change.isCheckpoint()) {
+            return;
+        }
+        change.setCheckpoint(true);
+        closeOpenGroup();
+        trim();
+    }
+
+
+    /**
+     * Removes all changes from the history
+     */
+    void clear() {
+        buffer = new AbstractDSMData.MatrixChange[INITIAL_CAPACITY];
+        head = 0;
+        size = 0;
+        groups.clear();
+        openCount = 0;
+        openBytes = 0;
+        totalBytes = 0;
+    }
+
+
+    /**
+     * @return  the number of changes in the history
+     */
+    int size() {
+        return size;
+    }
+
+
+    /**
+     * @return  if there are no changes in the history
+     */
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+
+    /**
+     * @return  the number of closed checkpoint groups in the history
+     */
+    int getCheckpointCount() {
+        return groups.size();
+    }
+
+
+    /**
+     * @return  the estimated number of bytes held by the changes in the history
+     */
+    long getByteEstimate() {
+        return totalBytes;
+    }
+
+
+    /**
+     * Moves the open group onto the list of closed groups
+     */
+    private void closeOpenGroup() {
+        groups.addLast(new long[]{openCount, openBytes});
+        openCount = 0;
+        openBytes = 0;
+    }
+
+
+    /**
+     * Evicts the oldest closed groups until the history is within its bounds. The open group and the newest closed
+     * group are always kept so that the last operation can be undone
+     */
+    private void trim() {
+        while(groups.size() > maxCheckpoints || (totalBytes > maxBytes && groups.size() > 1)) {
+            long[] group = groups.removeFirst();
+            int count = (int) group[0];
+            for(int i = 0; i < count; i++) {  // release the references so the captured state can be collected
+                buffer[(head + i) % buffer.length] = null;
+            }
+            head = (head + count) % buffer.length;
+            size -= count;
+            totalBytes -= group[1];
+        }
+    }
+
+
+    /**
+     * Doubles the capacity of the ring buffer, moving the oldest change to the start
+     */
+    private void grow() {
+        AbstractDSMData.MatrixChange[] newBuffer = new AbstractDSMData.MatrixChange[buffer.length * 2];
+        for(int i = 0; i < size; i++) {
+            newBuffer[i] = buffer[(head + i) % buffer.length];
+        }
+        buffer = newBuffer;
+        head = 0;
+    }
+}
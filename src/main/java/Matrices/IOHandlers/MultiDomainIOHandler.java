@@ -2,6 +2,7 @@ package Matrices.IOHandlers;
 
 import Constants.Constants;
 import Matrices.Data.Entities.*;
+import Matrices.Data.GridModel;
 import Matrices.Data.MultiDomainDSMData;
 import Matrices.Views.AbstractMatrixView;
 import javafx.scene.paint.Color;
@@ -111,84 +112,96 @@ public class MultiDomainIOHandler extends AbstractIOHandler {
                 }
             }
             MultiDomainDSMData matrix = new MultiDomainDSMData(groupingConfiguration);  // create the matrix with the given domains
-            matrix.setTitle(title);
-            matrix.setProjectName(project);
-            matrix.setCustomer(customer);
-            matrix.setVersionNumber(version);
-
-            // parse interfaces
-            HashMap<Integer, DSMInterfaceType> interfaces = new HashMap<>();
-            for(Element interfaceGroupingXML : rootElement.getChild("interfaces").getChildren()) {
-                String interfaceGrouping = interfaceGroupingXML.getAttribute("name").getValue();
-                matrix.addInterfaceTypeGrouping(interfaceGrouping);
-
-                for(Element interfaceXML : interfaceGroupingXML.getChildren()) {
-                    DSMInterfaceType interfaceType = new DSMInterfaceType(interfaceXML);
-                    interfaces.put(interfaceType.getUid(), interfaceType);
-                    matrix.addInterface(interfaceGrouping, interfaceType);
+            ArrayList<Integer> uids = new ArrayList<>();  // keep track of the uids when reading rows and columns to ensure no duplicates
+            matrix.beginBatch();  // read the file in as one change so the matrix is only marked as modified once
+            try {
+                matrix.setTitle(title);
+                matrix.setProjectName(project);
+                matrix.setCustomer(customer);
+                matrix.setVersionNumber(version);
+
+                // parse interfaces
+                HashMap<Integer, DSMInterfaceType> interfaces = new HashMap<>();
+                for(Element interfaceGroupingXML : rootElement.getChild("interfaces").getChildren()) {
+                    String interfaceGrouping = interfaceGroupingXML.getAttribute("name").getValue();
+                    matrix.addInterfaceTypeGrouping(interfaceGrouping);
+
+                    for(Element interfaceXML : interfaceGroupingXML.getChildren()) {
+                        DSMInterfaceType interfaceType = new DSMInterfaceType(interfaceXML);
+                        interfaces.put(interfaceType.getUid(), interfaceType);
+                        matrix.addInterface(interfaceGrouping, interfaceType);
+                    }
                 }
-            }
 
 
-            ArrayList<Integer> uids = new ArrayList<>();  // keep track of the uids when reading rows and columns to ensure no duplicates
+                // parse columns
+                List<Element> cols = rootElement.getChild("columns").getChildren();
+                ArrayList<DSMItem> colItems = new ArrayList<>(cols.size());
+                for(Element col : cols) {
+                    int uid = Integer.parseInt(col.getAttribute("uid").getValue());
+                    uids.add(uid);
 
-            // parse columns
-            List<Element> cols = rootElement.getChild("columns").getChildren();
-            for(Element col : cols) {
-                int uid = Integer.parseInt(col.getAttribute("uid").getValue());
-                uids.add(uid);
+                    String name = col.getChild("name").getText();
+                    double sortIndex = Double.parseDouble(col.getChild("sort_index").getText());
+                    Integer aliasUid = Integer.parseInt(col.getChild("alias").getText());
 
-                String name = col.getChild("name").getText();
-                double sortIndex = Double.parseDouble(col.getChild("sort_index").getText());
-                Integer aliasUid = Integer.parseInt(col.getChild("alias").getText());
+                    Integer groupUid = Integer.parseInt(col.getChild("group1").getText());
+                    Integer domainUid = Integer.parseInt(col.getChild("group2").getText());
+                    Grouping domain = matrixDomains.get(domainUid);
+                    Grouping group = groupingConfiguration.get(domain).stream().filter(g -> g.getUid().equals(groupUid)).findFirst().orElse(null);
 
-                Integer groupUid = Integer.parseInt(col.getChild("group1").getText());
-                Integer domainUid = Integer.parseInt(col.getChild("group2").getText());
-                Grouping domain = matrixDomains.get(domainUid);
-                Grouping group = groupingConfiguration.get(domain).stream().filter(g -> g.getUid().equals(groupUid)).findFirst().orElse(null);
-
-                DSMItem item = new DSMItem(uid, aliasUid, sortIndex, name, group, domain);
-                matrix.addItem(item, false);
-            }
+                    DSMItem item = new DSMItem(uid, aliasUid, sortIndex, name, group, domain);
+                    colItems.add(item);
+                }
+                matrix.loadItems(colItems, false);  // the file is already valid so there is nothing to undo
 
 
-            // parse rows
-            List<Element> rows = rootElement.getChild("rows").getChildren();
-            for(Element row : rows) {
-                int uid = Integer.parseInt(row.getAttribute("uid").getValue());
-                uids.add(uid);
+                // parse rows
+                List<Element> rows = rootElement.getChild("rows").getChildren();
+                ArrayList<DSMItem> rowItems = new ArrayList<>(rows.size());
+                for(Element row : rows) {
+                    int uid = Integer.parseInt(row.getAttribute("uid").getValue());
+                    uids.add(uid);
 
-                String name = row.getChild("name").getText();
-                double sortIndex = Double.parseDouble(row.getChild("sort_index").getText());
-                Integer aliasUid = Integer.parseInt(row.getChild("alias").getText());
+                    String name = row.getChild("name").getText();
+                    double sortIndex = Double.parseDouble(row.getChild("sort_index").getText());
+                    Integer aliasUid = Integer.parseInt(row.getChild("alias").getText());
 
-                Integer groupUid = Integer.parseInt(row.getChild("group1").getText());
-                Integer domainUid = Integer.parseInt(row.getChild("group2").getText());
-                Grouping domain = matrixDomains.get(domainUid);
-                Grouping group = groupingConfiguration.get(domain).stream().filter(g -> g.getUid().equals(groupUid)).findFirst().orElse(null);
+                    Integer groupUid = Integer.parseInt(row.getChild("group1").getText());
+                    Integer domainUid = Integer.parseInt(row.getChild("group2").getText());
+                    Grouping domain = matrixDomains.get(domainUid);
+                    Grouping group = groupingConfiguration.get(domain).stream().filter(g -> g.getUid().equals(groupUid)).findFirst().orElse(null);
 
-                DSMItem item = new DSMItem(uid, aliasUid, sortIndex, name, group, domain);
-                matrix.addItem(item, true);
-            }
+                    DSMItem item = new DSMItem(uid, aliasUid, sortIndex, name, group, domain);
+                    rowItems.add(item);
+                }
+                matrix.loadItems(rowItems, true);
+
+                // parse connections
+                List<Element> connections = rootElement.getChild("connections").getChildren();
+                ArrayList<DSMConnection> matrixConnections = new ArrayList<>(connections.size());
+                for(Element connXML : connections) {
+                    int rowUid = Integer.parseInt(connXML.getChild("row_uid").getText());
+                    int colUid = Integer.parseInt(connXML.getChild("col_uid").getText());
+                    String name = connXML.getChild("name").getText();
+                    double weight = Double.parseDouble(connXML.getChild("weight").getText());
+
+                    ArrayList<DSMInterfaceType> connectionInterfaces = new ArrayList<>();
+                    for(Element interfaceXML : connXML.getChild("interfaces").getChildren()) {
+                        int interfaceUid = interfaceXML.getAttribute("uid").getIntValue();
+                        connectionInterfaces.add(interfaces.get(interfaceUid));
+                    }
 
-            // parse connections
-            List<Element> connections = rootElement.getChild("connections").getChildren();
-            for(Element connXML : connections) {
-                int rowUid = Integer.parseInt(connXML.getChild("row_uid").getText());
-                int colUid = Integer.parseInt(connXML.getChild("col_uid").getText());
-                String name = connXML.getChild("name").getText();
-                double weight = Double.parseDouble(connXML.getChild("weight").getText());
-
-                ArrayList<DSMInterfaceType> connectionInterfaces = new ArrayList<>();
-                for(Element interfaceXML : connXML.getChild("interfaces").getChildren()) {
-                    int interfaceUid = interfaceXML.getAttribute("uid").getIntValue();
-                    connectionInterfaces.add(interfaces.get(interfaceUid));
+                    matrixConnections.add(new DSMConnection(name, weight, rowUid, colUid, connectionInterfaces, matrix.getInterfaceRegistry()));
                 }
+                matrix.loadConnections(matrixConnections);
 
-                matrix.modifyConnection(rowUid, colUid, name, weight, connectionInterfaces);
+                matrix.commit();
+            } catch(Exception e) {  // never leave the batch open if the file cannot be parsed
+                matrix.rollback();
+                throw e;
             }
 
-
             Set<Integer> set = new HashSet<>(uids);
             if(set.size() != uids.size()) {  // uids were repeated and file is corrupt in some way
                 // TODO: add alert box that says the file was corrupted in some way and could not be read in
@@ -321,23 +334,25 @@ public class MultiDomainIOHandler extends AbstractIOHandler {
             contents.append("Customer,").append(matrix.getCustomer()).append("\n");
             contents.append("Version,").append(matrix.getVersionNumber()).append("\n");
 
-            ArrayList<ArrayList<Pair<RenderMode, Object>>> template = matrix.getGridArray();
-            int columns = template.get(0).size();
+            GridModel template = matrix.getGridModel();
+            int columns = template.getNumCols();
 
-            for (ArrayList<Pair<RenderMode, Object>> pairs : template) {
+            for (int r = 0; r < template.getNumRows(); r++) {
                 for (int c = 0; c < columns; c++) {
-                    Pair<RenderMode, Object> item = pairs.get(c);
-
-                    switch (item.getKey()) {
-                        case PLAIN_TEXT, PLAIN_TEXT_V -> contents.append(item.getValue()).append(",");
-                        case MULTI_SPAN_DOMAIN_TEXT -> contents.append(((Triplet<Grouping, Integer, Integer>) item.getValue()).getValue0().getName()).append(",");
-                        case ITEM_NAME, ITEM_NAME_V -> contents.append(((DSMItem) item.getValue()).getName().getValue()).append(",");
-                        case GROUPING_ITEM, GROUPING_ITEM_V -> contents.append(((DSMItem) item.getValue()).getGroup1().getName()).append(",");
-                        case INDEX_ITEM -> contents.append(((DSMItem) item.getValue()).getSortIndex()).append(",");
+                    RenderMode mode = template.getRenderMode(r, c);
+                    Object value = template.getValue(r, c);
+
+
+                    switch (mode) {
+                        case PLAIN_TEXT, PLAIN_TEXT_V -> contents.append(value).append(",");
+                        case MULTI_SPAN_DOMAIN_TEXT -> contents.append(((Triplet<Grouping, Integer, Integer>) value).getValue0().getName()).append(",");
+                        case ITEM_NAME, ITEM_NAME_V -> contents.append(((DSMItem) value).getName().getValue()).append(",");
+                        case GROUPING_ITEM, GROUPING_ITEM_V -> contents.append(((DSMItem) value).getGroup1().getName()).append(",");
+                        case INDEX_ITEM -> contents.append(((DSMItem) value).getSortIndex()).append(",");
                         case UNEDITABLE_CONNECTION, MULTI_SPAN_NULL -> contents.append(",");
                         case EDITABLE_CONNECTION -> {
-                            int rowUid = ((Pair<DSMItem, DSMItem>) item.getValue()).getKey().getUid();
-                            int colUid = ((Pair<DSMItem, DSMItem>) item.getValue()).getValue().getUid();
+                            int rowUid = template.getRowItem(r).getUid();
+                            int colUid = template.getColItem(c).getUid();
                             if (matrix.getConnection(rowUid, colUid) != null) {
                                 contents.append(matrix.getConnection(rowUid, colUid).getConnectionName());
                             }
@@ -401,25 +416,27 @@ public class MultiDomainIOHandler extends AbstractIOHandler {
             short HORIZONTAL_ROTATION = 0;
             short VERTICAL_ROTATION = 90;
 
-            ArrayList<ArrayList<Pair<RenderMode, Object>>> template = matrix.getGridArray();
-            int rows = template.size();
-            int columns = template.get(0).size();
+            GridModel template = matrix.getGridModel();
+            int rows = template.getNumRows();
+            int columns = template.getNumCols();
 
             for(int r=0; r<rows; r++) {
                 Row row = sheet.createRow(r + ROW_START);
                 for (int c=0; c<columns; c++) {
-                    Pair<RenderMode, Object> item = template.get(r).get(c);
+                    RenderMode mode = template.getRenderMode(r, c);
+                    Object value = template.getValue(r, c);
+
 
-                    switch (item.getKey()) {
+                    switch (mode) {
                         case PLAIN_TEXT -> {
                             Cell cell = row.createCell(c + COL_START);
-                            cell.setCellValue(item.getValue().toString());
+                            cell.setCellValue(value.toString());
 
                             styleExcelCell(workbook, cell, null, null, HORIZONTAL_ROTATION);
                         }
                         case PLAIN_TEXT_V -> {
                             Cell cell = row.createCell(c + COL_START);
-                            cell.setCellValue(item.getValue().toString());
+                            cell.setCellValue(value.toString());
 
                             CellStyle cellStyle = workbook.createCellStyle();
                             cellStyle.setAlignment(HorizontalAlignment.RIGHT);
@@ -428,7 +445,7 @@ public class MultiDomainIOHandler extends AbstractIOHandler {
                             cell.setCellStyle(cellStyle);
                         }
                         case MULTI_SPAN_DOMAIN_TEXT -> {
-                            Triplet<Grouping, Integer, Integer> data = (Triplet<Grouping, Integer, Integer>) item.getValue();
+                            Triplet<Grouping, Integer, Integer> data = (Triplet<Grouping, Integer, Integer>) value;
                             Cell cell = row.createCell(c + COL_START);
                             cell.setCellValue(data.getValue0().getName());
 
@@ -444,42 +461,42 @@ public class MultiDomainIOHandler extends AbstractIOHandler {
                         }
                         case ITEM_NAME -> {
                             Cell cell = row.createCell(c + COL_START);
-                            cell.setCellValue(((DSMItem) item.getValue()).getName().getValue());
+                            cell.setCellValue(((DSMItem) value).getName().getValue());
 
-                            Color bgColor = ((DSMItem) item.getValue()).getGroup1().getColor();
-                            Color fontColor = ((DSMItem) item.getValue()).getGroup1().getFontColor();
+                            Color bgColor = ((DSMItem) value).getGroup1().getColor();
+                            Color fontColor = ((DSMItem) value).getGroup1().getFontColor();
                             styleExcelCell(workbook, cell, bgColor, fontColor, HORIZONTAL_ROTATION);
                         }
                         case ITEM_NAME_V -> {
                             Cell cell = row.createCell(c + COL_START);
-                            cell.setCellValue(((DSMItem) item.getValue()).getName().getValue());
+                            cell.setCellValue(((DSMItem) value).getName().getValue());
 
-                            Color bgColor = ((DSMItem) item.getValue()).getGroup1().getColor();
-                            Color fontColor = ((DSMItem) item.getValue()).getGroup1().getFontColor();
+                            Color bgColor = ((DSMItem) value).getGroup1().getColor();
+                            Color fontColor = ((DSMItem) value).getGroup1().getFontColor();
                             styleExcelCell(workbook, cell, bgColor, fontColor, VERTICAL_ROTATION);
                         }
                         case GROUPING_ITEM -> {
                             Cell cell = row.createCell(c + COL_START);
-                            cell.setCellValue(((DSMItem) item.getValue()).getGroup1().getName());
+                            cell.setCellValue(((DSMItem) value).getGroup1().getName());
 
-                            Color bgColor = ((DSMItem) item.getValue()).getGroup1().getColor();
-                            Color fontColor = ((DSMItem) item.getValue()).getGroup1().getFontColor();
+                            Color bgColor = ((DSMItem) value).getGroup1().getColor();
+                            Color fontColor = ((DSMItem) value).getGroup1().getFontColor();
                             styleExcelCell(workbook, cell, bgColor, fontColor, HORIZONTAL_ROTATION);
                         }
                         case GROUPING_ITEM_V -> {
                             Cell cell = row.createCell(c + COL_START);
-                            cell.setCellValue(((DSMItem) item.getValue()).getGroup1().getName());
+                            cell.setCellValue(((DSMItem) value).getGroup1().getName());
 
-                            Color bgColor = ((DSMItem) item.getValue()).getGroup1().getColor();
-                            Color fontColor = ((DSMItem) item.getValue()).getGroup1().getFontColor();
+                            Color bgColor = ((DSMItem) value).getGroup1().getColor();
+                            Color fontColor = ((DSMItem) value).getGroup1().getFontColor();
                             styleExcelCell(workbook, cell, bgColor, fontColor, VERTICAL_ROTATION);
                         }
                         case INDEX_ITEM -> {
                             Cell cell = row.createCell(c + COL_START);
-                            cell.setCellValue(((DSMItem) item.getValue()).getSortIndex());
+                            cell.setCellValue(((DSMItem) value).getSortIndex());
 
-                            Color bgColor = ((DSMItem) item.getValue()).getGroup1().getColor();
-                            Color fontColor = ((DSMItem) item.getValue()).getGroup1().getFontColor();
+                            Color bgColor = ((DSMItem) value).getGroup1().getColor();
+                            Color fontColor = ((DSMItem) value).getGroup1().getFontColor();
                             styleExcelCell(workbook, cell, bgColor, fontColor, HORIZONTAL_ROTATION);
                         }
                         case UNEDITABLE_CONNECTION -> {
@@ -490,8 +507,8 @@ public class MultiDomainIOHandler extends AbstractIOHandler {
                             styleExcelCell(workbook, cell, bgColor, null, HORIZONTAL_ROTATION);
                         }
                         case EDITABLE_CONNECTION -> {
-                            Integer rowUid = ((Pair<DSMItem, DSMItem>) item.getValue()).getKey().getUid();
-                            Integer colUid = ((Pair<DSMItem, DSMItem>) item.getValue()).getValue().getUid();
+                            Integer rowUid = template.getRowItem(r).getUid();
+                            Integer colUid = template.getColItem(c).getUid();
 
                             Cell cell = row.createCell(c + COL_START);
                             if (matrix.getConnection(rowUid, colUid) != null) {
@@ -2,6 +2,7 @@ package Matrices.IOHandlers;
 
 import Constants.Constants;
 import Matrices.Data.Entities.*;
+import Matrices.Data.GridModel;
 import Matrices.Data.SymmetricDSMData;
 import Matrices.IOHandlers.Flags.IThebeauExport;
 import Matrices.Views.AbstractMatrixView;
@@ -99,80 +100,92 @@ public class SymmetricIOHandler extends AbstractIOHandler implements IThebeauExp
             }
 
             SymmetricDSMData matrix = new SymmetricDSMData(matrixGroupings.values());
-            matrix.setTitle(title);
-            matrix.setProjectName(project);
-            matrix.setCustomer(customer);
-            matrix.setVersionNumber(version);
-
-            // parse interfaces
-            HashMap<Integer, DSMInterfaceType> interfaces = new HashMap<>();
-            for(Element interfaceGroupingXML : rootElement.getChild("interfaces").getChildren()) {
-                String interfaceGrouping = interfaceGroupingXML.getAttribute("name").getValue();
-                matrix.addInterfaceTypeGrouping(interfaceGrouping);
-
-                for(Element interfaceXML : interfaceGroupingXML.getChildren()) {
-                    DSMInterfaceType interfaceType = new DSMInterfaceType(interfaceXML);
-                    interfaces.put(interfaceType.getUid(), interfaceType);
-                    matrix.addInterface(interfaceGrouping, interfaceType);
+            ArrayList<Integer> uids = new ArrayList<>();  // keep track of the uids when reading rows and columns to ensure no duplicates
+            matrix.beginBatch();  // read the file in as one change so the matrix is only marked as modified once
+            try {
+                matrix.setTitle(title);
+                matrix.setProjectName(project);
+                matrix.setCustomer(customer);
+                matrix.setVersionNumber(version);
+
+                // parse interfaces
+                HashMap<Integer, DSMInterfaceType> interfaces = new HashMap<>();
+                for(Element interfaceGroupingXML : rootElement.getChild("interfaces").getChildren()) {
+                    String interfaceGrouping = interfaceGroupingXML.getAttribute("name").getValue();
+                    matrix.addInterfaceTypeGrouping(interfaceGrouping);
+
+                    for(Element interfaceXML : interfaceGroupingXML.getChildren()) {
+                        DSMInterfaceType interfaceType = new DSMInterfaceType(interfaceXML);
+                        interfaces.put(interfaceType.getUid(), interfaceType);
+                        matrix.addInterface(interfaceGrouping, interfaceType);
+                    }
                 }
-            }
 
 
-            ArrayList<Integer> uids = new ArrayList<>();  // keep track of the uids when reading rows and columns to ensure no duplicates
+                // parse columns
+                List<Element> cols = rootElement.getChild("columns").getChildren();
+                ArrayList<DSMItem> colItems = new ArrayList<>(cols.size());
+                for(Element col : cols) {
+                    int uid = Integer.parseInt(col.getAttribute("uid").getValue());
+                    uids.add(uid);
 
-            // parse columns
-            List<Element> cols = rootElement.getChild("columns").getChildren();
-            for(Element col : cols) {
-                int uid = Integer.parseInt(col.getAttribute("uid").getValue());
-                uids.add(uid);
+                    String name = col.getChild("name").getText();
+                    double sortIndex = Double.parseDouble(col.getChild("sort_index").getText());
+                    Integer aliasUid = Integer.parseInt(col.getChild("alias").getText());
 
-                String name = col.getChild("name").getText();
-                double sortIndex = Double.parseDouble(col.getChild("sort_index").getText());
-                Integer aliasUid = Integer.parseInt(col.getChild("alias").getText());
+                    Integer groupUid = Integer.parseInt(col.getChild("group1").getText());
+                    Grouping group = matrixGroupings.get(groupUid);
 
-                Integer groupUid = Integer.parseInt(col.getChild("group1").getText());
-                Grouping group = matrixGroupings.get(groupUid);
-
-                DSMItem item = new DSMItem(uid, aliasUid, sortIndex, name, group, null);
-                matrix.addItem(item, false);
-            }
+                    DSMItem item = new DSMItem(uid, aliasUid, sortIndex, name, group, null);
+                    colItems.add(item);
+                }
+                matrix.loadItems(colItems, false);  // the file is already valid so there is nothing to undo
 
 
-            // parse rows
-            List<Element> rows = rootElement.getChild("rows").getChildren();
-            for(Element row : rows) {
-                int uid = Integer.parseInt(row.getAttribute("uid").getValue());
-                uids.add(uid);
+                // parse rows
+                List<Element> rows = rootElement.getChild("rows").getChildren();
+                ArrayList<DSMItem> rowItems = new ArrayList<>(rows.size());
+                for(Element row : rows) {
+                    int uid = Integer.parseInt(row.getAttribute("uid").getValue());
+                    uids.add(uid);
 
-                String name = row.getChild("name").getText();
-                double sortIndex = Double.parseDouble(row.getChild("sort_index").getText());
-                Integer aliasUid = Integer.parseInt(row.getChild("alias").getText());
+                    String name = row.getChild("name").getText();
+                    double sortIndex = Double.parseDouble(row.getChild("sort_index").getText());
+                    Integer aliasUid = Integer.parseInt(row.getChild("alias").getText());
 
-                Integer groupUid = Integer.parseInt(row.getChild("group1").getText());
-                Grouping group = matrixGroupings.get(groupUid);
+                    Integer groupUid = Integer.parseInt(row.getChild("group1").getText());
+                    Grouping group = matrixGroupings.get(groupUid);
 
-                DSMItem item = new DSMItem(uid, aliasUid, sortIndex, name, group, null);
-                matrix.addItem(item, true);
-            }
+                    DSMItem item = new DSMItem(uid, aliasUid, sortIndex, name, group, null);
+                    rowItems.add(item);
+                }
+                matrix.loadItems(rowItems, true);
+
+                // parse connections
+                List<Element> connections = rootElement.getChild("connections").getChildren();
+                ArrayList<DSMConnection> matrixConnections = new ArrayList<>(connections.size());
+                for(Element connXML : connections) {
+                    int rowUid = Integer.parseInt(connXML.getChild("row_uid").getText());
+                    int colUid = Integer.parseInt(connXML.getChild("col_uid").getText());
+                    String name = connXML.getChild("name").getText();
+                    double weight = Double.parseDouble(connXML.getChild("weight").getText());
+
+                    ArrayList<DSMInterfaceType> connectionInterfaces = new ArrayList<>();
+                    for(Element interfaceXML : connXML.getChild("interfaces").getChildren()) {
+                        int interfaceUid = interfaceXML.getAttribute("uid").getIntValue();
+                        connectionInterfaces.add(interfaces.get(interfaceUid));
+                    }
 
-            // parse connections
-            List<Element> connections = rootElement.getChild("connections").getChildren();
-            for(Element connXML : connections) {
-                int rowUid = Integer.parseInt(connXML.getChild("row_uid").getText());
-                int colUid = Integer.parseInt(connXML.getChild("col_uid").getText());
-                String name = connXML.getChild("name").getText();
-                double weight = Double.parseDouble(connXML.getChild("weight").getText());
-
-                ArrayList<DSMInterfaceType> connectionInterfaces = new ArrayList<>();
-                for(Element interfaceXML : connXML.getChild("interfaces").getChildren()) {
-                    int interfaceUid = interfaceXML.getAttribute("uid").getIntValue();
-                    connectionInterfaces.add(interfaces.get(interfaceUid));
+                    matrixConnections.add(new DSMConnection(name, weight, rowUid, colUid, connectionInterfaces, matrix.getInterfaceRegistry()));
                 }
+                matrix.loadConnections(matrixConnections);
 
-                matrix.modifyConnection(rowUid, colUid, name, weight, connectionInterfaces);
+                matrix.commit();
+            } catch(Exception e) {  // never leave the batch open if the file cannot be parsed
+                matrix.rollback();
+                throw e;
             }
 
-
             Set<Integer> set = new HashSet<>(uids);
             if(set.size() != uids.size()) {  // uids were repeated and file is corrupt in some way
                 // TODO: add alert box that says the file was corrupted in some way and could not be read in
@@ -221,6 +234,8 @@ public class SymmetricIOHandler extends AbstractIOHandler implements IThebeauExp
         ArrayList<ArrayList<Double>> connections = new ArrayList<>();
         HashMap<Integer, DSMItem> rowItems = new HashMap<>();
         HashMap<Integer, DSMItem> colItems = new HashMap<>();
+        ArrayList<DSMItem> matrixRows = new ArrayList<>();
+        ArrayList<DSMItem> matrixCols = new ArrayList<>();
         int uid = 0;
         for(String line : lines) {  // parse the relevant data
             if(line.contains("DSM(")) {  // connection
@@ -242,19 +257,24 @@ public class SymmetricIOHandler extends AbstractIOHandler implements IThebeauExp
                 DSMItem colItem = new DSMItem(uid + 1, uid, sortIndex, name, matrix.getDefaultGroup(), null);
                 uid += 2;  // add two because of column item
 
-                matrix.addItem(rowItem, true);
-                matrix.addItem(colItem, false);
+                matrixRows.add(rowItem);
+                matrixCols.add(colItem);
                 rowItems.put(loc, rowItem);
                 colItems.put(loc, colItem);
             }
         }
+        matrix.loadItems(matrixRows, true);  // nothing needs to be undone so the items and connections are loaded directly
+        matrix.loadItems(matrixCols, false);
+
         // create the connections
+        ArrayList<DSMConnection> matrixConnections = new ArrayList<>(connections.size());
         for(ArrayList<Double> conn : connections) {
             int rowUid = rowItems.get(conn.get(0).intValue()).getUid();
             int colUid = colItems.get(conn.get(1).intValue()).getUid();
 
-            matrix.modifyConnection(rowUid, colUid, "x", conn.get(2), new ArrayList<>());
+            matrixConnections.add(new DSMConnection("x", conn.get(2), rowUid, colUid, new ArrayList<>(), matrix.getInterfaceRegistry()));
         }
+        matrix.loadConnections(matrixConnections);
 
         matrix.clearStacks();  // make sure there are no changes when it is opened
 
@@ -364,23 +384,25 @@ public class SymmetricIOHandler extends AbstractIOHandler implements IThebeauExp
             contents.append("Customer,").append(matrix.getCustomer()).append("\n");
             contents.append("Version,").append(matrix.getVersionNumber()).append("\n");
 
-            ArrayList<ArrayList<Pair<RenderMode, Object>>> template = matrix.getGridArray();
-            int rows = template.size();
-            int columns = template.get(0).size();
+            GridModel template = matrix.getGridModel();
+            int rows = template.getNumRows();
+            int columns = template.getNumCols();
 
             for(int r=0; r<rows; r++) {
                 for (int c = 0; c < columns; c++) {
-                    Pair<RenderMode, Object> item = template.get(r).get(c);
+                    RenderMode mode = template.getRenderMode(r, c);
+                    Object value = template.getValue(r, c);
+
 
-                    switch(item.getKey()) {
-                        case PLAIN_TEXT, PLAIN_TEXT_V -> contents.append(item.getValue()).append(",");
-                        case ITEM_NAME, ITEM_NAME_V -> contents.append(((DSMItem) item.getValue()).getName().getValue()).append(",");
-                        case GROUPING_ITEM, GROUPING_ITEM_V -> contents.append(((DSMItem) item.getValue()).getGroup1().getName()).append(",");
-                        case INDEX_ITEM -> contents.append(((DSMItem) item.getValue()).getSortIndex()).append(",");
+                    switch (mode) {
+                        case PLAIN_TEXT, PLAIN_TEXT_V -> contents.append(value).append(",");
+                        case ITEM_NAME, ITEM_NAME_V -> contents.append(((DSMItem) value).getName().getValue()).append(",");
+                        case GROUPING_ITEM, GROUPING_ITEM_V -> contents.append(((DSMItem) value).getGroup1().getName()).append(",");
+                        case INDEX_ITEM -> contents.append(((DSMItem) value).getSortIndex()).append(",");
                         case UNEDITABLE_CONNECTION -> contents.append(",");
                         case EDITABLE_CONNECTION -> {
-                            int rowUid = ((Pair<DSMItem, DSMItem>)item.getValue()).getKey().getUid();
-                            int colUid = ((Pair<DSMItem, DSMItem>)item.getValue()).getValue().getUid();
+                            int rowUid = template.getRowItem(r).getUid();
+                            int colUid = template.getColItem(c).getUid();
                             if(matrix.getConnection(rowUid, colUid) != null) {
                                 contents.append(matrix.getConnection(rowUid, colUid).getConnectionName());
                             }
@@ -444,25 +466,27 @@ public class SymmetricIOHandler extends AbstractIOHandler implements IThebeauExp
             short HORIZONTAL_ROTATION = 0;
             short VERTICAL_ROTATION = 90;
 
-            ArrayList<ArrayList<Pair<RenderMode, Object>>> template = matrix.getGridArray();
-            int rows = template.size();
-            int columns = template.get(0).size();
+            GridModel template = matrix.getGridModel();
+            int rows = template.getNumRows();
+            int columns = template.getNumCols();
 
             for(int r=0; r<rows; r++) {
                 Row row = sheet.createRow(r + ROW_START);
                 for (int c=0; c<columns; c++) {
-                    Pair<RenderMode, Object> item = template.get(r).get(c);
+                    RenderMode mode = template.getRenderMode(r, c);
+                    Object value = template.getValue(r, c);
+
 
-                    switch (item.getKey()) {
+                    switch (mode) {
                         case PLAIN_TEXT -> {
                             Cell cell = row.createCell(c + COL_START);
-                            cell.setCellValue(item.getValue().toString());
+                            cell.setCellValue(value.toString());
 
                             styleExcelCell(workbook, cell, null, null, HORIZONTAL_ROTATION);
                         }
                         case PLAIN_TEXT_V -> {
                             Cell cell = row.createCell(c + COL_START);
-                            cell.setCellValue(item.getValue().toString());
+                            cell.setCellValue(value.toString());
 
                             CellStyle cellStyle = workbook.createCellStyle();
                             cellStyle.setAlignment(HorizontalAlignment.RIGHT);
@@ -472,42 +496,42 @@ public class SymmetricIOHandler extends AbstractIOHandler implements IThebeauExp
                         }
                         case ITEM_NAME -> {
                             Cell cell = row.createCell(c + COL_START);
-                            cell.setCellValue(((DSMItem) item.getValue()).getName().getValue());
+                            cell.setCellValue(((DSMItem) value).getName().getValue());
 
-                            Color bgColor = ((DSMItem) item.getValue()).getGroup1().getColor();
-                            Color fontColor = ((DSMItem) item.getValue()).getGroup1().getFontColor();
+                            Color bgColor = ((DSMItem) value).getGroup1().getColor();
+                            Color fontColor = ((DSMItem) value).getGroup1().getFontColor();
                             styleExcelCell(workbook, cell, bgColor, fontColor, HORIZONTAL_ROTATION);
                         }
                         case ITEM_NAME_V -> {
                             Cell cell = row.createCell(c + COL_START);
-                            cell.setCellValue(((DSMItem) item.getValue()).getName().getValue());
+                            cell.setCellValue(((DSMItem) value).getName().getValue());
 
-                            Color bgColor = ((DSMItem) item.getValue()).getGroup1().getColor();
-                            Color fontColor = ((DSMItem) item.getValue()).getGroup1().getFontColor();
+                            Color bgColor = ((DSMItem) value).getGroup1().getColor();
+                            Color fontColor = ((DSMItem) value).getGroup1().getFontColor();
                             styleExcelCell(workbook, cell, bgColor, fontColor, VERTICAL_ROTATION);
                         }
                         case GROUPING_ITEM -> {
                             Cell cell = row.createCell(c + COL_START);
-                            cell.setCellValue(((DSMItem) item.getValue()).getGroup1().getName());
+                            cell.setCellValue(((DSMItem) value).getGroup1().getName());
 
-                            Color bgColor = ((DSMItem) item.getValue()).getGroup1().getColor();
-                            Color fontColor = ((DSMItem) item.getValue()).getGroup1().getFontColor();
+                            Color bgColor = ((DSMItem) value).getGroup1().getColor();
+                            Color fontColor = ((DSMItem) value).getGroup1().getFontColor();
                             styleExcelCell(workbook, cell, bgColor, fontColor, HORIZONTAL_ROTATION);
                         }
                         case GROUPING_ITEM_V -> {
                             Cell cell = row.createCell(c + COL_START);
-                            cell.setCellValue(((DSMItem) item.getValue()).getGroup1().getName());
+                            cell.setCellValue(((DSMItem) value).getGroup1().getName());
 
-                            Color bgColor = ((DSMItem) item.getValue()).getGroup1().getColor();
-                            Color fontColor = ((DSMItem) item.getValue()).getGroup1().getFontColor();
+                            Color bgColor = ((DSMItem) value).getGroup1().getColor();
+                            Color fontColor = ((DSMItem) value).getGroup1().getFontColor();
                             styleExcelCell(workbook, cell, bgColor, fontColor, VERTICAL_ROTATION);
                         }
                         case INDEX_ITEM -> {
                             Cell cell = row.createCell(c + COL_START);
-                            cell.setCellValue(((DSMItem) item.getValue()).getSortIndex());
+                            cell.setCellValue(((DSMItem) value).getSortIndex());
 
-                            Color bgColor = ((DSMItem) item.getValue()).getGroup1().getColor();
-                            Color fontColor = ((DSMItem) item.getValue()).getGroup1().getFontColor();
+                            Color bgColor = ((DSMItem) value).getGroup1().getColor();
+                            Color fontColor = ((DSMItem) value).getGroup1().getFontColor();
                             styleExcelCell(workbook, cell, bgColor, fontColor, HORIZONTAL_ROTATION);
                         }
                         case UNEDITABLE_CONNECTION -> {
@@ -518,8 +542,8 @@ public class SymmetricIOHandler extends AbstractIOHandler implements IThebeauExp
                             styleExcelCell(workbook, cell, bgColor, null, HORIZONTAL_ROTATION);
                         }
                         case EDITABLE_CONNECTION -> {
-                            int rowUid = ((Pair<DSMItem, DSMItem>) item.getValue()).getKey().getUid();
-                            int colUid = ((Pair<DSMItem, DSMItem>) item.getValue()).getValue().getUid();
+                            int rowUid = template.getRowItem(r).getUid();
+                            int colUid = template.getColItem(c).getUid();
 
                             Cell cell = row.createCell(c + COL_START);
                             if (matrix.getConnection(rowUid, colUid) != null) {
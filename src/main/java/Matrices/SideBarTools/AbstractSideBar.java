@@ -361,7 +361,7 @@ public abstract class AbstractSideBar {
         addInterfaceButtonPane.setAlignment(Pos.CENTER);
         Button addInterfaceButton = new Button("Add New Interface");
         addInterfaceButton.setOnAction(e -> {
-            DSMInterfaceType newInterface = new DSMInterfaceType("New Interface", "I");
+            DSMInterfaceType newInterface = matrix.createInterfaceType("New Interface", "I");
             matrix.addInterface(interfaceGroupName.getValue(), newInterface);
             HBox interfaceTypePane = configureInterfaceEditorRow(matrix, interfaceGroupName, newInterface, interfacesPane);
             interfacesPane.getChildren().add(interfaceTypePane);
@@ -362,13 +362,13 @@ public class MultiDomainSideBar extends AbstractSideBar {
                 }
 
                 if(tg.getSelectedToggle().equals(selectByRow)) {  // selecting by row
-                    DSMConnection conn = new DSMConnection(connectionName.getText(), weight.getNumericValue(), itemSelector.getValue().getUid(), entry.getValue().getUid(), selectedInterfaces);
+                    DSMConnection conn = new DSMConnection(connectionName.getText(), weight.getNumericValue(), itemSelector.getValue().getUid(), entry.getValue().getUid(), selectedInterfaces, matrix.getInterfaceRegistry());
                     if(!changesToMakeView.getItems().contains(conn)) {  // ensure no duplicates
                         changesToMakeView.getItems().add(conn);
                     }
 
                 } else if(tg.getSelectedToggle().equals(selectByCol)) {  // selecting by column
-                    DSMConnection conn = new DSMConnection(connectionName.getText(), weight.getNumericValue(), entry.getValue().getUid(), itemSelector.getValue().getUid(), selectedInterfaces);
+                    DSMConnection conn = new DSMConnection(connectionName.getText(), weight.getNumericValue(), entry.getValue().getUid(), itemSelector.getValue().getUid(), selectedInterfaces, matrix.getInterfaceRegistry());
                     if(!changesToMakeView.getItems().contains(conn)) {  // ensure no duplicates
                         changesToMakeView.getItems().add(conn);
                     }
@@ -392,8 +392,8 @@ public class MultiDomainSideBar extends AbstractSideBar {
                     int symmetricRowUid = matrix.getSymmetricConnectionUids(rowUid, colUid).getKey();
                     int symmetricColUid = matrix.getSymmetricConnectionUids(rowUid, colUid).getValue();
 
-                    DSMConnection conn1 = new DSMConnection(connectionName.getText(), weight.getNumericValue(), rowUid, colUid, selectedInterfaces);
-                    DSMConnection conn2 = new DSMConnection(connectionName.getText(), weight.getNumericValue(), symmetricRowUid, symmetricColUid, selectedInterfaces);
+                    DSMConnection conn1 = new DSMConnection(connectionName.getText(), weight.getNumericValue(), rowUid, colUid, selectedInterfaces, matrix.getInterfaceRegistry());
+                    DSMConnection conn2 = new DSMConnection(connectionName.getText(), weight.getNumericValue(), symmetricRowUid, symmetricColUid, selectedInterfaces, matrix.getInterfaceRegistry());
 
                     if(!changesToMakeView.getItems().contains(conn1)) {  // ensure no duplicates
                         changesToMakeView.getItems().add(conn1);
@@ -407,8 +407,8 @@ public class MultiDomainSideBar extends AbstractSideBar {
                     int symmetricRowUid = matrix.getSymmetricConnectionUids(rowUid, colUid).getKey();
                     int symmetricColUid = matrix.getSymmetricConnectionUids(rowUid, colUid).getValue();
 
-                    DSMConnection conn1 = new DSMConnection(connectionName.getText(), weight.getNumericValue(), rowUid, colUid, selectedInterfaces);
-                    DSMConnection conn2 = new DSMConnection(connectionName.getText(), weight.getNumericValue(), symmetricRowUid, symmetricColUid, selectedInterfaces);
+                    DSMConnection conn1 = new DSMConnection(connectionName.getText(), weight.getNumericValue(), rowUid, colUid, selectedInterfaces, matrix.getInterfaceRegistry());
+                    DSMConnection conn2 = new DSMConnection(connectionName.getText(), weight.getNumericValue(), symmetricRowUid, symmetricColUid, selectedInterfaces, matrix.getInterfaceRegistry());
 
                     if(!changesToMakeView.getItems().contains(conn1)) {  // ensure no duplicates
                         changesToMakeView.getItems().add(conn1);
@@ -520,26 +520,26 @@ public class MultiDomainSideBar extends AbstractSideBar {
             for (Map.Entry<CheckBox, DSMItem> entry : connections.entrySet()) {
                 if (entry.getKey().isSelected() && !connectionName.getText().isEmpty()) {  // create the connection
                     if(tg.getSelectedToggle().equals(selectByRow)) {  // selecting by row
-                        DSMConnection conn = new DSMConnection(connectionName.getText(), weight.getNumericValue(), itemSelector.getValue().getUid(), entry.getValue().getUid(), selectedInterfaces);
+                        DSMConnection conn = new DSMConnection(connectionName.getText(), weight.getNumericValue(), itemSelector.getValue().getUid(), entry.getValue().getUid(), selectedInterfaces, matrix.getInterfaceRegistry());
                         if(!changesToMakeView.getItems().contains(conn)) {  // ensure no duplicates
                             changesToMakeView.getItems().add(conn);
                         }
 
                     } else if(tg.getSelectedToggle().equals(selectByCol)) {  // selecting by column
-                        DSMConnection conn = new DSMConnection(connectionName.getText(), weight.getNumericValue(), entry.getValue().getUid(), itemSelector.getValue().getUid(), selectedInterfaces);
+                        DSMConnection conn = new DSMConnection(connectionName.getText(), weight.getNumericValue(), entry.getValue().getUid(), itemSelector.getValue().getUid(), selectedInterfaces, matrix.getInterfaceRegistry());
                         if(!changesToMakeView.getItems().contains(conn)) {  // ensure no duplicates
                             changesToMakeView.getItems().add(conn);
                         }
                     }
                 } else {  // delete the connection
                     if(tg.getSelectedToggle().equals(selectByRow)) {  // selecting by row
-                        DSMConnection conn = new DSMConnection("", Double.MAX_VALUE, itemSelector.getValue().getUid(), entry.getValue().getUid(), new ArrayList<>());
+                        DSMConnection conn = new DSMConnection("", Double.MAX_VALUE, itemSelector.getValue().getUid(), entry.getValue().getUid(), new ArrayList<>(), matrix.getInterfaceRegistry());
                         if(!changesToMakeView.getItems().contains(conn)) {  // ensure no duplicates
                             changesToMakeView.getItems().add(conn);
                         }
 
                     } else if(tg.getSelectedToggle().equals(selectByCol)) {  // selecting by column
-                        DSMConnection conn = new DSMConnection("", Double.MAX_VALUE, entry.getValue().getUid(), itemSelector.getValue().getUid(), new ArrayList<>());
+                        DSMConnection conn = new DSMConnection("", Double.MAX_VALUE, entry.getValue().getUid(), itemSelector.getValue().getUid(), new ArrayList<>(), matrix.getInterfaceRegistry());
                         if(!changesToMakeView.getItems().contains(conn)) {  // ensure no duplicates
                             changesToMakeView.getItems().add(conn);
                         }
@@ -561,8 +561,8 @@ public class MultiDomainSideBar extends AbstractSideBar {
                         int symmetricRowUid = matrix.getSymmetricConnectionUids(rowUid, colUid).getKey();
                         int symmetricColUid = matrix.getSymmetricConnectionUids(rowUid, colUid).getValue();
 
-                        DSMConnection conn1 = new DSMConnection(connectionName.getText(), weight.getNumericValue(), rowUid, colUid, selectedInterfaces);
-                        DSMConnection conn2 = new DSMConnection(connectionName.getText(), weight.getNumericValue(), symmetricRowUid, symmetricColUid, selectedInterfaces);
+                        DSMConnection conn1 = new DSMConnection(connectionName.getText(), weight.getNumericValue(), rowUid, colUid, selectedInterfaces, matrix.getInterfaceRegistry());
+                        DSMConnection conn2 = new DSMConnection(connectionName.getText(), weight.getNumericValue(), symmetricRowUid, symmetricColUid, selectedInterfaces, matrix.getInterfaceRegistry());
 
                         if(!changesToMakeView.getItems().contains(conn1)) {  // ensure no duplicates
                             changesToMakeView.getItems().add(conn1);
@@ -576,8 +576,8 @@ public class MultiDomainSideBar extends AbstractSideBar {
                         int symmetricRowUid = matrix.getSymmetricConnectionUids(rowUid, colUid).getKey();
                         int symmetricColUid = matrix.getSymmetricConnectionUids(rowUid, colUid).getValue();
 
-                        DSMConnection conn1 = new DSMConnection(connectionName.getText(), weight.getNumericValue(), rowUid, colUid, selectedInterfaces);
-                        DSMConnection conn2 = new DSMConnection(connectionName.getText(), weight.getNumericValue(), symmetricRowUid, symmetricColUid, selectedInterfaces);
+                        DSMConnection conn1 = new DSMConnection(connectionName.getText(), weight.getNumericValue(), rowUid, colUid, selectedInterfaces, matrix.getInterfaceRegistry());
+                        DSMConnection conn2 = new DSMConnection(connectionName.getText(), weight.getNumericValue(), symmetricRowUid, symmetricColUid, selectedInterfaces, matrix.getInterfaceRegistry());
 
                         if(!changesToMakeView.getItems().contains(conn1)) {  // ensure no duplicates
                             changesToMakeView.getItems().add(conn1);
@@ -593,8 +593,8 @@ public class MultiDomainSideBar extends AbstractSideBar {
                         int symmetricRowUid = matrix.getSymmetricConnectionUids(rowUid, colUid).getKey();
                         int symmetricColUid = matrix.getSymmetricConnectionUids(rowUid, colUid).getValue();
 
-                        DSMConnection conn1 = new DSMConnection("", Double.MAX_VALUE, rowUid, colUid, new ArrayList<>());
-                        DSMConnection conn2 = new DSMConnection("", Double.MAX_VALUE, symmetricRowUid, symmetricColUid, new ArrayList<>());
+                        DSMConnection conn1 = new DSMConnection("", Double.MAX_VALUE, rowUid, colUid, new ArrayList<>(), matrix.getInterfaceRegistry());
+                        DSMConnection conn2 = new DSMConnection("", Double.MAX_VALUE, symmetricRowUid, symmetricColUid, new ArrayList<>(), matrix.getInterfaceRegistry());
 
                         if(!changesToMakeView.getItems().contains(conn1)) {  // ensure no duplicates
                             changesToMakeView.getItems().add(conn1);
@@ -608,8 +608,8 @@ public class MultiDomainSideBar extends AbstractSideBar {
                         int symmetricRowUid = matrix.getSymmetricConnectionUids(rowUid, colUid).getKey();
                         int symmetricColUid = matrix.getSymmetricConnectionUids(rowUid, colUid).getValue();
 
-                        DSMConnection conn1 = new DSMConnection("", Double.MAX_VALUE, rowUid, colUid, new ArrayList<>());
-                        DSMConnection conn2 = new DSMConnection("", Double.MAX_VALUE, symmetricRowUid, symmetricColUid, new ArrayList<>());
+                        DSMConnection conn1 = new DSMConnection("", Double.MAX_VALUE, rowUid, colUid, new ArrayList<>(), matrix.getInterfaceRegistry());
+                        DSMConnection conn2 = new DSMConnection("", Double.MAX_VALUE, symmetricRowUid, symmetricColUid, new ArrayList<>(), matrix.getInterfaceRegistry());
 
                         if (!changesToMakeView.getItems().contains(conn1)) {  // ensure no duplicates
                             changesToMakeView.getItems().add(conn1);
@@ -628,13 +628,15 @@ public class MultiDomainSideBar extends AbstractSideBar {
         HBox closeArea = new HBox();
         Button applyAllButton = new Button("Apply All Changes");
         applyAllButton.setOnAction(ee -> {
-            for(DSMConnection conn : changesToMakeView.getItems()) {
-                if(!conn.getConnectionName().isEmpty() && conn.getWeight() != Double.MAX_VALUE) {
-                    matrix.modifyConnection(conn.getRowUid(), conn.getColUid(), conn.getConnectionName(), conn.getWeight(), selectedInterfaces);
-                } else {
-                    matrix.deleteConnection(conn.getRowUid(), conn.getColUid());
+            matrix.runBatch(() -> {  // apply all of the changes as one change
+                for(DSMConnection conn : changesToMakeView.getItems()) {
+                    if(!conn.getConnectionName().isEmpty() && conn.getWeight() != Double.MAX_VALUE) {
+                        matrix.modifyConnection(conn.getRowUid(), conn.getColUid(), conn.getConnectionName(), conn.getWeight(), selectedInterfaces);
+                    } else {
+                        matrix.deleteConnection(conn.getRowUid(), conn.getColUid());
+                    }
                 }
-            }
+            });
             window.close();
             matrixView.refreshView();
             matrix.setCurrentStateAsCheckpoint();
@@ -1089,7 +1091,7 @@ public class MultiDomainSideBar extends AbstractSideBar {
                         // configure the button for adding a new grouping
                         Button addDomainGroupingButton = new Button("Add New Grouping");
                         addDomainGroupingButton.setOnAction(e -> {
-                            Grouping newDomainGrouping = new Grouping("New Grouping", Color.color(1, 1, 1));
+                            Grouping newDomainGrouping = matrix.createGrouping("New Grouping", Color.color(1, 1, 1));
                             HBox groupingRow = new HBox();  // wrap content in another hbox to add padding for an indent
                             groupingRow.setPadding(new Insets(0, 0, 0, 50));
                             HBox groupingRowContent = configureGroupingEditorRow(matrix, newDomainGrouping, () -> {
@@ -1120,7 +1122,7 @@ public class MultiDomainSideBar extends AbstractSideBar {
         HBox addDomainButtonPane = new HBox();
         Button addDomainButton = new Button("Add New Domain");
         addDomainButton.setOnAction(e -> {
-            Grouping newDomain = new Grouping("New Domain", Color.color(1, 1, 1));
+            Grouping newDomain = matrix.createGrouping("New Domain", Color.color(1, 1, 1));
             matrix.addDomain(newDomain);
         });
         addDomainButtonPane.getChildren().addAll(Misc.getHorizontalSpacer(), addDomainButton);
@@ -335,13 +335,13 @@ public class SymmetricSideBar extends AbstractSideBar {
                 }
 
                 if(tg.getSelectedToggle().equals(selectByRow)) {  // selecting by row
-                    DSMConnection conn = new DSMConnection(connectionName.getText(), weight.getNumericValue(), itemSelector.getValue().getUid(), entry.getValue().getUid(), selectedInterfaces);
+                    DSMConnection conn = new DSMConnection(connectionName.getText(), weight.getNumericValue(), itemSelector.getValue().getUid(), entry.getValue().getUid(), selectedInterfaces, matrix.getInterfaceRegistry());
                     if(!changesToMakeView.getItems().contains(conn)) {  // ensure no duplicates
                         changesToMakeView.getItems().add(conn);
                     }
 
                 } else if(tg.getSelectedToggle().equals(selectByCol)) {  // selecting by column
-                    DSMConnection conn = new DSMConnection(connectionName.getText(), weight.getNumericValue(), entry.getValue().getUid(), itemSelector.getValue().getUid(), selectedInterfaces);
+                    DSMConnection conn = new DSMConnection(connectionName.getText(), weight.getNumericValue(), entry.getValue().getUid(), itemSelector.getValue().getUid(), selectedInterfaces, matrix.getInterfaceRegistry());
                     if(!changesToMakeView.getItems().contains(conn)) {  // ensure no duplicates
                         changesToMakeView.getItems().add(conn);
                     }
@@ -365,8 +365,8 @@ public class SymmetricSideBar extends AbstractSideBar {
                     int symmetricRowUid = matrix.getSymmetricConnectionUids(rowUid, colUid).getKey();
                     int symmetricColUid = matrix.getSymmetricConnectionUids(rowUid, colUid).getValue();
 
-                    DSMConnection conn1 = new DSMConnection(connectionName.getText(), weight.getNumericValue(), rowUid, colUid, selectedInterfaces);
-                    DSMConnection conn2 = new DSMConnection(connectionName.getText(), weight.getNumericValue(), symmetricRowUid, symmetricColUid, selectedInterfaces);
+                    DSMConnection conn1 = new DSMConnection(connectionName.getText(), weight.getNumericValue(), rowUid, colUid, selectedInterfaces, matrix.getInterfaceRegistry());
+                    DSMConnection conn2 = new DSMConnection(connectionName.getText(), weight.getNumericValue(), symmetricRowUid, symmetricColUid, selectedInterfaces, matrix.getInterfaceRegistry());
 
                     if(!changesToMakeView.getItems().contains(conn1)) {  // ensure no duplicates
                         changesToMakeView.getItems().add(conn1);
@@ -380,8 +380,8 @@ public class SymmetricSideBar extends AbstractSideBar {
                     int symmetricRowUid = matrix.getSymmetricConnectionUids(rowUid, colUid).getKey();
                     int symmetricColUid = matrix.getSymmetricConnectionUids(rowUid, colUid).getValue();
 
-                    DSMConnection conn1 = new DSMConnection(connectionName.getText(), weight.getNumericValue(), rowUid, colUid, selectedInterfaces);
-                    DSMConnection conn2 = new DSMConnection(connectionName.getText(), weight.getNumericValue(), symmetricRowUid, symmetricColUid, selectedInterfaces);
+                    DSMConnection conn1 = new DSMConnection(connectionName.getText(), weight.getNumericValue(), rowUid, colUid, selectedInterfaces, matrix.getInterfaceRegistry());
+                    DSMConnection conn2 = new DSMConnection(connectionName.getText(), weight.getNumericValue(), symmetricRowUid, symmetricColUid, selectedInterfaces, matrix.getInterfaceRegistry());
 
                     if(!changesToMakeView.getItems().contains(conn1)) {  // ensure no duplicates
                         changesToMakeView.getItems().add(conn1);
@@ -493,26 +493,26 @@ public class SymmetricSideBar extends AbstractSideBar {
             for (Map.Entry<CheckBox, DSMItem> entry : connections.entrySet()) {
                 if (entry.getKey().isSelected() && !connectionName.getText().isEmpty()) {  // create the connection
                     if(tg.getSelectedToggle().equals(selectByRow)) {  // selecting by row
-                        DSMConnection conn = new DSMConnection(connectionName.getText(), weight.getNumericValue(), itemSelector.getValue().getUid(), entry.getValue().getUid(), selectedInterfaces);
+                        DSMConnection conn = new DSMConnection(connectionName.getText(), weight.getNumericValue(), itemSelector.getValue().getUid(), entry.getValue().getUid(), selectedInterfaces, matrix.getInterfaceRegistry());
                         if(!changesToMakeView.getItems().contains(conn)) {  // ensure no duplicates
                             changesToMakeView.getItems().add(conn);
                         }
 
                     } else if(tg.getSelectedToggle().equals(selectByCol)) {  // selecting by column
-                        DSMConnection conn = new DSMConnection(connectionName.getText(), weight.getNumericValue(), entry.getValue().getUid(), itemSelector.getValue().getUid(), selectedInterfaces);
+                        DSMConnection conn = new DSMConnection(connectionName.getText(), weight.getNumericValue(), entry.getValue().getUid(), itemSelector.getValue().getUid(), selectedInterfaces, matrix.getInterfaceRegistry());
                         if(!changesToMakeView.getItems().contains(conn)) {  // ensure no duplicates
                             changesToMakeView.getItems().add(conn);
                         }
                     }
                 } else {  // delete the connection
                     if(tg.getSelectedToggle().equals(selectByRow)) {  // selecting by row
-                        DSMConnection conn = new DSMConnection("", Double.MAX_VALUE, itemSelector.getValue().getUid(), entry.getValue().getUid(), new ArrayList<>());
+                        DSMConnection conn = new DSMConnection("", Double.MAX_VALUE, itemSelector.getValue().getUid(), entry.getValue().getUid(), new ArrayList<>(), matrix.getInterfaceRegistry());
                         if(!changesToMakeView.getItems().contains(conn)) {  // ensure no duplicates
                             changesToMakeView.getItems().add(conn);
                         }
 
                     } else if(tg.getSelectedToggle().equals(selectByCol)) {  // selecting by column
-                        DSMConnection conn = new DSMConnection("", Double.MAX_VALUE, entry.getValue().getUid(), itemSelector.getValue().getUid(), new ArrayList<>());
+                        DSMConnection conn = new DSMConnection("", Double.MAX_VALUE, entry.getValue().getUid(), itemSelector.getValue().getUid(), new ArrayList<>(), matrix.getInterfaceRegistry());
                         if(!changesToMakeView.getItems().contains(conn)) {  // ensure no duplicates
                             changesToMakeView.getItems().add(conn);
                         }
@@ -534,8 +534,8 @@ public class SymmetricSideBar extends AbstractSideBar {
                         int symmetricRowUid = matrix.getSymmetricConnectionUids(rowUid, colUid).getKey();
                         int symmetricColUid = matrix.getSymmetricConnectionUids(rowUid, colUid).getValue();
 
-                        DSMConnection conn1 = new DSMConnection(connectionName.getText(), weight.getNumericValue(), rowUid, colUid, selectedInterfaces);
-                        DSMConnection conn2 = new DSMConnection(connectionName.getText(), weight.getNumericValue(), symmetricRowUid, symmetricColUid, selectedInterfaces);
+                        DSMConnection conn1 = new DSMConnection(connectionName.getText(), weight.getNumericValue(), rowUid, colUid, selectedInterfaces, matrix.getInterfaceRegistry());
+                        DSMConnection conn2 = new DSMConnection(connectionName.getText(), weight.getNumericValue(), symmetricRowUid, symmetricColUid, selectedInterfaces, matrix.getInterfaceRegistry());
 
                         if(!changesToMakeView.getItems().contains(conn1)) {  // ensure no duplicates
                             changesToMakeView.getItems().add(conn1);
@@ -549,8 +549,8 @@ public class SymmetricSideBar extends AbstractSideBar {
                         int symmetricRowUid = matrix.getSymmetricConnectionUids(rowUid, colUid).getKey();
                         int symmetricColUid = matrix.getSymmetricConnectionUids(rowUid, colUid).getValue();
 
-                        DSMConnection conn1 = new DSMConnection(connectionName.getText(), weight.getNumericValue(), rowUid, colUid, selectedInterfaces);
-                        DSMConnection conn2 = new DSMConnection(connectionName.getText(), weight.getNumericValue(), symmetricRowUid, symmetricColUid, selectedInterfaces);
+                        DSMConnection conn1 = new DSMConnection(connectionName.getText(), weight.getNumericValue(), rowUid, colUid, selectedInterfaces, matrix.getInterfaceRegistry());
+                        DSMConnection conn2 = new DSMConnection(connectionName.getText(), weight.getNumericValue(), symmetricRowUid, symmetricColUid, selectedInterfaces, matrix.getInterfaceRegistry());
 
                         if(!changesToMakeView.getItems().contains(conn1)) {  // ensure no duplicates
                             changesToMakeView.getItems().add(conn1);
@@ -566,8 +566,8 @@ public class SymmetricSideBar extends AbstractSideBar {
                         int symmetricRowUid = matrix.getSymmetricConnectionUids(rowUid, colUid).getKey();
                         int symmetricColUid = matrix.getSymmetricConnectionUids(rowUid, colUid).getValue();
 
-                        DSMConnection conn1 = new DSMConnection("", Double.MAX_VALUE, rowUid, colUid, new ArrayList<>());
-                        DSMConnection conn2 = new DSMConnection("", Double.MAX_VALUE, symmetricRowUid, symmetricColUid, new ArrayList<>());
+                        DSMConnection conn1 = new DSMConnection("", Double.MAX_VALUE, rowUid, colUid, new ArrayList<>(), matrix.getInterfaceRegistry());
+                        DSMConnection conn2 = new DSMConnection("", Double.MAX_VALUE, symmetricRowUid, symmetricColUid, new ArrayList<>(), matrix.getInterfaceRegistry());
 
                         if(!changesToMakeView.getItems().contains(conn1)) {  // ensure no duplicates
                             changesToMakeView.getItems().add(conn1);
@@ -581,8 +581,8 @@ public class SymmetricSideBar extends AbstractSideBar {
                         int symmetricRowUid = matrix.getSymmetricConnectionUids(rowUid, colUid).getKey();
                         int symmetricColUid = matrix.getSymmetricConnectionUids(rowUid, colUid).getValue();
 
-                        DSMConnection conn1 = new DSMConnection("", Double.MAX_VALUE, rowUid, colUid, new ArrayList<>());
-                        DSMConnection conn2 = new DSMConnection("", Double.MAX_VALUE, symmetricRowUid, symmetricColUid, new ArrayList<>());
+                        DSMConnection conn1 = new DSMConnection("", Double.MAX_VALUE, rowUid, colUid, new ArrayList<>(), matrix.getInterfaceRegistry());
+                        DSMConnection conn2 = new DSMConnection("", Double.MAX_VALUE, symmetricRowUid, symmetricColUid, new ArrayList<>(), matrix.getInterfaceRegistry());
 
                         if (!changesToMakeView.getItems().contains(conn1)) {  // ensure no duplicates
                             changesToMakeView.getItems().add(conn1);
@@ -601,13 +601,15 @@ public class SymmetricSideBar extends AbstractSideBar {
         HBox closeArea = new HBox();
         Button applyAllButton = new Button("Apply All Changes");
         applyAllButton.setOnAction(ee -> {
-            for(DSMConnection conn : changesToMakeView.getItems()) {
-                if(!conn.getConnectionName().isEmpty() && conn.getWeight() != Double.MAX_VALUE) {
-                    matrix.modifyConnection(conn.getRowUid(), conn.getColUid(), conn.getConnectionName(), conn.getWeight(), selectedInterfaces);
-                } else {
-                    matrix.deleteConnection(conn.getRowUid(), conn.getColUid());
+            matrix.runBatch(() -> {  // apply all of the changes as one change
+                for(DSMConnection conn : changesToMakeView.getItems()) {
+                    if(!conn.getConnectionName().isEmpty() && conn.getWeight() != Double.MAX_VALUE) {
+                        matrix.modifyConnection(conn.getRowUid(), conn.getColUid(), conn.getConnectionName(), conn.getWeight(), selectedInterfaces);
+                    } else {
+                        matrix.deleteConnection(conn.getRowUid(), conn.getColUid());
+                    }
                 }
-            }
+            });
             window.close();
             matrixView.refreshView();
             matrix.setCurrentStateAsCheckpoint();
@@ -1006,7 +1008,7 @@ public class SymmetricSideBar extends AbstractSideBar {
 
         Button addButton = new Button("Add New Grouping");
         addButton.setOnAction(e -> {
-            Grouping newGrouping = new Grouping("New Grouping", Color.color(1, 1, 1));
+            Grouping newGrouping = matrix.createGrouping("New Grouping", Color.color(1, 1, 1));
             HBox groupRow = configureGroupingEditorRow(matrix, newGrouping, groupingsView, true);
             matrix.addGrouping(newGrouping);
             groupingsView.getChildren().add(groupRow);
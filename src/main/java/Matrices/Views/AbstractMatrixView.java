@@ -29,8 +29,10 @@ import javafx.util.Callback;
 import javafx.util.Pair;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.Optional;
+import java.util.Set;
 import java.util.Vector;
 import java.util.stream.Collectors;
 
@@ -47,9 +49,11 @@ public abstract class AbstractMatrixView {
     public static final Background ERROR_BACKGROUND = new Background(new BackgroundFill(Color.color(1, 0, 0), new CornerRadii(3), new Insets(0)));
     public static final Background SYMMETRY_ERROR_BACKGROUND = new Background(new BackgroundFill(Color.color(1, .5, .2), new CornerRadii(3), new Insets(0)));
     public static final Background SEARCH_BACKGROUND = new Background(new BackgroundFill(Color.color(0, 1, 1), new CornerRadii(3), new Insets(0)));
+    public static final Background REACHABLE_BACKGROUND = new Background(new BackgroundFill(Color.color(1, .6, .85), new CornerRadii(3), new Insets(0)));
 
     protected AbstractDSMData matrix;
     private final ObservableList<DSMInterfaceType> currentInterfaces = FXCollections.observableArrayList();
+    private BitSet currentInterfacesMask = new BitSet();  // currentInterfaces as a mask in the interface registry of the matrix
 
     protected DoubleProperty fontSize;
     protected ObjectProperty<MatrixViewMode> currentMode;
@@ -300,6 +304,7 @@ public abstract class AbstractMatrixView {
      * @param currentInterfaces  the list of interfaces to show in the cells
      */
     public final void setVisibleInterfaces(ArrayList<DSMInterfaceType> currentInterfaces) {
+        currentInterfacesMask = matrix.getInterfaceRegistry().getMask(currentInterfaces);  // set before the cells update
         this.currentInterfaces.clear();
         this.currentInterfaces.addAll(currentInterfaces);
     }
@@ -381,6 +386,28 @@ public abstract class AbstractMatrixView {
     }
 
 
+    /**
+     * Sets a highlight type for the name and grouping cells of a set of items. Clears that highlight type from every
+     * other cell
+     *
+     * @param uids          the uids of the row and column items to highlight
+     * @param bg            the color to assign to the cells
+     * @param highlightType the highlight type to assign to (see Cell class for types)
+     */
+    public void setItemsHighlight(Set<Integer> uids, Background bg, String highlightType) {
+        for(Cell cell : (Vector<Cell>)cells.clone()) {  // use a clone so we don't run into concurrent modification exceptions
+            Pair<Integer, Integer> cellUids = getUidsFromGridLoc(cell.getGridLocation());
+            boolean isItemCell = cellUids != null && (cellUids.getKey() == null) != (cellUids.getValue() == null);  // only one of row or column is set for item cells
+            if(isItemCell && uids.contains(cellUids.getKey() != null ? cellUids.getKey() : cellUids.getValue())) {
+                cell.updateHighlightBG(bg, highlightType);
+            } else {
+                cell.updateHighlightBG(null, highlightType);
+            }
+            refreshCellHighlight(cell);
+        }
+    }
+
+
     /**
      * Function to remove several different highlight types of all cells by assigning
      * null to that highlight field
@@ -515,10 +542,8 @@ public abstract class AbstractMatrixView {
             return text;
         } else if(currentMode.getValue().equals(MatrixViewMode.EDIT_INTERFACES) || currentMode.getValue().equals(MatrixViewMode.STATIC_INTERFACES)) {
             StringBuilder text = new StringBuilder();
-            for(DSMInterfaceType i : conn.getInterfaces()) {
-                if(currentInterfaces.contains(i)) {
-                    text.append(i.getAbbreviation());
-                }
+            for(DSMInterfaceType i : conn.getInterfaces(currentInterfacesMask)) {
+                text.append(i.getAbbreviation());
             }
             if(text.length() > 3) {  // replace with dots because maintaining grid squareness is very important
                 return "...";
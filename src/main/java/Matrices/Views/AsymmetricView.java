@@ -6,6 +6,7 @@ import Matrices.Data.Entities.DSMConnection;
 import Matrices.Data.Entities.DSMItem;
 import Matrices.Data.Entities.Grouping;
 import Matrices.Data.Entities.RenderMode;
+import Matrices.Data.GridModel;
 import Matrices.Views.Entities.Cell;
 import UI.Widgets.FreezeGrid;
 import UI.Widgets.Misc;
@@ -113,6 +114,10 @@ public class AsymmetricView extends AbstractMatrixView {
             cell.setCellHighlight(cell.getHighlightBG("search"));
             cell.setCellTextColor(Grouping.DEFAULT_FONT_COLOR);
 
+        } else if(cell.getHighlightBG("reachable") != null) {
+            cell.setCellHighlight(cell.getHighlightBG("reachable"));
+            cell.setCellTextColor(Grouping.DEFAULT_FONT_COLOR);
+
         } else if(cell.getHighlightBG("symmetryError") != null) {
             cell.setCellHighlight(cell.getHighlightBG("symmetryError"));
             cell.setCellTextColor(Grouping.DEFAULT_FONT_COLOR);
@@ -149,7 +154,7 @@ public class AsymmetricView extends AbstractMatrixView {
 
 
     /**
-     * Creates the gui that displays a matrix. Uses the AsymmetricDSMData's getGridArray() method to create the grid.
+     * Creates the gui that displays a matrix. Uses the AsymmetricDSMData's getGridModel() method to create the grid.
      * Puts grid in a scroll pane and adds a location label (displays connection row, column) at the bottom of the VBox.
      */
     @Override
@@ -165,11 +170,11 @@ public class AsymmetricView extends AbstractMatrixView {
         Label locationLabel = new Label("");
         FreezeGrid grid = new FreezeGrid();
 
-        ArrayList<ArrayList<Pair<RenderMode, Object>>> template = matrix.getGridArray();
+        GridModel template = matrix.getGridModel();
         ArrayList<ArrayList<HBox>> gridData = new ArrayList<>();
 
-        int rows = template.size();
-        int columns = template.get(0).size();
+        int rows = template.getNumRows();
+        int columns = template.getNumCols();
 
         // create a test item to determine layout width for a vertical item cell to square up the matrix when viewed
         ComboBox<Grouping> _groupings = new ComboBox<>();
@@ -182,21 +187,22 @@ public class AsymmetricView extends AbstractMatrixView {
         for(int r=0; r<rows; r++) {
             ArrayList<HBox> rowData = new ArrayList<>();
             for(int c=0; c<columns; c++) {
-                Pair<RenderMode, Object> item = template.get(r).get(c);
+                RenderMode mode = template.getRenderMode(r, c);
+                Object value = template.getValue(r, c);
                 HBox cell = new HBox();  // wrap everything in an HBox so a border can be added easily
                 Label label = null;
 
                 Background defaultBackground = DEFAULT_BACKGROUND;
 
-                switch (item.getKey()) {
+                switch (mode) {
                     case PLAIN_TEXT -> {
-                        label = new Label((String) item.getValue());
+                        label = new Label((String) value);
                         label.setMinWidth(Region.USE_PREF_SIZE);
                         label.setPadding(new Insets(1));
                         cell.getChildren().add(label);
                     }
                     case PLAIN_TEXT_V -> {
-                        label = new Label((String) item.getValue());
+                        label = new Label((String) value);
                         label.setRotate(-90);
                         cell.setAlignment(Pos.BOTTOM_RIGHT);
                         label.setPadding(new Insets(1));
@@ -207,7 +213,7 @@ public class AsymmetricView extends AbstractMatrixView {
                     }
                     case ITEM_NAME -> {
                         label = new Label();
-                        label.textProperty().bind(((DSMItem) item.getValue()).getName());
+                        label.textProperty().bind(((DSMItem) value).getName());
                         label.setPadding(new Insets(0, 5, 0, 5));
                         cell.setAlignment(Pos.CENTER_RIGHT);
                         label.setMinWidth(Region.USE_PREF_SIZE);
@@ -215,7 +221,7 @@ public class AsymmetricView extends AbstractMatrixView {
                         int finalC = c;
                         cell.setOnMouseClicked(e -> {
                             if (e.getButton().equals(MouseButton.PRIMARY)) {
-                                editItemName(((DSMItem) item.getValue()).getUid());
+                                editItemName(((DSMItem) value).getUid());
                                 grid.resizeColumn(finalC);
                                 grid.updateGrid();
                             }
@@ -223,7 +229,7 @@ public class AsymmetricView extends AbstractMatrixView {
                     }
                     case ITEM_NAME_V -> {
                         label = new Label();
-                        label.textProperty().bind(((DSMItem) item.getValue()).getName());
+                        label.textProperty().bind(((DSMItem) value).getName());
                         label.setPadding(new Insets(0, 5, 0, 5));
                         label.setRotate(-90);
                         cell.setAlignment(Pos.BOTTOM_CENTER);
@@ -234,7 +240,7 @@ public class AsymmetricView extends AbstractMatrixView {
                         int finalR = r;
                         cell.setOnMouseClicked(e -> {
                             if (e.getButton().equals(MouseButton.PRIMARY)) {
-                                editItemName(((DSMItem) item.getValue()).getUid());
+                                editItemName(((DSMItem) value).getUid());
                                 grid.resizeRow(finalR);
                                 grid.updateGrid();
                             }
@@ -253,9 +259,9 @@ public class AsymmetricView extends AbstractMatrixView {
                         groupings.setButtonCell(groupingItemCellFactory.call(null));
 
                         groupings.getItems().addAll(matrix.getGroupings(true));
-                        groupings.getSelectionModel().select(((DSMItem) item.getValue()).getGroup1());
+                        groupings.getSelectionModel().select(((DSMItem) value).getGroup1());
                         groupings.getSelectionModel().selectedItemProperty().addListener((obs, oldVal, newVal) -> {
-                            matrix.setItemGroup((DSMItem) item.getValue(), groupings.getValue());
+                            matrix.setItemGroup((DSMItem) value, groupings.getValue());
                             matrix.setCurrentStateAsCheckpoint();
                             for (Cell c_ : cells) {
                                 refreshCellHighlight(c_);
@@ -276,9 +282,9 @@ public class AsymmetricView extends AbstractMatrixView {
                         groupings.setButtonCell(groupingItemCellFactory.call(null));
 
                         groupings.getItems().addAll(matrix.getGroupings(false));
-                        groupings.getSelectionModel().select(((DSMItem) item.getValue()).getGroup1());
+                        groupings.getSelectionModel().select(((DSMItem) value).getGroup1());
                         groupings.getSelectionModel().selectedItemProperty().addListener((obs, oldVal, newVal) -> {
-                            matrix.setItemGroup((DSMItem) item.getValue(), groupings.getValue());
+                            matrix.setItemGroup((DSMItem) value, groupings.getValue());
                             matrix.setCurrentStateAsCheckpoint();
                             for (Cell c_ : cells) {
                                 refreshCellHighlight(c_);
@@ -290,7 +296,7 @@ public class AsymmetricView extends AbstractMatrixView {
                         cell.getChildren().add(g);
                     }
                     case INDEX_ITEM -> {
-                        NumericTextField entry = new NumericTextField(((DSMItem) item.getValue()).getSortIndex());
+                        NumericTextField entry = new NumericTextField(((DSMItem) value).getSortIndex());
                         entry.setPrefColumnCount(3);  // set size to 3 characters fitting
                         entry.setPadding(new Insets(0));
                         cell.setMaxWidth(Region.USE_COMPUTED_SIZE);
@@ -304,7 +310,7 @@ public class AsymmetricView extends AbstractMatrixView {
                             if (!newVal) {  // if changing to not focused
                                 if (entry.getNumericValue() != null) {
                                     Double newSortIndex = entry.getNumericValue();
-                                    matrix.setItemSortIndex((DSMItem) item.getValue(), newSortIndex);
+                                    matrix.setItemSortIndex((DSMItem) value, newSortIndex);
                                     matrix.setCurrentStateAsCheckpoint();
                                     clearCellHighlight(new Pair<>(finalR, finalC), "errorHighlight");
                                 } else {
@@ -315,8 +321,8 @@ public class AsymmetricView extends AbstractMatrixView {
                         cell.getChildren().add(entry);
                     }
                     case EDITABLE_CONNECTION -> {
-                        int rowUid = ((Pair<DSMItem, DSMItem>) item.getValue()).getKey().getUid();
-                        int colUid = ((Pair<DSMItem, DSMItem>) item.getValue()).getValue().getUid();
+                        int rowUid = template.getRowItem(r).getUid();
+                        int colUid = template.getColItem(c).getUid();
                         label = getEditableConnectionCell(cell, locationLabel, rowUid, colUid, r, c);
                     }
                 }
@@ -369,26 +375,27 @@ public class AsymmetricView extends AbstractMatrixView {
         GridPane grid = new GridPane();
 
         grid.setAlignment(Pos.CENTER);
-        ArrayList<ArrayList<Pair<RenderMode, Object>>> template = matrix.getGridArray();
-        int rows = template.size();
-        int columns = template.get(0).size();
+        GridModel template = matrix.getGridModel();
+        int rows = template.getNumRows();
+        int columns = template.getNumCols();
 
         for(int r=0; r<rows; r++) {
             for(int c=0; c<columns; c++) {
-                Pair<RenderMode, Object> item = template.get(r).get(c);
+                RenderMode mode = template.getRenderMode(r, c);
+                Object value = template.getValue(r, c);
                 HBox cell = new HBox();  // wrap everything in an HBox so a border can be added easily
                 Label label = null;
 
                 Background defaultBackground = DEFAULT_BACKGROUND;
 
-                switch (item.getKey()) {
+                switch (mode) {
                     case PLAIN_TEXT -> {
-                        label = new Label((String) item.getValue());
+                        label = new Label((String) value);
                         label.setMinWidth(Region.USE_PREF_SIZE);
                         cell.getChildren().add(label);
                     }
                     case PLAIN_TEXT_V -> {
-                        label = new Label((String) item.getValue());
+                        label = new Label((String) value);
                         label.setRotate(-90);
                         cell.setAlignment(Pos.BOTTOM_RIGHT);
                         Group g = new Group();  // label will be added to a group so that it will be formatted correctly if it is vertical
@@ -397,14 +404,14 @@ public class AsymmetricView extends AbstractMatrixView {
                         cell.getChildren().add(g);
                     }
                     case ITEM_NAME -> {
-                        label = new Label(((DSMItem) item.getValue()).getName().getValue());
+                        label = new Label(((DSMItem) value).getName().getValue());
                         label.setPadding(new Insets(0, 5, 0, 5));
                         cell.setAlignment(Pos.BOTTOM_RIGHT);
                         label.setMinWidth(Region.USE_PREF_SIZE);
                         cell.getChildren().add(label);
                     }
                     case ITEM_NAME_V -> {
-                        label = new Label(((DSMItem) item.getValue()).getName().getValue());
+                        label = new Label(((DSMItem) value).getName().getValue());
                         label.setPadding(new Insets(0, 5, 0, 5));
                         label.setRotate(-90);
                         cell.setAlignment(Pos.BOTTOM_RIGHT);
@@ -414,13 +421,13 @@ public class AsymmetricView extends AbstractMatrixView {
                         cell.getChildren().add(g);
                     }
                     case GROUPING_ITEM -> {
-                        label = new Label(((DSMItem) item.getValue()).getGroup1().getName());
+                        label = new Label(((DSMItem) value).getGroup1().getName());
                         cell.setAlignment(Pos.BOTTOM_RIGHT);
                         label.setMinWidth(Region.USE_PREF_SIZE);
                         cell.getChildren().add(label);
                     }
                     case GROUPING_ITEM_V -> {
-                        label = new Label(((DSMItem) item.getValue()).getGroup1().getName());
+                        label = new Label(((DSMItem) value).getGroup1().getName());
                         label.setRotate(-90);
                         cell.setAlignment(Pos.BOTTOM_RIGHT);
                         label.setMinWidth(Region.USE_PREF_SIZE);
@@ -429,14 +436,14 @@ public class AsymmetricView extends AbstractMatrixView {
                         cell.getChildren().add(g);
                     }
                     case INDEX_ITEM -> {
-                        label = new Label(String.valueOf(((DSMItem) item.getValue()).getSortIndex()));
+                        label = new Label(String.valueOf(((DSMItem) value).getSortIndex()));
                         cell.setAlignment(Pos.BOTTOM_RIGHT);
                         label.setMinWidth(Region.USE_PREF_SIZE);
                         cell.getChildren().add(label);
                     }
                     case EDITABLE_CONNECTION -> {
-                        int rowUid = ((Pair<DSMItem, DSMItem>) item.getValue()).getKey().getUid();
-                        int colUid = ((Pair<DSMItem, DSMItem>) item.getValue()).getValue().getUid();
+                        int rowUid = template.getRowItem(r).getUid();
+                        int colUid = template.getColItem(c).getUid();
                         DSMConnection conn = matrix.getConnection(rowUid, colUid);
                         label = new Label(getConnectionCellText(conn));
 
@@ -491,11 +498,11 @@ public class AsymmetricView extends AbstractMatrixView {
 
         FreezeGrid grid = new FreezeGrid();
 
-        ArrayList<ArrayList<Pair<RenderMode, Object>>> template = matrix.getGridArray();
+        GridModel template = matrix.getGridModel();
         ArrayList<ArrayList<HBox>> gridData = new ArrayList<>();
 
-        int numRows = template.size();
-        int numCols = template.get(0).size();
+        int numRows = template.getNumRows();
+        int numCols = template.getNumCols();
 
         // set up the scaled font size. Don't use the normal range because if fast render is on matrices will likely
         // be very large and a smaller font size is needed to view them
@@ -562,19 +569,20 @@ public class AsymmetricView extends AbstractMatrixView {
         for(int r=0; r<numRows; r++) {
             ArrayList<HBox> rowData = new ArrayList<>();
             for(int c=0; c<numCols; c++) {
-                Pair<RenderMode, Object> item = template.get(r).get(c);
+                RenderMode mode = template.getRenderMode(r, c);
+                Object value = template.getValue(r, c);
                 HBox cell = new HBox();  // wrap everything in an HBox so a border can be added easily
                 Label label = null;
 
-                switch (item.getKey()) {
+                switch (mode) {
                     case PLAIN_TEXT -> {
-                        label = new Label((String) item.getValue());
+                        label = new Label((String) value);
                         label.setMinWidth(Region.USE_PREF_SIZE);
                         label.setPadding(new Insets(1));
                         cell.getChildren().add(label);
                     }
                     case PLAIN_TEXT_V -> {
-                        label = new Label((String) item.getValue());
+                        label = new Label((String) value);
                         label.setRotate(-90);
                         label.setPadding(new Insets(1));
                         cell.setAlignment(Pos.BOTTOM_RIGHT);
@@ -586,14 +594,14 @@ public class AsymmetricView extends AbstractMatrixView {
                     case ITEM_NAME -> {
                         label = new Label();
                         label.setPadding(new Insets(0, 5, 0, 5));
-                        label.textProperty().bind(((DSMItem) item.getValue()).getName());
+                        label.textProperty().bind(((DSMItem) value).getName());
                         label.setMinWidth(Region.USE_PREF_SIZE);
                         cell.setAlignment(Pos.CENTER_RIGHT);
                         cell.getChildren().add(label);
                     }
                     case ITEM_NAME_V -> {
                         label = new Label();
-                        label.textProperty().bind(((DSMItem) item.getValue()).getName());
+                        label.textProperty().bind(((DSMItem) value).getName());
                         label.setPadding(new Insets(0, 5, 0, 5));
                         label.setRotate(-90);
                         cell.setAlignment(Pos.BOTTOM_CENTER);
@@ -609,7 +617,7 @@ public class AsymmetricView extends AbstractMatrixView {
                         cell.setPrefWidth(cellSize);
                     }
                     case GROUPING_ITEM -> {  // dropdown box for choosing group
-                        Grouping group = ((DSMItem) item.getValue()).getGroup1();
+                        Grouping group = ((DSMItem) value).getGroup1();
                         label = new Label(group.getName());
                         label.setPadding(new Insets(0, 5, 0, 5));
                         label.setTextFill(group.getFontColor());
@@ -618,7 +626,7 @@ public class AsymmetricView extends AbstractMatrixView {
                         cell.getChildren().add(label);
                     }
                     case GROUPING_ITEM_V -> {  // dropdown box for choosing group
-                        Grouping group = ((DSMItem) item.getValue()).getGroup1();
+                        Grouping group = ((DSMItem) value).getGroup1();
                         label = new Label(group.getName());
                         label.setRotate(-90);
                         label.setPadding(new Insets(0, 5, 0, 5));
@@ -634,8 +642,8 @@ public class AsymmetricView extends AbstractMatrixView {
                         cell.setPrefWidth(cellSize);
                     }
                     case INDEX_ITEM -> {
-                        Grouping group = ((DSMItem) item.getValue()).getGroup1();
-                        label = new Label(String.valueOf(((DSMItem) item.getValue()).getSortIndex()));
+                        Grouping group = ((DSMItem) value).getGroup1();
+                        label = new Label(String.valueOf(((DSMItem) value).getSortIndex()));
                         label.setPadding(new Insets(0, 5, 0, 5));
                         label.setTextFill(group.getFontColor());
                         label.setMinWidth(Region.USE_PREF_SIZE);
@@ -648,8 +656,8 @@ public class AsymmetricView extends AbstractMatrixView {
                             connectionsCol = c;
                         }
 
-                        int rowUid = ((Pair<DSMItem, DSMItem>) item.getValue()).getKey().getUid();
-                        int colUid = ((Pair<DSMItem, DSMItem>) item.getValue()).getValue().getUid();
+                        int rowUid = template.getRowItem(r).getUid();
+                        int colUid = template.getColItem(c).getUid();
                         DSMConnection conn = matrix.getConnection(rowUid, colUid);
                         if(conn != null) {  // only add connections that exist
                             Color color = Color.BLACK;  // default to black
@@ -32,6 +32,7 @@ public class Cell {
         put("error", null);
         put("symmetryError", null);
         put("search", null);
+        put("reachable", null);
     }};
 
 
@@ -144,6 +145,7 @@ public class Cell {
             case "error" -> highlightBGs.get("error");
             case "symmetryError" -> highlightBGs.get("symmetryError");
             case "search" -> highlightBGs.get("search");
+            case "reachable" -> highlightBGs.get("reachable");
             default -> null;
         };
 
@@ -163,6 +165,7 @@ public class Cell {
             case "error" -> highlightBGs.put("error", bg);
             case "symmetryError" -> highlightBGs.put("symmetryError", bg);
             case "search" -> highlightBGs.put("search", bg);
+            case "reachable" -> highlightBGs.put("reachable", bg);
         }
     }
 
@@ -5,6 +5,7 @@ import Matrices.Data.Entities.DSMConnection;
 import Matrices.Data.Entities.DSMItem;
 import Matrices.Data.Entities.Grouping;
 import Matrices.Data.Entities.RenderMode;
+import Matrices.Data.GridModel;
 import Matrices.Data.MultiDomainDSMData;
 import Matrices.Views.Entities.Cell;
 import Matrices.Views.Flags.ISymmetricHighlight;
@@ -113,6 +114,10 @@ public class MultiDomainView extends AbstractMatrixView implements ISymmetricHig
             cell.setCellHighlight(cell.getHighlightBG("search"));
             cell.setCellTextColor(Grouping.DEFAULT_FONT_COLOR);
 
+        } else if(cell.getHighlightBG("reachable") != null) {
+            cell.setCellHighlight(cell.getHighlightBG("reachable"));
+            cell.setCellTextColor(Grouping.DEFAULT_FONT_COLOR);
+
         } else if(cell.getHighlightBG("symmetryError") != null) {
             cell.setCellHighlight(cell.getHighlightBG("symmetryError"));
             cell.setCellTextColor(Grouping.DEFAULT_FONT_COLOR);
@@ -252,7 +257,7 @@ public class MultiDomainView extends AbstractMatrixView implements ISymmetricHig
 
 
     /**
-     * Creates the gui that displays a matrix with an editable view. Uses the SymmetricDSMData's getGridArray() method
+     * Creates the gui that displays a matrix with an editable view. Uses the SymmetricDSMData's getGridModel() method
      * to create the grid. Adds a location label (displays connection row, column)
      * at the bottom of the VBox.
      */
@@ -269,10 +274,10 @@ public class MultiDomainView extends AbstractMatrixView implements ISymmetricHig
         Label locationLabel = new Label("");
         FreezeGrid grid = new FreezeGrid();
 
-        ArrayList<ArrayList<Pair<RenderMode, Object>>> template = matrix.getGridArray();
+        GridModel template = matrix.getGridModel();
         ArrayList<ArrayList<HBox>> gridData = new ArrayList<>();
-        int rows = template.size();
-        int columns = template.get(0).size();
+        int rows = template.getNumRows();
+        int columns = template.getNumCols();
 
 
         // create a test item to determine layout width for a vertical item cell to square up the matrix when viewed
@@ -301,21 +306,22 @@ public class MultiDomainView extends AbstractMatrixView implements ISymmetricHig
         for(int r=0; r<rows; r++) {
             ArrayList<HBox> rowData = new ArrayList<>();
             for(int c=0; c<columns; c++) {
-                Pair<RenderMode, Object> item = template.get(r).get(c);
+                RenderMode mode = template.getRenderMode(r, c);
+                Object value = template.getValue(r, c);
                 HBox cell = new HBox();  // wrap everything in an HBox so a border can be added easily
                 Label label = null;
 
                 Background defaultBackground = DEFAULT_BACKGROUND;
 
-                switch (item.getKey()) {
+                switch (mode) {
                     case PLAIN_TEXT -> {
-                        label = new Label((String) item.getValue());
+                        label = new Label((String) value);
                         label.setMinWidth(Region.USE_PREF_SIZE);
                         label.setPadding(new Insets(1));
                         cell.getChildren().add(label);
                     }
                     case PLAIN_TEXT_V -> {
-                        label = new Label((String) item.getValue());
+                        label = new Label((String) value);
                         label.setRotate(-90);
                         label.setPadding(new Insets(1));
                         cell.setAlignment(Pos.BOTTOM_RIGHT);
@@ -325,7 +331,7 @@ public class MultiDomainView extends AbstractMatrixView implements ISymmetricHig
                         cell.getChildren().add(g);
                     }
                     case MULTI_SPAN_DOMAIN_TEXT -> {
-                        Triplet<Grouping, Integer, Integer> data = (Triplet<Grouping, Integer, Integer>) item.getValue();
+                        Triplet<Grouping, Integer, Integer> data = (Triplet<Grouping, Integer, Integer>) value;
                         label = new Label(data.getValue0().getName());
                         label.setMinWidth(Region.USE_PREF_SIZE);
                         label.setPadding(new Insets(1, 5, 1, 5));
@@ -339,14 +345,14 @@ public class MultiDomainView extends AbstractMatrixView implements ISymmetricHig
                     case ITEM_NAME -> {
                         label = new Label();
                         label.setPadding(new Insets(0, 5, 0, 5));
-                        label.textProperty().bind(((DSMItem) item.getValue()).getName());
+                        label.textProperty().bind(((DSMItem) value).getName());
                         cell.setAlignment(Pos.CENTER_RIGHT);
                         label.setMinWidth(Region.USE_PREF_SIZE);
                         cell.getChildren().add(label);
                         int finalC = c;
                         cell.setOnMouseClicked(e -> {
                             if (e.getButton().equals(MouseButton.PRIMARY)) {
-                                editItemName(((DSMItem) item.getValue()).getUid());
+                                editItemName(((DSMItem) value).getUid());
                                 grid.resizeColumn(finalC);
                                 grid.resizeRow(0);  // 0 is first row which contains the vertical names (this is cheating)
                             }
@@ -354,7 +360,7 @@ public class MultiDomainView extends AbstractMatrixView implements ISymmetricHig
                     }
                     case ITEM_NAME_V -> {
                         label = new Label();
-                        label.textProperty().bind(((DSMItem) item.getValue()).getName());
+                        label.textProperty().bind(((DSMItem) value).getName());
                         label.setPadding(new Insets(0, 5, 0, 5));
                         label.setRotate(-90);
                         cell.setAlignment(Pos.BOTTOM_CENTER);
@@ -365,7 +371,7 @@ public class MultiDomainView extends AbstractMatrixView implements ISymmetricHig
                         int finalR = r;
                         cell.setOnMouseClicked(e -> {
                             if (e.getButton().equals(MouseButton.PRIMARY)) {
-                                editItemName(((DSMItem) item.getValue()).getUid());
+                                editItemName(((DSMItem) value).getUid());
                                 grid.resizeRow(finalR);
                                 grid.resizeColumn(1);  // 1 is first column which contains the horizontal names (this is cheating)
                             }
@@ -374,7 +380,7 @@ public class MultiDomainView extends AbstractMatrixView implements ISymmetricHig
                                                       // explicitly set due to how the freeze grid is set up)
                     }
                     case GROUPING_ITEM -> {  // dropdown box for choosing group
-                        DSMItem matrixItem = ((DSMItem) item.getValue());
+                        DSMItem matrixItem = ((DSMItem) value);
                         ComboBox<Grouping> groupings = new ComboBox<>();
                         groupings.setMinWidth(groupingWidth);
                         groupings.setPadding(new Insets(0));
@@ -397,7 +403,7 @@ public class MultiDomainView extends AbstractMatrixView implements ISymmetricHig
                         cell.getChildren().add(groupings);
                     }
                     case INDEX_ITEM -> {
-                        NumericTextField entry = new NumericTextField(((DSMItem) item.getValue()).getSortIndex());
+                        NumericTextField entry = new NumericTextField(((DSMItem) value).getSortIndex());
                         entry.setPrefColumnCount(3);  // set size to 3 characters fitting
                         entry.setPadding(new Insets(0));
                         cell.setMaxWidth(Region.USE_COMPUTED_SIZE);
@@ -413,7 +419,7 @@ public class MultiDomainView extends AbstractMatrixView implements ISymmetricHig
                             if (!newVal) {  // if changing to not focused
                                 if (entry.getNumericValue() != null) {
                                     Double newSortIndex = entry.getNumericValue();
-                                    matrix.setItemSortIndex((DSMItem) item.getValue(), newSortIndex);
+                                    matrix.setItemSortIndex((DSMItem) value, newSortIndex);
                                     matrix.setCurrentStateAsCheckpoint();
                                     clearCellHighlight(new Pair<>(finalR, finalC), "errorHighlight");
                                 } else {
@@ -425,8 +431,8 @@ public class MultiDomainView extends AbstractMatrixView implements ISymmetricHig
                     }
                     case UNEDITABLE_CONNECTION -> defaultBackground = UNEDITABLE_CONNECTION_BACKGROUND;
                     case EDITABLE_CONNECTION -> {
-                        int rowUid = ((Pair<DSMItem, DSMItem>) item.getValue()).getKey().getUid();
-                        int colUid = ((Pair<DSMItem, DSMItem>) item.getValue()).getValue().getUid();
+                        int rowUid = template.getRowItem(r).getUid();
+                        int colUid = template.getColItem(c).getUid();
                         label = getEditableConnectionCell(cell, locationLabel, rowUid, colUid, r, c);
                         int finalR = r;
                         int finalC = c;
@@ -478,7 +484,7 @@ public class MultiDomainView extends AbstractMatrixView implements ISymmetricHig
 
 
     /**
-     * Creates the guid that displays a matrix in a static read only view. Uses the SymmetricDSMData's getGridArray() method
+     * Creates the guid that displays a matrix in a static read only view. Uses the SymmetricDSMData's getGridModel() method
      * to create the grid.
      */
     @Override
@@ -498,28 +504,29 @@ public class MultiDomainView extends AbstractMatrixView implements ISymmetricHig
         GridPane grid = new GridPane();
 
         grid.setAlignment(Pos.CENTER);
-        ArrayList<ArrayList<Pair<RenderMode, Object>>> template = matrix.getGridArray();
-        int rows = template.size();
-        int columns = template.get(0).size();
+        GridModel template = matrix.getGridModel();
+        int rows = template.getNumRows();
+        int columns = template.getNumCols();
 
         for(int r=0; r<rows; r++) {
             for(int c=0; c<columns; c++) {
-                Pair<RenderMode, Object> item = template.get(r).get(c);
+                RenderMode mode = template.getRenderMode(r, c);
+                Object value = template.getValue(r, c);
                 HBox cell = null;  // wrap everything in an HBox so a border can be added easily
                 Label label = null;
 
                 Background defaultBackground = DEFAULT_BACKGROUND;
 
-                switch (item.getKey()) {
+                switch (mode) {
                     case PLAIN_TEXT -> {
                         cell = new HBox();
-                        label = new Label((String) item.getValue());
+                        label = new Label((String) value);
                         label.setMinWidth(Region.USE_PREF_SIZE);
                         cell.getChildren().add(label);
                     }
                     case PLAIN_TEXT_V -> {
                         cell = new HBox();
-                        label = new Label((String) item.getValue());
+                        label = new Label((String) value);
                         label.setRotate(-90);
                         cell.setAlignment(Pos.BOTTOM_RIGHT);
                         Group g = new Group();  // label will be added to a group so that it will be formatted correctly if it is vertical
@@ -529,7 +536,7 @@ public class MultiDomainView extends AbstractMatrixView implements ISymmetricHig
                     }
                     case MULTI_SPAN_DOMAIN_TEXT -> {
                         cell = new HBox();
-                        Triplet<Grouping, Integer, Integer> data = (Triplet<Grouping, Integer, Integer>) item.getValue();
+                        Triplet<Grouping, Integer, Integer> data = (Triplet<Grouping, Integer, Integer>) value;
                         label = new Label(data.getValue0().getName());
                         cell.setAlignment(Pos.CENTER);
                         cell.getChildren().add(label);
@@ -540,7 +547,7 @@ public class MultiDomainView extends AbstractMatrixView implements ISymmetricHig
                     }
                     case ITEM_NAME -> {
                         cell = new HBox();
-                        label = new Label(((DSMItem) item.getValue()).getName().getValue());
+                        label = new Label(((DSMItem) value).getName().getValue());
                         label.setPadding(new Insets(0, 5, 0, 5));
                         cell.setAlignment(Pos.BOTTOM_RIGHT);
                         label.setMinWidth(Region.USE_PREF_SIZE);
@@ -548,7 +555,7 @@ public class MultiDomainView extends AbstractMatrixView implements ISymmetricHig
                     }
                     case ITEM_NAME_V -> {
                         cell = new HBox();
-                        label = new Label(((DSMItem) item.getValue()).getName().getValue());
+                        label = new Label(((DSMItem) value).getName().getValue());
                         label.setPadding(new Insets(0, 5, 0, 5));
                         label.setRotate(-90);
                         cell.setAlignment(Pos.BOTTOM_RIGHT);
@@ -559,14 +566,14 @@ public class MultiDomainView extends AbstractMatrixView implements ISymmetricHig
                     }
                     case GROUPING_ITEM -> {
                         cell = new HBox();
-                        label = new Label(((DSMItem) item.getValue()).getGroup1().getName());
+                        label = new Label(((DSMItem) value).getGroup1().getName());
                         cell.setAlignment(Pos.BOTTOM_RIGHT);
                         label.setMinWidth(Region.USE_PREF_SIZE);
                         cell.getChildren().add(label);
                     }
                     case INDEX_ITEM -> {
                         cell = new HBox();
-                        label = new Label(String.valueOf(((DSMItem) item.getValue()).getSortIndex()));
+                        label = new Label(String.valueOf(((DSMItem) value).getSortIndex()));
                         cell.setAlignment(Pos.BOTTOM_RIGHT);
                         label.setMinWidth(Region.USE_PREF_SIZE);
                         cell.getChildren().add(label);
@@ -577,8 +584,8 @@ public class MultiDomainView extends AbstractMatrixView implements ISymmetricHig
                     }
                     case EDITABLE_CONNECTION -> {
                         cell = new HBox();
-                        int rowUid = ((Pair<DSMItem, DSMItem>) item.getValue()).getKey().getUid();
-                        int colUid = ((Pair<DSMItem, DSMItem>) item.getValue()).getValue().getUid();
+                        int rowUid = template.getRowItem(r).getUid();
+                        int colUid = template.getColItem(c).getUid();
                         DSMConnection conn = matrix.getConnection(rowUid, colUid);
                         label = new Label(getConnectionCellText(conn));
 
@@ -635,11 +642,11 @@ public class MultiDomainView extends AbstractMatrixView implements ISymmetricHig
 
         FreezeGrid grid = new FreezeGrid();
 
-        ArrayList<ArrayList<Pair<RenderMode, Object>>> template = matrix.getGridArray();
+        GridModel template = matrix.getGridModel();
         ArrayList<ArrayList<HBox>> gridData = new ArrayList<>();
 
-        int numRows = template.size();
-        int numCols = template.get(0).size();
+        int numRows = template.getNumRows();
+        int numCols = template.getNumCols();
 
         // set up the scaled font size. Don't use the normal range because if fast render is on matrices will likely
         // be very large and a smaller font size is needed to view them
@@ -715,21 +722,22 @@ public class MultiDomainView extends AbstractMatrixView implements ISymmetricHig
         for(int r=0; r<numRows; r++) {
             ArrayList<HBox> rowData = new ArrayList<>();
             for(int c=0; c<numCols; c++) {
-                Pair<RenderMode, Object> item = template.get(r).get(c);
+                RenderMode mode = template.getRenderMode(r, c);
+                Object value = template.getValue(r, c);
                 HBox cell = new HBox();  // wrap everything in an HBox so a border can be added easily
                 Label label = null;
 
                 Background defaultBackground = DEFAULT_BACKGROUND;
 
-                switch (item.getKey()) {
+                switch (mode) {
                     case PLAIN_TEXT -> {
-                        label = new Label((String) item.getValue());
+                        label = new Label((String) value);
                         label.setMinWidth(Region.USE_PREF_SIZE);
                         label.setPadding(new Insets(1));
                         cell.getChildren().add(label);
                     }
                     case PLAIN_TEXT_V -> {
-                        label = new Label((String) item.getValue());
+                        label = new Label((String) value);
                         label.setRotate(-90);
                         label.setPadding(new Insets(1));
                         cell.setAlignment(Pos.BOTTOM_RIGHT);
@@ -739,7 +747,7 @@ public class MultiDomainView extends AbstractMatrixView implements ISymmetricHig
                         cell.getChildren().add(g);
                     }
                     case MULTI_SPAN_DOMAIN_TEXT -> {
-                        Triplet<Grouping, Integer, Integer> data = (Triplet<Grouping, Integer, Integer>) item.getValue();
+                        Triplet<Grouping, Integer, Integer> data = (Triplet<Grouping, Integer, Integer>) value;
                         label = new Label(data.getValue0().getName());
                         label.setMinWidth(Region.USE_PREF_SIZE);
                         label.setPadding(new Insets(1, 5, 1, 5));
@@ -753,14 +761,14 @@ public class MultiDomainView extends AbstractMatrixView implements ISymmetricHig
                     case ITEM_NAME -> {
                         label = new Label();
                         label.setPadding(new Insets(0, 5, 0, 5));
-                        label.textProperty().bind(((DSMItem) item.getValue()).getName());
+                        label.textProperty().bind(((DSMItem) value).getName());
                         label.setMinWidth(Region.USE_PREF_SIZE);
                         cell.setAlignment(Pos.CENTER_RIGHT);
                         cell.getChildren().add(label);
                     }
                     case ITEM_NAME_V -> {
                         label = new Label();
-                        label.textProperty().bind(((DSMItem) item.getValue()).getName());
+                        label.textProperty().bind(((DSMItem) value).getName());
                         label.setPadding(new Insets(0, 5, 0, 5));
                         label.setRotate(-90);
                         cell.setAlignment(Pos.BOTTOM_CENTER);
@@ -776,7 +784,7 @@ public class MultiDomainView extends AbstractMatrixView implements ISymmetricHig
                         cell.setPrefWidth(cellSize);
                     }
                     case GROUPING_ITEM -> {  // dropdown box for choosing group
-                        Grouping group = ((DSMItem) item.getValue()).getGroup1();
+                        Grouping group = ((DSMItem) value).getGroup1();
                         label = new Label(group.getName());
                         label.setPadding(new Insets(0, 5, 0, 5));
                         label.setTextFill(group.getFontColor());
@@ -785,8 +793,8 @@ public class MultiDomainView extends AbstractMatrixView implements ISymmetricHig
                         cell.getChildren().add(label);
                     }
                     case INDEX_ITEM -> {
-                        Grouping group = ((DSMItem) item.getValue()).getGroup1();
-                        label = new Label(String.valueOf(((DSMItem) item.getValue()).getSortIndex()));
+                        Grouping group = ((DSMItem) value).getGroup1();
+                        label = new Label(String.valueOf(((DSMItem) value).getSortIndex()));
                         label.setPadding(new Insets(0, 5, 0, 5));
                         label.setTextFill(group.getFontColor());
                         label.setMinWidth(Region.USE_PREF_SIZE);
@@ -802,8 +810,8 @@ public class MultiDomainView extends AbstractMatrixView implements ISymmetricHig
                         }
                     }
                     case EDITABLE_CONNECTION -> {
-                        int rowUid = ((Pair<DSMItem, DSMItem>) item.getValue()).getKey().getUid();
-                        int colUid = ((Pair<DSMItem, DSMItem>) item.getValue()).getValue().getUid();
+                        int rowUid = template.getRowItem(r).getUid();
+                        int colUid = template.getColItem(c).getUid();
                         DSMConnection conn = matrix.getConnection(rowUid, colUid);
                         if(conn != null) {  // only add connections that exist
                             Color color = Color.BLACK;  // default to black
@@ -5,6 +5,7 @@ import Matrices.Data.Entities.DSMConnection;
 import Matrices.Data.Entities.DSMItem;
 import Matrices.Data.Entities.Grouping;
 import Matrices.Data.Entities.RenderMode;
+import Matrices.Data.GridModel;
 import Matrices.Data.SymmetricDSMData;
 import Matrices.Views.Entities.Cell;
 import Matrices.Views.Flags.ISymmetricHighlight;
@@ -109,6 +110,10 @@ public class SymmetricView extends AbstractMatrixView implements ISymmetricHighl
             cell.setCellHighlight(cell.getHighlightBG("search"));
             cell.setCellTextColor(Grouping.DEFAULT_FONT_COLOR);
 
+        } else if(cell.getHighlightBG("reachable") != null) {
+            cell.setCellHighlight(cell.getHighlightBG("reachable"));
+            cell.setCellTextColor(Grouping.DEFAULT_FONT_COLOR);
+
         } else if(cell.getHighlightBG("symmetryError") != null) {
             cell.setCellHighlight(cell.getHighlightBG("symmetryError"));
             cell.setCellTextColor(Grouping.DEFAULT_FONT_COLOR);
@@ -239,7 +244,7 @@ public class SymmetricView extends AbstractMatrixView implements ISymmetricHighl
 
 
     /**
-     * Creates the gui that displays a matrix with an editable view. Uses the SymmetricDSMData's getGridArray() method
+     * Creates the gui that displays a matrix with an editable view. Uses the SymmetricDSMData's getGridModel() method
      * to create the grid. Adds a location label (displays connection row, column)
      * at the bottom of the VBox.
      */
@@ -256,11 +261,11 @@ public class SymmetricView extends AbstractMatrixView implements ISymmetricHighl
         Label locationLabel = new Label("");
         FreezeGrid grid = new FreezeGrid();
 
-        ArrayList<ArrayList<Pair<RenderMode, Object>>> template = matrix.getGridArray();
+        GridModel template = matrix.getGridModel();
         ArrayList<ArrayList<HBox>> gridData = new ArrayList<>();
 
-        int rows = template.size();
-        int columns = template.get(0).size();
+        int rows = template.getNumRows();
+        int columns = template.getNumCols();
 
         // create a test item to determine layout width for a vertical item cell to square up the matrix when viewed
         ComboBox<Grouping> _groupings = new ComboBox<>();
@@ -273,21 +278,22 @@ public class SymmetricView extends AbstractMatrixView implements ISymmetricHighl
         for(int r=0; r<rows; r++) {
             ArrayList<HBox> rowData = new ArrayList<>();
             for(int c=0; c<columns; c++) {
-                Pair<RenderMode, Object> item = template.get(r).get(c);
+                RenderMode mode = template.getRenderMode(r, c);
+                Object value = template.getValue(r, c);
                 final HBox cell = new HBox();  // wrap everything in an HBox so a border can be added easily
                 Label label = null;
 
                 Background defaultBackground = DEFAULT_BACKGROUND;
 
-                switch (item.getKey()) {
+                switch (mode) {
                     case PLAIN_TEXT -> {
-                        label = new Label((String) item.getValue());
+                        label = new Label((String) value);
                         label.setMinWidth(Region.USE_PREF_SIZE);
                         label.setPadding(new Insets(1));
                         cell.getChildren().add(label);
                     }
                     case PLAIN_TEXT_V -> {
-                        label = new Label((String) item.getValue());
+                        label = new Label((String) value);
                         label.setRotate(-90);
                         label.setPadding(new Insets(1));
                         cell.setAlignment(Pos.BOTTOM_RIGHT);
@@ -299,14 +305,14 @@ public class SymmetricView extends AbstractMatrixView implements ISymmetricHighl
                     case ITEM_NAME -> {
                         label = new Label();
                         label.setPadding(new Insets(0, 5, 0, 5));
-                        label.textProperty().bind(((DSMItem) item.getValue()).getName());
+                        label.textProperty().bind(((DSMItem) value).getName());
                         cell.setAlignment(Pos.CENTER_RIGHT);
                         label.setMinWidth(Region.USE_PREF_SIZE);
                         cell.getChildren().add(label);
                         int finalC = c;
                         cell.setOnMouseClicked(e -> {
                             if (e.getButton().equals(MouseButton.PRIMARY)) {
-                                editItemName(((DSMItem) item.getValue()).getUid());
+                                editItemName(((DSMItem) value).getUid());
                                 grid.resizeColumn(finalC);
                                 grid.resizeRow(0);  // 0 is first row which contains the vertical names (this is cheating)
                             }
@@ -314,7 +320,7 @@ public class SymmetricView extends AbstractMatrixView implements ISymmetricHighl
                     }
                     case ITEM_NAME_V -> {
                         label = new Label();
-                        label.textProperty().bind(((DSMItem) item.getValue()).getName());
+                        label.textProperty().bind(((DSMItem) value).getName());
                         label.setPadding(new Insets(0, 5, 0, 5));
                         label.setRotate(-90);
                         cell.setAlignment(Pos.BOTTOM_CENTER);
@@ -325,7 +331,7 @@ public class SymmetricView extends AbstractMatrixView implements ISymmetricHighl
                         int finalR = r;
                         cell.setOnMouseClicked(e -> {
                             if (e.getButton().equals(MouseButton.PRIMARY)) {
-                                editItemName(((DSMItem) item.getValue()).getUid());
+                                editItemName(((DSMItem) value).getUid());
                                 grid.resizeRow(finalR);
                                 grid.resizeColumn(1);  // 1 is first column which contains the horizontal names (this is cheating)
                             }
@@ -344,9 +350,9 @@ public class SymmetricView extends AbstractMatrixView implements ISymmetricHighl
                         groupings.setButtonCell(groupingItemCellFactory.call(null));
 
                         groupings.getItems().addAll(matrix.getGroupings());
-                        groupings.getSelectionModel().select(((DSMItem) item.getValue()).getGroup1());
+                        groupings.getSelectionModel().select(((DSMItem) value).getGroup1());
                         groupings.getSelectionModel().selectedItemProperty().addListener((obs, oldVal, newVal) -> {
-                            matrix.setItemGroup((DSMItem) item.getValue(), groupings.getValue());
+                            matrix.setItemGroup((DSMItem) value, groupings.getValue());
                             matrix.setCurrentStateAsCheckpoint();
                             for (Cell c_ : cells) {
                                 refreshCellHighlight(c_);
@@ -356,7 +362,7 @@ public class SymmetricView extends AbstractMatrixView implements ISymmetricHighl
                         cell.getChildren().add(groupings);
                     }
                     case INDEX_ITEM -> {
-                        NumericTextField entry = new NumericTextField(((DSMItem) item.getValue()).getSortIndex());
+                        NumericTextField entry = new NumericTextField(((DSMItem) value).getSortIndex());
                         entry.setPrefColumnCount(3);  // set size to 3 characters fitting
                         entry.setPadding(new Insets(0));
                         cell.setMaxWidth(Region.USE_COMPUTED_SIZE);
@@ -371,7 +377,7 @@ public class SymmetricView extends AbstractMatrixView implements ISymmetricHighl
                             if (!newVal) {  // if changing to not focused
                                 if (entry.getNumericValue() != null) {
                                     Double newSortIndex = entry.getNumericValue();
-                                    matrix.setItemSortIndex((DSMItem) item.getValue(), newSortIndex);
+                                    matrix.setItemSortIndex((DSMItem) value, newSortIndex);
                                     matrix.setCurrentStateAsCheckpoint();
                                     clearCellHighlight(new Pair<>(finalR, finalC), "errorHighlight");
                                 } else {
@@ -383,8 +389,8 @@ public class SymmetricView extends AbstractMatrixView implements ISymmetricHighl
                     }
                     case UNEDITABLE_CONNECTION -> defaultBackground = UNEDITABLE_CONNECTION_BACKGROUND;
                     case EDITABLE_CONNECTION -> {
-                        int rowUid = ((Pair<DSMItem, DSMItem>) item.getValue()).getKey().getUid();
-                        int colUid = ((Pair<DSMItem, DSMItem>) item.getValue()).getValue().getUid();
+                        int rowUid = template.getRowItem(r).getUid();
+                        int colUid = template.getColItem(c).getUid();
                         label = getEditableConnectionCell(cell, locationLabel, rowUid, colUid, r, c);
                         int finalR = r;
                         int finalC = c;
@@ -430,7 +436,7 @@ public class SymmetricView extends AbstractMatrixView implements ISymmetricHighl
 
 
     /**
-     * Creates the guid that displays a matrix in a static read only view. Uses the SymmetricDSMData's getGridArray() method
+     * Creates the guid that displays a matrix in a static read only view. Uses the SymmetricDSMData's getGridModel() method
      * to create the grid.
      */
     @Override
@@ -450,26 +456,27 @@ public class SymmetricView extends AbstractMatrixView implements ISymmetricHighl
         GridPane grid = new GridPane();
 
         grid.setAlignment(Pos.CENTER);
-        ArrayList<ArrayList<Pair<RenderMode, Object>>> template = matrix.getGridArray();
-        int rows = template.size();
-        int columns = template.get(0).size();
+        GridModel template = matrix.getGridModel();
+        int rows = template.getNumRows();
+        int columns = template.getNumCols();
 
         for(int r=0; r<rows; r++) {
             for(int c=0; c<columns; c++) {
-                Pair<RenderMode, Object> item = template.get(r).get(c);
+                RenderMode mode = template.getRenderMode(r, c);
+                Object value = template.getValue(r, c);
                 HBox cell = new HBox();  // wrap everything in an HBox so a border can be added easily
                 Label label = null;
 
                 Background defaultBackground = DEFAULT_BACKGROUND;
 
-                switch (item.getKey()) {
+                switch (mode) {
                     case PLAIN_TEXT -> {
-                        label = new Label((String) item.getValue());
+                        label = new Label((String) value);
                         label.setMinWidth(Region.USE_PREF_SIZE);
                         cell.getChildren().add(label);
                     }
                     case PLAIN_TEXT_V -> {
-                        label = new Label((String) item.getValue());
+                        label = new Label((String) value);
                         label.setRotate(-90);
                         cell.setAlignment(Pos.BOTTOM_RIGHT);
                         Group g = new Group();  // label will be added to a group so that it will be formatted correctly if it is vertical
@@ -478,14 +485,14 @@ public class SymmetricView extends AbstractMatrixView implements ISymmetricHighl
                         cell.getChildren().add(g);
                     }
                     case ITEM_NAME -> {
-                        label = new Label(((DSMItem) item.getValue()).getName().getValue());
+                        label = new Label(((DSMItem) value).getName().getValue());
                         label.setPadding(new Insets(0, 5, 0, 5));
                         cell.setAlignment(Pos.BOTTOM_RIGHT);
                         label.setMinWidth(Region.USE_PREF_SIZE);
                         cell.getChildren().add(label);
                     }
                     case ITEM_NAME_V -> {
-                        label = new Label(((DSMItem) item.getValue()).getName().getValue());
+                        label = new Label(((DSMItem) value).getName().getValue());
                         label.setPadding(new Insets(0, 5, 0, 5));
                         label.setRotate(-90);
                         cell.setAlignment(Pos.BOTTOM_RIGHT);
@@ -495,21 +502,21 @@ public class SymmetricView extends AbstractMatrixView implements ISymmetricHighl
                         cell.getChildren().add(g);
                     }
                     case GROUPING_ITEM -> {
-                        label = new Label(((DSMItem) item.getValue()).getGroup1().getName());
+                        label = new Label(((DSMItem) value).getGroup1().getName());
                         cell.setAlignment(Pos.BOTTOM_RIGHT);
                         label.setMinWidth(Region.USE_PREF_SIZE);
                         cell.getChildren().add(label);
                     }
                     case INDEX_ITEM -> {
-                        label = new Label(String.valueOf(((DSMItem) item.getValue()).getSortIndex()));
+                        label = new Label(String.valueOf(((DSMItem) value).getSortIndex()));
                         cell.setAlignment(Pos.BOTTOM_RIGHT);
                         label.setMinWidth(Region.USE_PREF_SIZE);
                         cell.getChildren().add(label);
                     }
                     case UNEDITABLE_CONNECTION -> defaultBackground = UNEDITABLE_CONNECTION_BACKGROUND;
                     case EDITABLE_CONNECTION -> {
-                        int rowUid = ((Pair<DSMItem, DSMItem>) item.getValue()).getKey().getUid();
-                        int colUid = ((Pair<DSMItem, DSMItem>) item.getValue()).getValue().getUid();
+                        int rowUid = template.getRowItem(r).getUid();
+                        int colUid = template.getColItem(c).getUid();
                         DSMConnection conn = matrix.getConnection(rowUid, colUid);
                         label = new Label(getConnectionCellText(conn));
 
@@ -564,11 +571,11 @@ public class SymmetricView extends AbstractMatrixView implements ISymmetricHighl
 
         FreezeGrid grid = new FreezeGrid();
 
-        ArrayList<ArrayList<Pair<RenderMode, Object>>> template = matrix.getGridArray();
+        GridModel template = matrix.getGridModel();
         ArrayList<ArrayList<HBox>> gridData = new ArrayList<>();
 
-        int numRows = template.size();
-        int numCols = template.get(0).size();
+        int numRows = template.getNumRows();
+        int numCols = template.getNumCols();
 
         // set up the scaled font size. Don't use the normal range because if fast render is on matrices will likely
         // be very large and a smaller font size is needed to view them
@@ -631,21 +638,22 @@ public class SymmetricView extends AbstractMatrixView implements ISymmetricHighl
         for(int r=0; r<numRows; r++) {
             ArrayList<HBox> rowData = new ArrayList<>();
             for(int c=0; c<numCols; c++) {
-                Pair<RenderMode, Object> item = template.get(r).get(c);
+                RenderMode mode = template.getRenderMode(r, c);
+                Object value = template.getValue(r, c);
                 HBox cell = new HBox();  // wrap everything in an HBox so a border can be added easily
                 Label label = null;
 
                 Background defaultBackground = DEFAULT_BACKGROUND;
 
-                switch (item.getKey()) {
+                switch (mode) {
                     case PLAIN_TEXT -> {
-                        label = new Label((String) item.getValue());
+                        label = new Label((String) value);
                         label.setMinWidth(Region.USE_PREF_SIZE);
                         label.setPadding(new Insets(1));
                         cell.getChildren().add(label);
                     }
                     case PLAIN_TEXT_V -> {
-                        label = new Label((String) item.getValue());
+                        label = new Label((String) value);
                         label.setRotate(-90);
                         label.setPadding(new Insets(1));
                         cell.setAlignment(Pos.BOTTOM_RIGHT);
@@ -657,14 +665,14 @@ public class SymmetricView extends AbstractMatrixView implements ISymmetricHighl
                     case ITEM_NAME -> {
                         label = new Label();
                         label.setPadding(new Insets(0, 5, 0, 5));
-                        label.textProperty().bind(((DSMItem) item.getValue()).getName());
+                        label.textProperty().bind(((DSMItem) value).getName());
                         label.setMinWidth(Region.USE_PREF_SIZE);
                         cell.setAlignment(Pos.CENTER_RIGHT);
                         cell.getChildren().add(label);
                     }
                     case ITEM_NAME_V -> {
                         label = new Label();
-                        label.textProperty().bind(((DSMItem) item.getValue()).getName());
+                        label.textProperty().bind(((DSMItem) value).getName());
                         label.setPadding(new Insets(0, 5, 0, 5));
                         label.setRotate(-90);
                         cell.setAlignment(Pos.BOTTOM_CENTER);
@@ -680,7 +688,7 @@ public class SymmetricView extends AbstractMatrixView implements ISymmetricHighl
                         cell.setPrefWidth(cellSize);
                     }
                     case GROUPING_ITEM -> {  // dropdown box for choosing group
-                        Grouping group = ((DSMItem) item.getValue()).getGroup1();
+                        Grouping group = ((DSMItem) value).getGroup1();
                         label = new Label(group.getName());
                         label.setPadding(new Insets(0, 5, 0, 5));
                         label.setTextFill(group.getFontColor());
@@ -689,8 +697,8 @@ public class SymmetricView extends AbstractMatrixView implements ISymmetricHighl
                         cell.getChildren().add(label);
                     }
                     case INDEX_ITEM -> {
-                        Grouping group = ((DSMItem) item.getValue()).getGroup1();
-                        label = new Label(String.valueOf(((DSMItem) item.getValue()).getSortIndex()));
+                        Grouping group = ((DSMItem) value).getGroup1();
+                        label = new Label(String.valueOf(((DSMItem) value).getSortIndex()));
                         label.setPadding(new Insets(0, 5, 0, 5));
                         label.setTextFill(group.getFontColor());
                         label.setMinWidth(Region.USE_PREF_SIZE);
@@ -706,8 +714,8 @@ public class SymmetricView extends AbstractMatrixView implements ISymmetricHighl
                         }
                     }
                     case EDITABLE_CONNECTION -> {
-                        int rowUid = ((Pair<DSMItem, DSMItem>) item.getValue()).getKey().getUid();
-                        int colUid = ((Pair<DSMItem, DSMItem>) item.getValue()).getValue().getUid();
+                        int rowUid = template.getRowItem(r).getUid();
+                        int colUid = template.getColItem(c).getUid();
                         DSMConnection conn = matrix.getConnection(rowUid, colUid);
                         if(conn != null) {  // only add connections that exist
                             Color color = Color.BLACK;  // default to black
@@ -760,20 +768,24 @@ public class SymmetricView extends AbstractMatrixView implements ISymmetricHighl
         graphics_context.setFill(defaultColor);
         graphics_context.fillRect(0, 0, canvasWidth, canvasHeight);
 
-        // draw the grouping rectangles
-        double x = 0;
+        // draw the grouping rectangles. Only the cells where a row meets a column of its own grouping are colored, so
+        // use the members of each row's grouping instead of comparing the row to every column
+        HashMap<Integer, Integer> colLocations = new HashMap<>();  // uid of the aliased row -> column location
+        Vector<DSMItem> cols = matrix.getCols();
+        for(int c = 0; c < cols.size(); c++) {
+            colLocations.put(cols.get(c).getAliasUid(), c);
+        }
+        double x;
         double y = 0;
         for(DSMItem rowItem : matrix.getRows()) {
-            for(DSMItem colItem : matrix.getCols()) {
-                if(rowItem.getGroup1().equals(colItem.getGroup1())) {
-                    graphics_context.setFill(rowItem.getGroup1().getColor());
-                } else {
-                    graphics_context.setFill(defaultColor);
+            graphics_context.setFill(rowItem.getGroup1().getColor());
+            for(DSMItem member : matrix.getGroupingMembers(rowItem.getGroup1())) {
+                Integer c = colLocations.get(member.getUid());
+                if(c != null) {
+                    x = c * cellSize;
+                    graphics_context.fillRect(x, y, cellSize, cellSize);
                 }
-                graphics_context.fillRect(x, y, cellSize, cellSize);
-                x += cellSize;
             }
-            x = 0;  // reset to first column at start of canvas
             y += cellSize;  // move to next row
         }
 
@@ -1,6 +1,10 @@
 package UI;
 
+import Matrices.Data.ClusteringEngine;
+import Matrices.Data.ClusteringJob;
+import Matrices.Data.ClusteringParameters;
 import Matrices.Data.Entities.Grouping;
+import Matrices.Data.MultiStartClustering;
 import Matrices.Data.SymmetricDSMData;
 import Matrices.IOHandlers.SymmetricIOHandler;
 import Matrices.Views.AbstractMatrixView;
@@ -12,22 +16,29 @@ import javafx.geometry.Insets;
 import javafx.geometry.Orientation;
 import javafx.geometry.Pos;
 import javafx.scene.Scene;
+import javafx.scene.chart.LineChart;
+import javafx.scene.chart.NumberAxis;
+import javafx.scene.chart.XYChart;
 import javafx.scene.control.*;
 import javafx.scene.layout.BorderPane;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
+import javafx.stage.FileChooser;
 import javafx.stage.Stage;
 import javafx.stage.StageStyle;
+import javafx.util.StringConverter;
 
-import java.io.File;
+import java.io.*;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Map;
 
 
 /**
- * A class that graphically runs Thebeau's dsm clustering algorithm. Currently only works for symmetric DSMs
+ * A class that graphically runs a dsm clustering algorithm (Thebeau's algorithm by default). Currently only works
+ * for symmetric DSMs
  *
  * @author Aiden Carney
  */
@@ -51,8 +62,12 @@ public class ClusterAlgorithmWindow {
     private DoubleProperty randAccept;
     private DoubleProperty numLevels;
     private DoubleProperty randSeed;
+    private DoubleProperty numStarts;
+    private DoubleProperty numThreads;
 
     SymmetricDSMData outputMatrix = null;
+    MultiStartClustering.Result runResult = null;  // seeds and costs of the chains of the last run
+    long runIterations = 0;  // iterations the last run completed, fewer than requested if it was stopped early
 
     // main content panes
     private VBox coordinationLayout;
@@ -60,6 +75,7 @@ public class ClusterAlgorithmWindow {
 
     private CheckBox countByWeight;
     private CheckBox debug;
+    private ComboBox<ClusteringEngine> engineSelector;
 
 
     /**
@@ -148,7 +164,9 @@ public class ClusterAlgorithmWindow {
         MenuItem run = new MenuItem("Run Algorithm");
         run.setOnAction(e -> {
             SymmetricDSMData outputMatrix = runThebeauAlgorithm();
-            runCoordinationScore(outputMatrix);
+            if(outputMatrix != null) {
+                runCoordinationScore(outputMatrix);
+            }
         });
         runMenu.getItems().addAll(run);
 
@@ -185,6 +203,33 @@ public class ClusterAlgorithmWindow {
      * Function to initialize the widgets on the side pane. Called from constructor
      */
     private void updateConfigWidgets() {
+        // engine layout
+        VBox engineLayout = new VBox();
+
+        Label engineLabel = new Label("Algorithm");
+
+        engineSelector = new ComboBox<>();
+        engineSelector.getItems().addAll(ClusteringEngine.getEngines());
+        engineSelector.getSelectionModel().selectFirst();
+        engineSelector.setConverter(new StringConverter<>() {
+            @Override
+            public String toString(ClusteringEngine engine) {
+                return engine == null ? "" : engine.getName();
+            }
+
+            @Override
+            public ClusteringEngine fromString(String name) {
+                return null;
+            }
+        });
+        engineSelector.setMaxWidth(Double.MAX_VALUE);
+
+        engineLayout.getChildren().addAll(engineLabel, engineSelector);
+        engineLayout.setSpacing(5);
+        engineLayout.setPadding(new Insets(10));
+        engineLayout.setAlignment(Pos.CENTER);
+
+
         // optimal size layout
         VBox optimalSizeLayout = new VBox();
 
@@ -260,7 +305,7 @@ public class ClusterAlgorithmWindow {
         VBox randBidArea = new VBox();
 
         Label randBidLabel = new Label("rand_bid constant");
-        randBidLabel.setTooltip(new Tooltip("Constant to determine how often to make slightly suboptimal change"));
+        randBidLabel.setTooltip(new Tooltip("Constant to determine how often to make slightly suboptimal change. Only used by Thebeau"));
 
         randBid = new SimpleDoubleProperty(122);
         NumericTextField randBidEntry = new NumericTextField(randBid.getValue());
@@ -339,11 +384,39 @@ public class ClusterAlgorithmWindow {
         randSeedArea.setAlignment(Pos.CENTER);
 
 
+        // multi start layout
+        VBox startsArea = new VBox();
+
+        Label startsLabel = new Label("Number of Starts");
+        startsLabel.setTooltip(new Tooltip("Number of independent runs with different seeds. The best result is kept"));
+
+        numStarts = new SimpleDoubleProperty(1);
+        NumericTextField startsEntry = new NumericTextField(numStarts.getValue());
+        startsEntry.textProperty().addListener((obs, oldText, newText) -> {
+            numStarts.setValue(startsEntry.getNumericValue());
+        });
+
+        Label threadsLabel = new Label("Number of Threads");
+        threadsLabel.setTooltip(new Tooltip("Number of runs to perform at the same time. Does not change the result"));
+
+        numThreads = new SimpleDoubleProperty(Runtime.getRuntime().availableProcessors());
+        NumericTextField threadsEntry = new NumericTextField(numThreads.getValue());
+        threadsEntry.textProperty().addListener((obs, oldText, newText) -> {
+            numThreads.setValue(threadsEntry.getNumericValue());
+        });
+
+        startsArea.getChildren().addAll(startsLabel, startsEntry, threadsLabel, threadsEntry);
+        startsArea.setSpacing(5);
+        startsArea.setPadding(new Insets(10));
+        startsArea.setAlignment(Pos.CENTER);
+
+
         // debug checkbox
         VBox debugLayout = new VBox();
         debugLayout.setSpacing(10);
 
-        debug = new CheckBox("Debug to stdout");
+        debug = new CheckBox("Stream iterations to CSV file");
+        debug.setTooltip(new Tooltip("Write the cost of every iteration to a file chosen when the algorithm is run"));
         debug.setMaxWidth(Double.MAX_VALUE);
 
         debugLayout.getChildren().addAll(debug);
@@ -352,7 +425,7 @@ public class ClusterAlgorithmWindow {
 
         // config layout
         configLayout = new VBox();
-        configLayout.getChildren().addAll(optimalSizeLayout, powccArea, powdepArea, powbidArea, randBidArea, randAcceptArea, countMethodLayout, randSeedArea, levelsArea, debugLayout);
+        configLayout.getChildren().addAll(engineLayout, optimalSizeLayout, powccArea, powdepArea, powbidArea, randBidArea, randAcceptArea, countMethodLayout, randSeedArea, levelsArea, startsArea, debugLayout);
         configLayout.setSpacing(15);
         configLayout.setAlignment(Pos.TOP_CENTER);
     }
@@ -413,6 +486,29 @@ public class ClusterAlgorithmWindow {
 
         coordinationLayout.getChildren().removeAll(coordinationLayout.getChildren());
         coordinationLayout.getChildren().addAll(titleLabel, intraTotal, new Label("Intra Cost Breakdown:"), intraScroll, extraTotal, total, comparison);
+
+        if(runResult != null) {  // show how each start did
+            double seconds = Math.max(runResult.getWallTimeMillis(), 1) / 1000.0;
+            Label runTime = new Label("Ran " + runResult.getSeeds().length + " starts in " + seconds + "s (" + Math.round(runIterations / seconds) + " iterations/s)");
+
+            VBox startsBreakdown = new VBox();
+            ScrollPane startsScroll = new ScrollPane(startsBreakdown);
+            for(int k = 0; k < runResult.getSeeds().length; k++) {
+                HBox breakdown = new HBox();
+                Label value = new Label(String.valueOf(runResult.getCosts()[k]));
+                if(k == runResult.getBestStart()) {
+                    value.setStyle(value.getStyle() + "-fx-font-weight: bold;");
+                }
+
+                breakdown.getChildren().addAll(new Label("Seed " + runResult.getSeeds()[k] + ":"), value);
+                breakdown.setPadding(new Insets(10));
+                breakdown.setSpacing(10);
+
+                startsBreakdown.getChildren().add(breakdown);
+            }
+
+            coordinationLayout.getChildren().addAll(runTime, new Label("Cost of Each Start:"), startsScroll);
+        }
         coordinationLayout.setAlignment(Pos.TOP_LEFT);
         coordinationLayout.setPadding(new Insets(10));
         coordinationLayout.setSpacing(15);
@@ -421,51 +517,147 @@ public class ClusterAlgorithmWindow {
 
     /**
      * Runs the algorithm with the parameters from the gui and returns the output matrix object. Displays the
-     * matrix in the main window of the gui
+     * matrix in the main window of the gui. While the algorithm runs a popup shows its progress and a chart of the
+     * best cost, and lets the run be paused or cancelled. A cancelled run returns the best solution found so far.
+     * Closing the popup cancels the run and the popup stays open until the run has stopped
      *
-     * @return the new clustered matrix
+     * @return the new clustered matrix or null if the run could not be completed
      */
     private SymmetricDSMData runThebeauAlgorithm() {
+        outputMatrix = null;  // so a failed run does not show the output of the previous run
+        runResult = null;
+        runIterations = 0;
+
+        int starts = Math.max(numStarts.intValue(), 1);
+        Writer csvWriter = null;
+        if(debug.isSelected()) {  // choose where to stream the iterations to
+            FileChooser fileChooser = new FileChooser();
+            fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("CSV File", "*.csv"));
+            File file = fileChooser.showSaveDialog(window);
+            if(file == null) {
+                return null;
+            }
+            try {
+                csvWriter = new BufferedWriter(new FileWriter(file));
+            } catch (IOException e) {
+                e.printStackTrace();
+                return null;
+            }
+        }
+        ClusteringEngine engine = engineSelector.getValue();
+        ClusteringJob job = new ClusteringJob((long)numLevels.intValue() * starts, ClusteringJob.DEFAULT_SAMPLE_CAPACITY, csvWriter);
+
         BooleanProperty completedProperty = new SimpleBooleanProperty();  // used to know when to close popup
         completedProperty.set(false);
-
+        ObjectProperty<Throwable> errorProperty = new SimpleObjectProperty<>();  // set when the run fails
+
+        // the gui properties are read on the fx thread before the run starts
+        ClusteringParameters parameters = new ClusteringParameters(
+                optimalSizeCluster.doubleValue(),
+                powdep.doubleValue(),
+                powbid.doubleValue(),
+                powcc.doubleValue(),
+                randBid.doubleValue(),
+                randAccept.doubleValue(),
+                countByWeight.isSelected(),
+                numLevels.intValue()
+        );
+        long seed = randSeed.longValue();
+        int threads = Math.max(numThreads.intValue(), 1);
+
+        Writer finalCsvWriter = csvWriter;
         Thread t = new Thread(() -> {  // thread to perform the function
-            outputMatrix = SymmetricDSMData.thebeauAlgorithm(
-                    matrix,
-                    optimalSizeCluster.doubleValue(),
-                    powdep.doubleValue(),
-                    powbid.doubleValue(),
-                    powcc.doubleValue(),
-                    randBid.doubleValue(),
-                    randAccept.doubleValue(),
-                    countByWeight.isSelected(),
-                    numLevels.intValue(),
-                    randSeed.longValue(),
-                    debug.isSelected()
-            );
-            outputMatrix.reDistributeSortIndicesByGroup();
-            completedProperty.set(true);
+            try {  // everything is inside the try so that any failure still closes the popup
+                SymmetricDSMData clustered = matrix.read(matrix::createCopy);
+                runResult = MultiStartClustering.run(engine, clustered.getSnapshot(), parameters, seed, starts, threads, job);
+                runIterations = job.getIterationsDone();
+                clustered.applyClusterAssignment(runResult.getBest().getAssignment(), runResult.getBest().getNumClusters());
+                outputMatrix = clustered;
+                outputMatrix.reDistributeSortIndicesByGroup();
+            } catch (InterruptedException e) {
+                e.printStackTrace();
+                outputMatrix = null;
+                runResult = null;
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+                errorProperty.set(e);
+                outputMatrix = null;
+                runResult = null;
+            } finally {
+                if(finalCsvWriter != null) {
+                    try {
+                        finalCsvWriter.close();
+                    } catch (IOException e) {
+                        e.printStackTrace();
+                    }
+                }
+                completedProperty.set(true);
+            }
         });
         t.setDaemon(true);
         t.start();
 
-        // create popup window saying how long it has been running for
+        // create popup window showing the progress of the run
         Stage popup = new Stage();
         popup.initStyle(StageStyle.UTILITY);
-        popup.setTitle(matrix.getTitle() + " - Cluster Algorithm");
+        popup.setTitle(matrix.getTitle() + " - " + engine.getName());
+
+        VBox progressArea = new VBox();
+        progressArea.setAlignment(Pos.CENTER);
+        progressArea.setSpacing(10);
+        progressArea.setPadding(new Insets(10));
 
-        VBox uptimeArea = new VBox();
-        uptimeArea.setAlignment(Pos.CENTER);
+        ProgressBar progressBar = new ProgressBar(0);
+        progressBar.setMaxWidth(Double.MAX_VALUE);
         Instant start = Instant.now();
         StringProperty text = new SimpleStringProperty("Uptime: 00:00:00");
         Label l = new Label();
         l.textProperty().bind(text);
-        uptimeArea.getChildren().add(l);
 
-        Scene popupScene = new Scene(uptimeArea, 200, 100);
+        NumberAxis xAxis = new NumberAxis();
+        xAxis.setLabel("Iterations");
+        xAxis.setForceZeroInRange(false);
+        NumberAxis yAxis = new NumberAxis();
+        yAxis.setLabel("Best Coordination Cost");
+        yAxis.setForceZeroInRange(false);
+        LineChart<Number, Number> costChart = new LineChart<>(xAxis, yAxis);
+        costChart.setAnimated(false);
+        costChart.setCreateSymbols(false);
+        costChart.setLegendVisible(false);
+        XYChart.Series<Number, Number> costSeries = new XYChart.Series<>();
+        costChart.getData().add(costSeries);
+
+        Button pauseButton = new Button("Pause");
+        pauseButton.setOnAction(e -> {
+            if(job.isPaused()) {
+                job.resume();
+                pauseButton.setText("Pause");
+            } else {
+                job.pause();
+                pauseButton.setText("Resume");
+            }
+        });
+        Button cancelButton = new Button("Stop");
+        cancelButton.setTooltip(new Tooltip("Stop the run and keep the best solution found so far"));
+        cancelButton.setOnAction(e -> job.cancel());
+        HBox buttons = new HBox(pauseButton, cancelButton);
+        buttons.setAlignment(Pos.CENTER);
+        buttons.setSpacing(10);
+
+        progressArea.getChildren().addAll(progressBar, l, costChart, buttons);
+        popup.setOnCloseRequest(e -> {  // closing the popup stops the run, the popup closes once the run has stopped
+            e.consume();
+            job.cancel();
+            pauseButton.setDisable(true);
+            cancelButton.setDisable(true);
+        });
+
+        Scene popupScene = new Scene(progressArea, 500, 400);
         popup.setScene(popupScene);
 
-        Thread t2 = new Thread(() -> {  // thread to update the text to the thread
+        long[] sampleIterations = new long[job.getSamples().getCapacity()];
+        double[] sampleCosts = new double[job.getSamples().getCapacity()];
+        Thread t2 = new Thread(() -> {  // thread to update the progress of the run
             while(!completedProperty.get()) {
                 Platform.runLater(() -> {
                     long seconds = Duration.between(start, Instant.now()).getSeconds();
@@ -475,7 +667,15 @@ public class ClusterAlgorithmWindow {
                             (seconds % 3600) / 60,
                             seconds % 60
                     );
-                    text.set("Uptime: " + dt);
+                    text.set("Uptime: " + dt + "    " + Math.round(job.getIterationsPerSecond()) + " iterations/s");
+                    progressBar.setProgress(job.getProgress());
+
+                    int numSamples = job.getSamples().copyTo(sampleIterations, sampleCosts);
+                    ArrayList<XYChart.Data<Number, Number>> points = new ArrayList<>(numSamples);
+                    for(int i = 0; i < numSamples; i++) {
+                        points.add(new XYChart.Data<>(sampleIterations[i], sampleCosts[i]));
+                    }
+                    costSeries.getData().setAll(points);
                 });
                 try {
                     Thread.sleep(500);
@@ -497,8 +697,20 @@ public class ClusterAlgorithmWindow {
                 });
             }
         });
+        if(completedProperty.get()) {  // the run finished before the listener was added
+            Platform.runLater(popup::close);
+        }
 
         popup.showAndWait();  // wait for it to finish
+        if(errorProperty.get() != null) {
+            Alert alert = new Alert(Alert.AlertType.ERROR, "The clustering run failed: " + errorProperty.get().getMessage());
+            alert.initOwner(window);
+            alert.setHeaderText(null);
+            alert.showAndWait();
+        }
+        if(outputMatrix == null) {
+            return null;
+        }
 
         SymmetricView gui = new SymmetricView(outputMatrix, 10);
         gui.setCurrentMode(AbstractMatrixView.MatrixViewMode.STATIC_NAMES);
@@ -1,5 +1,6 @@
 package UI;
 
+import Matrices.Data.ClusteringState;
 import Matrices.Data.Entities.Grouping;
 import Matrices.Data.SymmetricDSMData;
 import Matrices.Data.Entities.DSMItem;
@@ -256,14 +257,19 @@ public class ClusterAnalysisWindow {
      */
     private void runClusterBidsAnalysis() {
         Vector<Grouping> groupOrder = new Vector<>(matrix.getGroupings());
-        Vector<DSMItem> items = matrix.getRows();
+        Vector<DSMItem> items = new Vector<>(matrix.getRows());
         items.sort(Comparator.comparing(DSMItem::getSortIndex));
 
+        // calculate the bids of every group for one item at a time from only the connections of that item
+        ClusteringState state = new ClusteringState(matrix, groupOrder, optimalSizeCluster.doubleValue(), powcc.doubleValue(), countByWeight.isSelected());
+        double[] itemBids = new double[groupOrder.size()];
+
         // create data structure for the table
         ArrayList<ArrayList<HBox>> data = new ArrayList<>();
 
         // fill in the main data structure
         for(int r = 0; r < items.size(); r++) {
+            state.getBids(state.getItemIndex(items.get(r).getUid()), powdep.doubleValue(), powbid.doubleValue(), false, itemBids);
             ArrayList<String> rowBids = new ArrayList<>();
             double maxBid = 0;
             double minBid = Double.MAX_VALUE;
@@ -275,9 +281,7 @@ public class ClusterAnalysisWindow {
                 } else if(c == 1) {
                     rowBids.add(items.get(r).getName().getValue());
                 } else {
-                    HashMap<Integer, Double> groupBids = SymmetricDSMData.calculateClusterBids(matrix, groupOrder.get(c - 2), optimalSizeCluster.doubleValue(), powdep.doubleValue(), powbid.doubleValue(), countByWeight.isSelected());
-
-                    double bid = groupBids.get(items.get(r).getUid());
+                    double bid = itemBids[c - 2];
                     rowBids.add(String.valueOf(bid));
 
                     if(bid > maxBid) {  // check for max or min bids
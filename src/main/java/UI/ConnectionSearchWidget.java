@@ -117,7 +117,8 @@ public class ConnectionSearchWidget {
                 }
 
                 synchronized (view) {
-                    matches = getMatches(searchInput.getText(), matrix);
+                    String text = searchInput.getText();
+                    matches = matrix.read(() -> getMatches(text, matrix));  // the matrix can be edited while searching
                     Set<Pair<Integer, Integer>> prevAndCurrentErrors = new HashSet<>(prevMatches);
                     prevAndCurrentErrors.addAll(matches);
 
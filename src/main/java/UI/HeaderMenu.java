@@ -10,6 +10,7 @@ import Matrices.Data.Entities.DSMItem;
 import Matrices.Data.Entities.Grouping;
 import Matrices.Data.Flags.IPropagationAnalysis;
 import Matrices.Data.MultiDomainDSMData;
+import Matrices.Data.PartitioningAnalysis;
 import Matrices.Data.SymmetricDSMData;
 import Matrices.IOHandlers.AbstractIOHandler;
 import Matrices.IOHandlers.AsymmetricIOHandler;
@@ -398,7 +399,7 @@ public class HeaderMenu {
                     domainGroupings.add(new Grouping(grouping));
                 }
                 HashMap<Grouping, Collection<Grouping>> domains = new HashMap<>();
-                Grouping domain = new Grouping("default", Color.color(1, 1, 1));
+                Grouping domain = symmetricMatrix.createGrouping("default", Color.color(1, 1, 1));  // uid is free in the copy too
                 domains.put(domain, domainGroupings);
 
                 MultiDomainDSMData multiDomainMatrix = new MultiDomainDSMData(domains);
@@ -531,6 +532,21 @@ public class HeaderMenu {
         }
 
 
+        // multi-domain matrices keep their items grouped by domain, so a sequence that crosses domains cannot be shown
+        if(matrixData instanceof SymmetricDSMData) {
+            MenuItem partition = new MenuItem("Partition and Sequence Items");
+            partition.setOnAction(e -> {
+                if(matrixData == null) {
+                    return;
+                }
+                matrixData.applyPartitioning(PartitioningAnalysis.partition(matrixData.getSnapshot()));
+                matrixData.setCurrentStateAsCheckpoint();
+                matrixView.refreshView();
+            });
+            toolsMenu.getItems().add(partition);
+        }
+
+
         if(matrixData instanceof IPropagationAnalysis) {
             MenuItem propagationAnalysis = new MenuItem("Propagation Analysis...");
             propagationAnalysis.setOnAction(e -> {
@@ -545,6 +561,17 @@ public class HeaderMenu {
             toolsMenu.getItems().add(propagationAnalysis);
         }
 
+        MenuItem reachabilityAnalysis = new MenuItem("Reachability Analysis...");
+        reachabilityAnalysis.setOnAction(e -> {
+            if (editor.getFocusedMatrixUid() == null) {
+                return;
+            }
+
+            ReachabilityAnalysisWindow r = new ReachabilityAnalysisWindow(matrixData, matrixView);
+            r.start();
+        });
+        toolsMenu.getItems().add(reachabilityAnalysis);
+
         if(matrixData instanceof SymmetricDSMData) {
             MenuItem coordinationScore = new MenuItem("Thebeau Cluster Analysis...");
             coordinationScore.setOnAction(e -> {
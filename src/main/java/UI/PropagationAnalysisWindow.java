@@ -3,9 +3,14 @@ package UI;
 import Matrices.Data.AbstractDSMData;
 import Matrices.Data.Entities.DSMItem;
 import Matrices.Data.Flags.IPropagationAnalysis;
+import Matrices.Data.PropagationImpactAnalysis;
+import Matrices.Data.PropagationResult;
+import Matrices.IOHandlers.AbstractIOHandler;
 import UI.Widgets.NumericTextField;
+import javafx.application.Platform;
 import javafx.beans.property.DoubleProperty;
 import javafx.beans.property.IntegerProperty;
+import javafx.beans.property.ReadOnlyObjectWrapper;
 import javafx.beans.property.SimpleDoubleProperty;
 import javafx.beans.property.SimpleIntegerProperty;
 import javafx.collections.FXCollections;
@@ -26,10 +31,16 @@ import javafx.scene.layout.BorderPane;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.Priority;
 import javafx.scene.layout.VBox;
+import javafx.stage.FileChooser;
 import javafx.stage.Stage;
 import javafx.util.Callback;
 import javafx.util.Pair;
 
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Map;
@@ -92,7 +103,9 @@ public class PropagationAnalysisWindow<T extends AbstractDSMData & IPropagationA
         Menu runMenu = new Menu("Run");
         MenuItem run = new MenuItem("Run Propagation Analysis");
         run.setOnAction(e -> runPropagationAnalysis());
-        runMenu.getItems().addAll(run);
+        MenuItem runAll = new MenuItem("Run From All Items");
+        runAll.setOnAction(e -> runImpactAnalysis());
+        runMenu.getItems().addAll(run, runAll);
 
         menuBar.getMenus().addAll(runMenu);
 
@@ -301,15 +314,8 @@ public class PropagationAnalysisWindow<T extends AbstractDSMData & IPropagationA
 
         boolean byWeight = !countByOccurrence.isSelected();
 
-        HashMap<Integer, HashMap<Integer, Double>> results = matrix.propagationAnalysis(startItem, numberLevels, exclusions, minimumWeight, byWeight);
-
-        // combine results by level into one map
-        HashMap<Integer, Double> scores = new HashMap<>();
-        for(Map.Entry<Integer, HashMap<Integer, Double>> levelEntry : results.entrySet()) {
-            for(Map.Entry<Integer, Double> entry : levelEntry.getValue().entrySet()) {
-                scores.merge(entry.getKey(), entry.getValue(), Double::sum);
-            }
-        }
+        PropagationResult results = matrix.createPropagationEngine().run(startItem, numberLevels, exclusions, minimumWeight, byWeight);
+        HashMap<Integer, Double> scores = results.getTotals();  // combine results by level into one map
 
         // update graph layout
         final CategoryAxis xAxis = new CategoryAxis();
@@ -380,6 +386,127 @@ public class PropagationAnalysisWindow<T extends AbstractDSMData & IPropagationA
     }
 
 
+    /**
+     * Runs propagation analysis from every item on a background thread and displays the totals of each item in a
+     * sortable table on the main gui screen
+     */
+    private void runImpactAnalysis() {
+        Integer numberLevels = numLevels.getValue();
+
+        Double minimumWeight = minWeight.getValue();
+        if(minimumWeight == null) {
+            minimumWeight = -Double.MAX_VALUE;
+        }
+        double finalMinimumWeight = minimumWeight;
+
+        ArrayList<Integer> exclusions = new ArrayList<>(itemExclusions.getItems());
+
+        boolean byWeight = !countByOccurrence.isSelected();
+
+        graphLayout.getChildren().removeAll(graphLayout.getChildren());
+        graphLayout.getChildren().add(new Label("Running propagation analysis from all items..."));
+        rawOutputLayout.getChildren().removeAll(rawOutputLayout.getChildren());
+
+        Thread t = new Thread(() -> {
+            try {
+                long start = System.nanoTime();
+                PropagationImpactAnalysis analysis = matrix.propagationImpactAnalysis(numberLevels, exclusions, finalMinimumWeight, byWeight);
+                long elapsed = (System.nanoTime() - start) / 1_000_000;
+                Platform.runLater(() -> showImpactAnalysis(analysis, elapsed));
+            } catch(RuntimeException e) {  // replace the running message so the failure is not mistaken for a long run
+                e.printStackTrace();
+                Platform.runLater(() -> {
+                    graphLayout.getChildren().removeAll(graphLayout.getChildren());
+                    graphLayout.getChildren().add(new Label("Propagation analysis failed: " + e.getMessage()));
+                });
+            }
+        });
+        t.setDaemon(true);
+        t.start();
+    }
+
+
+    /**
+     * Displays the totals of each item of an impact analysis in a sortable table with buttons to export the results
+     *
+     * @param analysis  the results of running propagation analysis from every item
+     * @param elapsed   how long the analysis took in milliseconds
+     */
+    private void showImpactAnalysis(PropagationImpactAnalysis analysis, long elapsed) {
+        graphLayout.getChildren().removeAll(graphLayout.getChildren());
+        graphLayout.getChildren().add(new Label(analysis.getNumItems() + " items analyzed in " + elapsed + " ms"));
+        graphLayout.setPadding(new Insets(10));
+
+        TableView<Integer> table = new TableView<>();  // items are the indices of the items in the analysis
+
+        TableColumn<Integer, String> nameColumn = new TableColumn<>("Item Name");
+        nameColumn.setCellValueFactory(c -> new ReadOnlyObjectWrapper<>(analysis.getName(c.getValue())));
+
+        TableColumn<Integer, Double> impactColumn = new TableColumn<>("Impact");
+        impactColumn.setCellValueFactory(c -> new ReadOnlyObjectWrapper<>(analysis.getTotalImpact(c.getValue())));
+
+        TableColumn<Integer, Double> impactedByColumn = new TableColumn<>("Impacted By");
+        impactedByColumn.setCellValueFactory(c -> new ReadOnlyObjectWrapper<>(analysis.getTotalImpactedBy(c.getValue())));
+
+        TableColumn<Integer, Integer> reachedColumn = new TableColumn<>("Items Reached");
+        reachedColumn.setCellValueFactory(c -> new ReadOnlyObjectWrapper<>(analysis.getNumReached(c.getValue())));
+
+        table.getColumns().add(nameColumn);  // added one at a time since varargs of generic columns is unchecked
+        table.getColumns().add(impactColumn);
+        table.getColumns().add(impactedByColumn);
+        table.getColumns().add(reachedColumn);
+        for(int i = 0; i < analysis.getNumItems(); i++) {
+            table.getItems().add(i);
+        }
+        impactColumn.setSortType(TableColumn.SortType.DESCENDING);
+        table.getSortOrder().add(impactColumn);
+        VBox.setVgrow(table, Priority.ALWAYS);
+
+        Button exportMatrix = new Button("Export Impact Matrix...");
+        exportMatrix.setOnAction(e -> exportImpactAnalysis(analysis::writeCsv));
+        Button exportTotals = new Button("Export Totals...");
+        exportTotals.setOnAction(e -> exportImpactAnalysis(analysis::writeTotalsCsv));
+        HBox buttonsLayout = new HBox(exportMatrix, exportTotals);
+        buttonsLayout.setSpacing(5);
+        buttonsLayout.setAlignment(Pos.CENTER);
+
+        rawOutputLayout.getChildren().removeAll(rawOutputLayout.getChildren());
+        rawOutputLayout.getChildren().addAll(table, buttonsLayout);
+        rawOutputLayout.setAlignment(Pos.CENTER);
+        rawOutputLayout.setPadding(new Insets(10));
+        rawOutputLayout.setSpacing(5);
+    }
+
+
+    /**
+     * Function to write part of an impact analysis as a csv
+     */
+    private interface ImpactCsvWriter {
+        void write(Writer out) throws IOException;
+    }
+
+
+    /**
+     * Prompts for a file and writes part of an impact analysis to it as a csv
+     *
+     * @param csvWriter  the function that writes the csv
+     */
+    private void exportImpactAnalysis(ImpactCsvWriter csvWriter) {
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("CSV File", "*.csv"));
+        File file = fileChooser.showSaveDialog(window);
+        if(file == null) {
+            return;
+        }
+        file = AbstractIOHandler.forceExtension(file, ".csv");
+        try(Writer writer = new BufferedWriter(new FileWriter(file))) {
+            csvWriter.write(writer);
+        } catch(IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+
     /**
      * Opens and starts the gui so users can interact with it.
      */
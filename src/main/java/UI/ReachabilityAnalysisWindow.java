@@ -0,0 +1,230 @@
+package UI;
+
+import Matrices.Data.AbstractDSMData;
+import Matrices.Data.MatrixSnapshot;
+import Matrices.Data.ReachabilityAnalysis;
+import Matrices.IOHandlers.AbstractIOHandler;
+import Matrices.Views.AbstractMatrixView;
+import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.beans.property.ReadOnlyStringWrapper;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.Scene;
+import javafx.scene.control.*;
+import javafx.scene.layout.BorderPane;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.VBox;
+import javafx.stage.FileChooser;
+import javafx.stage.Stage;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.HashSet;
+
+
+/**
+ * Window for finding which items every item of a matrix can eventually affect. Shows how many items each item
+ * reaches, highlights the items reached by the selected item in the matrix view, and exports the closure matrix
+ *
+ * @author Aiden Carney
+ */
+public class ReachabilityAnalysisWindow {
+    AbstractDSMData matrix;
+    AbstractMatrixView matrixView;
+
+    Stage window;
+    private final BorderPane rootLayout;
+
+    private VBox configLayout;  // side bar
+    private CheckBox parallel;
+
+    private final TableView<Integer> table;  // rows of the snapshot the analysis was run on
+    private final Label summaryLabel;
+    private ReachabilityAnalysis analysis = null;
+
+
+    /**
+     * Creates the gui object but does not open it. Initializes all widgets
+     *
+     * @param matrix      the matrix to analyze
+     * @param matrixView  the view of the matrix to highlight reachable items in
+     */
+    public ReachabilityAnalysisWindow(AbstractDSMData matrix, AbstractMatrixView matrixView) {
+        this.matrix = matrix;
+        this.matrixView = matrixView;
+
+        window = new Stage();
+        if(!matrix.getTitle().isEmpty()) {
+            window.setTitle(matrix.getTitle() + " - Reachability Analysis");
+        } else {
+            window.setTitle("Reachability Analysis");
+        }
+        window.setOnHidden(e -> matrixView.clearAllCellsHighlight("reachable"));
+
+    // side bar
+        updateConfigWidgets();
+
+    // menu
+        MenuBar menuBar = new MenuBar();
+
+        Menu runMenu = new Menu("Run");
+        MenuItem run = new MenuItem("Run Reachability Analysis");
+        run.setOnAction(e -> runReachabilityAnalysis());
+        runMenu.getItems().addAll(run);
+
+        menuBar.getMenus().addAll(runMenu);
+
+    // main content
+        table = new TableView<>();
+        TableColumn<Integer, String> nameColumn = new TableColumn<>("Item Name");
+        nameColumn.setCellValueFactory(r -> new ReadOnlyStringWrapper(analysis.getSnapshot().getRowName(r.getValue())));
+        TableColumn<Integer, Integer> countColumn = new TableColumn<>("Items Reached");
+        countColumn.setCellValueFactory(r -> new ReadOnlyObjectWrapper<>(analysis.getReachCount(r.getValue())));
+        table.getColumns().add(nameColumn);  // added one at a time since varargs of generic columns is unchecked
+        table.getColumns().add(countColumn);
+        table.setPlaceholder(new Label("Run the analysis to see the results"));
+        VBox.setVgrow(table, Priority.ALWAYS);
+
+        Button showReachable = new Button("Show Reachable Set");
+        showReachable.setOnAction(e -> highlightReachableSet(table.getSelectionModel().getSelectedItem()));
+        Button clearHighlight = new Button("Clear Highlight");
+        clearHighlight.setOnAction(e -> matrixView.clearAllCellsHighlight("reachable"));
+        Button export = new Button("Export Closure Matrix...");
+        export.setOnAction(e -> exportClosure());
+
+        HBox buttonsLayout = new HBox(showReachable, clearHighlight, export);
+        buttonsLayout.setSpacing(5);
+        buttonsLayout.setAlignment(Pos.CENTER);
+
+        summaryLabel = new Label();
+
+        VBox mainContent = new VBox(summaryLabel, table, buttonsLayout);
+        mainContent.setPadding(new Insets(10));
+        mainContent.setSpacing(5);
+
+    // set up main layout
+        rootLayout = new BorderPane();
+        rootLayout.setLeft(configLayout);
+        rootLayout.setTop(menuBar);
+        rootLayout.setCenter(mainContent);
+    }
+
+
+    /**
+     * Updates the widgets on the side panel for parameter setting. Called from constructor.
+     */
+    private void updateConfigWidgets() {
+        parallel = new CheckBox("Compute in Parallel");
+        parallel.setSelected(true);
+        parallel.setTooltip(new Tooltip("Computes items that do not depend on each other on several threads"));
+
+        configLayout = new VBox();
+        configLayout.getChildren().addAll(parallel);
+        configLayout.setSpacing(15);
+        configLayout.setPadding(new Insets(10));
+        configLayout.setAlignment(Pos.CENTER);
+    }
+
+
+    /**
+     * Computes the closure of the matrix on a background thread and shows the number of items reached by each item
+     * when it finishes
+     */
+    private void runReachabilityAnalysis() {
+        boolean computeInParallel = parallel.isSelected();
+
+        analysis = null;
+        table.getItems().clear();
+        summaryLabel.setText("Running reachability analysis...");
+        matrixView.clearAllCellsHighlight("reachable");
+
+        Thread t = new Thread(() -> {
+            try {
+                MatrixSnapshot snapshot = matrix.getSnapshot();
+                long start = System.nanoTime();
+                ReachabilityAnalysis result = ReachabilityAnalysis.compute(snapshot, computeInParallel);
+                long elapsed = (System.nanoTime() - start) / 1_000_000;
+                Platform.runLater(() -> showReachabilityAnalysis(result, elapsed));
+            } catch(RuntimeException e) {
+                e.printStackTrace();
+                Platform.runLater(() -> summaryLabel.setText("Reachability analysis failed: " + e.getMessage()));
+            }
+        });
+        t.setDaemon(true);
+        t.start();
+    }
+
+
+    /**
+     * Shows the number of items reached by each item of an analysis
+     *
+     * @param result   the results of the analysis
+     * @param elapsed  how long the analysis took in milliseconds
+     */
+    private void showReachabilityAnalysis(ReachabilityAnalysis result, long elapsed) {
+        analysis = result;
+        table.getItems().clear();
+        for(int r = 0; r < result.getSnapshot().getNumRows(); r++) {
+            table.getItems().add(r);
+        }
+        summaryLabel.setText(result.getSnapshot().getNumRows() + " items analyzed in " + elapsed + " ms");
+    }
+
+
+    /**
+     * Highlights an item and every item it reaches in the matrix view
+     *
+     * @param row  the row of the snapshot of the item, does nothing if null
+     */
+    private void highlightReachableSet(Integer row) {
+        if(row == null || analysis == null) return;
+
+        MatrixSnapshot snapshot = analysis.getSnapshot();
+        HashSet<Integer> uids = new HashSet<>();
+        uids.add(snapshot.getRowUid(row));
+        for(int col : analysis.getReachableCols(row)) {
+            uids.add(snapshot.getColUid(col));
+            int aliasRow = snapshot.getColAliasRow(col);
+            if(aliasRow >= 0) {  // highlight both halves of symmetric items
+                uids.add(snapshot.getRowUid(aliasRow));
+            }
+        }
+        matrixView.setItemsHighlight(uids, AbstractMatrixView.REACHABLE_BACKGROUND, "reachable");
+    }
+
+
+    /**
+     * Prompts for a file and writes the closure matrix to it as a csv
+     */
+    private void exportClosure() {
+        if(analysis == null) return;
+
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("CSV File", "*.csv"));
+        File file = fileChooser.showSaveDialog(window);
+        if(file == null) {
+            return;
+        }
+        file = AbstractIOHandler.forceExtension(file, ".csv");
+        try(Writer writer = new BufferedWriter(new FileWriter(file))) {
+            analysis.writeCsv(writer);
+        } catch(IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+
+    /**
+     * Opens and starts the gui so users can interact with it.
+     */
+    public void start() {
+        Scene scene = new Scene(rootLayout, 800, 600);
+        window.setScene(scene);
+        window.show();
+    }
+}
@@ -1,5 +1,6 @@
 package Matrices.Data;
 
+import Matrices.Data.Entities.DSMConnection;
 import Matrices.Data.Entities.DSMInterfaceType;
 import Matrices.Data.Entities.DSMItem;
 import org.junit.jupiter.api.Assertions;
@@ -7,7 +8,12 @@ import org.junit.jupiter.api.Test;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collections;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
 
@@ -315,6 +321,133 @@ public class AbstractDSMDataTest {
     }
 
 
+    /**
+     * Tests that items can be looked up by uid and alias uid after adding and deleting items. Stresses the undo
+     * and redo functionality so that the item indices are rebuilt many times
+     */
+    @Test
+    public void itemLookupTest() {
+        SymmetricDSMData matrix = new SymmetricDSMData();
+        DSMItem row1 = new DSMItem(1, 11, 1.0, "item1", null, null);
+        DSMItem row2 = new DSMItem(2, 22, 2.0, "item2", null, null);
+        DSMItem col1 = new DSMItem(11, 1, 1.0, "item1", null, null);
+        DSMItem col2 = new DSMItem(22, 2, 2.0, "item2", null, null);
+        matrix.addItem(row1, true);
+        matrix.addItem(row2, true);
+        matrix.addItem(col1, false);
+        matrix.addItem(col2, false);
+
+        matrix.setCurrentStateAsCheckpoint();
+        matrix.deleteItem(row2);
+        matrix.setCurrentStateAsCheckpoint();
+
+        stressUndoRedo(matrix);
+
+        Assertions.assertSame(row1, matrix.getItem(1));
+        Assertions.assertSame(row1, matrix.getRowItem(1));
+        Assertions.assertSame(col1, matrix.getColItem(11));
+        Assertions.assertSame(col1, matrix.getItemByAlias(1));
+        Assertions.assertSame(row1, matrix.getItemByAlias(11));
+        Assertions.assertTrue(matrix.isRow(1));
+        Assertions.assertFalse(matrix.isCol(1));
+        Assertions.assertTrue(matrix.isCol(11));
+        Assertions.assertFalse(matrix.isRow(2));
+        Assertions.assertFalse(matrix.isCol(22));
+        Assertions.assertThrows(NoSuchElementException.class, () -> matrix.getItem(2));
+        Assertions.assertThrows(NoSuchElementException.class, () -> matrix.getItemByAlias(22));
+        Assertions.assertThrows(NoSuchElementException.class, () -> matrix.getRowItem(11));
+
+        matrix.undoToCheckpoint();
+        Assertions.assertSame(row2, matrix.getItem(2));
+        Assertions.assertSame(col2, matrix.getItemByAlias(2));
+        Assertions.assertTrue(matrix.isRow(2));
+        Assertions.assertTrue(matrix.isCol(22));
+    }
+
+
+    /**
+     * Tests that the connections of a row and the connections into a column stay in sync when items and
+     * connections are deleted and the changes are undone and redone
+     */
+    @Test
+    public void itemAdjacencyTest() {
+        SymmetricDSMData matrix = new SymmetricDSMData();
+        DSMItem row1 = new DSMItem(1, 11, 1.0, "item1", null, null);
+        DSMItem row2 = new DSMItem(2, 22, 2.0, "item2", null, null);
+        DSMItem row3 = new DSMItem(3, 33, 3.0, "item3", null, null);
+        DSMItem col1 = new DSMItem(11, 1, 1.0, "item1", null, null);
+        DSMItem col2 = new DSMItem(22, 2, 2.0, "item2", null, null);
+        DSMItem col3 = new DSMItem(33, 3, 3.0, "item3", null, null);
+        matrix.addItem(row1, true);
+        matrix.addItem(row2, true);
+        matrix.addItem(row3, true);
+        matrix.addItem(col1, false);
+        matrix.addItem(col2, false);
+        matrix.addItem(col3, false);
+        matrix.modifyConnection(1, 22, "x", 1.0, new ArrayList<>());
+        matrix.modifyConnection(1, 33, "x", 1.0, new ArrayList<>());
+        matrix.modifyConnection(2, 33, "x", 1.0, new ArrayList<>());
+        matrix.modifyConnection(3, 11, "x", 1.0, new ArrayList<>());
+
+        matrix.setCurrentStateAsCheckpoint();
+        matrix.deleteItem(row3);
+        matrix.setCurrentStateAsCheckpoint();
+        matrix.deleteConnection(1, 22);
+        matrix.setCurrentStateAsCheckpoint();
+
+        stressUndoRedo(matrix);
+
+        Assertions.assertEquals(0, matrix.getConnections().size());
+        Assertions.assertEquals(0, matrix.getRowConnections(1).size());
+        Assertions.assertEquals(0, matrix.getRowConnections(3).size());
+        Assertions.assertEquals(0, matrix.getColConnections(11).size());
+        Assertions.assertEquals(0, matrix.getColConnections(33).size());
+
+        matrix.undoToCheckpoint();
+        Assertions.assertEquals(1, matrix.getRowConnections(1).size());
+        Assertions.assertSame(matrix.getConnection(1, 22), matrix.getColConnections(22).iterator().next());
+
+        matrix.undoToCheckpoint();
+        Assertions.assertEquals(2, matrix.getRowConnections(1).size());
+        Assertions.assertEquals(1, matrix.getRowConnections(3).size());
+        Assertions.assertEquals(1, matrix.getColConnections(11).size());
+        Assertions.assertEquals(2, matrix.getColConnections(33).size());
+        for(DSMConnection conn : matrix.getConnections()) {
+            Assertions.assertTrue(matrix.getRowConnections(conn.getRowUid()).contains(conn));
+            Assertions.assertTrue(matrix.getColConnections(conn.getColUid()).contains(conn));
+        }
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> matrix.getRowConnections(1).clear());
+    }
+
+
+    /**
+     * Tests that the item lookups follow the rows and columns when the matrix is transposed
+     */
+    @Test
+    public void transposeItemLookupTest() {
+        AsymmetricDSMData matrix = new AsymmetricDSMData();
+        DSMItem row = new DSMItem(1, null, 1.0, "row", null, null);
+        DSMItem col = new DSMItem(2, null, 1.0, "col", null, null);
+        matrix.addItem(row, true);
+        matrix.addItem(col, false);
+
+        matrix.setCurrentStateAsCheckpoint();
+        matrix.transposeMatrix();
+        matrix.setCurrentStateAsCheckpoint();
+
+        stressUndoRedo(matrix);
+
+        Assertions.assertTrue(matrix.isCol(1));
+        Assertions.assertTrue(matrix.isRow(2));
+        Assertions.assertSame(row, matrix.getColItem(1));
+        Assertions.assertSame(col, matrix.getRowItem(2));
+
+        matrix.undoToCheckpoint();
+        Assertions.assertTrue(matrix.isRow(1));
+        Assertions.assertTrue(matrix.isCol(2));
+    }
+
+
     /**
      * Tests adding a single row item. Uses an Asymmetric matrix as the implementation class because it does not
      * override this method
@@ -520,4 +653,430 @@ public class AbstractDSMDataTest {
         Assertions.assertEquals(newName, matrix.getVersionNumber());
     }
 
+
+    /**
+     * Tests that the undo history drops the oldest checkpoints once it holds more than its limit and that the
+     * remaining checkpoints can still be undone and redone
+     */
+    @Test
+    public void undoHistoryCheckpointLimitTest() {
+        SymmetricDSMData matrix = new SymmetricDSMData();
+        matrix.setUndoHistoryLimits(3, AbstractDSMData.DEFAULT_MAX_UNDO_BYTES);
+        for(int i = 1; i <= 10; i++) {
+            matrix.setTitle("title" + i);
+            matrix.setProjectName("project" + i);
+            matrix.setCurrentStateAsCheckpoint();
+        }
+        Assertions.assertEquals(3, matrix.getUndoHistoryCheckpointCount());
+
+        stressUndoRedo(matrix);
+
+        while(matrix.canUndo()) {
+            matrix.undoToCheckpoint();
+        }
+        Assertions.assertEquals("title7", matrix.getTitle());
+        Assertions.assertEquals("project7", matrix.getProjectName());
+
+        while(matrix.canRedo()) {
+            matrix.redoToCheckpoint();
+        }
+        Assertions.assertEquals("title10", matrix.getTitle());
+        Assertions.assertEquals("project10", matrix.getProjectName());
+    }
+
+
+    /**
+     * Tests that the undo history reports its footprint and drops whole checkpoints when it grows past its byte
+     * limit
+     */
+    @Test
+    public void undoHistoryByteLimitTest() {
+        SymmetricDSMData matrix = new SymmetricDSMData();
+        for(int i = 0; i < 20; i++) {
+            matrix.createItem("item" + i, true);
+        }
+        matrix.setCurrentStateAsCheckpoint();
+        long itemsBytes = matrix.getUndoHistoryByteEstimate();
+        Assertions.assertTrue(itemsBytes > 0);
+
+        for(int i = 0; i < 20; i++) {
+            matrix.modifyConnection(matrix.getRows().get(i).getUid(), matrix.getCols().get((i + 1) % 20).getUid(), "x", 1.0, new ArrayList<>());
+        }
+        matrix.setCurrentStateAsCheckpoint();
+        matrix.deleteAllConnections();
+        matrix.setCurrentStateAsCheckpoint();
+        Assertions.assertEquals(3, matrix.getUndoHistoryCheckpointCount());
+
+        long maxBytes = matrix.getUndoHistoryByteEstimate() - itemsBytes;
+        matrix.setUndoHistoryLimits(AbstractDSMData.DEFAULT_MAX_UNDO_CHECKPOINTS, maxBytes);
+        Assertions.assertEquals(2, matrix.getUndoHistoryCheckpointCount());
+        Assertions.assertTrue(matrix.getUndoHistoryByteEstimate() <= maxBytes);
+
+        matrix.undoToCheckpoint();
+        Assertions.assertEquals(20, matrix.getConnections().size());
+        matrix.undoToCheckpoint();
+        Assertions.assertEquals(0, matrix.getConnections().size());
+        Assertions.assertFalse(matrix.canUndo());
+        Assertions.assertEquals(20, matrix.getRows().size());
+        Assertions.assertEquals(0, matrix.getUndoHistoryByteEstimate());
+    }
+
+
+    /**
+     * Tests that the changes of a batch are undone and redone as a single change and only mark the matrix as
+     * modified once
+     */
+    @Test
+    public void batchCommitTest() {
+        SymmetricDSMData matrix = new SymmetricDSMData();
+        for(int i = 0; i < 10; i++) {
+            matrix.createItem("item" + i, true);
+        }
+        matrix.setCurrentStateAsCheckpoint();
+        matrix.clearWasModifiedFlag();
+
+        int[] modifications = {0};
+        matrix.getWasModifiedProperty().addListener((o, oldValue, newValue) -> modifications[0] += 1);
+
+        matrix.beginBatch();
+        for(int i = 0; i < 10; i++) {
+            matrix.modifyConnection(matrix.getRows().get(i).getUid(), matrix.getCols().get((i + 1) % 10).getUid(), "x", 1.0, new ArrayList<>());
+        }
+        matrix.beginBatch();  // nested batches become part of the outer batch
+        matrix.setTitle("title");
+        matrix.commit();
+        Assertions.assertEquals(10, matrix.getConnections().size());
+        Assertions.assertEquals(0, modifications[0]);
+        Assertions.assertThrows(IllegalStateException.class, matrix::undoToCheckpoint);
+        matrix.commit();
+        matrix.setCurrentStateAsCheckpoint();
+
+        Assertions.assertEquals(1, modifications[0]);
+        Assertions.assertFalse(matrix.isBatchOpen());
+
+        stressUndoRedo(matrix);
+        Assertions.assertEquals(10, matrix.getConnections().size());
+        Assertions.assertEquals("title", matrix.getTitle());
+
+        matrix.undoToCheckpoint();
+        Assertions.assertEquals(0, matrix.getConnections().size());
+        Assertions.assertEquals("", matrix.getTitle());
+        Assertions.assertEquals(10, matrix.getRows().size());
+    }
+
+
+    /**
+     * Tests that rolling back a batch undoes its changes and puts nothing on the stack
+     */
+    @Test
+    public void batchRollbackTest() {
+        SymmetricDSMData matrix = new SymmetricDSMData();
+        matrix.setTitle("title");
+        matrix.setCurrentStateAsCheckpoint();
+
+        matrix.beginBatch();
+        matrix.setTitle("outer");
+        matrix.beginBatch();
+        matrix.setTitle("inner");
+        matrix.setProjectName("inner");
+        matrix.rollback();  // only the inner batch is rolled back
+        Assertions.assertEquals("outer", matrix.getTitle());
+        Assertions.assertEquals("", matrix.getProjectName());
+        matrix.rollback();
+
+        Assertions.assertEquals("title", matrix.getTitle());
+        Assertions.assertFalse(matrix.isBatchOpen());
+        Assertions.assertFalse(matrix.canRedo());
+        Assertions.assertThrows(IllegalStateException.class, matrix::commit);
+
+        matrix.undoToCheckpoint();
+        Assertions.assertEquals("", matrix.getTitle());
+        Assertions.assertFalse(matrix.canUndo());
+    }
+
+
+    /**
+     * Tests that the interface masks of the connections of a copy are read with the registry of the copy. The second
+     * interface is registered first so its index differs from the index it would get in a new registry
+     */
+    @Test
+    public void copyInterfaceMaskTest() {
+        DSMInterfaceType i1 = new DSMInterfaceType("interface1", "1");
+        DSMInterfaceType i2 = new DSMInterfaceType("interface2", "2");
+        for(AbstractDSMData matrix : new AbstractDSMData[]{new SymmetricDSMData(), new AsymmetricDSMData(), new MultiDomainDSMData()}) {
+            matrix.addInterfaceTypeGrouping("group");
+            matrix.addInterface("group", i1);
+            matrix.addInterface("group", i2);
+            matrix.createItem("row", true);
+            matrix.createItem("col", false);
+            int rowUid = matrix.getRows().get(0).getUid();
+            int colUid = matrix.getCols().get(matrix.getCols().size() - 1).getUid();
+            matrix.modifyConnection(rowUid, colUid, "x", 1.0, new ArrayList<>(List.of(i2)));
+
+            AbstractDSMData copy = matrix.createCopy();
+            Assertions.assertSame(matrix.getInterfaceRegistry(), copy.getInterfaceRegistry());
+            DSMConnection connection = copy.getConnection(rowUid, colUid);
+            BitSet mask = copy.getInterfaceRegistry().getMask(copy.getInterfaceTypes().get("group"));
+            Assertions.assertEquals(List.of(i2), connection.getInterfaces(mask));
+            Assertions.assertTrue(connection.hasAnyInterface(copy.getInterfaceRegistry().getMask(List.of(i2))));
+            Assertions.assertFalse(connection.hasAnyInterface(copy.getInterfaceRegistry().getMask(List.of(i1))));
+        }
+    }
+
+
+    /**
+     * Tests that a batch run through runBatch is rolled back and closed when the function throws
+     */
+    @Test
+    public void runBatchFailureTest() {
+        SymmetricDSMData matrix = new SymmetricDSMData();
+        matrix.setTitle("title");
+        matrix.setCurrentStateAsCheckpoint();
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> matrix.runBatch(() -> {
+            matrix.setTitle("changed");
+            throw new IllegalArgumentException();
+        }));
+        Assertions.assertEquals("title", matrix.getTitle());
+        Assertions.assertFalse(matrix.isBatchOpen());
+
+        matrix.runBatch(() -> matrix.setTitle("batch"));  // later edits are still recorded and can be undone
+        Assertions.assertFalse(matrix.isBatchOpen());
+        matrix.undoToCheckpoint();
+        Assertions.assertEquals("title", matrix.getTitle());
+    }
+
+
+    /**
+     * Tests that transposing a matrix with connections in both directions between two items keeps both connections
+     */
+    @Test
+    public void transposeOppositeConnectionsTest() {
+        SymmetricDSMData matrix = new SymmetricDSMData();
+        DSMItem row1 = new DSMItem(1, 11, 1.0, "item1", null, null);
+        DSMItem row2 = new DSMItem(2, 22, 2.0, "item2", null, null);
+        DSMItem col1 = new DSMItem(11, 1, 1.0, "item1", null, null);
+        DSMItem col2 = new DSMItem(22, 2, 2.0, "item2", null, null);
+        matrix.addItem(row1, true);
+        matrix.addItem(row2, true);
+        matrix.addItem(col1, false);
+        matrix.addItem(col2, false);
+        matrix.modifyConnection(1, 22, "a", 1.0, new ArrayList<>());
+        matrix.modifyConnection(2, 11, "b", 2.0, new ArrayList<>());
+        matrix.setCurrentStateAsCheckpoint();
+
+        matrix.transposeMatrix();
+        matrix.setCurrentStateAsCheckpoint();
+
+        stressUndoRedo(matrix);
+
+        Assertions.assertEquals(2, matrix.getConnections().size());
+        Assertions.assertEquals("a", matrix.getConnection(22, 1).getConnectionName());
+        Assertions.assertEquals("b", matrix.getConnection(11, 2).getConnectionName());
+
+        matrix.undoToCheckpoint();
+        Assertions.assertEquals("a", matrix.getConnection(1, 22).getConnectionName());
+        Assertions.assertEquals("b", matrix.getConnection(2, 11).getConnectionName());
+    }
+
+
+    /**
+     * Tests that loading items and connections in bulk indexes them and adds nothing to the stack
+     */
+    @Test
+    public void bulkLoadTest() {
+        SymmetricDSMData matrix = new SymmetricDSMData();
+        DSMItem row1 = new DSMItem(1, 11, 1.0, "item1", null, null);
+        DSMItem row2 = new DSMItem(2, 22, 2.0, "item2", null, null);
+        DSMItem col1 = new DSMItem(11, 1, 1.0, "item1", null, null);
+        DSMItem col2 = new DSMItem(22, 2, 2.0, "item2", null, null);
+        matrix.loadItems(Arrays.asList(row1, row2), true);
+        matrix.loadItems(Arrays.asList(col1, col2), false);
+
+        int skipped = matrix.loadConnections(Arrays.asList(
+                new DSMConnection("a", 1.0, 1, 22, new ArrayList<>(), matrix.getInterfaceRegistry()),
+                new DSMConnection("b", 2.0, 2, 11, new ArrayList<>(), matrix.getInterfaceRegistry()),
+                new DSMConnection("c", 3.0, 11, 2, new ArrayList<>(), matrix.getInterfaceRegistry()),  // row and column are swapped
+                new DSMConnection("d", 4.0, 1, 22, new ArrayList<>(), matrix.getInterfaceRegistry())   // replaces the first connection
+        ));
+
+        Assertions.assertFalse(matrix.canUndo());
+        Assertions.assertEquals(1, skipped);
+        Assertions.assertEquals(2, matrix.getConnections().size());
+        Assertions.assertEquals("d", matrix.getConnection(1, 22).getConnectionName());
+        Assertions.assertEquals(1, matrix.getRowConnections(2).size());
+        Assertions.assertSame(row2, matrix.getItem(2));
+        Assertions.assertSame(col1, matrix.getItemByAlias(1));
+        Assertions.assertTrue(matrix.isCol(22));
+
+        matrix.deleteItem(row1);  // matrix behaves normally after loading
+        matrix.setCurrentStateAsCheckpoint();
+        Assertions.assertEquals(0, matrix.getConnections().size());  // the row and its aliased column are both deleted
+        matrix.undoToCheckpoint();
+        Assertions.assertEquals(2, matrix.getConnections().size());
+    }
+
+
+    /**
+     * Tests that change listeners receive the deltas for changes and the inverse deltas when they are undone and redone
+     */
+    @Test
+    public void changeEventsTest() {
+        SymmetricDSMData matrix = new SymmetricDSMData();
+        DSMItem row1 = new DSMItem(1, 11, 1.0, "item1", null, null);
+        DSMItem col1 = new DSMItem(11, 1, 1.0, "item1", null, null);
+        DSMItem col2 = new DSMItem(22, 2, 2.0, "item2", null, null);
+        matrix.addItem(row1, true);
+        matrix.addItem(col1, false);
+        matrix.addItem(col2, false);
+        matrix.setCurrentStateAsCheckpoint();
+
+        ArrayList<String> events = new ArrayList<>();
+        MatrixChangeListener listener = new MatrixChangeListener() {
+            @Override
+            public void itemRenamed(DSMItem item, String oldName) {
+                events.add("renamed " + item.getUid() + " " + oldName + " " + item.getName().getValue());
+            }
+
+            @Override
+            public void connectionCreated(DSMConnection connection) {
+                events.add("created " + connection.getConnectionName());
+            }
+
+            @Override
+            public void connectionModified(DSMConnection oldConnection, DSMConnection newConnection) {
+                events.add("modified " + oldConnection.getConnectionName() + " " + newConnection.getConnectionName());
+            }
+
+            @Override
+            public void connectionRemoved(DSMConnection connection) {
+                events.add("removed " + connection.getConnectionName());
+            }
+
+            @Override
+            public void batchCommitted() {
+                events.add("committed");
+            }
+        };
+        matrix.addChangeListener(listener);
+
+        matrix.modifyConnection(1, 22, "a", 1.0, new ArrayList<>());
+        matrix.modifyConnection(1, 22, "b", 1.0, new ArrayList<>());
+        matrix.deleteConnection(1, 22);
+        matrix.setCurrentStateAsCheckpoint();
+        Assertions.assertEquals(Arrays.asList("created a", "modified a b", "removed b"), events);
+
+        events.clear();
+        matrix.undoToCheckpoint();
+        Assertions.assertEquals(Arrays.asList("created b", "modified b a", "removed a"), events);
+
+        events.clear();
+        matrix.redoToCheckpoint();
+        Assertions.assertEquals(Arrays.asList("created a", "modified a b", "removed b"), events);
+
+        events.clear();
+        matrix.beginBatch();
+        matrix.setItemName(row1, "renamed");
+        matrix.commit();
+        matrix.setCurrentStateAsCheckpoint();
+        Assertions.assertEquals(Arrays.asList("renamed 1 item1 renamed", "renamed 11 item1 renamed", "committed"), events);
+
+        events.clear();
+        matrix.removeChangeListener(listener);
+        matrix.undoToCheckpoint();
+        Assertions.assertTrue(events.isEmpty());
+        Assertions.assertEquals("item1", row1.getName().getValue());
+    }
+
+
+    /**
+     * Tests that rows and columns stay in sort index order as items are added and moved, including through undo and
+     * redo, and that bulk loaded items are put in order when the grid is built
+     */
+    @Test
+    public void itemOrderTest() {
+        AsymmetricDSMData matrix = new AsymmetricDSMData();
+        DSMItem row1 = new DSMItem(1, null, 3.0, "row1", null, null);
+        DSMItem row2 = new DSMItem(2, null, 1.0, "row2", null, null);
+        DSMItem row3 = new DSMItem(3, null, 2.0, "row3", null, null);
+        matrix.addItem(row1, true);
+        matrix.addItem(row2, true);
+        matrix.addItem(row3, true);
+        matrix.setCurrentStateAsCheckpoint();
+        Assertions.assertEquals(Arrays.asList(row2, row3, row1), matrix.getRows());
+
+        matrix.setItemSortIndex(row2, 5.0);
+        matrix.setCurrentStateAsCheckpoint();
+        Assertions.assertEquals(Arrays.asList(row3, row1, row2), matrix.getRows());
+
+        stressUndoRedo(matrix);
+        Assertions.assertEquals(Arrays.asList(row3, row1, row2), matrix.getRows());
+
+        matrix.undoToCheckpoint();
+        Assertions.assertEquals(Arrays.asList(row2, row3, row1), matrix.getRows());
+
+        DSMItem col1 = new DSMItem(11, null, 2.0, "col1", null, null);
+        DSMItem col2 = new DSMItem(12, null, 1.0, "col2", null, null);
+        matrix.loadItems(Arrays.asList(col1, col2), false);
+        matrix.getGridModel();
+        Assertions.assertEquals(Arrays.asList(col2, col1), matrix.getCols());
+
+        matrix.reDistributeSortIndices();
+        Assertions.assertEquals(Arrays.asList(row2, row3, row1), matrix.getRows());
+        Assertions.assertEquals(1.0, row2.getSortIndex());
+        Assertions.assertEquals(3.0, row1.getSortIndex());
+    }
+
+
+    /**
+     * Tests that a thread reading the matrix with read and getSnapshot only sees whole checkpoints while another
+     * thread undoes and redoes them
+     */
+    @Test
+    public void backgroundReadTest() throws InterruptedException {
+        SymmetricDSMData matrix = new SymmetricDSMData();
+        for(int i = 0; i < 10; i++) {
+            matrix.createItem("item" + i, true);
+        }
+        matrix.setCurrentStateAsCheckpoint();
+        for(int i = 0; i < 4; i++) {  // each checkpoint creates an even number of connections
+            matrix.modifyConnection(matrix.getRows().get(i).getUid(), matrix.getCols().get(i + 1).getUid(), "x", 1.0, new ArrayList<>());
+            matrix.modifyConnection(matrix.getRows().get(i + 1).getUid(), matrix.getCols().get(i).getUid(), "x", 1.0, new ArrayList<>());
+            matrix.setCurrentStateAsCheckpoint();
+        }
+
+        AtomicBoolean done = new AtomicBoolean(false);
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        Thread reader = new Thread(() -> {
+            try {
+                while(!done.get()) {
+                    int numConnections = matrix.read(() -> {
+                        int count = 0;
+                        for(DSMConnection ignored : matrix.getConnections()) {
+                            count += 1;
+                        }
+                        Assertions.assertEquals(count, matrix.createCopy().getConnections().size());
+                        return count;
+                    });
+                    Assertions.assertEquals(0, numConnections % 2);
+                    Assertions.assertEquals(0, matrix.getSnapshot().getNumConnections() % 2);
+                }
+            } catch(Throwable e) {
+                error.set(e);
+            }
+        });
+        reader.start();
+
+        for(int i = 0; i < 500; i++) {
+            matrix.undoToCheckpoint();
+            matrix.undoToCheckpoint();
+            matrix.redoToCheckpoint();
+            matrix.redoToCheckpoint();
+        }
+        done.set(true);
+        reader.join();
+
+        Assertions.assertNull(error.get());
+        Assertions.assertEquals(8, matrix.getConnections().size());
+    }
 }
@@ -1,5 +1,6 @@
 package Matrices.Data;
 
+import Matrices.Data.Entities.DSMConnection;
 import Matrices.Data.Entities.DSMItem;
 import Matrices.Data.Entities.Grouping;
 import javafx.scene.paint.Color;
@@ -54,7 +55,8 @@ public class AsymmetricDSMDataTest {
         // perform the changes
         matrix.getRows().get(0).setName("-");
         matrix.getCols().get(0).setName("-");
-        matrix.getConnections().get(0).setConnectionName("-");
+        DSMConnection conn = matrix.getConnections().get(0);  // connections are immutable so they are changed through the matrix
+        matrix.modifyConnection(conn.getRowUid(), conn.getColUid(), "-", conn.getWeight(), conn.getInterfaces());
         matrix.setTitle("-");
         matrix.setProjectName("-");
         matrix.setCustomer("-");
@@ -253,4 +255,41 @@ public class AsymmetricDSMDataTest {
         Assertions.assertEquals("item1", matrix.getRows().get(0).getName().getValue());
     }
 
+
+    /**
+     * Tests that the row and column grouping indices are kept separately and follow undo and redo of regrouping and
+     * transposing
+     */
+    @Test
+    public void groupingIndexTest() {
+        AsymmetricDSMData matrix = new AsymmetricDSMData();
+        matrix.createItem("row1", true);
+        matrix.createItem("row2", true);
+        matrix.createItem("col1", false);
+        matrix.setCurrentStateAsCheckpoint();
+        Grouping rowDefault = matrix.getGroupings(true).get(0);
+        Grouping colDefault = matrix.getGroupings(false).get(0);
+        Assertions.assertEquals(2, matrix.getGroupingSize(rowDefault, true));
+        Assertions.assertEquals(1, matrix.getGroupingSize(colDefault, false));
+
+        Grouping group = new Grouping("group", null);
+        DSMItem row1 = matrix.getRows().get(0);
+        matrix.setItemGroup(row1, group);
+        matrix.setCurrentStateAsCheckpoint();
+        stressUndoRedo(matrix);
+        Assertions.assertEquals(1, matrix.getGroupingSize(group, true));
+        Assertions.assertEquals(0, matrix.getGroupingSize(group, false));
+        Assertions.assertEquals(1, matrix.getGroupingSize(rowDefault, true));
+
+        matrix.transposeMatrix();
+        matrix.setCurrentStateAsCheckpoint();
+        Assertions.assertEquals(1, matrix.getGroupingSize(group, false));
+        Assertions.assertEquals(1, matrix.getGroupingSize(colDefault, true));
+
+        matrix.undoToCheckpoint();
+        matrix.undoToCheckpoint();
+        Assertions.assertEquals(0, matrix.getGroupingSize(group, true));
+        Assertions.assertEquals(2, matrix.getGroupingSize(rowDefault, true));
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,77 @@
+package Matrices.Data;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+
+/**
+ * Test class for the implementations of ClusteringEngine. Tests that every engine is reproducible from its seed and
+ * reports the true cost of the assignment it returns
+ */
+public class ClusteringEngineTest {
+
+    /**
+     * Creates a symmetric matrix made of densely connected blocks with a few connections between blocks
+     *
+     * @param numBlocks  the number of blocks
+     * @param blockSize  the number of items in each block
+     * @param seed       the seed for the random connections
+     * @return           the matrix
+     */
+    private static SymmetricDSMData createBlockMatrix(int numBlocks, int blockSize, long seed) {
+        SymmetricDSMData matrix = new SymmetricDSMData();
+        int numItems = numBlocks * blockSize;
+        for(int i = 0; i < numItems; i++) {
+            matrix.createItem("item" + i, true);
+        }
+
+        Random generator = new Random(seed);
+        for(int r = 0; r < numItems; r++) {
+            for(int c = 0; c < numItems; c++) {
+                boolean sameBlock = r / blockSize == c / blockSize;
+                if(r != c && generator.nextDouble() < (sameBlock ? 0.7 : 0.02)) {
+                    matrix.modifyConnection(matrix.getRows().get(r).getUid(), matrix.getCols().get(c).getUid(), "x", 1 + generator.nextInt(3), new ArrayList<>());
+                }
+            }
+        }
+        matrix.setCurrentStateAsCheckpoint();
+
+        return matrix;
+    }
+
+
+    /**
+     * Tests that each engine gives the same result for the same seed, that the cost it reports matches the cost of
+     * the returned assignment, and that it improves on every item being in its own cluster
+     */
+    @Test
+    public void enginesTest() {
+        SymmetricDSMData matrix = createBlockMatrix(5, 5, 21);
+        MatrixSnapshot snapshot = matrix.getSnapshot();
+        ClusteringParameters parameters = new ClusteringParameters(5.0, 4.0, 1.0, 1.0, 122.0, 122.0, true, 3000);
+
+        int[] singletons = new int[snapshot.getNumRows()];
+        for(int i = 0; i < singletons.length; i++) {
+            singletons[i] = i;
+        }
+        double initialCost = new ClusteringState(snapshot, singletons, singletons.length, 5.0, 1.0, true).getCost();
+
+        for(ClusteringEngine engine : ClusteringEngine.getEngines()) {
+            ClusteringResult first = engine.cluster(snapshot, parameters, 17, null);
+            ClusteringResult second = engine.cluster(snapshot, parameters, 17, null);
+            Assertions.assertArrayEquals(first.getAssignment(), second.getAssignment(), engine.getName());
+
+            double cost = new ClusteringState(snapshot, first.getAssignment().clone(), first.getNumClusters(), 5.0, 1.0, true).getCost();
+            Assertions.assertEquals(cost, first.getCost(), 1e-6 * cost, engine.getName());
+            Assertions.assertTrue(first.getCost() < initialCost, engine.getName());
+
+            SymmetricDSMData clustered = matrix.createCopy();
+            clustered.applyClusterAssignment(first.getAssignment(), first.getNumClusters());
+            double matrixCost = (Double)SymmetricDSMData.getCoordinationScore(clustered, 5.0, 1.0, true).get("TotalCost");
+            Assertions.assertEquals(matrixCost, first.getCost(), 1e-6 * matrixCost, engine.getName());
+        }
+    }
+}
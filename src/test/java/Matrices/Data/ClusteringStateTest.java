@@ -0,0 +1,150 @@
+package Matrices.Data;
+
+import Matrices.Data.Entities.DSMConnection;
+import Matrices.Data.Entities.DSMItem;
+import Matrices.Data.Entities.Grouping;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+
+/**
+ * Test class for the ClusteringState class. Tests that the incrementally maintained coordination cost always agrees
+ * with the cost calculated from the whole matrix
+ */
+public class ClusteringStateTest {
+
+    /**
+     * Creates a symmetric matrix with random connections and places each row in a random one of the given groupings
+     *
+     * @param numItems        the number of items in the matrix
+     * @param numConnections  the number of connections to try to create
+     * @param groups          the groupings to create and place items in
+     * @param generator       the random number generator to use
+     * @return                the matrix
+     */
+    private static SymmetricDSMData createMatrix(int numItems, int numConnections, ArrayList<Grouping> groups, Random generator) {
+        SymmetricDSMData matrix = MatrixSnapshotTest.createMatrix(numItems, numConnections, generator);
+        for(Grouping group : groups) {
+            matrix.addGrouping(group);
+        }
+        for(int i = 0; i < numItems; i++) {
+            matrix.setItemGroup(matrix.getRows().get(i), groups.get(generator.nextInt(groups.size())));
+        }
+        matrix.setCurrentStateAsCheckpoint();
+
+        return matrix;
+    }
+
+
+    /**
+     * Tests that the cost of a state and the delta of random moves match the coordination score of the matrix when
+     * the same moves are made to it
+     */
+    @Test
+    public void moveDeltaTest() {
+        Random generator = new Random(7);
+        for(boolean calculateByWeight : new boolean[]{true, false}) {
+            ArrayList<Grouping> groups = new ArrayList<>();
+            for(int g = 0; g < 6; g++) {
+                groups.add(new Grouping("G" + g, null));
+            }
+            SymmetricDSMData matrix = createMatrix(30, 150, groups, generator);
+
+            ClusteringState state = new ClusteringState(matrix, groups, 4.0, 1.5, calculateByWeight);
+            double expected = (Double)SymmetricDSMData.getCoordinationScore(matrix, 4.0, 1.5, calculateByWeight).get("TotalCost");
+            Assertions.assertEquals(expected, state.getCost(), 1e-6 * expected);
+
+            for(int i = 0; i < 200; i++) {
+                int item = generator.nextInt(state.getNumItems());
+                int cluster = generator.nextInt(state.getNumClusters());
+                double before = state.getCost();
+                double delta = state.getMoveDelta(item, cluster);
+
+                state.moveItem(item, cluster);
+                matrix.setItemGroup(matrix.getRows().get(item), groups.get(cluster));
+                expected = (Double)SymmetricDSMData.getCoordinationScore(matrix, 4.0, 1.5, calculateByWeight).get("TotalCost");
+
+                Assertions.assertEquals(expected, state.getCost(), 1e-6 * expected);
+                Assertions.assertEquals(expected, before + delta, 1e-6 * expected);
+                Assertions.assertEquals(cluster, state.getCluster(item));
+            }
+
+            for(int g = 0; g < groups.size(); g++) {
+                int size = 0;
+                for(int i = 0; i < state.getNumItems(); i++) {
+                    if(matrix.getRows().get(i).getGroup1().equals(groups.get(g))) size += 1;
+                }
+                Assertions.assertEquals(size, state.getClusterSize(g));
+            }
+        }
+    }
+
+
+    /**
+     * Tests that setting the assignment after many moves gives exactly the cost of a new state with that assignment
+     */
+    @Test
+    public void setAssignmentTest() {
+        Random generator = new Random(11);
+        SymmetricDSMData matrix = createMatrix(30, 150, new ArrayList<>(List.of(new Grouping("G", null))), generator);
+        MatrixSnapshot snapshot = matrix.getSnapshot();
+        ClusteringState state = new ClusteringState(snapshot, new int[30], 5, 4.0, 1.5, true);
+        for(int i = 0; i < 5000; i++) {
+            state.moveItem(generator.nextInt(30), generator.nextInt(5));
+        }
+
+        int[] assignment = new int[30];
+        for(int i = 0; i < assignment.length; i++) {
+            assignment[i] = generator.nextInt(5);
+        }
+        state.setAssignment(assignment);
+        ClusteringState expected = new ClusteringState(snapshot, assignment.clone(), 5, 4.0, 1.5, true);
+
+        Assertions.assertEquals(expected.getCost(), state.getCost());
+        for(int g = 0; g < 5; g++) {
+            Assertions.assertEquals(expected.getClusterSize(g), state.getClusterSize(g));
+            Assertions.assertEquals(expected.getIntraCost(g), state.getIntraCost(g));
+        }
+        Assertions.assertEquals(expected.getExtraCost(), state.getExtraCost());
+    }
+
+
+    /**
+     * Tests that the bids of all clusters for an item match the bids calculated by scanning the whole matrix
+     */
+    @Test
+    public void bidsTest() {
+        Random generator = new Random(13);
+        ArrayList<Grouping> groups = new ArrayList<>();
+        for(int g = 0; g < 5; g++) {
+            groups.add(new Grouping("G" + g, null));
+        }
+        groups.add(new Grouping("empty", null));  // a cluster with no items can still bid
+        SymmetricDSMData matrix = createMatrix(25, 100, new ArrayList<>(groups.subList(0, 5)), generator);
+
+        ClusteringState state = new ClusteringState(matrix, groups, 4.5, 1.0, true);
+        double[] bids = new double[groups.size()];
+        for(DSMItem row : matrix.getRows()) {
+            state.getBids(state.getItemIndex(row.getUid()), 2.0, 1.0, false, bids);
+            for(int g = 0; g < groups.size(); g++) {
+                int clusterSize = 0;
+                for(DSMItem other : matrix.getRows()) {
+                    if(other.getGroup1().equals(groups.get(g))) clusterSize += 1;
+                }
+                double inout = 0.0;
+                for(DSMConnection conn : matrix.getRowConnections(row.getUid())) {
+                    DSMItem col = matrix.getColItem(conn.getColUid());
+                    if(col.getGroup1().equals(groups.get(g)) && col.getAliasUid() != row.getUid()) inout += conn.getWeight();
+                }
+                double expected = Math.pow(inout, 2.0) / Math.pow(Math.abs(4.5 - clusterSize), 1.0);
+
+                Assertions.assertEquals(expected, bids[g], 1e-9 * Math.max(1.0, expected));
+                Assertions.assertEquals(bids[g], state.getBid(state.getItemIndex(row.getUid()), g, 2.0, 1.0));
+            }
+        }
+    }
+}
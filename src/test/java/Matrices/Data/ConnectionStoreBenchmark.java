@@ -0,0 +1,63 @@
+package Matrices.Data;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+
+import java.util.Random;
+
+
+/**
+ * Benchmark for looking up cells of a matrix. Not run as part of the normal test suite because of its run time,
+ * run it with: mvn test -Dtest=ConnectionStoreBenchmark
+ */
+public class ConnectionStoreBenchmark {
+
+    private static final int NUM_LOOKUPS = 2_000_000;
+
+
+    /**
+     * Looks up random cells of a matrix and returns the average time per lookup
+     *
+     * @param matrix  the matrix to look up cells in
+     * @return        nanoseconds per lookup
+     */
+    private static double timeLookups(AbstractDSMData matrix) {
+        int n = matrix.getRows().size();
+        int[] rowUids = matrix.getRows().stream().mapToInt(r -> r.getUid()).toArray();
+        int[] colUids = matrix.getCols().stream().mapToInt(c -> c.getUid()).toArray();
+        Random generator = new Random(1);
+
+        int found = 0;
+        long start = System.nanoTime();
+        for(int i = 0; i < NUM_LOOKUPS; i++) {
+            if(matrix.getConnection(rowUids[generator.nextInt(n)], colUids[generator.nextInt(n)]) != null) {
+                found += 1;
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        Assertions.assertTrue(found >= 0);  // keep the loop from being optimized away
+
+        return (double) elapsed / NUM_LOOKUPS;
+    }
+
+
+    /**
+     * Reports the cost of looking up random cells as the number of connections grows. Lookups never scan the
+     * connections, but the cost still grows with the size of the store (about 9x from 2,000 to 100,000 connections on
+     * a development machine) because the hash index stops fitting in the cpu caches. The times are only reported
+     * because wall clock times depend on the machine the benchmark runs on
+     *
+     * @param reporter  where to report the time per lookup of each size
+     */
+    @Test
+    public void cellLookupBenchmark(TestReporter reporter) {
+        timeLookups(MatrixSnapshotTest.createMatrix(500, 500 * 5, new Random(0)));  // warm up
+
+        for(int connectionsPerRow : new int[]{1, 10, 50}) {
+            SymmetricDSMData matrix = MatrixSnapshotTest.createMatrix(2000, 2000 * connectionsPerRow, new Random(0));
+            double nsPerLookup = timeLookups(matrix);
+            reporter.publishEntry("ns per lookup with " + matrix.getConnections().size() + " connections", String.format("%.1f", nsPerLookup));
+        }
+    }
+}
@@ -0,0 +1,309 @@
+package Matrices.Data;
+
+import Matrices.Data.Entities.DSMConnection;
+import Matrices.Data.Entities.InterfaceTypeRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+
+/**
+ * Test class for the ConnectionStore class. Tests that the index stays consistent with the stored connections
+ */
+public class ConnectionStoreTest {
+    private static final InterfaceTypeRegistry REGISTRY = new InterfaceTypeRegistry();
+
+
+    /**
+     * Tests that connections can be found by their row and column uids, including negative uids
+     */
+    @Test
+    public void getTest() {
+        ConnectionStore store = new ConnectionStore();
+        DSMConnection conn1 = new DSMConnection("a", 1.0, 1, 2, new ArrayList<>(), REGISTRY);
+        DSMConnection conn2 = new DSMConnection("b", 1.0, -1, -2, new ArrayList<>(), REGISTRY);
+        DSMConnection conn3 = new DSMConnection("c", 1.0, 2, 1, new ArrayList<>(), REGISTRY);
+        store.add(conn1);
+        store.add(conn2);
+        store.add(conn3);
+
+        Assertions.assertEquals(3, store.size());
+        Assertions.assertSame(conn1, store.get(1, 2));
+        Assertions.assertSame(conn2, store.get(-1, -2));
+        Assertions.assertSame(conn3, store.get(2, 1));
+        Assertions.assertNull(store.get(1, 1));
+        Assertions.assertNull(store.get(-1, 2));
+    }
+
+
+    /**
+     * Tests that adding a connection with the same uids as an existing one replaces it
+     */
+    @Test
+    public void addReplacesTest() {
+        ConnectionStore store = new ConnectionStore();
+        store.add(new DSMConnection("a", 1.0, 1, 2, new ArrayList<>(), REGISTRY));
+        DSMConnection replacement = new DSMConnection("b", 2.0, 1, 2, new ArrayList<>(), REGISTRY);
+        store.add(replacement);
+
+        Assertions.assertEquals(1, store.size());
+        Assertions.assertSame(replacement, store.get(1, 2));
+    }
+
+
+    /**
+     * Tests that removing connections from the middle of the store keeps the index consistent
+     */
+    @Test
+    public void removeTest() {
+        ConnectionStore store = new ConnectionStore();
+        for(int i = 0; i < 10; i++) {
+            store.add(new DSMConnection("x", i, i, i + 100, new ArrayList<>(), REGISTRY));
+        }
+
+        Assertions.assertNotNull(store.remove(3, 103));
+        Assertions.assertNull(store.remove(3, 103));
+        Assertions.assertTrue(store.remove(new DSMConnection("y", 0, 0, 100, new ArrayList<>(), REGISTRY)));
+        Assertions.assertNotNull(store.remove(9, 109));
+
+        Assertions.assertEquals(7, store.size());
+        for(int i = 0; i < 10; i++) {
+            if(i == 0 || i == 3 || i == 9) {
+                Assertions.assertNull(store.get(i, i + 100));
+            } else {
+                Assertions.assertEquals(i, store.get(i, i + 100).getWeight());
+            }
+        }
+
+        int count = 0;
+        for(DSMConnection conn : store) {
+            Assertions.assertSame(conn, store.get(conn.getRowUid(), conn.getColUid()));
+            count += 1;
+        }
+        Assertions.assertEquals(7, count);
+    }
+
+
+    /**
+     * Tests that the connections of a row and the connections into a column follow additions, replacements,
+     * and removals
+     */
+    @Test
+    public void adjacencyTest() {
+        ConnectionStore store = new ConnectionStore();
+        store.add(new DSMConnection("a", 1.0, 1, 10, new ArrayList<>(), REGISTRY));
+        store.add(new DSMConnection("b", 1.0, 1, 20, new ArrayList<>(), REGISTRY));
+        store.add(new DSMConnection("c", 1.0, 2, 20, new ArrayList<>(), REGISTRY));
+        DSMConnection replacement = new DSMConnection("d", 2.0, 1, 20, new ArrayList<>(), REGISTRY);
+        store.add(replacement);
+
+        Assertions.assertEquals(2, store.getRowConnections(1).size());
+        Assertions.assertTrue(store.getRowConnections(1).contains(replacement));
+        Assertions.assertEquals(2, store.getColConnections(20).size());
+        Assertions.assertTrue(store.getColConnections(20).contains(replacement));
+        Assertions.assertEquals(0, store.getRowConnections(10).size());
+
+        store.remove(1, 10);
+        Assertions.assertEquals(1, store.getRowConnections(1).size());
+        Assertions.assertEquals(0, store.getColConnections(10).size());
+
+        store.clear();
+        Assertions.assertEquals(0, store.getRowConnections(1).size());
+        Assertions.assertEquals(0, store.getColConnections(20).size());
+    }
+
+
+    /**
+     * Tests removing several connections at once and clearing the store
+     */
+    @Test
+    public void removeAllAndClearTest() {
+        DSMConnection conn1 = new DSMConnection("a", 1.0, 1, 2, new ArrayList<>(), REGISTRY);
+        DSMConnection conn2 = new DSMConnection("b", 1.0, 3, 4, new ArrayList<>(), REGISTRY);
+        DSMConnection conn3 = new DSMConnection("c", 1.0, 5, 6, new ArrayList<>(), REGISTRY);
+        ConnectionStore store = new ConnectionStore(Arrays.asList(conn1, conn2, conn3));
+
+        store.removeAll(Arrays.asList(conn1, conn3));
+        Assertions.assertEquals(1, store.size());
+        Assertions.assertTrue(store.contains(conn2));
+        Assertions.assertFalse(store.contains(conn1));
+
+        store.clear();
+        Assertions.assertEquals(0, store.size());
+        Assertions.assertFalse(store.contains(3, 4));
+    }
+
+
+    /**
+     * Tests that iteration order is stable and matches insertion order when nothing is removed
+     */
+    @Test
+    public void iterationOrderTest() {
+        ConnectionStore store = new ConnectionStore();
+        for(int i = 0; i < 100; i++) {
+            store.add(new DSMConnection("x", 1.0, i * 7919, i, new ArrayList<>(), REGISTRY));
+        }
+
+        int i = 0;
+        for(DSMConnection conn : store) {
+            Assertions.assertEquals(i, conn.getColUid());
+            Assertions.assertSame(conn, store.get(i));
+            i += 1;
+        }
+    }
+
+
+    /**
+     * Tests that changes made to a store after it is copied are not seen by the copy and the other way around
+     */
+    @Test
+    public void copyTest() {
+        ConnectionStore store = new ConnectionStore();
+        store.add(new DSMConnection("a", 1.0, 1, 10, new ArrayList<>(), REGISTRY));
+        store.add(new DSMConnection("b", 1.0, 1, 20, new ArrayList<>(), REGISTRY));
+        store.add(new DSMConnection("c", 1.0, 2, 20, new ArrayList<>(), REGISTRY));
+
+        ConnectionStore copy = store.copy();
+        store.remove(1, 10);
+        store.add(new DSMConnection("d", 2.0, 1, 20, new ArrayList<>(), REGISTRY));
+        copy.add(new DSMConnection("e", 1.0, 3, 30, new ArrayList<>(), REGISTRY));
+        copy.remove(2, 20);
+
+        Assertions.assertEquals(2, store.size());
+        Assertions.assertNull(store.get(1, 10));
+        Assertions.assertEquals("d", store.get(1, 20).getConnectionName());
+        Assertions.assertEquals("c", store.get(2, 20).getConnectionName());
+        Assertions.assertNull(store.get(3, 30));
+        Assertions.assertEquals(1, store.getRowConnections(1).size());
+        Assertions.assertEquals(2, store.getColConnections(20).size());
+
+        Assertions.assertEquals(3, copy.size());
+        Assertions.assertEquals("a", copy.get(1, 10).getConnectionName());
+        Assertions.assertEquals("b", copy.get(1, 20).getConnectionName());
+        Assertions.assertNull(copy.get(2, 20));
+        Assertions.assertEquals("e", copy.get(3, 30).getConnectionName());
+        Assertions.assertEquals(2, copy.getRowConnections(1).size());
+        Assertions.assertEquals(1, copy.getColConnections(20).size());
+
+        int count = 0;
+        for(DSMConnection conn : copy) {
+            Assertions.assertSame(conn, copy.get(conn.getRowUid(), conn.getColUid()));
+            Assertions.assertSame(conn, copy.get(count));
+            count += 1;
+        }
+        Assertions.assertEquals(3, count);
+    }
+
+
+    /**
+     * Tests long chains of copies with random edits against a map of the expected connections
+     */
+    @Test
+    public void copyChainTest() {
+        Random generator = new Random(0);
+        ConnectionStore store = new ConnectionStore();
+        HashMap<Long, DSMConnection> expected = new HashMap<>();
+        ArrayList<ConnectionStore> abandoned = new ArrayList<>();  // old stores that keep changing but must not affect the chain
+
+        for(int i = 0; i < 50; i++) {
+            for(int j = 0; j < 20; j++) {
+                int row = generator.nextInt(10);
+                int col = generator.nextInt(10) + 100;
+                if(generator.nextBoolean()) {
+                    DSMConnection conn = new DSMConnection("x", generator.nextDouble(), row, col, new ArrayList<>(), REGISTRY);
+                    store.add(conn);
+                    expected.put(ConnectionStore.key(row, col), conn);
+                } else {
+                    store.remove(row, col);
+                    expected.remove(ConnectionStore.key(row, col));
+                }
+            }
+            for(ConnectionStore old : abandoned) {
+                old.add(new DSMConnection("y", 0.0, generator.nextInt(10), generator.nextInt(10) + 100, new ArrayList<>(), REGISTRY));
+                old.remove(generator.nextInt(10), generator.nextInt(10) + 100);
+            }
+            abandoned.add(store);
+            store = store.copy();
+
+            Assertions.assertEquals(expected.size(), store.size());
+            int count = 0;
+            for(DSMConnection conn : store) {
+                Assertions.assertSame(expected.get(ConnectionStore.key(conn.getRowUid(), conn.getColUid())), conn);
+                count += 1;
+            }
+            Assertions.assertEquals(expected.size(), count);
+            for(int row = 0; row < 10; row++) {
+                for(DSMConnection conn : store.getRowConnections(row)) {
+                    Assertions.assertEquals(row, conn.getRowUid());
+                    Assertions.assertSame(expected.get(ConnectionStore.key(row, conn.getColUid())), conn);
+                }
+                final int r = row;
+                Assertions.assertEquals(expected.values().stream().filter(c -> c.getRowUid() == r).count(), store.getRowConnections(row).size());
+            }
+        }
+    }
+
+
+    /**
+     * Tests that copies made while other threads read the store do not change what the readers see. The store is
+     * changed between rounds, while nothing reads it, so that every round freezes a new layer
+     */
+    @Test
+    public void copyWhileReadingTest() throws InterruptedException {
+        ConnectionStore store = new ConnectionStore();
+        for(int i = 0; i < 200; i++) {
+            store.add(new DSMConnection("a", 1.0, i % 20, i, new ArrayList<>(), REGISTRY));
+        }
+
+        for(int round = 0; round < 20; round++) {  // enough rounds for the layers to be flattened
+            store.add(new DSMConnection("b", 1.0, round, round, new ArrayList<>(), REGISTRY));  // replaces a connection
+
+            AtomicBoolean done = new AtomicBoolean(false);
+            AtomicReference<Throwable> failure = new AtomicReference<>();
+            Thread[] readers = new Thread[4];
+            for(int t = 0; t < readers.length; t++) {
+                readers[t] = new Thread(() -> {
+                    try {
+                        while(!done.get()) {
+                            int count = 0;
+                            for(DSMConnection conn : store) {
+                                Assertions.assertSame(conn, store.get(conn.getRowUid(), conn.getColUid()));
+                                count += 1;
+                            }
+                            Assertions.assertEquals(200, count);
+                            Assertions.assertEquals(10, store.getRowConnections(3).size());
+                        }
+                    } catch(Throwable e) {
+                        failure.compareAndSet(null, e);
+                    }
+                });
+                readers[t].start();
+            }
+
+            ArrayList<ConnectionStore> copies = new ArrayList<>();
+            for(int i = 0; i < 10; i++) {
+                ConnectionStore copy = store.copy();
+                copy.remove(i, i);
+                copies.add(copy);
+            }
+            done.set(true);
+            for(Thread reader : readers) {
+                reader.join();
+            }
+
+            Assertions.assertNull(failure.get());
+            Assertions.assertEquals(200, store.size());
+            Assertions.assertEquals("b", store.get(round, round).getConnectionName());
+            for(int i = 0; i < copies.size(); i++) {
+                Assertions.assertEquals(199, copies.get(i).size());
+                Assertions.assertFalse(copies.get(i).contains(i, i));
+            }
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package Matrices.Data;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+
+/**
+ * Test class for the CostSampleBuffer class
+ */
+public class CostSampleBufferTest {
+
+    /**
+     * Tests that the buffer keeps the newest samples in order once it wraps around
+     */
+    @Test
+    public void wrapAroundTest() {
+        CostSampleBuffer buffer = new CostSampleBuffer(4);
+        long[] iterations = new long[4];
+        double[] costs = new double[4];
+
+        buffer.add(1, 10.0);
+        buffer.add(2, 9.0);
+        Assertions.assertEquals(2, buffer.copyTo(iterations, costs));
+        Assertions.assertArrayEquals(new long[]{1, 2}, Arrays.copyOf(iterations, 2));
+
+        for(int i = 3; i <= 10; i++) {
+            buffer.add(i, 11.0 - i);
+        }
+        Assertions.assertEquals(4, buffer.size());
+        Assertions.assertEquals(4, buffer.copyTo(iterations, costs));
+        Assertions.assertArrayEquals(new long[]{7, 8, 9, 10}, iterations);
+        Assertions.assertArrayEquals(new double[]{4.0, 3.0, 2.0, 1.0}, costs);
+    }
+}
@@ -6,6 +6,8 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
 
 
 /**
@@ -18,13 +20,14 @@ public class DSMConnectionTest {
      */
     @Test
     public void equalsTrueTest() {
+        InterfaceTypeRegistry registry = new InterfaceTypeRegistry();
         ArrayList<DSMInterfaceType> interfaces = new ArrayList<>();
         interfaces.add(new DSMInterfaceType("interface1", "1"));
         interfaces.add(new DSMInterfaceType("interface2", "2"));
         interfaces.add(new DSMInterfaceType("interface3", "3"));
 
-        DSMConnection conn1 = new DSMConnection("conn", 1.0, 1, 2, interfaces);
-        DSMConnection conn2 = new DSMConnection("conn", 1.0, 1, 2, interfaces);
+        DSMConnection conn1 = new DSMConnection("conn", 1.0, 1, 2, interfaces, registry);
+        DSMConnection conn2 = new DSMConnection("conn", 1.0, 1, 2, interfaces, registry);
 
         Assertions.assertEquals(conn1, conn2);
     }
@@ -35,13 +38,14 @@ public class DSMConnectionTest {
      */
     @Test
     public void equalsFalseTest() {
+        InterfaceTypeRegistry registry = new InterfaceTypeRegistry();
         ArrayList<DSMInterfaceType> interfaces = new ArrayList<>();
         interfaces.add(new DSMInterfaceType("interface1", "1"));
         interfaces.add(new DSMInterfaceType("interface2", "2"));
         interfaces.add(new DSMInterfaceType("interface3", "3"));
 
-        DSMConnection conn1 = new DSMConnection("conn", 1.0, 1, 2, interfaces);
-        DSMConnection conn2 = new DSMConnection("conn", 1.0, 1, 2, new ArrayList<>());
+        DSMConnection conn1 = new DSMConnection("conn", 1.0, 1, 2, interfaces, registry);
+        DSMConnection conn2 = new DSMConnection("conn", 1.0, 1, 2, new ArrayList<>(), registry);
 
         Assertions.assertNotEquals(conn1, conn2);
     }
@@ -53,13 +57,14 @@ public class DSMConnectionTest {
      */
     @Test
     public void isSameConnectionTypeTrueTest() {
+        InterfaceTypeRegistry registry = new InterfaceTypeRegistry();
         ArrayList<DSMInterfaceType> interfaces = new ArrayList<>();
         interfaces.add(new DSMInterfaceType("interface1", "1"));
         interfaces.add(new DSMInterfaceType("interface2", "2"));
         interfaces.add(new DSMInterfaceType("interface3", "3"));
 
-        DSMConnection conn1 = new DSMConnection("conn", 1.0, 1, 2, interfaces);
-        DSMConnection conn2 = new DSMConnection("conn", 1.0, 3, 4, interfaces);
+        DSMConnection conn1 = new DSMConnection("conn", 1.0, 1, 2, interfaces, registry);
+        DSMConnection conn2 = new DSMConnection("conn", 1.0, 3, 4, interfaces, registry);
 
         Assertions.assertTrue(conn1.isSameConnectionType(conn2));
     }
@@ -71,15 +76,73 @@ public class DSMConnectionTest {
      */
     @Test
     public void isSameConnectionTypeFalseTest() {
+        InterfaceTypeRegistry registry = new InterfaceTypeRegistry();
         ArrayList<DSMInterfaceType> interfaces = new ArrayList<>();
         interfaces.add(new DSMInterfaceType("interface1", "1"));
         interfaces.add(new DSMInterfaceType("interface2", "2"));
         interfaces.add(new DSMInterfaceType("interface3", "3"));
 
-        DSMConnection conn1 = new DSMConnection("conn", 1.0, 1, 2, interfaces);
-        DSMConnection conn2 = new DSMConnection("conn", 1.0, 3, 4, new ArrayList<>());
+        DSMConnection conn1 = new DSMConnection("conn", 1.0, 1, 2, interfaces, registry);
+        DSMConnection conn2 = new DSMConnection("conn", 1.0, 3, 4, new ArrayList<>(), registry);
 
         Assertions.assertFalse(conn1.isSameConnectionType(conn2));
     }
 
+
+    /**
+     * Tests that connections in the same registry share interface indices and that copies share the mask
+     */
+    @Test
+    public void interfaceRegistryTest() {
+        InterfaceTypeRegistry registry = new InterfaceTypeRegistry();
+        DSMInterfaceType i1 = new DSMInterfaceType("interface1", "1");
+        DSMInterfaceType i2 = new DSMInterfaceType("interface2", "2");
+        DSMInterfaceType i3 = new DSMInterfaceType("interface3", "3");
+
+        DSMConnection conn1 = new DSMConnection("conn", 1.0, 1, 2, new ArrayList<>(List.of(i2, i1)), registry);
+        DSMConnection conn2 = new DSMConnection("conn", 1.0, 3, 4, new ArrayList<>(List.of(i1, i2)), registry);
+        Assertions.assertEquals(2, registry.size());
+        Assertions.assertTrue(conn1.isSameConnectionType(conn2));
+        Assertions.assertTrue(conn1.hasInterface(i1));
+        Assertions.assertFalse(conn1.hasInterface(i3));
+
+        BitSet visible = registry.getMask(new ArrayList<>(List.of(i1, i3)));
+        Assertions.assertEquals(3, registry.size());
+        Assertions.assertTrue(conn1.hasAnyInterface(visible));
+        Assertions.assertEquals(List.of(i1), conn1.getInterfaces(visible));
+
+        DSMConnection copy = new DSMConnection(conn1);
+        Assertions.assertTrue(copy.isSameConnectionType(conn2));
+        conn1 = new DSMConnection("conn", 1.0, 1, 2, new ArrayList<>(List.of(i3, i1)), registry);  // connections are replaced, not changed
+        Assertions.assertEquals(List.of(i1, i3), conn1.getInterfaces());
+        Assertions.assertTrue(copy.hasInterface(i2));
+
+        // connections from different registries are compared by interface uid
+        DSMConnection other = new DSMConnection("conn", 1.0, 1, 2, new ArrayList<>(List.of(i3, i1)), new InterfaceTypeRegistry());
+        Assertions.assertNotSame(registry, other.getInterfaceRegistry());
+        Assertions.assertTrue(conn1.isSameConnectionType(other));
+        DSMConnection rebound = new DSMConnection(other, registry);
+        Assertions.assertSame(registry, rebound.getInterfaceRegistry());
+        Assertions.assertEquals(conn1, rebound);
+    }
+
+
+    /**
+     * Tests that changing a mask returned by the registry does not change the interfaces of connections that share
+     * the empty mask
+     */
+    @Test
+    public void emptyMaskIsNotSharedTest() {
+        InterfaceTypeRegistry registry = new InterfaceTypeRegistry();
+        DSMInterfaceType i1 = new DSMInterfaceType("interface1", "1");
+        registry.register(i1);
+        DSMConnection conn = new DSMConnection("conn", 1.0, 1, 2, new ArrayList<>(), registry);
+
+        BitSet mask = registry.getMask(null);
+        mask.set(registry.getIndex(i1));
+        Assertions.assertTrue(registry.getMask(List.of()).isEmpty());
+        Assertions.assertFalse(conn.hasInterface(i1));
+        Assertions.assertTrue(conn.getInterfaces().isEmpty());
+    }
+
 }
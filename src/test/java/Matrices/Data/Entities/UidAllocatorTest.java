@@ -0,0 +1,55 @@
+package Matrices.Data.Entities;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+
+
+/**
+ * Class for testing that a UidAllocator never hands out a uid twice or a uid that is in use
+ */
+public class UidAllocatorTest {
+
+    /**
+     * Tests that single uids skip the uids that are in use and are never repeated
+     */
+    @Test
+    public void allocateTest() {
+        HashSet<Integer> inUse = new HashSet<>();
+        UidAllocator allocator = new UidAllocator(inUse::contains);
+
+        int first = allocator.allocate();
+        inUse.add(first + 1);
+        inUse.add(first + 2);
+        Assertions.assertEquals(first + 3, allocator.allocate());
+
+        HashSet<Integer> allocated = new HashSet<>();
+        for(int i = 0; i < 1000; i++) {
+            int uid = allocator.allocate();
+            Assertions.assertFalse(inUse.contains(uid));
+            Assertions.assertTrue(allocated.add(uid));
+            if(i % 3 == 0) {
+                inUse.add(uid + 1);  // the next uid is taken by something the allocator did not give out
+            }
+        }
+    }
+
+
+    /**
+     * Tests that a block of uids does not contain any uids that are in use and does not overlap other blocks
+     */
+    @Test
+    public void allocateRangeTest() {
+        HashSet<Integer> inUse = new HashSet<>();
+        UidAllocator allocator = new UidAllocator(inUse::contains);
+
+        int first = allocator.allocateRange(5);
+        inUse.add(first + 7);
+        int second = allocator.allocateRange(5);
+        Assertions.assertEquals(first + 8, second);  // the block starting at first + 5 would contain first + 7
+
+        Assertions.assertEquals(second + 5, allocator.allocate());
+        Assertions.assertEquals(second + 6, allocator.allocateRange(0));
+    }
+}
@@ -0,0 +1,167 @@
+package Matrices.Data;
+
+import Matrices.Data.Entities.DSMConnection;
+import Matrices.Data.Entities.DSMItem;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+
+/**
+ * Test class for the MatrixSnapshot class. Tests that snapshots match the matrix they were taken from and that they
+ * are cached per version
+ */
+public class MatrixSnapshotTest {
+
+    /**
+     * Creates a symmetric matrix with random connections between its items. Shared by the tests of everything that
+     * runs on a matrix or its snapshot
+     *
+     * @param numItems        the number of items in the matrix
+     * @param numConnections  the number of connections to try to create, connections from an item to itself are skipped
+     * @param generator       the random number generator to use
+     * @return                the matrix with its current state set as a checkpoint
+     */
+    static SymmetricDSMData createMatrix(int numItems, int numConnections, Random generator) {
+        SymmetricDSMData matrix = new SymmetricDSMData();
+        for(int i = 0; i < numItems; i++) {
+            matrix.createItem("item" + i, true);
+        }
+
+        for(int i = 0; i < numConnections; i++) {
+            int r = generator.nextInt(numItems);
+            int c = generator.nextInt(numItems);
+            if(r == c) continue;
+            matrix.modifyConnection(matrix.getRows().get(r).getUid(), matrix.getCols().get(c).getUid(), "x", 1 + generator.nextInt(9), new ArrayList<>());
+        }
+        matrix.setCurrentStateAsCheckpoint();
+
+        return matrix;
+    }
+
+
+    /**
+     * Checks that every cell of a snapshot agrees with the matrix and that rows are sorted by column
+     *
+     * @param matrix    the matrix the snapshot was taken from
+     * @param snapshot  the snapshot
+     */
+    private static void assertMatches(AbstractDSMData matrix, MatrixSnapshot snapshot) {
+        Assertions.assertEquals(matrix.getRows().size(), snapshot.getNumRows());
+        Assertions.assertEquals(matrix.getCols().size(), snapshot.getNumCols());
+        Assertions.assertEquals(matrix.getConnections().size(), snapshot.getNumConnections());
+
+        for(int r = 0; r < snapshot.getNumRows(); r++) {
+            DSMItem row = matrix.getRows().get(r);
+            Assertions.assertEquals(row.getUid(), snapshot.getRowUid(r));
+            Assertions.assertEquals(r, snapshot.getRowIndex(row.getUid()));
+
+            for(int k = snapshot.getRowStart(r) + 1; k < snapshot.getRowEnd(r); k++) {
+                Assertions.assertTrue(snapshot.getEntryCol(k - 1) < snapshot.getEntryCol(k));
+            }
+
+            for(int c = 0; c < snapshot.getNumCols(); c++) {
+                DSMItem col = matrix.getCols().get(c);
+                DSMConnection conn = matrix.getConnection(row.getUid(), col.getUid());
+                int entry = snapshot.findEntry(r, c);
+                if(conn == null) {
+                    Assertions.assertEquals(-1, entry);
+                } else {
+                    Assertions.assertEquals(conn.getWeight(), snapshot.getEntryWeight(entry));
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Tests that a snapshot has the same connections, items, and aliases as the matrix
+     */
+    @Test
+    public void snapshotTest() {
+        SymmetricDSMData matrix = createMatrix(30, 200, new Random(0));
+        MatrixSnapshot snapshot = matrix.getSnapshot();
+        assertMatches(matrix, snapshot);
+
+        for(int c = 0; c < snapshot.getNumCols(); c++) {
+            DSMItem col = matrix.getCols().get(c);
+            Assertions.assertEquals(c, snapshot.getColIndex(col.getUid()));
+            Assertions.assertEquals(snapshot.getRowIndex(col.getAliasUid()), snapshot.getColAliasRow(c));
+            Assertions.assertEquals(col.getName().getValue(), snapshot.getColName(c));
+            Assertions.assertEquals(col.getName().getValue(), snapshot.getTranspose().getRowName(c));
+        }
+        for(int r = 0; r < snapshot.getNumRows(); r++) {
+            Assertions.assertEquals(matrix.getRows().get(r).getName().getValue(), snapshot.getRowName(r));
+        }
+        Assertions.assertEquals(-1, snapshot.getRowIndex(-1));
+    }
+
+
+    /**
+     * Tests that the transpose of a snapshot has the connections of each column as its rows
+     */
+    @Test
+    public void transposeTest() {
+        SymmetricDSMData matrix = createMatrix(25, 150, new Random(1));
+        MatrixSnapshot snapshot = matrix.getSnapshot();
+        MatrixSnapshot transpose = snapshot.getTranspose();
+
+        Assertions.assertEquals(snapshot.getNumCols(), transpose.getNumRows());
+        Assertions.assertEquals(snapshot.getNumConnections(), transpose.getNumConnections());
+        Assertions.assertSame(snapshot, transpose.getTranspose());
+
+        for(int r = 0; r < snapshot.getNumRows(); r++) {
+            for(int c = 0; c < snapshot.getNumCols(); c++) {
+                int entry = snapshot.findEntry(r, c);
+                int transposedEntry = transpose.findEntry(c, r);
+                Assertions.assertEquals(entry == -1, transposedEntry == -1);
+                if(entry != -1) {
+                    Assertions.assertEquals(snapshot.getEntryWeight(entry), transpose.getEntryWeight(transposedEntry));
+                }
+            }
+        }
+        for(int c = 0; c < snapshot.getNumCols(); c++) {  // the column of the snapshot is the row of the transpose
+            Assertions.assertEquals(c, transpose.getColAliasRow(snapshot.getColAliasRow(c)));
+        }
+    }
+
+
+    /**
+     * Tests that the snapshot is cached until the matrix changes and that changes, undo, and redo all produce a new
+     * snapshot that matches the matrix
+     */
+    @Test
+    public void snapshotVersionTest() {
+        SymmetricDSMData matrix = createMatrix(20, 80, new Random(2));
+        MatrixSnapshot snapshot = matrix.getSnapshot();
+        Assertions.assertSame(snapshot, matrix.getSnapshot());
+
+        int rowUid = matrix.getRows().get(0).getUid();
+        int colUid = matrix.getCols().get(5).getUid();
+        matrix.modifyConnection(rowUid, colUid, "y", 42.0, new ArrayList<>());
+        matrix.setCurrentStateAsCheckpoint();
+        MatrixSnapshot modified = matrix.getSnapshot();
+        Assertions.assertNotSame(snapshot, modified);
+        Assertions.assertTrue(modified.getVersion() > snapshot.getVersion());
+        Assertions.assertEquals(42.0, modified.getEntryWeight(modified.findEntry(0, 5)));
+        assertMatches(matrix, modified);
+
+        matrix.undoToCheckpoint();
+        assertMatches(matrix, matrix.getSnapshot());
+        Assertions.assertNotSame(modified, matrix.getSnapshot());
+
+        matrix.redoToCheckpoint();
+        assertMatches(matrix, matrix.getSnapshot());
+        Assertions.assertEquals(42.0, matrix.getSnapshot().getEntryWeight(matrix.getSnapshot().findEntry(0, 5)));
+
+        matrix.deleteItem(matrix.getRows().get(3));
+        matrix.setCurrentStateAsCheckpoint();
+        assertMatches(matrix, matrix.getSnapshot());
+
+        // the old snapshot is not affected by any of the changes
+        Assertions.assertEquals(20, snapshot.getNumRows());
+        Assertions.assertEquals(-1, snapshot.getRowIndex(-5));
+    }
+}
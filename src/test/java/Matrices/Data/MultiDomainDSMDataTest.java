@@ -3,9 +3,11 @@ package Matrices.Data;
 import Matrices.Data.Entities.DSMConnection;
 import Matrices.Data.Entities.DSMItem;
 import Matrices.Data.Entities.Grouping;
+import Matrices.Data.Entities.RenderMode;
 import javafx.scene.paint.Color;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.javatuples.Triplet;
 
 import java.util.*;
 import java.util.stream.Collectors;
@@ -57,7 +59,8 @@ public class MultiDomainDSMDataTest {
         // perform the changes
         matrix.getRows().get(0).setName("-");
         matrix.getRows().get(1).setName("-");
-        matrix.getConnections().get(0).setConnectionName("-");
+        DSMConnection conn = matrix.getConnections().get(0);  // connections are immutable so they are changed through the matrix
+        matrix.modifyConnection(conn.getRowUid(), conn.getColUid(), "-", conn.getWeight(), conn.getInterfaces());
         matrix.setTitle("-");
         matrix.setProjectName("-");
         matrix.setCustomer("-");
@@ -500,4 +503,116 @@ public class MultiDomainDSMDataTest {
         Assertions.assertIterableEquals(expectedColUids, actualColUids);
     }
 
+
+    /**
+     * Tests that items are kept ordered by domain and that changing the order of the domains reorders the items
+     */
+    @Test
+    public void itemOrderTest() {
+        Grouping domain1 = new Grouping(111, 1, "domain1", null, null);
+        Grouping domain2 = new Grouping(222, 2, "domain2", null, null);
+        HashMap<Grouping, Collection<Grouping>> domains = new HashMap<>();
+        domains.put(domain1, new ArrayList<>());
+        domains.put(domain2, new ArrayList<>());
+        MultiDomainDSMData matrix = new MultiDomainDSMData(domains);
+
+        matrix.createItem("a", domain2);
+        matrix.createItem("b", domain1);
+        matrix.createItem("c", domain2);
+        matrix.setCurrentStateAsCheckpoint();
+        Assertions.assertEquals(Arrays.asList("b", "a", "c"), matrix.getRows().stream().map(r -> r.getName().getValue()).toList());
+
+        matrix.shiftDomainDown(domain1);
+        matrix.setCurrentStateAsCheckpoint();
+        matrix.getGridModel();
+        Assertions.assertEquals(Arrays.asList("a", "c", "b"), matrix.getRows().stream().map(r -> r.getName().getValue()).toList());
+        Assertions.assertEquals(Arrays.asList("a", "c", "b"), matrix.getCols().stream().map(c -> c.getName().getValue()).toList());
+
+        matrix.undoToCheckpoint();
+        matrix.getGridModel();
+        Assertions.assertEquals(Arrays.asList("b", "a", "c"), matrix.getRows().stream().map(r -> r.getName().getValue()).toList());
+    }
+
+
+    /**
+     * Tests that re-distributing the sort indices numbers the items of each domain from 1 and is undone as one change
+     */
+    @Test
+    public void reDistributeSortIndicesTest() {
+        Grouping domain1 = new Grouping(111, 1, "domain1", null, null);
+        Grouping domain2 = new Grouping(222, 2, "domain2", null, null);
+        HashMap<Grouping, Collection<Grouping>> domains = new HashMap<>();
+        domains.put(domain1, new ArrayList<>());
+        domains.put(domain2, new ArrayList<>());
+        MultiDomainDSMData matrix = new MultiDomainDSMData(domains);
+
+        matrix.createItem("a", domain2);
+        matrix.createItem("b", domain1);
+        matrix.createItem("c", domain2);
+        matrix.createItem("d", domain1);
+        for(DSMItem row : new ArrayList<>(matrix.getRows())) {  // rows move as their indices change
+            matrix.setItemSortIndex(row, row.getSortIndex() * 10);
+        }
+        matrix.setCurrentStateAsCheckpoint();
+        List<Double> oldIndices = matrix.getRows().stream().map(DSMItem::getSortIndex).toList();
+
+        matrix.reDistributeSortIndices();
+        matrix.setCurrentStateAsCheckpoint();
+        matrix.getGridModel();
+        Assertions.assertEquals(Arrays.asList("b", "d", "a", "c"), matrix.getRows().stream().map(r -> r.getName().getValue()).toList());
+        Assertions.assertEquals(Arrays.asList(1.0, 2.0, 1.0, 2.0), matrix.getRows().stream().map(DSMItem::getSortIndex).toList());
+        Assertions.assertEquals(Arrays.asList(1.0, 2.0, 1.0, 2.0), matrix.getCols().stream().map(DSMItem::getSortIndex).toList());
+
+        matrix.undoToCheckpoint();
+        matrix.getGridModel();
+        Assertions.assertEquals(oldIndices, matrix.getRows().stream().map(DSMItem::getSortIndex).toList());
+    }
+
+
+    /**
+     * Tests that the grid model has the expected header, domain span, item, and connection cells
+     */
+    @Test
+    public void gridModelTest() {
+        Grouping domain1 = new Grouping(111, 1, "domain1", null, null);
+        Grouping domain2 = new Grouping(222, 2, "domain2", null, null);
+        HashMap<Grouping, Collection<Grouping>> domains = new HashMap<>();
+        domains.put(domain1, new ArrayList<>());
+        domains.put(domain2, new ArrayList<>());
+        MultiDomainDSMData matrix = new MultiDomainDSMData(domains);
+
+        matrix.createItem("a", domain2);
+        matrix.createItem("b", domain1);
+        matrix.createItem("c", domain2);
+        matrix.setCurrentStateAsCheckpoint();
+
+        GridModel model = matrix.getGridModel();
+        Assertions.assertEquals(5, model.getNumRows());
+        Assertions.assertEquals(7, model.getNumCols());
+        Assertions.assertEquals(RenderMode.PLAIN_TEXT_V, model.getRenderMode(0, 3));
+        Assertions.assertEquals("Column Items", model.getValue(0, 3));
+        Assertions.assertEquals(RenderMode.ITEM_NAME_V, model.getRenderMode(0, 4));
+        Assertions.assertEquals("Domain", model.getValue(1, 0));
+        Assertions.assertNull(model.getRowItem(1));
+        Assertions.assertNull(model.getColItem(3));
+
+        // rows are b, a, c so the second domain spans the last two rows
+        Assertions.assertEquals(RenderMode.MULTI_SPAN_DOMAIN_TEXT, model.getRenderMode(2, 0));
+        Assertions.assertEquals(new Triplet<>(domain1, 1, 1), model.getValue(2, 0));
+        Assertions.assertEquals(new Triplet<>(domain2, 2, 1), model.getValue(3, 0));
+        Assertions.assertEquals(RenderMode.MULTI_SPAN_NULL, model.getRenderMode(4, 0));
+        Assertions.assertNull(model.getValue(4, 0));
+
+        for(int r = 2; r < model.getNumRows(); r++) {
+            DSMItem row = model.getRowItem(r);
+            Assertions.assertSame(matrix.getRows().get(r - 2), row);
+            Assertions.assertSame(row, model.getValue(r, 2));
+            Assertions.assertEquals(RenderMode.INDEX_ITEM, model.getRenderMode(r, 3));
+            for(int c = 4; c < model.getNumCols(); c++) {
+                DSMItem col = model.getColItem(c);
+                RenderMode expected = col.getAliasUid() == row.getUid() ? RenderMode.UNEDITABLE_CONNECTION : RenderMode.EDITABLE_CONNECTION;
+                Assertions.assertEquals(expected, model.getRenderMode(r, c));
+            }
+        }
+    }
 }
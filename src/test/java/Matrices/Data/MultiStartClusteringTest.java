@@ -0,0 +1,95 @@
+package Matrices.Data;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+import java.util.Random;
+
+
+/**
+ * Test class for the MultiStartClustering class. Tests that runs are reproducible from their seed and can be
+ * controlled with a job
+ */
+public class MultiStartClusteringTest {
+
+    /**
+     * Tests that a multi start run gives the same result regardless of the number of threads and that each chain
+     * matches a single run with its seed
+     */
+    @Test
+    public void multiStartTest() throws InterruptedException {
+        MatrixSnapshot snapshot = MatrixSnapshotTest.createMatrix(40, 120, new Random(5)).getSnapshot();
+        ClusteringEngine engine = new ThebeauEngine();
+        ClusteringParameters parameters = new ClusteringParameters(4.5, 4.0, 1.0, 1.0, 30.0, 30.0, true, 2000);
+
+        MultiStartClustering.Result serial = MultiStartClustering.run(engine, snapshot, parameters, 99, 6, 1, null);
+        MultiStartClustering.Result parallel = MultiStartClustering.run(engine, snapshot, parameters, 99, 6, 4, null);
+
+        Assertions.assertArrayEquals(serial.getSeeds(), parallel.getSeeds());
+        Assertions.assertArrayEquals(serial.getCosts(), parallel.getCosts());
+        Assertions.assertEquals(serial.getBestStart(), parallel.getBestStart());
+        Assertions.assertArrayEquals(serial.getBest().getAssignment(), parallel.getBest().getAssignment());
+        Assertions.assertEquals(99, serial.getSeeds()[0]);
+
+        for(int k = 0; k < serial.getSeeds().length; k++) {
+            ClusteringResult solution = engine.cluster(snapshot, parameters, serial.getSeeds()[k], null);
+            Assertions.assertEquals(solution.getCost(), serial.getCosts()[k]);
+            Assertions.assertTrue(serial.getBest().getCost() <= solution.getCost());
+        }
+    }
+
+
+    /**
+     * Tests that a job reports the progress of a run and that cancelling a paused run stops it with the best solution
+     * found so far
+     */
+    @Test
+    public void jobTest() throws InterruptedException {
+        MatrixSnapshot snapshot = MatrixSnapshotTest.createMatrix(30, 90, new Random(8)).getSnapshot();
+        ClusteringEngine engine = new ThebeauEngine();
+        ClusteringParameters parameters = new ClusteringParameters(4.5, 4.0, 1.0, 1.0, 30.0, 30.0, true, 1000);
+
+        ClusteringJob job = new ClusteringJob(2 * 1000L);
+        MultiStartClustering.Result result = MultiStartClustering.run(engine, snapshot, parameters, 4, 2, 2, job);
+        Assertions.assertEquals(1.0, job.getProgress());
+        Assertions.assertEquals(result.getBest().getCost(), job.getBestCost());
+        Assertions.assertTrue(job.getSamples().size() > 0);
+
+        ClusteringJob pausedJob = new ClusteringJob(1000);
+        pausedJob.pause();
+        Thread canceller = new Thread(() -> {
+            try {
+                Thread.sleep(100);
+            } catch(InterruptedException ignored) {}
+            pausedJob.cancel();
+        });
+        canceller.start();
+        ClusteringResult solution = engine.cluster(snapshot, parameters, 4, pausedJob);  // blocks until cancelled
+        canceller.join();
+
+        Assertions.assertTrue(pausedJob.isCancelled());
+        Assertions.assertEquals(0, pausedJob.getIterationsDone());
+        Assertions.assertEquals(30, solution.getAssignment().length);
+    }
+
+
+    /**
+     * Tests that every iteration of every chain is streamed to the csv once the run finishes
+     */
+    @Test
+    public void csvTest() throws InterruptedException {
+        MatrixSnapshot snapshot = MatrixSnapshotTest.createMatrix(30, 90, new Random(8)).getSnapshot();
+        ClusteringParameters parameters = new ClusteringParameters(4.5, 4.0, 1.0, 1.0, 30.0, 30.0, true, 1000);
+
+        StringWriter csv = new StringWriter();
+        ClusteringJob job = new ClusteringJob(4 * 1000L, ClusteringJob.DEFAULT_SAMPLE_CAPACITY, csv);
+        MultiStartClustering.run(new ThebeauEngine(), snapshot, parameters, 4, 4, 4, job);
+
+        String[] lines = csv.toString().split("\n");
+        Assertions.assertNull(job.getCsvError());
+        Assertions.assertEquals(ClusteringJob.CSV_HEADER.strip(), lines[0]);
+        Assertions.assertEquals(1 + 4 * 1000, lines.length);
+        Assertions.assertEquals(4 * 1000L, job.getIterationsDone());
+    }
+}
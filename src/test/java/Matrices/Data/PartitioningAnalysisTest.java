@@ -0,0 +1,152 @@
+package Matrices.Data;
+
+import Matrices.Data.Entities.DSMConnection;
+import Matrices.Data.Entities.DSMItem;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Random;
+
+
+/**
+ * Test class for the PartitioningAnalysis class. Tests that the blocks are the coupled items and that the sequence
+ * puts every connection between blocks below the diagonal
+ */
+public class PartitioningAnalysisTest {
+
+    /**
+     * Creates a symmetric matrix in bulk. Row i has uid i + 1 and its column has uid numItems + i + 1
+     *
+     * @param numItems  the number of items
+     * @param edges     pairs of item indices, each pair is a connection from the row of the first item to the column
+     *                  of the second
+     * @return          the matrix
+     */
+    static SymmetricDSMData createMatrix(int numItems, int[][] edges) {
+        SymmetricDSMData matrix = new SymmetricDSMData();
+        ArrayList<DSMItem> rows = new ArrayList<>();
+        ArrayList<DSMItem> cols = new ArrayList<>();
+        for(int i = 0; i < numItems; i++) {
+            rows.add(new DSMItem(i + 1, numItems + i + 1, i + 1, "item" + i, matrix.getDefaultGroup(), null));
+            cols.add(new DSMItem(numItems + i + 1, i + 1, i + 1, "item" + i, matrix.getDefaultGroup(), null));
+        }
+        matrix.loadItems(rows, true);
+        matrix.loadItems(cols, false);
+
+        ArrayList<DSMConnection> connections = new ArrayList<>();
+        for(int[] edge : edges) {
+            connections.add(new DSMConnection("x", 1.0, edge[0] + 1, numItems + edge[1] + 1, new ArrayList<>(), matrix.getInterfaceRegistry()));
+        }
+        matrix.loadConnections(connections);
+
+        return matrix;
+    }
+
+
+    /**
+     * Checks that items in the same block are coupled and that every connection between blocks goes to an item
+     * earlier in the sequence
+     *
+     * @param snapshot      the snapshot that was partitioned
+     * @param partitioning  the result
+     */
+    private static void assertBlockTriangular(MatrixSnapshot snapshot, PartitioningAnalysis partitioning) {
+        for(int r = 0; r < snapshot.getNumRows(); r++) {
+            for(int k = snapshot.getRowStart(r); k < snapshot.getRowEnd(r); k++) {
+                int w = snapshot.getColAliasRow(snapshot.getEntryCol(k));
+                if(partitioning.getBlock(r) != partitioning.getBlock(w)) {
+                    Assertions.assertTrue(partitioning.getPosition(r) > partitioning.getPosition(w));
+                }
+            }
+        }
+        for(int p = 0; p < partitioning.getNumItems(); p++) {
+            Assertions.assertEquals(p, partitioning.getPosition(partitioning.getRowAt(p)));
+        }
+    }
+
+
+    /**
+     * Tests the blocks and sequence of a small matrix with two coupled blocks
+     */
+    @Test
+    public void partitionTest() {
+        SymmetricDSMData matrix = createMatrix(6, new int[][] {
+                {0, 1}, {1, 0},  // 0 and 1 are coupled
+                {1, 2},          // 1 depends on 2
+                {3, 4}, {4, 5}, {5, 3},  // 3, 4, and 5 are coupled
+                {3, 0}           // 3 depends on 0
+        });
+        MatrixSnapshot snapshot = matrix.getSnapshot();
+        PartitioningAnalysis partitioning = PartitioningAnalysis.partition(snapshot);
+
+        Assertions.assertEquals(3, partitioning.getNumBlocks());
+        Assertions.assertEquals(partitioning.getBlock(0), partitioning.getBlock(1));
+        Assertions.assertEquals(partitioning.getBlock(3), partitioning.getBlock(5));
+        Assertions.assertEquals(1, partitioning.getBlockSize(partitioning.getBlock(2)));
+        Assertions.assertEquals(0, partitioning.getPosition(2));
+        Assertions.assertEquals(3, partitioning.getBlockSize(2));
+        Assertions.assertEquals(3, partitioning.getBlockStart(2));
+        Assertions.assertEquals(6, partitioning.getBlockEnd(2));
+        assertBlockTriangular(snapshot, partitioning);
+    }
+
+
+    /**
+     * Tests that a long chain of dependencies and a large random matrix are partitioned quickly without overflowing
+     * the stack
+     */
+    @Test
+    public void largeMatrixTest() {
+        int numItems = 20000;
+        int[][] chain = new int[numItems][];
+        for(int i = 0; i < numItems; i++) {
+            chain[i] = new int[] {i, (i + 1) % numItems};  // one block of every item
+        }
+        MatrixSnapshot chainSnapshot = createMatrix(numItems, chain).getSnapshot();
+        PartitioningAnalysis chainPartitioning = Assertions.assertTimeout(Duration.ofSeconds(1), () -> PartitioningAnalysis.partition(chainSnapshot));
+        Assertions.assertEquals(1, chainPartitioning.getNumBlocks());
+
+        Random generator = new Random(7);
+        int[][] edges = new int[numItems * 3][];
+        for(int i = 0; i < edges.length; i++) {
+            int r = generator.nextInt(numItems);
+            int c = generator.nextInt(numItems);
+            edges[i] = new int[] {r, r == c ? (c + 1) % numItems : c};
+        }
+        MatrixSnapshot snapshot = createMatrix(numItems, edges).getSnapshot();
+        PartitioningAnalysis partitioning = Assertions.assertTimeout(Duration.ofSeconds(1), () -> PartitioningAnalysis.partition(snapshot));
+        assertBlockTriangular(snapshot, partitioning);
+    }
+
+
+    /**
+     * Tests that applying a partitioning sorts rows and columns into the sequence as a single change that can be
+     * undone and redone
+     */
+    @Test
+    public void applyPartitioningTest() {
+        SymmetricDSMData matrix = createMatrix(4, new int[][] {{0, 1}, {1, 2}, {2, 3}});
+        matrix.setCurrentStateAsCheckpoint();
+        PartitioningAnalysis partitioning = PartitioningAnalysis.partition(matrix.getSnapshot());
+
+        matrix.applyPartitioning(partitioning);
+        matrix.setCurrentStateAsCheckpoint();
+        for(int i = 0; i < 4; i++) {
+            Assertions.assertEquals(4 - i, matrix.getRows().get(i).getUid());  // chain is reversed so items come after what they depend on
+            Assertions.assertEquals(matrix.getRows().get(i).getAliasUid(), matrix.getCols().get(i).getUid());
+        }
+
+        matrix.undoToCheckpoint();
+        for(int i = 0; i < 4; i++) {
+            Assertions.assertEquals(i + 1, matrix.getRows().get(i).getUid());
+            Assertions.assertEquals(i + 5, matrix.getCols().get(i).getUid());
+        }
+        Assertions.assertFalse(matrix.canUndo());
+
+        matrix.redoToCheckpoint();
+        Assertions.assertEquals(4, matrix.getRows().get(0).getUid());
+        Assertions.assertEquals(8, matrix.getCols().get(0).getUid());
+    }
+}
@@ -0,0 +1,160 @@
+package Matrices.Data;
+
+import Matrices.Data.Entities.DSMConnection;
+import Matrices.Data.Entities.DSMItem;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Test class for the PropagationEngine class. Compares the engine to a direct implementation of propagation analysis
+ * using the connections of the matrix
+ */
+public class PropagationEngineTest {
+
+    /**
+     * Runs propagation analysis by following the connections of the matrix one level at a time
+     *
+     * @param matrix         the matrix
+     * @param startItem      the item to start at
+     * @param numLevels      number of levels to run
+     * @param exclusions     uids of the items that are not propagated through
+     * @param minWeight      minimum weight of a connection
+     * @param countByWeight  count by weight or by occurrence
+     * @param alternating    if levels alternate between rows and columns
+     * @return               HashMap(level : Hashmap(uid, occurrences/weights))
+     */
+    private static HashMap<Integer, HashMap<Integer, Double>> search(AbstractDSMData matrix, int startItem, int numLevels, List<Integer> exclusions, double minWeight, boolean countByWeight, boolean alternating) {
+        HashMap<Integer, HashMap<Integer, Double>> results = new HashMap<>();
+        List<Integer> excluded = new ArrayList<>(exclusions);
+        excluded.add(startItem);
+        List<Integer> frontier = List.of(startItem);
+        boolean frontierIsRows = matrix.isRow(startItem);
+        for(int level = 1; level <= numLevels; level++) {
+            HashMap<Integer, Double> values = new HashMap<>();
+            List<Integer> next = new ArrayList<>();
+            for(int uid : frontier) {
+                for(DSMConnection conn : frontierIsRows ? matrix.getRowConnections(uid) : matrix.getColConnections(uid)) {
+                    if(conn.getWeight() < minWeight) continue;
+                    int target;
+                    if(!alternating) {
+                        target = matrix.getItem(conn.getColUid()).getAliasUid();
+                    } else {
+                        target = frontierIsRows ? conn.getColUid() : conn.getRowUid();
+                    }
+                    values.merge(target, countByWeight ? conn.getWeight() : 1.0, Double::sum);
+                    if(!excluded.contains(target) && !next.contains(target)) {
+                        next.add(target);
+                    }
+                }
+            }
+            results.put(level, values);
+            frontier = next;
+            frontierIsRows = !alternating || !frontierIsRows;
+        }
+        return results;
+    }
+
+
+    /**
+     * Tests that the engine matches the direct implementation on random symmetric and asymmetric matrices and that it
+     * does not modify the exclusions
+     */
+    @Test
+    public void randomMatricesTest() {
+        Random generator = new Random(5);
+        for(int trial = 0; trial < 4; trial++) {
+            boolean alternating = trial % 2 == 1;
+            AbstractDSMData matrix = alternating ? new AsymmetricDSMData() : new SymmetricDSMData();
+            int numItems = 30 + trial * 5;
+            for(int i = 0; i < numItems; i++) {
+                matrix.createItem("r" + i, true);
+                if(alternating) matrix.createItem("c" + i, false);
+            }
+            for(int i = 0; i < numItems * 3; i++) {
+                DSMItem row = matrix.getRows().get(generator.nextInt(numItems));
+                DSMItem col = matrix.getCols().get(generator.nextInt(numItems));
+                if(!alternating && row.getUid() == col.getAliasUid()) continue;
+                matrix.modifyConnection(row.getUid(), col.getUid(), "x", 1 + generator.nextInt(5), new ArrayList<>());
+            }
+
+            ArrayList<Integer> exclusions = new ArrayList<>();
+            exclusions.add(matrix.getRows().get(1).getUid());
+            if(alternating) exclusions.add(matrix.getCols().get(2).getUid());
+            List<Integer> original = new ArrayList<>(exclusions);
+
+            PropagationEngine engine = new PropagationEngine(matrix.getSnapshot(), alternating);
+            List<DSMItem> starts = new ArrayList<>(matrix.getRows());
+            if(alternating) starts.addAll(matrix.getCols());
+            for(DSMItem start : starts) {
+                for(boolean countByWeight : new boolean[]{true, false}) {
+                    HashMap<Integer, HashMap<Integer, Double>> expected = search(matrix, start.getUid(), 5, exclusions, 2.0, countByWeight, alternating);
+                    PropagationResult result = engine.run(start.getUid(), 5, exclusions, 2.0, countByWeight);
+                    Assertions.assertEquals(expected, result.toMap());
+                }
+            }
+            Assertions.assertEquals(original, exclusions);
+        }
+    }
+
+
+    /**
+     * Tests the results and totals of a small symmetric matrix through the IPropagationAnalysis interface
+     */
+    @Test
+    public void symmetricResultTest() {
+        SymmetricDSMData matrix = new SymmetricDSMData();
+        for(int i = 0; i < 4; i++) {
+            matrix.createItem("item" + i, true);
+        }
+        List<DSMItem> rows = matrix.getRows();
+        matrix.modifyConnection(rows.get(0).getUid(), rows.get(1).getAliasUid(), "x", 2.0, new ArrayList<>());
+        matrix.modifyConnection(rows.get(0).getUid(), rows.get(2).getAliasUid(), "x", 1.0, new ArrayList<>());
+        matrix.modifyConnection(rows.get(1).getUid(), rows.get(3).getAliasUid(), "x", 3.0, new ArrayList<>());
+        matrix.modifyConnection(rows.get(2).getUid(), rows.get(3).getAliasUid(), "x", 4.0, new ArrayList<>());
+
+        ArrayList<Integer> exclusions = new ArrayList<>();
+        HashMap<Integer, HashMap<Integer, Double>> results = matrix.propagationAnalysis(rows.get(0).getUid(), 3, exclusions, 0.0, false);
+        Assertions.assertTrue(exclusions.isEmpty());
+        Assertions.assertEquals(3, results.size());
+        Assertions.assertEquals(Map.of(rows.get(1).getUid(), 1.0, rows.get(2).getUid(), 1.0), results.get(1));
+        Assertions.assertEquals(Map.of(rows.get(3).getUid(), 2.0), results.get(2));
+        Assertions.assertTrue(results.get(3).isEmpty());
+
+        PropagationResult result = matrix.createPropagationEngine().run(rows.get(0).getUid(), 3, exclusions, 0.0, true);
+        Assertions.assertEquals(rows.get(0).getUid(), result.getStartItem());
+        Assertions.assertEquals(3, result.getNumLevels());
+        Assertions.assertEquals(1, result.getLevelSize(2));
+        Assertions.assertEquals(7.0, result.getValue(2, 0));
+        Assertions.assertEquals(7.0, result.getTotals().get(rows.get(3).getUid()));
+    }
+
+
+    /**
+     * Tests that a ten level run on a large matrix is fast
+     */
+    @Test
+    @Timeout(value = 2, unit = TimeUnit.SECONDS)
+    public void largeMatrixTest() {
+        Random generator = new Random(7);
+        int numItems = 10000;
+        int[][] edges = new int[numItems * 5][];
+        for(int i = 0; i < edges.length; i++) {
+            edges[i] = new int[]{generator.nextInt(numItems), generator.nextInt(numItems)};
+        }
+        MatrixSnapshot snapshot = PartitioningAnalysisTest.createMatrix(numItems, edges).getSnapshot();
+        PropagationEngine engine = new PropagationEngine(snapshot, false);
+        for(int i = 0; i < 10; i++) {
+            PropagationResult result = engine.run(snapshot.getRowUid(i * 1000), 10, new ArrayList<>(), 0.0, false);
+            Assertions.assertEquals(10, result.getNumLevels());
+        }
+    }
+}
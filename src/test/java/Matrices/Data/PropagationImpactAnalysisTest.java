@@ -0,0 +1,138 @@
+package Matrices.Data;
+
+import Matrices.Data.Entities.DSMItem;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Test class for the PropagationImpactAnalysis class. Compares the impact matrix to propagation analysis run from each
+ * item on its own
+ */
+public class PropagationImpactAnalysisTest {
+
+    /**
+     * Checks every source of an impact analysis against a propagation analysis from the source
+     *
+     * @param engine      the engine to run single propagation analyses with
+     * @param analysis    the impact analysis
+     * @param exclusions  the exclusions the impact analysis was run with
+     */
+    private static void assertMatchesEngine(PropagationEngine engine, PropagationImpactAnalysis analysis, List<Integer> exclusions) {
+        double[] impactedBy = new double[analysis.getNumItems()];
+        for(int s = 0; s < analysis.getNumItems(); s++) {
+            HashMap<Integer, Double> totals = engine.run(analysis.getUid(s), 4, exclusions, 0.0, true).getTotals();
+            double impact = 0.0;
+            for(int t = 0; t < analysis.getNumItems(); t++) {
+                double expected = totals.getOrDefault(analysis.getUid(t), 0.0);
+                Assertions.assertEquals(expected, analysis.getImpact(s, t), 1e-9);
+                impact += expected;
+                impactedBy[t] += expected;
+            }
+            Assertions.assertEquals(impact, analysis.getTotalImpact(s), 1e-9);
+            Assertions.assertEquals(totals.size(), analysis.getNumReached(s));
+        }
+        for(int t = 0; t < analysis.getNumItems(); t++) {
+            Assertions.assertEquals(impactedBy[t], analysis.getTotalImpactedBy(t), 1e-9);
+        }
+    }
+
+
+    /**
+     * Tests the impact analysis of random symmetric and asymmetric matrices
+     */
+    @Test
+    public void randomMatricesTest() {
+        Random generator = new Random(11);
+        for(int trial = 0; trial < 4; trial++) {
+            boolean alternating = trial % 2 == 1;
+            AbstractDSMData matrix = alternating ? new AsymmetricDSMData() : new SymmetricDSMData();
+            int numItems = 40 + trial * 10;
+            for(int i = 0; i < numItems; i++) {
+                matrix.createItem("r" + i, true);
+                if(alternating) matrix.createItem("c" + i, false);
+            }
+            for(int i = 0; i < numItems * 2; i++) {
+                DSMItem row = matrix.getRows().get(generator.nextInt(numItems));
+                DSMItem col = matrix.getCols().get(generator.nextInt(numItems));
+                if(!alternating && row.getUid() == col.getAliasUid()) continue;
+                matrix.modifyConnection(row.getUid(), col.getUid(), "x", 1 + generator.nextInt(3), new ArrayList<>());
+            }
+
+            ArrayList<Integer> exclusions = new ArrayList<>();
+            exclusions.add(matrix.getRows().get(0).getUid());
+
+            PropagationEngine engine = new PropagationEngine(matrix.getSnapshot(), alternating);
+            PropagationImpactAnalysis analysis = PropagationImpactAnalysis.compute(engine, 4, exclusions, 0.0, true, ForkJoinPool.commonPool());
+            Assertions.assertEquals(alternating ? numItems * 2 : numItems, analysis.getNumItems());
+            Assertions.assertEquals(1, exclusions.size());
+            assertMatchesEngine(engine, analysis, exclusions);
+        }
+    }
+
+
+    /**
+     * Tests the csv exports of a small symmetric matrix
+     */
+    @Test
+    public void csvTest() throws IOException {
+        SymmetricDSMData matrix = new SymmetricDSMData();
+        for(int i = 0; i < 3; i++) {
+            matrix.createItem("item" + i, true);
+        }
+        List<DSMItem> rows = matrix.getRows();
+        matrix.modifyConnection(rows.get(0).getUid(), rows.get(1).getAliasUid(), "x", 1.0, new ArrayList<>());
+        matrix.modifyConnection(rows.get(1).getUid(), rows.get(2).getAliasUid(), "x", 1.0, new ArrayList<>());
+
+        PropagationImpactAnalysis analysis = matrix.propagationImpactAnalysis(2, new ArrayList<>(), 0.0, false);
+
+        StringWriter csv = new StringWriter();
+        analysis.writeCsv(csv);
+        Assertions.assertEquals(",item0,item1,item2\nitem0,0,1.0,1.0\nitem1,0,0,1.0\nitem2,0,0,0\n", csv.toString());
+
+        StringWriter totals = new StringWriter();
+        analysis.writeTotalsCsv(totals);
+        Assertions.assertEquals("Item,Impact,Impacted By,Items Reached\nitem0,2.0,0.0,2\nitem1,1.0,1.0,1\nitem2,0.0,2.0,0\n", totals.toString());
+
+        // names are taken from the snapshot so the results can still be written after items are deleted
+        matrix.deleteItem(rows.get(2));
+        totals = new StringWriter();
+        analysis.writeTotalsCsv(totals);
+        Assertions.assertEquals("Item,Impact,Impacted By,Items Reached\nitem0,2.0,0.0,2\nitem1,1.0,1.0,1\nitem2,0.0,2.0,0\n", totals.toString());
+
+        matrix.setItemName(rows.get(0), "item \"0\", first");
+        PropagationImpactAnalysis renamed = matrix.propagationImpactAnalysis(2, new ArrayList<>(), 0.0, false);
+        totals = new StringWriter();
+        renamed.writeTotalsCsv(totals);
+        Assertions.assertEquals("Item,Impact,Impacted By,Items Reached\n\"item \"\"0\"\", first\",1.0,0.0,1\nitem1,0.0,1.0,0\n", totals.toString());
+    }
+
+
+    /**
+     * Tests that running ten levels from every item of a large matrix is fast
+     */
+    @Test
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    public void largeMatrixTest() {
+        Random generator = new Random(13);
+        int numItems = 3000;
+        int[][] edges = new int[numItems * 4][];
+        for(int i = 0; i < edges.length; i++) {
+            edges[i] = new int[]{generator.nextInt(numItems), generator.nextInt(numItems)};
+        }
+        SymmetricDSMData matrix = PartitioningAnalysisTest.createMatrix(numItems, edges);
+
+        PropagationImpactAnalysis analysis = matrix.propagationImpactAnalysis(10, new ArrayList<>(), 0.0, false);
+        Assertions.assertEquals(numItems, analysis.getNumItems());
+    }
+}
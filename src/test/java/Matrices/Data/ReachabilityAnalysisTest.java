@@ -0,0 +1,121 @@
+package Matrices.Data;
+
+import Matrices.Data.Entities.DSMItem;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Random;
+
+
+/**
+ * Test class for the ReachabilityAnalysis class. Compares the closure to a breadth first search from every item
+ */
+public class ReachabilityAnalysisTest {
+
+    /**
+     * Finds the columns reachable from a row with a breadth first search
+     *
+     * @param snapshot  the connections
+     * @param start     the row to start from
+     * @return          if each column is reachable
+     */
+    private static boolean[] search(MatrixSnapshot snapshot, int start) {
+        boolean[] reached = new boolean[snapshot.getNumCols()];
+        boolean[] visited = new boolean[snapshot.getNumRows()];
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        queue.add(start);
+        visited[start] = true;
+        while(!queue.isEmpty()) {
+            int r = queue.poll();
+            for(int k = snapshot.getRowStart(r); k < snapshot.getRowEnd(r); k++) {
+                int c = snapshot.getEntryCol(k);
+                reached[c] = true;
+                int w = snapshot.getColAliasRow(c);
+                if(w >= 0 && !visited[w]) {
+                    visited[w] = true;
+                    queue.add(w);
+                }
+            }
+        }
+        return reached;
+    }
+
+
+    /**
+     * Checks a closure against a breadth first search from every row
+     *
+     * @param snapshot  the connections
+     * @param analysis  the closure
+     */
+    private static void assertMatchesSearch(MatrixSnapshot snapshot, ReachabilityAnalysis analysis) {
+        for(int r = 0; r < snapshot.getNumRows(); r++) {
+            boolean[] expected = search(snapshot, r);
+            int count = 0;
+            for(int c = 0; c < snapshot.getNumCols(); c++) {
+                Assertions.assertEquals(expected[c], analysis.canReach(r, c));
+                count += expected[c] ? 1 : 0;
+            }
+            Assertions.assertEquals(count, analysis.getReachCount(r));
+            Assertions.assertEquals(count, analysis.getReachableCols(r).length);
+        }
+    }
+
+
+    /**
+     * Tests the closure of random symmetric matrices computed sequentially and in parallel
+     */
+    @Test
+    public void closureTest() {
+        Random generator = new Random(3);
+        for(int trial = 0; trial < 5; trial++) {
+            int numItems = 70 + trial * 10;  // more than 64 items so rows take more than one word
+            SymmetricDSMData matrix = MatrixSnapshotTest.createMatrix(numItems, numItems + trial * 20, generator);
+            MatrixSnapshot snapshot = matrix.getSnapshot();
+
+            assertMatchesSearch(snapshot, ReachabilityAnalysis.compute(snapshot, false));
+            assertMatchesSearch(snapshot, ReachabilityAnalysis.compute(snapshot, true));
+        }
+    }
+
+
+    /**
+     * Tests that the closure of an asymmetric matrix is its connections and that it is exported as a csv matrix
+     */
+    @Test
+    public void asymmetricAndCsvTest() throws IOException {
+        AsymmetricDSMData matrix = new AsymmetricDSMData();
+        matrix.createItem("r1", true);
+        matrix.createItem("r2", true);
+        matrix.createItem("c1", false);
+        matrix.createItem("c2", false);
+        DSMItem r1 = matrix.getRows().get(0);
+        DSMItem c2 = matrix.getCols().get(1);
+        matrix.modifyConnection(r1.getUid(), c2.getUid(), "x", 1.0, new ArrayList<>());
+        MatrixSnapshot snapshot = matrix.getSnapshot();
+
+        ReachabilityAnalysis analysis = ReachabilityAnalysis.compute(snapshot, false);
+        assertMatchesSearch(snapshot, analysis);
+        Assertions.assertEquals(1, analysis.getReachCount(0));
+        Assertions.assertEquals(0, analysis.getReachCount(1));
+
+        StringWriter csv = new StringWriter();
+        analysis.writeCsv(csv);
+        Assertions.assertEquals(",c1,c2\nr1,0,1\nr2,0,0\n", csv.toString());
+
+        // names are taken from the snapshot so items can be renamed or deleted after the analysis
+        matrix.setItemName(r1, "r1, \"first\"");
+        matrix.deleteItem(c2);
+        csv = new StringWriter();
+        analysis.writeCsv(csv);
+        Assertions.assertEquals(",c1,c2\nr1,0,1\nr2,0,0\n", csv.toString());
+
+        ReachabilityAnalysis renamed = ReachabilityAnalysis.compute(matrix.getSnapshot(), false);
+        csv = new StringWriter();
+        renamed.writeCsv(csv);
+        Assertions.assertEquals(",c1\n\"r1, \"\"first\"\"\",0\nr2,0\n", csv.toString());
+    }
+}
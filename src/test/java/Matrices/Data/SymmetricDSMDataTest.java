@@ -1,8 +1,11 @@
 package Matrices.Data;
 
 import Matrices.Data.Entities.DSMConnection;
+import Matrices.Data.Entities.DSMInterfaceType;
 import Matrices.Data.Entities.DSMItem;
 import Matrices.Data.Entities.Grouping;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
 import javafx.scene.paint.Color;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
@@ -10,6 +13,8 @@ import org.junit.jupiter.api.Test;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 
@@ -57,7 +62,8 @@ public class SymmetricDSMDataTest {
         // perform the changes
         matrix.getRows().get(0).setName("-");
         matrix.getRows().get(1).setName("-");
-        matrix.getConnections().get(0).setConnectionName("-");
+        DSMConnection conn = matrix.getConnections().get(0);  // connections are immutable so they are changed through the matrix
+        matrix.modifyConnection(conn.getRowUid(), conn.getColUid(), "-", conn.getWeight(), conn.getInterfaces());
         matrix.setTitle("-");
         matrix.setProjectName("-");
         matrix.setCustomer("-");
@@ -473,4 +479,176 @@ public class SymmetricDSMDataTest {
         Assertions.assertEquals("x", matrix.getSymmetricConnection(1, 33).getConnectionName());
     }
 
+
+    /**
+     * Tests that changing the group of an item reports both the item and its aliased item, and that deleting an item
+     * reports both halves of the symmetric item
+     */
+    @Test
+    public void groupAndRemoveEventsTest() {
+        SymmetricDSMData matrix = new SymmetricDSMData();
+        matrix.createItem("item1", true);
+        matrix.setCurrentStateAsCheckpoint();
+        DSMItem row = matrix.getRows().get(0);
+        DSMItem col = matrix.getCols().get(0);
+
+        ArrayList<String> events = new ArrayList<>();
+        matrix.addChangeListener(new MatrixChangeListener() {
+            @Override
+            public void itemRemoved(DSMItem item, boolean isRow) {
+                events.add("removed " + item.getUid() + " " + isRow);
+            }
+
+            @Override
+            public void itemGroupChanged(DSMItem item, Grouping oldGroup) {
+                events.add("regrouped " + item.getUid() + " " + oldGroup.getName() + " " + item.getGroup1().getName());
+            }
+
+            @Override
+            public void groupingChanged(Grouping grouping) {
+                events.add("grouping " + grouping.getName());
+            }
+        });
+
+        Grouping group = new Grouping("group", null);
+        matrix.setItemGroup(row, group);
+        matrix.setCurrentStateAsCheckpoint();
+        Assertions.assertEquals(Arrays.asList(
+                "grouping group",
+                "regrouped " + row.getUid() + " (none) group",
+                "regrouped " + col.getUid() + " (none) group"
+        ), events);
+
+        events.clear();
+        matrix.deleteItem(row);
+        matrix.setCurrentStateAsCheckpoint();
+        Assertions.assertEquals(Arrays.asList("removed " + row.getUid() + " true", "removed " + col.getUid() + " false"), events);
+    }
+
+
+    /**
+     * Tests that the grouping index follows items through regrouping, removing groupings, deleting items, and undo
+     * and redo of those changes
+     */
+    @Test
+    public void groupingIndexTest() {
+        SymmetricDSMData matrix = new SymmetricDSMData();
+        matrix.createItem("item1", true);
+        matrix.createItem("item2", true);
+        matrix.createItem("item3", true);
+        matrix.setCurrentStateAsCheckpoint();
+        DSMItem item1 = matrix.getRows().get(0);
+        DSMItem item2 = matrix.getRows().get(1);
+        DSMItem item3 = matrix.getRows().get(2);
+        Grouping group = new Grouping("group", null);
+        Assertions.assertEquals(3, matrix.getGroupingSize(matrix.getDefaultGroup()));
+
+        matrix.setItemGroup(item1, group);
+        matrix.setItemGroup(item2, group);
+        matrix.setCurrentStateAsCheckpoint();
+        Assertions.assertEquals(2, matrix.getGroupingSize(group));
+        Assertions.assertEquals(1, matrix.getGroupingSize(matrix.getDefaultGroup()));
+        Assertions.assertEquals(Arrays.asList(item1, item2), new ArrayList<>(matrix.getGroupingMembers(group)));
+
+        matrix.deleteItem(item2);
+        matrix.setCurrentStateAsCheckpoint();
+        Assertions.assertEquals(Collections.singletonList(item1), new ArrayList<>(matrix.getGroupingMembers(group)));
+
+        matrix.removeGrouping(group);
+        matrix.setCurrentStateAsCheckpoint();
+        Assertions.assertEquals(0, matrix.getGroupingSize(group));
+        Assertions.assertEquals(2, matrix.getGroupingSize(matrix.getDefaultGroup()));
+
+        stressUndoRedo(matrix);
+        Assertions.assertEquals(0, matrix.getGroupingSize(group));
+
+        matrix.undoToCheckpoint();  // undo removing the grouping
+        Assertions.assertEquals(1, matrix.getGroupingSize(group));
+        matrix.undoToCheckpoint();  // undo deleting item2
+        Assertions.assertEquals(2, matrix.getGroupingSize(group));
+        matrix.undoToCheckpoint();  // undo regrouping
+        Assertions.assertEquals(0, matrix.getGroupingSize(group));
+        Assertions.assertEquals(3, matrix.getGroupingMembers(matrix.getDefaultGroup()).size());
+        Assertions.assertTrue(matrix.getGroupingMembers(matrix.getDefaultGroup()).containsAll(Arrays.asList(item1, item2, item3)));
+    }
+
+
+    /**
+     * Tests that Thebeau's algorithm gives the same clusters for the same seed, that the returned matrix has the cost
+     * of the best solution, and that the input matrix is not changed
+     */
+    @Test
+    public void thebeauAlgorithmTest() {
+        SymmetricDSMData matrix = new SymmetricDSMData();
+        for(int i = 0; i < 20; i++) {
+            matrix.createItem("item" + i, true);
+        }
+        Random generator = new Random(3);
+        for(int i = 0; i < 60; i++) {
+            int r = generator.nextInt(20);
+            int c = generator.nextInt(20);
+            if(r == c) continue;
+            matrix.modifyConnection(matrix.getRows().get(r).getUid(), matrix.getCols().get(c).getUid(), "x", 1 + generator.nextInt(5), new ArrayList<>());
+        }
+        matrix.setCurrentStateAsCheckpoint();
+        int numGroupings = matrix.getGroupings().size();
+
+        SymmetricDSMData first = SymmetricDSMData.thebeauAlgorithm(matrix, 4.0, 4.0, 4.0, 1.0, 122.0, 122.0, true, 500, 11, false);
+        SymmetricDSMData second = SymmetricDSMData.thebeauAlgorithm(matrix, 4.0, 4.0, 4.0, 1.0, 122.0, 122.0, true, 500, 11, false);
+
+        ClusteringParameters parameters = new ClusteringParameters(4.0, 4.0, 4.0, 1.0, 122.0, 122.0, true, 500);
+        double bestCost = new ThebeauEngine().cluster(matrix.getSnapshot(), parameters, 11, null).getCost();
+        double cost = (Double)SymmetricDSMData.getCoordinationScore(first, 4.0, 1.0, true).get("TotalCost");
+        Assertions.assertEquals(bestCost, cost, 1e-6 * cost);
+        Assertions.assertTrue(bestCost <= (Double)SymmetricDSMData.getCoordinationScore(matrix, 4.0, 1.0, true).get("TotalCost"));
+
+        for(int i = 0; i < 20; i++) {
+            Assertions.assertEquals(first.getRows().get(i).getGroup1().getName(), second.getRows().get(i).getGroup1().getName());
+            Assertions.assertTrue(first.getGroupings().contains(first.getRows().get(i).getGroup1()));
+        }
+        Assertions.assertFalse(first.canUndo());
+        Assertions.assertEquals(numGroupings, matrix.getGroupings().size());
+    }
+
+
+    /**
+     * Tests that copying a matrix does not reorder the groupings of the original, since copies are made under the read
+     * lock and can run off the fx thread
+     */
+    @Test
+    public void copyDoesNotSortGroupingsTest() {
+        SymmetricDSMData matrix = new SymmetricDSMData();
+        ObservableList<Grouping> groupings = matrix.getGroupings();
+        matrix.addGrouping(new Grouping("b", null));
+        matrix.addGrouping(new Grouping("a", null));  // added after b so the list is not sorted
+
+        AtomicInteger changes = new AtomicInteger();
+        groupings.addListener((ListChangeListener<Grouping>) c -> changes.incrementAndGet());
+        SymmetricDSMData copy = matrix.read(matrix::createCopy);
+
+        Assertions.assertEquals(0, changes.get());
+        Assertions.assertEquals("b", groupings.get(groupings.size() - 2).getName());
+        Assertions.assertEquals("a", groupings.get(groupings.size() - 1).getName());
+        Assertions.assertTrue(copy.getGroupings().stream().anyMatch(g -> g.getName().equals("a")));
+    }
+
+
+    /**
+     * Tests that new uids skip the uids of the groupings and interface types of the matrix, not only its items
+     */
+    @Test
+    public void allocateUidSkipsGroupingsAndInterfacesTest() {
+        SymmetricDSMData matrix = new SymmetricDSMData();
+        int first = matrix.allocateUid();
+        matrix.addGrouping(new Grouping(first + 1, Grouping.DEFAULT_PRIORITY, "group", null, Grouping.DEFAULT_FONT_COLOR));
+        matrix.addInterfaceTypeGrouping("interfaces");
+        matrix.addInterface("interfaces", new DSMInterfaceType(first + 2, "interface", "I"));
+        Assertions.assertEquals(first + 3, matrix.allocateUid());
+
+        Grouping group = matrix.createGrouping("new group", null);
+        matrix.addGrouping(group);
+        DSMInterfaceType interfaceType = matrix.createInterfaceType("new interface", "N");
+        Assertions.assertNotEquals(group.getUid(), interfaceType.getUid());
+        Assertions.assertFalse(matrix.getGroupings().stream().anyMatch(g -> g != group && g.getUid().equals(group.getUid())));
+    }
 }